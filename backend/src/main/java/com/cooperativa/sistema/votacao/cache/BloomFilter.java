@@ -0,0 +1,91 @@
+package com.cooperativa.sistema.votacao.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Thread-safe Bloom filter for strings
+ * Answers "definitely not present" or "possibly present"; bits are only ever set,
+ * so concurrent additions never need a lock.
+ */
+public final class BloomFilter {
+
+    private final AtomicLongArray bits;
+    private final long numeroBits;
+    private final int numeroHashes;
+
+    /**
+     * Create a filter sized for the expected number of elements and false positive rate
+     *
+     * @param elementosEsperados Expected number of elements
+     * @param taxaFalsoPositivo Desired false positive rate, between 0 and 1
+     */
+    public BloomFilter(long elementosEsperados, double taxaFalsoPositivo) {
+        long n = Math.max(1, elementosEsperados);
+        long m = (long) Math.ceil(-n * Math.log(taxaFalsoPositivo) / (Math.log(2) * Math.log(2)));
+        this.numeroBits = Math.max(64, m);
+        this.numeroHashes = Math.max(1, (int) Math.round((double) numeroBits / n * Math.log(2)));
+        this.bits = new AtomicLongArray((int) ((numeroBits + 63) / 64));
+    }
+
+    /**
+     * Add an element to the filter
+     *
+     * @param valor Element to add
+     */
+    public void adicionar(String valor) {
+        long hash = hash(valor);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= numeroHashes; i++) {
+            long bit = indice(h1 + i * h2);
+            int palavra = (int) (bit >>> 6);
+            long mascara = 1L << bit;
+            long atual = bits.get(palavra);
+            while ((atual & mascara) == 0 && !bits.compareAndSet(palavra, atual, atual | mascara)) {
+                atual = bits.get(palavra);
+            }
+        }
+    }
+
+    /**
+     * Check if an element may have been added
+     *
+     * @param valor Element to check
+     * @return false if the element was definitely never added, true if it possibly was
+     */
+    public boolean possivelmenteContem(String valor) {
+        long hash = hash(valor);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= numeroHashes; i++) {
+            long bit = indice(h1 + i * h2);
+            if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private long indice(int hashCombinado) {
+        // Double hashing (Kirsch-Mitzenmacher): h1 + i * h2 simulates k independent hashes
+        return (hashCombinado & Integer.MAX_VALUE) % numeroBits;
+    }
+
+    /**
+     * 64-bit FNV-1a over the UTF-8 bytes, finished with the MurmurHash3 mixer
+     */
+    private static long hash(String valor) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : valor.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,201 @@
+package com.cooperativa.sistema.votacao.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.util.concurrent.Callable;
+import java.util.function.BiConsumer;
+import java.util.function.LongSupplier;
+
+/**
+ * Cache with a bounded local level in front of a shared remote one, usually Redis
+ * Reads are answered by the local level when possible; misses read the remote level and keep
+ * the value locally. Writes and evictions go to the remote level first, then to the local one,
+ * and are announced so the other instances drop their local copies of the key.
+ */
+public class CacheDoisNiveis implements Cache {
+
+    private final String nome;
+    private final CacheLocal local;
+    private final Cache remoto;
+    // Receives the name of the cache and the key changed, or null when every key changed
+    private final BiConsumer<String, String> publicarInvalidacao;
+
+    private final Counter acertosLocal;
+    private final Counter acertosRemoto;
+    private final Counter falhas;
+
+    /**
+     * Create the cache
+     *
+     * @param remoto Shared level
+     * @param tamanhoMaximoLocal Maximum number of keys in the local level
+     * @param ttlLocalNanos Time a value is served by the local level without reading the remote one
+     * @param relogio Source of System.nanoTime-like readings
+     * @param publicarInvalidacao Announces a changed key (null for all of them) to the other instances
+     * @param meterRegistry Registry of the hit, miss and eviction meters
+     */
+    public CacheDoisNiveis(Cache remoto, int tamanhoMaximoLocal, long ttlLocalNanos, LongSupplier relogio,
+                           BiConsumer<String, String> publicarInvalidacao, MeterRegistry meterRegistry) {
+        this.nome = remoto.getName();
+        this.remoto = remoto;
+        this.publicarInvalidacao = publicarInvalidacao;
+
+        this.acertosLocal = contadorRequisicoes(meterRegistry, "local");
+        this.acertosRemoto = contadorRequisicoes(meterRegistry, "remoto");
+        this.falhas = contadorRequisicoes(meterRegistry, "falha");
+        Counter expulsoes = Counter.builder("votacao.cache.local.expulsoes")
+                .description("Chaves removidas do nível local do cache por falta de espaço")
+                .tag("cache", nome)
+                .register(meterRegistry);
+        this.local = new CacheLocal(tamanhoMaximoLocal, ttlLocalNanos, relogio, expulsoes::increment);
+        Gauge.builder("votacao.cache.local.tamanho", local, CacheLocal::tamanho)
+                .description("Chaves no nível local do cache")
+                .tag("cache", nome)
+                .register(meterRegistry);
+    }
+
+    private Counter contadorRequisicoes(MeterRegistry meterRegistry, String nivel) {
+        return Counter.builder("votacao.cache.requisicoes")
+                .description("Consultas ao cache em dois níveis, pelo nível que respondeu")
+                .tag("cache", nome)
+                .tag("nivel", nivel)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String getName() {
+        return nome;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return remoto.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        String chave = chave(key);
+        ValueWrapper valor = local.obter(chave);
+        if (valor != null) {
+            acertosLocal.increment();
+            return valor;
+        }
+        long geracao = local.geracao();
+        valor = remoto.get(key);
+        if (valor == null) {
+            falhas.increment();
+            return null;
+        }
+        acertosRemoto.increment();
+        local.registrar(chave, valor, geracao);
+        return valor;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper valor = get(key);
+        Object conteudo = valor != null ? valor.get() : null;
+        if (conteudo != null && type != null && !type.isInstance(conteudo)) {
+            throw new IllegalStateException("Valor em cache não é do tipo " + type.getName() + ": " + conteudo);
+        }
+        return (T) conteudo;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper valor = get(key);
+        if (valor != null) {
+            return (T) valor.get();
+        }
+        // The remote level loads and stores the value; another instance may hold a copy expired in Redis
+        T carregado = remoto.get(key, valueLoader);
+        String chave = chave(key);
+        local.registrar(chave, new SimpleValueWrapper(carregado));
+        publicarInvalidacao.accept(nome, chave);
+        return carregado;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        String chave = chave(key);
+        remoto.put(key, value);
+        local.registrar(chave, new SimpleValueWrapper(value));
+        publicarInvalidacao.accept(nome, chave);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        String chave = chave(key);
+        ValueWrapper existente = remoto.putIfAbsent(key, value);
+        // The next read keeps whichever value won in the remote level
+        local.remover(chave);
+        if (existente == null) {
+            publicarInvalidacao.accept(nome, chave);
+        }
+        return existente;
+    }
+
+    @Override
+    public void evict(Object key) {
+        String chave = chave(key);
+        remoto.evict(key);
+        local.remover(chave);
+        publicarInvalidacao.accept(nome, chave);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        String chave = chave(key);
+        boolean removido = remoto.evictIfPresent(key);
+        local.remover(chave);
+        publicarInvalidacao.accept(nome, chave);
+        return removido;
+    }
+
+    @Override
+    public void clear() {
+        remoto.clear();
+        local.limpar();
+        publicarInvalidacao.accept(nome, null);
+    }
+
+    @Override
+    public boolean invalidate() {
+        boolean existiam = remoto.invalidate();
+        local.limpar();
+        publicarInvalidacao.accept(nome, null);
+        return existiam;
+    }
+
+    /**
+     * Drop keys from the local level only, after another instance changed them
+     *
+     * @param chave String form of the key, or null to drop every key
+     */
+    public void invalidarLocal(String chave) {
+        if (chave == null) {
+            local.limpar();
+        } else {
+            local.remover(chave);
+        }
+    }
+
+    /**
+     * Number of keys in the local level, including expired entries not yet removed
+     *
+     * @return Number of entries
+     */
+    public int tamanhoLocal() {
+        return local.tamanho();
+    }
+
+    private static String chave(Object key) {
+        return String.valueOf(key);
+    }
+}
@@ -0,0 +1,119 @@
+package com.cooperativa.sistema.votacao.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.transaction.AbstractTransactionSupportingCacheManager;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cache manager of CacheDoisNiveis caches: a bounded local level per instance in front of Redis
+ * Every change is published on a Redis channel as "instance, cache, key"; the other instances
+ * listen to it and drop the key from their local level, so they read the new value from Redis.
+ * Writes and evictions made inside a transaction are applied after it commits, so no instance
+ * caches a value that is about to be rolled back or replaced.
+ */
+@Slf4j
+public class CacheDoisNiveisManager extends AbstractTransactionSupportingCacheManager implements MessageListener {
+
+    private static final char SEPARADOR = '\n';
+    private static final String TODAS_AS_CHAVES = "*";
+    private static final String UMA_CHAVE = "=";
+
+    private final CacheManager redis;
+    private final StringRedisTemplate redisTemplate;
+    private final String canal;
+    private final String instancia;
+    private final int tamanhoMaximoLocal;
+    private final long ttlLocalNanos;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, CacheDoisNiveis> caches = new ConcurrentHashMap<>();
+
+    /**
+     * Create the manager
+     *
+     * @param redis Manager of the Redis caches, the shared level
+     * @param redisTemplate Template used to publish the invalidations
+     * @param canal Redis channel of the invalidations
+     * @param instancia Identifier of this instance, to ignore its own invalidations
+     * @param tamanhoMaximoLocal Maximum number of keys in the local level of each cache
+     * @param ttlLocalSegundos Time a value is served by the local level without reading Redis
+     * @param meterRegistry Registry of the cache meters
+     */
+    public CacheDoisNiveisManager(CacheManager redis, StringRedisTemplate redisTemplate, String canal,
+                                  String instancia, int tamanhoMaximoLocal, long ttlLocalSegundos,
+                                  MeterRegistry meterRegistry) {
+        this.redis = redis;
+        this.redisTemplate = redisTemplate;
+        this.canal = canal;
+        this.instancia = instancia;
+        this.tamanhoMaximoLocal = tamanhoMaximoLocal;
+        this.ttlLocalNanos = TimeUnit.SECONDS.toNanos(ttlLocalSegundos);
+        this.meterRegistry = meterRegistry;
+        setTransactionAware(true);
+    }
+
+    @Override
+    protected Collection<? extends Cache> loadCaches() {
+        // Caches are created on first use, with the names of the @Cacheable annotations
+        return List.of();
+    }
+
+    @Override
+    protected Cache getMissingCache(String name) {
+        Cache remoto = redis.getCache(name);
+        if (remoto == null) {
+            return null;
+        }
+        return caches.computeIfAbsent(name, nome -> new CacheDoisNiveis(remoto, tamanhoMaximoLocal, ttlLocalNanos,
+                System::nanoTime, this::publicarInvalidacao, meterRegistry));
+    }
+
+    /**
+     * Drop from the local level a key changed by another instance
+     *
+     * @param message Invalidation published on the channel
+     * @param pattern Pattern of the subscription, unused
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] partes = new String(message.getBody(), StandardCharsets.UTF_8).split(String.valueOf(SEPARADOR), 3);
+        if (partes.length < 3 || instancia.equals(partes[0])) {
+            return;
+        }
+        CacheDoisNiveis cache = caches.get(partes[1]);
+        if (cache == null) {
+            return;
+        }
+        String chave = partes[2].startsWith(UMA_CHAVE) ? partes[2].substring(UMA_CHAVE.length()) : null;
+        log.debug("Invalidação do cache {} recebida da instância {}: {}", partes[1], partes[0],
+                chave != null ? chave : "todas as chaves");
+        cache.invalidarLocal(chave);
+        Counter.builder("votacao.cache.invalidacoes.recebidas")
+                .description("Invalidações do nível local recebidas de outras instâncias")
+                .tag("cache", partes[1])
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private void publicarInvalidacao(String cache, String chave) {
+        String mensagem = instancia + SEPARADOR + cache + SEPARADOR + (chave != null ? UMA_CHAVE + chave : TODAS_AS_CHAVES);
+        try {
+            redisTemplate.convertAndSend(canal, mensagem);
+        } catch (RuntimeException e) {
+            // The other instances serve their local copy until its TTL ends
+            log.warn("Não foi possível publicar a invalidação do cache {}: {}", cache, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.cooperativa.sistema.votacao.cache;
+
+import org.springframework.cache.Cache.ValueWrapper;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Bounded in-process level of a CacheDoisNiveis, keyed by the string form of the cache key
+ * Entries expire after a fixed TTL, which bounds how long an instance may serve a value whose
+ * invalidation message was lost. When full, the least recently used key is evicted.
+ */
+final class CacheLocal {
+
+    private final int tamanhoMaximo;
+    private final long ttlNanos;
+    private final LongSupplier relogio;
+    private final Runnable aoExpulsar;
+    private final Map<String, Entrada> entradas;
+    // Bumped by every removal, so a value read from Redis before an invalidation is not cached after it
+    private long geracao;
+    // Guards the entries and geracao; in access order, every lookup moves the entry to the end
+    private final ReentrantLock trava = new ReentrantLock();
+
+    CacheLocal(int tamanhoMaximo, long ttlNanos, LongSupplier relogio, Runnable aoExpulsar) {
+        this.tamanhoMaximo = tamanhoMaximo;
+        this.ttlNanos = ttlNanos;
+        this.relogio = relogio;
+        this.aoExpulsar = aoExpulsar;
+        // Access order turns the map into an LRU list
+        this.entradas = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entrada> maisAntiga) {
+                if (size() > CacheLocal.this.tamanhoMaximo) {
+                    CacheLocal.this.aoExpulsar.run();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Get a cached value
+     *
+     * @param chave Key of the value
+     * @return Wrapped value, or null if the key is not cached or its entry expired
+     */
+    ValueWrapper obter(String chave) {
+        trava.lock();
+        try {
+            Entrada entrada = entradas.get(chave);
+            if (entrada != null && entrada.expiraEm() - relogio.getAsLong() <= 0) {
+                entradas.remove(chave);
+                return null;
+            }
+            return entrada != null ? entrada.valor() : null;
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    /**
+     * Current generation, to be read before loading a value from the remote level
+     *
+     * @return Number of removals so far
+     */
+    long geracao() {
+        trava.lock();
+        try {
+            return geracao;
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    void registrar(String chave, ValueWrapper valor) {
+        registrar(chave, valor, -1);
+    }
+
+    /**
+     * Cache a value loaded from the remote level, unless something was removed since it was read
+     *
+     * @param chave Key of the value
+     * @param valor Wrapped value
+     * @param geracaoLeitura Generation read before loading the value, or -1 to cache it anyway
+     */
+    void registrar(String chave, ValueWrapper valor, long geracaoLeitura) {
+        if (ttlNanos <= 0 || tamanhoMaximo <= 0) {
+            return;
+        }
+        trava.lock();
+        try {
+            if (geracaoLeitura < 0 || geracaoLeitura == geracao) {
+                entradas.put(chave, new Entrada(valor, relogio.getAsLong() + ttlNanos));
+            }
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    void remover(String chave) {
+        trava.lock();
+        try {
+            geracao++;
+            entradas.remove(chave);
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    void limpar() {
+        trava.lock();
+        try {
+            geracao++;
+            entradas.clear();
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    /**
+     * Number of cached keys, including expired entries not yet removed
+     *
+     * @return Number of entries
+     */
+    int tamanho() {
+        trava.lock();
+        try {
+            return entradas.size();
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    private record Entrada(ValueWrapper valor, long expiraEm) {
+    }
+}
@@ -0,0 +1,155 @@
+package com.cooperativa.sistema.votacao.cache;
+
+import com.cooperativa.sistema.votacao.domain.OpcaoVoto;
+import com.cooperativa.sistema.votacao.domain.SessaoVotacao;
+import com.cooperativa.sistema.votacao.repository.SessaoVotacaoRepository;
+import com.cooperativa.sistema.votacao.repository.VotoRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory registry of live vote tallies for open voting sessions
+ * Counters are striped (LongAdder) so concurrent votes never contend on a single value.
+ * The tallies are only used for partial results; the final result is always counted from the database.
+ */
+@Component
+@Slf4j
+public class ContagemVotosRegistry {
+
+    private final VotoRepository votoRepository;
+    private final SessaoVotacaoRepository sessaoRepository;
+    private final Map<Long, Contagem> contagens = new ConcurrentHashMap<>();
+
+    @Autowired
+    public ContagemVotosRegistry(VotoRepository votoRepository, SessaoVotacaoRepository sessaoRepository) {
+        this.votoRepository = votoRepository;
+        this.sessaoRepository = sessaoRepository;
+    }
+
+    /**
+     * Rebuild the tallies of every open session when the application starts
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void carregarSessoesAbertas() {
+        List<SessaoVotacao> sessoesAbertas = sessaoRepository.findByEncerradaFalse();
+        sessoesAbertas.forEach(sessao -> reconstruir(sessao.getId()));
+        log.info("Contagens parciais carregadas para {} sessões abertas", sessoesAbertas.size());
+    }
+
+    /**
+     * Get the current tally of a session, loading it from the database on a miss
+     *
+     * @param sessaoId ID of the voting session
+     * @return Snapshot of the tally
+     */
+    public ContagemVotos obter(Long sessaoId) {
+        return contagens.computeIfAbsent(sessaoId, this::carregar).snapshot();
+    }
+
+    /**
+     * Count a vote from inside the transaction that writes it, or a vote already written when
+     * there is no transaction. Sessions not yet loaded are ignored, since the next read loads
+     * them from the database including this vote.
+     * The increment is undone if the transaction rolls back. A tally loaded while the transaction
+     * was in progress may or may not include the vote, depending on when its query ran, so after
+     * the commit it is discarded and the next read loads it again.
+     *
+     * @param sessaoId ID of the voting session
+     * @param opcao Vote option
+     */
+    public void registrar(Long sessaoId, OpcaoVoto opcao) {
+        // computeIfPresent waits for a load in progress, so a vote committed after its query is not lost
+        Contagem contada = contagens.computeIfPresent(sessaoId, (id, contagem) -> {
+            contagem.incrementar(opcao);
+            return contagem;
+        });
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    if (contada != null) {
+                        contada.adicionar(opcao, -1);
+                    }
+                    return;
+                }
+                Contagem atual = contagens.get(sessaoId);
+                if (atual != null && atual != contada) {
+                    contagens.remove(sessaoId, atual);
+                }
+            }
+        });
+    }
+
+    /**
+     * Discard the current tally of a session and load it again from the database
+     *
+     * @param sessaoId ID of the voting session
+     */
+    public void reconstruir(Long sessaoId) {
+        // Loaded inside compute, so votes registered meanwhile wait for the new tally instead of updating the old one
+        contagens.compute(sessaoId, (id, anterior) -> carregar(id));
+    }
+
+    /**
+     * Discard the tally of a session, e.g. when it is closed
+     *
+     * @param sessaoId ID of the voting session
+     */
+    public void remover(Long sessaoId) {
+        contagens.remove(sessaoId);
+    }
+
+    private Contagem carregar(Long sessaoId) {
+        log.debug("Carregando contagem de votos da sessão {} do banco de dados", sessaoId);
+        Contagem contagem = new Contagem();
+        for (Object[] linha : votoRepository.countVotosBySessaoId(sessaoId)) {
+            contagem.adicionar((OpcaoVoto) linha[0], ((Number) linha[1]).longValue());
+        }
+        return contagem;
+    }
+
+    /**
+     * Immutable snapshot of the tally of a session
+     */
+    public record ContagemVotos(long votosSim, long votosNao) {
+
+        public long totalVotos() {
+            return votosSim + votosNao;
+        }
+    }
+
+    private static final class Contagem {
+
+        private final LongAdder sim = new LongAdder();
+        private final LongAdder nao = new LongAdder();
+
+        void incrementar(OpcaoVoto opcao) {
+            adicionar(opcao, 1);
+        }
+
+        void adicionar(OpcaoVoto opcao, long quantidade) {
+            if (opcao == OpcaoVoto.SIM) {
+                sim.add(quantidade);
+            } else {
+                nao.add(quantidade);
+            }
+        }
+
+        ContagemVotos snapshot() {
+            return new ContagemVotos(sim.sum(), nao.sum());
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.cooperativa.sistema.votacao.cache;
+
+import com.cooperativa.sistema.votacao.repository.AssociadoRepository;
+import com.cooperativa.sistema.votacao.repository.VotoRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory registry of one Bloom filter per open voting session, holding the associates that already voted
+ * Lets the duplicate-vote check answer "definitely not voted" without a database round trip.
+ * Votes committed by other instances are not seen by this filter; the unique constraint of
+ * the voto table still rejects those duplicates.
+ */
+@Component
+@Slf4j
+public class FiltroVotosRegistry {
+
+    private static final long ELEMENTOS_MINIMOS = 1024;
+
+    private final VotoRepository votoRepository;
+    private final AssociadoRepository associadoRepository;
+    private final double taxaFalsoPositivo;
+    private final Map<Long, BloomFilter> filtros = new ConcurrentHashMap<>();
+
+    @Autowired
+    public FiltroVotosRegistry(
+            VotoRepository votoRepository,
+            AssociadoRepository associadoRepository,
+            @Value("${votacao.filtro-votos.taxa-falso-positivo:0.01}") double taxaFalsoPositivo) {
+        this.votoRepository = votoRepository;
+        this.associadoRepository = associadoRepository;
+        this.taxaFalsoPositivo = taxaFalsoPositivo;
+    }
+
+    /**
+     * Check if an associate may have voted in a session, loading the session filter on a miss
+     *
+     * @param sessaoId ID of the voting session
+     * @param idAssociado ID of the associate
+     * @return false if the associate definitely has not voted, true if the database must be checked
+     */
+    public boolean possivelmenteVotou(Long sessaoId, String idAssociado) {
+        return filtros.computeIfAbsent(sessaoId, this::carregar).possivelmenteContem(idAssociado);
+    }
+
+    /**
+     * Add a committed vote to the filter of its session. Sessions not yet loaded are ignored,
+     * since the next check loads them from the database including this vote.
+     *
+     * @param sessaoId ID of the voting session
+     * @param idAssociado ID of the associate
+     */
+    public void registrar(Long sessaoId, String idAssociado) {
+        // computeIfPresent waits for a load in progress, so the vote is never lost between the query and the put
+        filtros.computeIfPresent(sessaoId, (id, filtro) -> {
+            filtro.adicionar(idAssociado);
+            return filtro;
+        });
+    }
+
+    /**
+     * Discard the filter of a session, e.g. when it is closed
+     *
+     * @param sessaoId ID of the voting session
+     */
+    public void remover(Long sessaoId) {
+        filtros.remove(sessaoId);
+    }
+
+    private BloomFilter carregar(Long sessaoId) {
+        List<String> associados = votoRepository.findIdAssociadoBySessaoVotacaoId(sessaoId);
+        long elementosEsperados = Math.max(ELEMENTOS_MINIMOS,
+                Math.max(associadoRepository.countByAtivoTrue(), associados.size() * 2L));
+
+        BloomFilter filtro = new BloomFilter(elementosEsperados, taxaFalsoPositivo);
+        associados.forEach(filtro::adicionar);
+
+        log.debug("Filtro de votos da sessão {} carregado com {} votos (capacidade: {})",
+                sessaoId, associados.size(), elementosEsperados);
+        return filtro;
+    }
+}
@@ -0,0 +1,148 @@
+package com.cooperativa.sistema.votacao.cache;
+
+import com.cooperativa.sistema.votacao.domain.SessaoVotacao;
+import com.cooperativa.sistema.votacao.exception.ResourceNotFoundException;
+import com.cooperativa.sistema.votacao.repository.SessaoVotacaoRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory registry of the voting window of each open session
+ * Lets the vote path check if a session is open without loading the session entity.
+ * A session closed here keeps its window, marked closed, instead of losing it: a load started
+ * while the session was still open in the database only fills a missing entry, so it can never
+ * bring the session back as open. A window that is still open is confirmed against the
+ * encerrada flag in the database on every read, so a session closed manually by another
+ * instance stops taking votes here as soon as that close commits. Windows past their closing
+ * time are dropped whenever a new one is added, so the registry only holds recent sessions.
+ */
+@Component
+@Slf4j
+public class JanelaSessaoRegistry {
+
+    private final SessaoVotacaoRepository sessaoRepository;
+    private final Map<Long, JanelaSessao> janelas = new ConcurrentHashMap<>();
+
+    @Autowired
+    public JanelaSessaoRegistry(SessaoVotacaoRepository sessaoRepository) {
+        this.sessaoRepository = sessaoRepository;
+    }
+
+    /**
+     * Get the voting window of a session, loading it from the database on a miss
+     *
+     * @param sessaoId ID of the voting session
+     * @return Voting window of the session
+     * @throws ResourceNotFoundException if session not found
+     */
+    public JanelaSessao obter(Long sessaoId) {
+        LocalDateTime agora = LocalDateTime.now();
+        JanelaSessao janela = janelas.get(sessaoId);
+        if (janela == null) {
+            janela = carregar(sessaoId, agora);
+        }
+        if (!janela.isAberta(agora)) {
+            return janela;
+        }
+
+        // Closed by another instance: keep the window closed here from now on
+        if (Boolean.TRUE.equals(sessaoRepository.findEncerradaById(sessaoId))) {
+            log.debug("Sessão {} encerrada por outra instância", sessaoId);
+            JanelaSessao encerrada = janelas.computeIfPresent(sessaoId, (id, atual) -> atual.encerrar());
+            return encerrada != null ? encerrada : janela.encerrar();
+        }
+        return janela;
+    }
+
+    private JanelaSessao carregar(Long sessaoId, LocalDateTime agora) {
+        SessaoVotacao sessao = sessaoRepository.findById(sessaoId)
+                .orElseThrow(() -> new ResourceNotFoundException("Sessão de votação não encontrada com o ID: " + sessaoId));
+        removerExpiradas(agora);
+        JanelaSessao janela = JanelaSessao.de(sessao);
+        // putIfAbsent: a session closed while it was being loaded keeps its closed window
+        JanelaSessao atual = janelas.putIfAbsent(sessaoId, janela);
+        return atual != null ? atual : janela;
+    }
+
+    /**
+     * Keep the voting window of a newly opened session
+     *
+     * @param sessao Opened session
+     */
+    public void registrar(SessaoVotacao sessao) {
+        removerExpiradas(LocalDateTime.now());
+        janelas.put(sessao.getId(), JanelaSessao.de(sessao));
+        log.debug("Janela da sessão {} registrada até {}", sessao.getId(), sessao.getDataFechamento());
+    }
+
+    /**
+     * Mark the voting window of a session as closed, before the session is closed in the database
+     * Inside a transaction the mark is discarded if the transaction rolls back, so the session is
+     * loaded again from the database as it was left. A mark without dates, for a session never
+     * loaded here, is dropped once the close commits and the database answers for it.
+     *
+     * @param sessaoId ID of the voting session
+     */
+    public void encerrar(Long sessaoId) {
+        JanelaSessao encerrada = janelas.compute(sessaoId, (id, janela) -> janela == null
+                ? new JanelaSessao(id, null, null, true)
+                : janela.encerrar());
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED || encerrada.dataFechamento() == null) {
+                        janelas.remove(sessaoId, encerrada);
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * Number of windows held, open or closed
+     *
+     * @return Number of windows
+     */
+    public int tamanho() {
+        return janelas.size();
+    }
+
+    // A window past its closing time answers closed whatever a later load brings back
+    private void removerExpiradas(LocalDateTime agora) {
+        janelas.values().removeIf(janela -> janela.dataFechamento() != null && !agora.isBefore(janela.dataFechamento()));
+    }
+
+    /**
+     * Voting window of a session
+     */
+    public record JanelaSessao(Long id, LocalDateTime dataAbertura, LocalDateTime dataFechamento, boolean encerrada) {
+
+        static JanelaSessao de(SessaoVotacao sessao) {
+            return new JanelaSessao(sessao.getId(), sessao.getDataAbertura(), sessao.getDataFechamento(),
+                    Boolean.TRUE.equals(sessao.getEncerrada()));
+        }
+
+        JanelaSessao encerrar() {
+            return encerrada ? this : new JanelaSessao(id, dataAbertura, dataFechamento, true);
+        }
+
+        /**
+         * Same rule as {@link SessaoVotacao#isAberta()}, evaluated at a single instant
+         * The dates of a session closed before its window was ever loaded are unknown (null).
+         *
+         * @param agora Current time
+         * @return true if the session accepts votes at the given time
+         */
+        public boolean isAberta(LocalDateTime agora) {
+            return !encerrada && agora.isAfter(dataAbertura) && agora.isBefore(dataFechamento);
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.cooperativa.sistema.votacao.cache;
+
+import com.cooperativa.sistema.votacao.dto.ResultadoVotacaoDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Time-bucketed cache of the partial results of open sessions (stale-while-revalidate)
+ * Time is split in windows of janela-ms. A result calculated in one window is served as is until
+ * the window ends; after that the first reader starts one recalculation in the background and
+ * every reader keeps getting the previous result until it finishes. So results are at most about
+ * one window old, each session is recalculated at most once per window however many dashboards
+ * poll it, and only the first read of a session waits for the calculation.
+ */
+@Component
+@Slf4j
+public class ResultadosParciaisCache implements DisposableBean {
+
+    private final long janelaNanos;
+    private final LongSupplier relogio;
+    private final Executor recalculos;
+    private final Map<Long, Entrada> entradas = new ConcurrentHashMap<>();
+
+    private final Counter recentes;
+    private final Counter desatualizados;
+    private final Counter ausentes;
+    private final Timer duracaoRecalculo;
+
+    @Autowired
+    public ResultadosParciaisCache(MeterRegistry meterRegistry,
+                                   @Value("${votacao.resultados.parciais.janela-ms:1000}") long janelaMs) {
+        this(meterRegistry, janelaMs, System::nanoTime,
+                Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("resultado-parcial-", 0).factory()));
+    }
+
+    ResultadosParciaisCache(MeterRegistry meterRegistry, long janelaMs, LongSupplier relogio, Executor recalculos) {
+        this.janelaNanos = TimeUnit.MILLISECONDS.toNanos(janelaMs);
+        this.relogio = relogio;
+        this.recalculos = recalculos;
+        this.recentes = contadorRequisicoes(meterRegistry, "recente");
+        this.desatualizados = contadorRequisicoes(meterRegistry, "desatualizado");
+        this.ausentes = contadorRequisicoes(meterRegistry, "ausente");
+        this.duracaoRecalculo = Timer.builder("votacao.resultados.parciais.recalculo")
+                .description("Tempo do recálculo de um resultado parcial em segundo plano")
+                .register(meterRegistry);
+    }
+
+    private static Counter contadorRequisicoes(MeterRegistry meterRegistry, String resultado) {
+        return Counter.builder("votacao.resultados.parciais.requisicoes")
+                .description("Consultas ao cache de resultados parciais")
+                .tag("resultado", resultado)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Get the partial result of a session
+     *
+     * @param sessaoId ID of the voting session
+     * @param calcular Calculates the partial result, or returns null once the session is closed;
+     *                 called by the caller on a miss and by a background thread on a refresh
+     * @return Partial result, possibly from the previous window, or null if the session is closed
+     */
+    public ResultadoVotacaoDTO obter(Long sessaoId, Supplier<ResultadoVotacaoDTO> calcular) {
+        if (janelaNanos <= 0) {
+            return calcular.get();
+        }
+        Entrada entrada = entradas.get(sessaoId);
+        if (entrada == null) {
+            ausentes.increment();
+            long janela = janelaAtual();
+            ResultadoVotacaoDTO resultado = calcular.get();
+            if (resultado != null) {
+                entradas.putIfAbsent(sessaoId, new Entrada(resultado, janela));
+            }
+            return resultado;
+        }
+        if (entrada.janela() >= janelaAtual()) {
+            recentes.increment();
+        } else {
+            desatualizados.increment();
+            if (entrada.recalculando().compareAndSet(false, true)) {
+                recalculos.execute(() -> recalcular(sessaoId, entrada, calcular));
+            }
+        }
+        return entrada.resultado();
+    }
+
+    /**
+     * Whether a partial result of the session is cached, i.e. the session was open when last calculated
+     *
+     * @param sessaoId ID of the voting session
+     * @return true if obter answers the session without calculating
+     */
+    public boolean contem(Long sessaoId) {
+        return entradas.containsKey(sessaoId);
+    }
+
+    /**
+     * Discard the partial result of a session, e.g. when it is closed
+     * Inside a transaction it is discarded again after commit, since a reader may have
+     * calculated it meanwhile while the session was still open in the database.
+     *
+     * @param sessaoId ID of the voting session
+     */
+    public void remover(Long sessaoId) {
+        entradas.remove(sessaoId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    entradas.remove(sessaoId);
+                }
+            });
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (recalculos instanceof ExecutorService executor) {
+            executor.shutdownNow();
+        }
+    }
+
+    private void recalcular(Long sessaoId, Entrada anterior, Supplier<ResultadoVotacaoDTO> calcular) {
+        long inicio = relogio.getAsLong();
+        long janela = janelaAtual();
+        try {
+            ResultadoVotacaoDTO resultado = calcular.get();
+            // Only replaces the entry that triggered it, so a session removed meanwhile stays removed
+            if (resultado == null) {
+                entradas.remove(sessaoId, anterior);
+            } else {
+                entradas.replace(sessaoId, anterior, new Entrada(resultado, janela));
+            }
+        } catch (RuntimeException e) {
+            // The previous result keeps being served and the next reader tries again
+            anterior.recalculando().set(false);
+            log.warn("Falha ao recalcular o resultado parcial da sessão {}: {}", sessaoId, e.getMessage());
+        } finally {
+            duracaoRecalculo.record(relogio.getAsLong() - inicio, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private long janelaAtual() {
+        return Math.floorDiv(relogio.getAsLong(), janelaNanos);
+    }
+
+    private record Entrada(ResultadoVotacaoDTO resultado, long janela, AtomicBoolean recalculando) {
+
+        Entrada(ResultadoVotacaoDTO resultado, long janela) {
+            this(resultado, janela, new AtomicBoolean());
+        }
+    }
+}
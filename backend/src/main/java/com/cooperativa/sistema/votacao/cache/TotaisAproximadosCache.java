@@ -0,0 +1,86 @@
+package com.cooperativa.sistema.votacao.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongSupplier;
+
+/**
+ * Cached row counts of the listings, returned as the approximate total of cursor pages
+ * A COUNT(*) over a large table costs about as much as reading it, so each listing is counted at
+ * most once per ttl-s. When the count expires, one reader counts again while the others keep
+ * getting the previous total; only the first read of a listing waits for the count.
+ */
+@Component
+public class TotaisAproximadosCache {
+
+    private final long ttlNanos;
+    private final LongSupplier relogio;
+    private final Map<String, Entrada> totais = new ConcurrentHashMap<>();
+
+    private final Counter acertos;
+    private final Counter contagens;
+
+    @Autowired
+    public TotaisAproximadosCache(MeterRegistry meterRegistry,
+                                  @Value("${votacao.paginacao.total-aproximado.ttl-s:60}") long ttlSegundos) {
+        this(meterRegistry, ttlSegundos, System::nanoTime);
+    }
+
+    TotaisAproximadosCache(MeterRegistry meterRegistry, long ttlSegundos, LongSupplier relogio) {
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSegundos);
+        this.relogio = relogio;
+        this.acertos = contadorRequisicoes(meterRegistry, "acerto");
+        this.contagens = contadorRequisicoes(meterRegistry, "contagem");
+    }
+
+    private static Counter contadorRequisicoes(MeterRegistry meterRegistry, String resultado) {
+        return Counter.builder("votacao.paginacao.totais.requisicoes")
+                .description("Consultas ao total aproximado das listagens")
+                .tag("resultado", resultado)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Get the approximate total of a listing
+     *
+     * @param listagem Name of the listing, e.g. the table it counts
+     * @param contar Counts the rows of the listing; called on a miss or once the count expires
+     * @return Total counted at most ttl-s ago
+     */
+    public long obter(String listagem, LongSupplier contar) {
+        Entrada entrada = totais.get(listagem);
+        long agora = relogio.getAsLong();
+        if (entrada != null
+                && (agora - entrada.contadoEm() < ttlNanos || !entrada.recontando().compareAndSet(false, true))) {
+            acertos.increment();
+            return entrada.total();
+        }
+        contagens.increment();
+        try {
+            long total = contar.getAsLong();
+            totais.put(listagem, new Entrada(total, agora));
+            return total;
+        } catch (RuntimeException e) {
+            // The previous total keeps being served and the next reader counts again
+            if (entrada != null) {
+                entrada.recontando().set(false);
+            }
+            throw e;
+        }
+    }
+
+    private record Entrada(long total, long contadoEm, AtomicBoolean recontando) {
+
+        Entrada(long total, long contadoEm) {
+            this(total, contadoEm, new AtomicBoolean());
+        }
+    }
+}
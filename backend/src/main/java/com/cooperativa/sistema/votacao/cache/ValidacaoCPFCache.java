@@ -0,0 +1,181 @@
+package com.cooperativa.sistema.votacao.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Bounded TTL cache of CPF validation outcomes, keyed by CPF
+ * Each outcome has its own TTL: an invalid CPF never becomes valid, while an associate
+ * unable to vote may become able soon. When full, the least recently used CPF is evicted.
+ */
+@Component
+@Slf4j
+public class ValidacaoCPFCache {
+
+    /**
+     * Outcome of the validation of a CPF
+     */
+    public enum ResultadoValidacaoCPF {
+        APTO,
+        INAPTO,
+        INVALIDO
+    }
+
+    private final Map<ResultadoValidacaoCPF, Long> ttlNanos;
+    private final int tamanhoMaximo;
+    private final LongSupplier relogio;
+    private final Map<String, Entrada> entradas;
+    // Taken even to read: in access order, every lookup moves the entry to the end
+    private final ReentrantLock trava = new ReentrantLock();
+
+    private final Counter acertos;
+    private final Counter falhas;
+    private final Counter expulsoes;
+
+    @Autowired
+    public ValidacaoCPFCache(
+            MeterRegistry meterRegistry,
+            @Value("${votacao.cpf.cache.tamanho-maximo:100000}") int tamanhoMaximo,
+            @Value("${votacao.cpf.cache.ttl-apto-s:600}") long ttlAptoSegundos,
+            @Value("${votacao.cpf.cache.ttl-inapto-s:60}") long ttlInaptoSegundos,
+            @Value("${votacao.cpf.cache.ttl-invalido-s:86400}") long ttlInvalidoSegundos) {
+        this(meterRegistry, tamanhoMaximo, ttlAptoSegundos, ttlInaptoSegundos, ttlInvalidoSegundos, System::nanoTime);
+    }
+
+    ValidacaoCPFCache(MeterRegistry meterRegistry, int tamanhoMaximo,
+                      long ttlAptoSegundos, long ttlInaptoSegundos, long ttlInvalidoSegundos,
+                      LongSupplier relogio) {
+        this.tamanhoMaximo = tamanhoMaximo;
+        this.relogio = relogio;
+        this.ttlNanos = Map.of(
+                ResultadoValidacaoCPF.APTO, TimeUnit.SECONDS.toNanos(ttlAptoSegundos),
+                ResultadoValidacaoCPF.INAPTO, TimeUnit.SECONDS.toNanos(ttlInaptoSegundos),
+                ResultadoValidacaoCPF.INVALIDO, TimeUnit.SECONDS.toNanos(ttlInvalidoSegundos));
+        // Access order turns the map into an LRU list
+        this.entradas = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entrada> maisAntiga) {
+                if (size() > ValidacaoCPFCache.this.tamanhoMaximo) {
+                    ValidacaoCPFCache.this.expulsoes.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+
+        this.acertos = Counter.builder("votacao.cpf.cache.requisicoes")
+                .description("Consultas ao cache de validação de CPF")
+                .tag("resultado", "acerto")
+                .register(meterRegistry);
+        this.falhas = Counter.builder("votacao.cpf.cache.requisicoes")
+                .description("Consultas ao cache de validação de CPF")
+                .tag("resultado", "falha")
+                .register(meterRegistry);
+        this.expulsoes = Counter.builder("votacao.cpf.cache.expulsoes")
+                .description("CPFs removidos do cache por falta de espaço")
+                .register(meterRegistry);
+        Gauge.builder("votacao.cpf.cache.tamanho", this, ValidacaoCPFCache::tamanho)
+                .description("CPFs no cache de validação")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Get the cached outcome of a CPF
+     *
+     * @param cpf CPF to look up
+     * @return Outcome, or empty if the CPF was never validated or its entry expired
+     */
+    public Optional<ResultadoValidacaoCPF> obter(String cpf) {
+        trava.lock();
+        try {
+            Entrada entrada = entradas.get(cpf);
+            if (entrada != null && entrada.expiraEm() - relogio.getAsLong() <= 0) {
+                entradas.remove(cpf);
+                entrada = null;
+            }
+            if (entrada == null) {
+                falhas.increment();
+                return Optional.empty();
+            }
+            acertos.increment();
+            return Optional.of(entrada.resultado());
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    /**
+     * Cache the outcome of a CPF validation
+     *
+     * @param cpf Validated CPF
+     * @param resultado Outcome of the validation
+     */
+    public void registrar(String cpf, ResultadoValidacaoCPF resultado) {
+        long ttl = ttlNanos.get(resultado);
+        if (ttl <= 0) {
+            return;
+        }
+        trava.lock();
+        try {
+            entradas.put(cpf, new Entrada(resultado, relogio.getAsLong() + ttl));
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    /**
+     * Evict a CPF, e.g. after the associate's situation changed
+     *
+     * @param cpf CPF to evict
+     */
+    public void invalidar(String cpf) {
+        trava.lock();
+        try {
+            entradas.remove(cpf);
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    /**
+     * Evict every CPF
+     */
+    public void invalidarTodos() {
+        trava.lock();
+        try {
+            entradas.clear();
+        } finally {
+            trava.unlock();
+        }
+        log.info("Cache de validação de CPF esvaziado");
+    }
+
+    /**
+     * Number of cached CPFs, including expired entries not yet removed
+     *
+     * @return Number of entries
+     */
+    public int tamanho() {
+        trava.lock();
+        try {
+            return entradas.size();
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    private record Entrada(ResultadoValidacaoCPF resultado, long expiraEm) {
+    }
+}
@@ -0,0 +1,98 @@
+package com.cooperativa.sistema.votacao.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory registry of the vote writes in progress in each session
+ * A write is registered before the session window is checked and concluded once its votes are
+ * in the database or rejected, so closing a session can wait for the writes that saw it open
+ * before tallying its result.
+ */
+@Component
+@Slf4j
+public class VotosPendentesRegistry {
+
+    private final Map<Long, Integer> pendentes = new HashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition concluidos = lock.newCondition();
+
+    /**
+     * Register a write in progress, before checking that the session is open
+     *
+     * @param sessaoId ID of the voting session
+     */
+    public void iniciar(Long sessaoId) {
+        lock.lock();
+        try {
+            pendentes.merge(sessaoId, 1, Integer::sum);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Conclude a write registered with {@link #iniciar(Long)}, whatever its outcome
+     *
+     * @param sessaoId ID of the voting session
+     */
+    public void concluir(Long sessaoId) {
+        lock.lock();
+        try {
+            if (pendentes.computeIfPresent(sessaoId, (id, total) -> total == 1 ? null : total - 1) == null) {
+                concluidos.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Wait until the session has no write in progress, e.g. before counting its result
+     *
+     * @param sessaoId ID of the voting session
+     * @param timeout Maximum time to wait
+     * @return true if there are no writes left in progress for the session
+     */
+    public boolean aguardar(Long sessaoId, Duration timeout) {
+        long restante = timeout.toNanos();
+        lock.lock();
+        try {
+            while (pendentes.containsKey(sessaoId)) {
+                if (restante <= 0) {
+                    log.warn("Ainda há {} gravações de votos em andamento na sessão {}", pendentes.get(sessaoId), sessaoId);
+                    return false;
+                }
+                restante = concluidos.awaitNanos(restante);
+            }
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Number of writes in progress in a session
+     *
+     * @param sessaoId ID of the voting session
+     * @return Writes registered and not yet concluded
+     */
+    public int pendentes(Long sessaoId) {
+        lock.lock();
+        try {
+            return pendentes.getOrDefault(sessaoId, 0);
+        } finally {
+            lock.unlock();
+        }
+    }
+}
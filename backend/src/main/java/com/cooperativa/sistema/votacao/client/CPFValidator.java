@@ -1,77 +1,231 @@
 package com.cooperativa.sistema.votacao.client;
 
+import com.cooperativa.sistema.votacao.cache.ValidacaoCPFCache;
+import com.cooperativa.sistema.votacao.cache.ValidacaoCPFCache.ResultadoValidacaoCPF;
 import com.cooperativa.sistema.votacao.domain.StatusVotacao;
-import com.cooperativa.sistema.votacao.dto.CPFValidationResponse;
 import com.cooperativa.sistema.votacao.exception.AssociadoNaoPodeVotarException;
 import com.cooperativa.sistema.votacao.exception.CPFInvalidoException;
+import com.cooperativa.sistema.votacao.exception.ValidadorCPFIndisponivelException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.HttpStatus;
-import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
-import org.springframework.web.client.HttpClientErrorException;
-import org.springframework.web.client.RestTemplate;
 
+import java.util.List;
 import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Client for validating CPF and checking if an associate can vote
- * This is a fake implementation that returns random results
+ * By default random results are faked before calling the validator; disable them with
+ * votacao.cpf.validador.resultados-aleatorios=false when pointing at a real or stand-in validator.
+ * Faked rejections are never cached, only the answers of the validator itself.
  */
 @Component
 @Slf4j
 public class CPFValidator {
     
-    private final RestTemplate restTemplate;
-    private final String validatorUrl;
+    private final ClienteValidadorCPF cliente;
+    private final ValidacaoCPFCache cache;
+    private final CoalescedorChamadas<StatusVotacao> validacoesEmAndamento;
+    private final ProtecaoValidadorCPF protecao;
+    private final PoliticaFallbackCPF politicaFallback;
+    private final int maxPendentes;
+    private final boolean resultadosAleatorios;
+    private final Set<String> pendentesRevalidacao = ConcurrentHashMap.newKeySet();
+    private final Counter aceitesProvisorios;
+    private final Counter revalidacoesConfirmadas;
+    private final Counter revalidacoesRejeitadas;
     private final Random random = new Random();
     
     public CPFValidator(
-            RestTemplate restTemplate,
-            @Value("${cpf.validator.url}") String validatorUrl) {
-        this.restTemplate = restTemplate;
-        this.validatorUrl = validatorUrl;
+            ClienteValidadorCPF cliente,
+            ValidacaoCPFCache cache,
+            MeterRegistry meterRegistry,
+            ProtecaoValidadorCPF protecao,
+            @Value("${votacao.cpf.validador.fallback:REJEITAR}") PoliticaFallbackCPF politicaFallback,
+            @Value("${votacao.cpf.validador.revalidacao.max-pendentes:10000}") int maxPendentes,
+            @Value("${votacao.cpf.validador.resultados-aleatorios:true}") boolean resultadosAleatorios) {
+        this.cliente = cliente;
+        this.cache = cache;
+        this.validacoesEmAndamento = new CoalescedorChamadas<>(meterRegistry, "votacao.cpf.validacoes");
+        this.protecao = protecao;
+        this.politicaFallback = politicaFallback;
+        this.maxPendentes = maxPendentes;
+        this.resultadosAleatorios = resultadosAleatorios;
+        this.aceitesProvisorios = Counter.builder("votacao.cpf.aceites-provisorios")
+                .description("Votos aceitos sem validação de CPF por indisponibilidade do validador")
+                .register(meterRegistry);
+        this.revalidacoesConfirmadas = Counter.builder("votacao.cpf.revalidacoes")
+                .description("CPFs aceitos provisoriamente e validados depois")
+                .tag("resultado", "confirmado")
+                .register(meterRegistry);
+        this.revalidacoesRejeitadas = Counter.builder("votacao.cpf.revalidacoes")
+                .description("CPFs aceitos provisoriamente e validados depois")
+                .tag("resultado", "rejeitado")
+                .register(meterRegistry);
+        Gauge.builder("votacao.cpf.revalidacoes.pendentes", pendentesRevalidacao, Set::size)
+                .description("CPFs aceitos provisoriamente aguardando revalidação")
+                .register(meterRegistry);
     }
     
     /**
      * Validate a CPF and check if the associate can vote
-     * This is a fake implementation that returns random results
+     * The check digits are verified locally before anything else. Outcomes are cached per CPF,
+     * so the remote validator is called once per associate rather than once per vote. Errors other than an invalid CPF are not cached.
+     * Concurrent validations of the same CPF share a single call to the validator.
+     * When the validator is unavailable the configured fallback policy applies.
      * 
      * @param cpf CPF to validate
      * @return Status of the validation (ABLE_TO_VOTE or UNABLE_TO_VOTE)
      * @throws CPFInvalidoException if the CPF is invalid
      * @throws AssociadoNaoPodeVotarException if the associate cannot vote
+     * @throws ValidadorCPFIndisponivelException if the validator was not called and the policy is REJEITAR
      */
     public StatusVotacao validarCPF(String cpf) {
-        log.info("Validando CPF: {}", cpf);
+        return Futuros.aguardar(validarCPFAsync(cpf));
+    }
+    
+    /**
+     * Start validating a CPF without blocking the caller, e.g. while the vote runs its other checks
+     * Same pipeline as validarCPF; malformed and cached CPFs return an already completed future.
+     * 
+     * @param cpf CPF to validate
+     * @return Future of the status, failed with the exceptions validarCPF would throw
+     */
+    public CompletableFuture<StatusVotacao> validarCPFAsync(String cpf) {
+        // Malformed CPFs are rejected locally, without any network I/O
+        if (!ValidadorDigitosCPF.isValido(cpf)) {
+            log.info("CPF com dígitos verificadores inválidos: {}", cpf);
+            return CompletableFuture.failedFuture(new CPFInvalidoException("CPF inválido"));
+        }
+        String digitos = ValidadorDigitosCPF.normalizar(cpf);
+        
+        ResultadoValidacaoCPF emCache = cache.obter(digitos).orElse(null);
+        if (emCache != null) {
+            return Futuros.chamar(() -> CompletableFuture.completedFuture(reproduzir(emCache)));
+        }
+        
+        return validacoesEmAndamento.executarAsync(digitos, () -> validarComFallback(digitos));
+    }
+    
+    /**
+     * Validate again the CPFs accepted provisionally while the validator was unavailable
+     * Stops at the first CPF the validator still cannot answer, leaving the rest for the next run.
+     * A CPF rejected now does not undo the vote already counted; it is logged for audit.
+     */
+    public void revalidarPendentes() {
+        if (pendentesRevalidacao.isEmpty()) {
+            return;
+        }
+        log.info("Revalidando {} CPFs aceitos provisoriamente", pendentesRevalidacao.size());
         
-        // Simulate a fake CPF validation service
-        try {
-            // 20% chance of the CPF being invalid
-            if (random.nextInt(5) == 0) {
-                log.info("CPF inválido: {}", cpf);
-                throw new CPFInvalidoException("CPF inválido");
+        for (String cpf : List.copyOf(pendentesRevalidacao)) {
+            try {
+                Futuros.aguardar(validarECachear(cpf));
+                revalidacoesConfirmadas.increment();
+            } catch (CPFInvalidoException | AssociadoNaoPodeVotarException e) {
+                revalidacoesRejeitadas.increment();
+                log.warn("CPF {} aceito provisoriamente foi rejeitado na revalidação: {}", cpf, e.getMessage());
+            } catch (RuntimeException e) {
+                log.info("Validador de CPF ainda indisponível, revalidação adiada: {}", e.getMessage());
+                return;
             }
-            
-            // 20% chance of the associate not being able to vote
-            if (random.nextInt(5) == 0) {
-                log.info("Associado não pode votar: {}", cpf);
-                throw new AssociadoNaoPodeVotarException("Associado não pode votar");
+            pendentesRevalidacao.remove(cpf);
+        }
+    }
+    
+    /**
+     * Number of CPFs accepted provisionally and not yet validated again
+     * 
+     * @return Number of pending CPFs
+     */
+    public int getPendentesRevalidacao() {
+        return pendentesRevalidacao.size();
+    }
+    
+    /**
+     * Validate a CPF, applying the fallback policy when the validator cannot answer
+     */
+    private CompletableFuture<StatusVotacao> validarComFallback(String cpf) {
+        return validarECachear(cpf).exceptionally(erro -> {
+            Throwable causa = Futuros.causa(erro);
+            if (causa instanceof CPFInvalidoException || causa instanceof AssociadoNaoPodeVotarException
+                    || politicaFallback == PoliticaFallbackCPF.REJEITAR || pendentesRevalidacao.size() >= maxPendentes) {
+                throw Futuros.relancar(causa);
             }
-            
-            // In a real scenario, we would make an HTTP request to the CPF validator service
-            ResponseEntity<CPFValidationResponse> response = 
-                restTemplate.getForEntity(validatorUrl + "?cpf=" + cpf, CPFValidationResponse.class);
-            
-            // For this fake implementation, we return ABLE_TO_VOTE
-            log.info("CPF válido e associado pode votar: {}", cpf);
+            // Not cached, so the next vote with this CPF tries the validator again
+            pendentesRevalidacao.add(cpf);
+            aceitesProvisorios.increment();
+            log.warn("CPF {} aceito provisoriamente, validador indisponível: {}", cpf, causa.getMessage());
             return StatusVotacao.ABLE_TO_VOTE;
-            
-        } catch (HttpClientErrorException e) {
-            if (e.getStatusCode() == HttpStatus.NOT_FOUND) {
-                throw new CPFInvalidoException("CPF inválido");
+        });
+    }
+    
+    /**
+     * Call the validator through the circuit breaker and cache its outcome before concurrent callers are released
+     */
+    private CompletableFuture<StatusVotacao> validarECachear(String cpf) {
+        // Not cached: a single coin flip must not lock a valid associate out for the whole TTL
+        RuntimeException rejeicaoSimulada = resultadosAleatorios ? simularRejeicao(cpf) : null;
+        if (rejeicaoSimulada != null) {
+            return CompletableFuture.failedFuture(rejeicaoSimulada);
+        }
+        return protecao.executarAsync(() -> consultarValidador(cpf)).whenComplete((status, erro) -> {
+            Throwable causa = erro == null ? null : Futuros.causa(erro);
+            if (causa == null) {
+                cache.registrar(cpf, ResultadoValidacaoCPF.APTO);
+            } else if (causa instanceof CPFInvalidoException) {
+                cache.registrar(cpf, ResultadoValidacaoCPF.INVALIDO);
+            } else if (causa instanceof AssociadoNaoPodeVotarException) {
+                cache.registrar(cpf, ResultadoValidacaoCPF.INAPTO);
             }
-            throw e;
+        });
+    }
+    
+    /**
+     * Answer a validation from its cached outcome, the same way the validator would
+     */
+    private StatusVotacao reproduzir(ResultadoValidacaoCPF resultado) {
+        return switch (resultado) {
+            case APTO -> StatusVotacao.ABLE_TO_VOTE;
+            case INAPTO -> throw new AssociadoNaoPodeVotarException("Associado não pode votar");
+            case INVALIDO -> throw new CPFInvalidoException("CPF inválido");
+        };
+    }
+    
+    /**
+     * Fake a rejection of the CPF validation service, since by default the validator URL points
+     * at a service that does not exist
+     * 
+     * @return The rejection, or null when the CPF goes on to the validator
+     */
+    private RuntimeException simularRejeicao(String cpf) {
+        // 20% chance of the CPF being invalid
+        if (random.nextInt(5) == 0) {
+            log.info("CPF inválido: {}", cpf);
+            return new CPFInvalidoException("CPF inválido");
+        }
+        
+        // 20% chance of the associate not being able to vote
+        if (random.nextInt(5) == 0) {
+            log.info("Associado não pode votar: {}", cpf);
+            return new AssociadoNaoPodeVotarException("Associado não pode votar");
         }
+        return null;
+    }
+    
+    /**
+     * Call the remote CPF validator
+     */
+    private CompletableFuture<StatusVotacao> consultarValidador(String cpf) {
+        log.info("Validando CPF: {}", cpf);
+        
+        // Non-blocking HTTP request to the CPF validator service, possibly batched with other validations
+        return cliente.consultarAsync(cpf);
     }
 }
\ No newline at end of file
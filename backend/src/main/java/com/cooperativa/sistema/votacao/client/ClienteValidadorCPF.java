@@ -0,0 +1,358 @@
+package com.cooperativa.sistema.votacao.client;
+
+import com.cooperativa.sistema.votacao.diagnostico.EventoChamadaValidadorCPF;
+import com.cooperativa.sistema.votacao.domain.StatusVotacao;
+import com.cooperativa.sistema.votacao.dto.CPFValidationBatchItem;
+import com.cooperativa.sistema.votacao.dto.CPFValidationBatchRequest;
+import com.cooperativa.sistema.votacao.dto.CPFValidationBatchResponse;
+import com.cooperativa.sistema.votacao.dto.CPFValidationResponse;
+import com.cooperativa.sistema.votacao.exception.AssociadoNaoPodeVotarException;
+import com.cooperativa.sistema.votacao.exception.CPFInvalidoException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.async.methods.SimpleHttpRequest;
+import org.apache.hc.client5.http.async.methods.SimpleHttpResponse;
+import org.apache.hc.client5.http.async.methods.SimpleRequestBuilder;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.core5.concurrent.FutureCallback;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.HttpHeaders;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestClientResponseException;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * HTTP client of the remote CPF validator
+ * Calls go through a pooled, keep-alive async HTTP client (HTTP/2 where the validator
+ * negotiates it) and return a CompletableFuture, so no thread is held while waiting for the
+ * validator. With micro-batching enabled, the validations that arrive within a short window
+ * are sent together to the batch endpoint ({url}/lote) and the results are handed back to each
+ * waiting caller. A batch is sent early once it reaches the maximum size. If the validator has
+ * no batch endpoint the client falls back to one call per CPF for good.
+ * HTTP errors surface as the same Spring exceptions RestTemplate throws (HttpClientErrorException,
+ * ResourceAccessException, ...).
+ */
+@Component
+@Slf4j
+public class ClienteValidadorCPF implements DisposableBean {
+
+    private final CloseableHttpAsyncClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final String validatorUrl;
+    private final boolean loteHabilitado;
+    private final long janelaMs;
+    private final int tamanhoMaximoLote;
+    private final DistributionSummary tamanhoLotes;
+
+    // Guards the batch being filled and its generation, shared by the callers and the dispatch timer
+    private final ReentrantLock trava = new ReentrantLock();
+    private List<Pedido> pendentes = new ArrayList<>();
+    private long geracao;
+    private volatile boolean loteSuportado = true;
+
+    private final ScheduledExecutorService agendador;
+
+    @Autowired
+    public ClienteValidadorCPF(
+            CloseableHttpAsyncClient httpClient,
+            ObjectMapper objectMapper,
+            @Value("${cpf.validator.url}") String validatorUrl,
+            MeterRegistry meterRegistry,
+            @Value("${votacao.cpf.validador.lote.enabled:false}") boolean loteHabilitado,
+            @Value("${votacao.cpf.validador.lote.janela-ms:5}") long janelaMs,
+            @Value("${votacao.cpf.validador.lote.tamanho-maximo:100}") int tamanhoMaximoLote) {
+        this.httpClient = httpClient;
+        this.objectMapper = objectMapper;
+        this.validatorUrl = validatorUrl;
+        this.loteHabilitado = loteHabilitado;
+        this.janelaMs = janelaMs;
+        this.tamanhoMaximoLote = tamanhoMaximoLote;
+        this.tamanhoLotes = DistributionSummary.builder("votacao.cpf.validador.lote.tamanho")
+                .description("CPFs por chamada ao endpoint de lote do validador")
+                .register(meterRegistry);
+
+        if (loteHabilitado) {
+            this.agendador = Executors.newSingleThreadScheduledExecutor(tarefa -> {
+                Thread thread = new Thread(tarefa, "lote-validacao-cpf");
+                thread.setDaemon(true);
+                return thread;
+            });
+        } else {
+            this.agendador = null;
+        }
+    }
+
+    /**
+     * Ask the remote validator whether the associate with this CPF can vote
+     *
+     * @param cpf CPF to validate, digits only
+     * @return ABLE_TO_VOTE
+     * @throws CPFInvalidoException if the CPF is invalid
+     * @throws AssociadoNaoPodeVotarException if the associate cannot vote
+     */
+    public StatusVotacao consultar(String cpf) {
+        return Futuros.aguardar(consultarAsync(cpf));
+    }
+
+    /**
+     * Ask the remote validator whether the associate with this CPF can vote, without blocking
+     *
+     * @param cpf CPF to validate, digits only
+     * @return Future of ABLE_TO_VOTE, failed with the exceptions consultar would throw
+     */
+    public CompletableFuture<StatusVotacao> consultarAsync(String cpf) {
+        if (!loteHabilitado || !loteSuportado) {
+            return consultarIndividualmente(cpf);
+        }
+        return enfileirar(cpf);
+    }
+
+    @Override
+    public void destroy() {
+        if (agendador == null) {
+            return;
+        }
+        agendador.shutdownNow();
+        List<Pedido> restantes = retirarLote();
+        restantes.forEach(pedido -> pedido.resultado().completeExceptionally(
+                new RestClientException("Aplicação encerrando, validação de CPF cancelada")));
+    }
+
+    private CompletableFuture<StatusVotacao> consultarIndividualmente(String cpf) {
+        SimpleHttpRequest requisicao = SimpleRequestBuilder.get(validatorUrl + "?cpf=" + cpf)
+                .addHeader(HttpHeaders.ACCEPT, ContentType.APPLICATION_JSON.getMimeType())
+                .build();
+
+        return executar(requisicao, "individual", 1).thenApply(resposta -> {
+            if (resposta.getCode() == HttpStatus.NOT_FOUND.value()) {
+                throw new CPFInvalidoException("CPF inválido");
+            }
+            CPFValidationResponse corpo = ler(resposta, CPFValidationResponse.class);
+            if (corpo != null && corpo.getStatus() == StatusVotacao.UNABLE_TO_VOTE) {
+                throw new AssociadoNaoPodeVotarException("Associado não pode votar");
+            }
+            log.info("CPF válido e associado pode votar: {}", cpf);
+            return StatusVotacao.ABLE_TO_VOTE;
+        });
+    }
+
+    private CompletableFuture<StatusVotacao> enfileirar(String cpf) {
+        Pedido pedido = new Pedido(cpf, new CompletableFuture<>());
+        List<Pedido> cheio = null;
+
+        trava.lock();
+        try {
+            pendentes.add(pedido);
+            if (pendentes.size() >= tamanhoMaximoLote) {
+                cheio = retirarLote();
+            } else if (pendentes.size() == 1) {
+                // The first validation of a batch opens its window
+                long geracaoAgendada = geracao;
+                agendador.schedule(() -> despachar(geracaoAgendada), janelaMs, TimeUnit.MILLISECONDS);
+            }
+        } finally {
+            trava.unlock();
+        }
+
+        if (cheio != null) {
+            enviar(cheio);
+        }
+        return pedido.resultado();
+    }
+
+    /**
+     * Send the batch whose window expired, unless it was already sent for being full
+     */
+    private void despachar(long geracaoAgendada) {
+        List<Pedido> lote;
+        trava.lock();
+        try {
+            if (geracao != geracaoAgendada || pendentes.isEmpty()) {
+                return;
+            }
+            lote = retirarLote();
+        } finally {
+            trava.unlock();
+        }
+        enviar(lote);
+    }
+
+    private List<Pedido> retirarLote() {
+        trava.lock();
+        try {
+            List<Pedido> lote = pendentes;
+            pendentes = new ArrayList<>();
+            geracao++;
+            return lote;
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    /**
+     * Start the batch call; the waiting callers are completed when the response arrives
+     */
+    private void enviar(List<Pedido> lote) {
+        List<String> cpfs = lote.stream().map(Pedido::cpf).distinct().toList();
+        tamanhoLotes.record(cpfs.size());
+
+        CompletableFuture<CPFValidationBatchResponse> resposta;
+        try {
+            SimpleHttpRequest requisicao = SimpleRequestBuilder.post(validatorUrl + "/lote")
+                    .addHeader(HttpHeaders.ACCEPT, ContentType.APPLICATION_JSON.getMimeType())
+                    .setBody(objectMapper.writeValueAsBytes(CPFValidationBatchRequest.builder().cpfs(cpfs).build()),
+                            ContentType.APPLICATION_JSON)
+                    .build();
+            resposta = executar(requisicao, "lote", cpfs.size()).thenApply(r -> ler(r, CPFValidationBatchResponse.class));
+        } catch (IOException e) {
+            resposta = CompletableFuture.failedFuture(new RestClientException("Falha ao serializar o lote de CPFs", e));
+        }
+
+        resposta.whenComplete((corpo, erro) -> {
+            if (erro != null) {
+                falhar(lote, Futuros.causa(erro));
+            } else {
+                distribuir(lote, corpo);
+            }
+        });
+    }
+
+    private void falhar(List<Pedido> lote, Throwable erro) {
+        if (erro instanceof HttpStatusCodeException e && isEndpointAusente(e)) {
+            loteSuportado = false;
+            log.warn("Validador de CPF sem endpoint de lote ({}), usando chamadas individuais", e.getStatusCode());
+            lote.forEach(pedido -> consultarIndividualmente(pedido.cpf()).whenComplete((status, erroIndividual) -> {
+                if (erroIndividual != null) {
+                    pedido.resultado().completeExceptionally(Futuros.causa(erroIndividual));
+                } else {
+                    pedido.resultado().complete(status);
+                }
+            }));
+            return;
+        }
+        lote.forEach(pedido -> pedido.resultado().completeExceptionally(erro));
+    }
+
+    private void distribuir(List<Pedido> lote, CPFValidationBatchResponse resposta) {
+        Map<String, CPFValidationBatchItem> porCpf = resposta == null || resposta.getResultados() == null
+                ? Map.of()
+                : resposta.getResultados().stream()
+                        .collect(Collectors.toMap(CPFValidationBatchItem::getCpf, Function.identity(), (a, b) -> a));
+        lote.forEach(pedido -> concluir(pedido, porCpf.get(pedido.cpf())));
+    }
+
+    private void concluir(Pedido pedido, CPFValidationBatchItem item) {
+        CompletableFuture<StatusVotacao> resultado = pedido.resultado();
+        if (item == null) {
+            resultado.completeExceptionally(new RestClientException("CPF ausente na resposta do lote do validador"));
+        } else if (!item.isValido()) {
+            resultado.completeExceptionally(new CPFInvalidoException("CPF inválido"));
+        } else if (item.getStatus() == StatusVotacao.UNABLE_TO_VOTE) {
+            resultado.completeExceptionally(new AssociadoNaoPodeVotarException("Associado não pode votar"));
+        } else {
+            resultado.complete(StatusVotacao.ABLE_TO_VOTE);
+        }
+    }
+
+    /**
+     * Send a request through the pooled client, completing with the response whatever its status
+     *
+     * @param tipo Kind of call recorded in the JFR event, individual or lote
+     * @param cpfs Number of CPFs in the request
+     */
+    private CompletableFuture<SimpleHttpResponse> executar(SimpleHttpRequest requisicao, String tipo, int cpfs) {
+        EventoChamadaValidadorCPF evento = new EventoChamadaValidadorCPF();
+        evento.begin();
+        evento.tipo = tipo;
+        evento.cpfs = cpfs;
+
+        CompletableFuture<SimpleHttpResponse> resposta = new CompletableFuture<>();
+        httpClient.execute(requisicao, new FutureCallback<>() {
+            @Override
+            public void completed(SimpleHttpResponse resultado) {
+                evento.status = resultado.getCode();
+                evento.commit();
+                resposta.complete(resultado);
+            }
+
+            @Override
+            public void failed(Exception e) {
+                evento.commit();
+                IOException causa = e instanceof IOException io ? io : new IOException(e);
+                resposta.completeExceptionally(new ResourceAccessException(
+                        "Falha de E/S ao chamar o validador de CPF: " + e.getMessage(), causa));
+            }
+
+            @Override
+            public void cancelled() {
+                evento.commit();
+                resposta.completeExceptionally(new ResourceAccessException("Chamada ao validador de CPF cancelada"));
+            }
+        });
+        return resposta;
+    }
+
+    /**
+     * Read the JSON body of a successful response
+     *
+     * @throws RestClientResponseException if the response is not a 2xx
+     */
+    private <T> T ler(SimpleHttpResponse resposta, Class<T> tipo) {
+        HttpStatusCode status = HttpStatusCode.valueOf(resposta.getCode());
+        byte[] corpo = resposta.getBodyBytes();
+        // HTTP/2 responses have no reason phrase
+        String texto = Objects.requireNonNullElse(resposta.getReasonPhrase(), "");
+        if (status.is4xxClientError()) {
+            throw HttpClientErrorException.create(status, texto, null, corpo, null);
+        }
+        if (status.is5xxServerError()) {
+            throw HttpServerErrorException.create(status, texto, null, corpo, null);
+        }
+        if (!status.is2xxSuccessful()) {
+            throw new RestClientResponseException("Resposta inesperada do validador de CPF",
+                    status, texto, null, corpo, null);
+        }
+        if (corpo == null || corpo.length == 0) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(corpo, tipo);
+        } catch (IOException e) {
+            throw new RestClientException("Resposta inválida do validador de CPF", e);
+        }
+    }
+
+    private static boolean isEndpointAusente(HttpStatusCodeException e) {
+        int status = e.getStatusCode().value();
+        return status == HttpStatus.NOT_FOUND.value()
+                || status == HttpStatus.METHOD_NOT_ALLOWED.value()
+                || status == HttpStatus.NOT_IMPLEMENTED.value();
+    }
+
+    private record Pedido(String cpf, CompletableFuture<StatusVotacao> resultado) {
+    }
+}
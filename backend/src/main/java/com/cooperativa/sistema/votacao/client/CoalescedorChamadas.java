@@ -0,0 +1,91 @@
+package com.cooperativa.sistema.votacao.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight coalescing of concurrent calls with the same key
+ * The first caller of a key runs the call; callers arriving while it is in flight wait
+ * for it and get the same result or exception instead of repeating the call.
+ *
+ * @param <V> Type of the call result
+ */
+public class CoalescedorChamadas<V> {
+
+    private final Map<String, CompletableFuture<V>> emAndamento = new ConcurrentHashMap<>();
+    private final Counter executadas;
+    private final Counter coalescidas;
+
+    /**
+     * @param meterRegistry Registry of the call metrics
+     * @param nome Prefix of the metric names, e.g. votacao.cpf.validacoes
+     */
+    public CoalescedorChamadas(MeterRegistry meterRegistry, String nome) {
+        this.executadas = Counter.builder(nome + ".chamadas")
+                .description("Chamadas efetivamente executadas")
+                .tag("tipo", "executada")
+                .register(meterRegistry);
+        this.coalescidas = Counter.builder(nome + ".chamadas")
+                .description("Chamadas que aguardaram uma chamada igual já em andamento")
+                .tag("tipo", "coalescida")
+                .register(meterRegistry);
+        Gauge.builder(nome + ".em-andamento", emAndamento, Map::size)
+                .description("Chamadas em andamento")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Run the call, or wait for the one already in flight for the same key
+     *
+     * @param chave Key identifying equivalent calls
+     * @param chamada Call to run
+     * @return Result of the call
+     */
+    public V executar(String chave, Supplier<V> chamada) {
+        return Futuros.aguardar(executarAsync(chave, () -> CompletableFuture.completedFuture(chamada.get())));
+    }
+
+    /**
+     * Start the call, or join the one already in flight for the same key, without waiting for it
+     * The key stays in flight until the future returned by the call completes.
+     *
+     * @param chave Key identifying equivalent calls
+     * @param chamada Call to start
+     * @return Future of the call result, completed with the call's own exception on failure
+     */
+    public CompletableFuture<V> executarAsync(String chave, Supplier<CompletableFuture<V>> chamada) {
+        CompletableFuture<V> propria = new CompletableFuture<>();
+        CompletableFuture<V> existente = emAndamento.putIfAbsent(chave, propria);
+        if (existente != null) {
+            coalescidas.increment();
+            // A copy, so one caller cannot complete or cancel the call shared with the others
+            return existente.copy();
+        }
+
+        executadas.increment();
+        Futuros.chamar(chamada).whenComplete((resultado, erro) -> {
+            emAndamento.remove(chave, propria);
+            if (erro == null) {
+                propria.complete(resultado);
+            } else {
+                propria.completeExceptionally(Futuros.causa(erro));
+            }
+        });
+        return propria.copy();
+    }
+
+    /**
+     * Number of calls currently in flight
+     *
+     * @return Number of distinct keys being called
+     */
+    public int emAndamento() {
+        return emAndamento.size();
+    }
+}
@@ -0,0 +1,177 @@
+package com.cooperativa.sistema.votacao.client;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Count-based circuit breaker
+ * Keeps the outcome of the last calls in a ring buffer. When the failure rate of a full enough
+ * window reaches the threshold the circuit opens and calls are refused without being made.
+ * After a cool-down a few probe calls are let through (half-open): if all of them succeed the
+ * circuit closes again, a single failure opens it for another cool-down.
+ * Slow calls count as failures, since a validator that answers slowly holds threads just like
+ * one that does not answer.
+ */
+public class Disjuntor {
+
+    /**
+     * State of the circuit
+     */
+    public enum Estado {
+        FECHADO,
+        ABERTO,
+        SEMIABERTO
+    }
+
+    private final boolean[] falhas;
+    private final int minimoChamadas;
+    private final int taxaFalhaPercentual;
+    private final long lentidaoNanos;
+    private final long duracaoAbertoNanos;
+    private final int chamadasSemiAberto;
+    private final LongSupplier relogio;
+    // Guards the state and the ring of recent outcomes, which every call reads and updates together
+    private final ReentrantLock trava = new ReentrantLock();
+
+    private Estado estado = Estado.FECHADO;
+    private int posicao;
+    private int registradas;
+    private int totalFalhas;
+    private long abertoAte;
+    private int sondasPermitidas;
+    private int sondasComSucesso;
+
+    /**
+     * @param janela Number of recent calls considered
+     * @param minimoChamadas Calls needed in the window before the circuit may open
+     * @param taxaFalhaPercentual Failure rate, in percent, that opens the circuit
+     * @param lentidaoMs Duration above which a successful call counts as a failure
+     * @param duracaoAbertoMs Time the circuit stays open before letting probes through
+     * @param chamadasSemiAberto Probe calls that must succeed to close the circuit
+     * @param relogio Source of System.nanoTime-like values
+     */
+    public Disjuntor(int janela, int minimoChamadas, int taxaFalhaPercentual, long lentidaoMs,
+                     long duracaoAbertoMs, int chamadasSemiAberto, LongSupplier relogio) {
+        this.falhas = new boolean[janela];
+        this.minimoChamadas = Math.min(minimoChamadas, janela);
+        this.taxaFalhaPercentual = taxaFalhaPercentual;
+        this.lentidaoNanos = TimeUnit.MILLISECONDS.toNanos(lentidaoMs);
+        this.duracaoAbertoNanos = TimeUnit.MILLISECONDS.toNanos(duracaoAbertoMs);
+        this.chamadasSemiAberto = chamadasSemiAberto;
+        this.relogio = relogio;
+    }
+
+    /**
+     * Ask permission to make a call
+     * A permitted call must report its outcome with registrarSucesso or registrarFalha.
+     *
+     * @return true if the call may be made
+     */
+    public boolean permitir() {
+        trava.lock();
+        try {
+            if (estado == Estado.ABERTO) {
+                if (relogio.getAsLong() - abertoAte < 0) {
+                    return false;
+                }
+                estado = Estado.SEMIABERTO;
+                sondasPermitidas = 0;
+                sondasComSucesso = 0;
+            }
+            if (estado == Estado.SEMIABERTO) {
+                if (sondasPermitidas >= chamadasSemiAberto) {
+                    return false;
+                }
+                sondasPermitidas++;
+            }
+            return true;
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    /**
+     * Report a call that completed, counting it as a failure if it was too slow
+     *
+     * @param duracaoNanos Duration of the call
+     */
+    public void registrarSucesso(long duracaoNanos) {
+        registrar(duracaoNanos > lentidaoNanos);
+    }
+
+    /**
+     * Report a call that failed
+     */
+    public void registrarFalha() {
+        registrar(true);
+    }
+
+    /**
+     * Current state of the circuit
+     *
+     * @return State, as of the last call or permission request
+     */
+    public Estado getEstado() {
+        trava.lock();
+        try {
+            return estado;
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    private void registrar(boolean falha) {
+        trava.lock();
+        try {
+            switch (estado) {
+                case FECHADO -> registrarFechado(falha);
+                case SEMIABERTO -> registrarSemiAberto(falha);
+                // Calls permitted before the circuit opened are not counted
+                case ABERTO -> { }
+            }
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    private void registrarFechado(boolean falha) {
+        if (registradas == falhas.length) {
+            if (falhas[posicao]) {
+                totalFalhas--;
+            }
+        } else {
+            registradas++;
+        }
+        falhas[posicao] = falha;
+        if (falha) {
+            totalFalhas++;
+        }
+        posicao = (posicao + 1) % falhas.length;
+
+        if (registradas >= minimoChamadas && totalFalhas * 100 >= taxaFalhaPercentual * registradas) {
+            abrir();
+        }
+    }
+
+    private void registrarSemiAberto(boolean falha) {
+        if (falha) {
+            abrir();
+        } else if (++sondasComSucesso >= chamadasSemiAberto) {
+            estado = Estado.FECHADO;
+            limparJanela();
+        }
+    }
+
+    private void abrir() {
+        estado = Estado.ABERTO;
+        abertoAte = relogio.getAsLong() + duracaoAbertoNanos;
+        limparJanela();
+    }
+
+    private void limparJanela() {
+        posicao = 0;
+        registradas = 0;
+        totalFalhas = 0;
+    }
+}
@@ -0,0 +1,79 @@
+package com.cooperativa.sistema.votacao.client;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * Helpers for the CompletableFuture-based API of the CPF validation
+ * Futures complete with the exceptions of the validation itself (CPFInvalidoException,
+ * AssociadoNaoPodeVotarException, ...); these helpers unwrap them, so waiting on a future
+ * throws exactly what the synchronous call would have thrown.
+ */
+public final class Futuros {
+
+    private Futuros() {
+    }
+
+    /**
+     * Wait for a future and return its result
+     *
+     * @param futuro Future to wait for
+     * @param <V> Type of the result
+     * @return Result of the future
+     * @throws RuntimeException the exception the future completed with
+     */
+    public static <V> V aguardar(CompletableFuture<V> futuro) {
+        try {
+            return futuro.join();
+        } catch (CompletionException e) {
+            throw relancar(e.getCause());
+        }
+    }
+
+    /**
+     * Start a call that returns a future, turning an exception thrown before the future
+     * exists into a failed future
+     *
+     * @param chamada Call to start
+     * @param <V> Type of the result
+     * @return Future of the call
+     */
+    public static <V> CompletableFuture<V> chamar(Supplier<CompletableFuture<V>> chamada) {
+        try {
+            return chamada.get();
+        } catch (RuntimeException | Error e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Exception a future completed with, without the CompletionException that dependent stages wrap it in
+     *
+     * @param erro Exception received by a stage
+     * @return Original exception
+     */
+    public static Throwable causa(Throwable erro) {
+        while (erro instanceof CompletionException && erro.getCause() != null) {
+            erro = erro.getCause();
+        }
+        return erro;
+    }
+
+    /**
+     * Rethrow the original exception of a failed stage, e.g. from inside exceptionally
+     *
+     * @param erro Exception received by a stage
+     * @return Never returns; declared so callers can write {@code throw relancar(erro)}
+     */
+    public static RuntimeException relancar(Throwable erro) {
+        Throwable causa = causa(erro);
+        if (causa instanceof RuntimeException e) {
+            throw e;
+        }
+        if (causa instanceof Error e) {
+            throw e;
+        }
+        throw new CompletionException(causa);
+    }
+}
@@ -0,0 +1,15 @@
+package com.cooperativa.sistema.votacao.client;
+
+/**
+ * What to do with a vote when the CPF validator cannot be used
+ */
+public enum PoliticaFallbackCPF {
+    /**
+     * Reject the vote, so the client can retry later
+     */
+    REJEITAR,
+    /**
+     * Accept the vote and validate the CPF again once the validator recovers
+     */
+    ACEITAR_PROVISORIAMENTE
+}
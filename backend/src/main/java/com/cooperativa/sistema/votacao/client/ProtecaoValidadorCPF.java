@@ -0,0 +1,183 @@
+package com.cooperativa.sistema.votacao.client;
+
+import com.cooperativa.sistema.votacao.domain.StatusVotacao;
+import com.cooperativa.sistema.votacao.exception.AssociadoNaoPodeVotarException;
+import com.cooperativa.sistema.votacao.exception.CPFInvalidoException;
+import com.cooperativa.sistema.votacao.exception.ValidadorCPFIndisponivelException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Circuit breaker and bulkhead around the calls to the remote CPF validator
+ * The bulkhead caps how many calls may be in flight to the validator at once, and the
+ * circuit breaker stops calling it while it is failing or slow, so a degraded validator fails
+ * fast instead of holding every request thread for the whole read timeout.
+ * The latency of each call is recorded in a histogram per outcome.
+ */
+@Component
+@Slf4j
+public class ProtecaoValidadorCPF {
+
+    private static final String METRICA_LATENCIA = "votacao.cpf.validador.latencia";
+    private static final String METRICA_REJEICOES = "votacao.cpf.validador.rejeicoes";
+
+    private final Disjuntor disjuntor;
+    private final Semaphore bulkhead;
+    private final long esperaBulkheadMs;
+    private final LongSupplier relogio;
+
+    private final Timer latenciaApto;
+    private final Timer latenciaInapto;
+    private final Timer latenciaInvalido;
+    private final Timer latenciaErro;
+    private final Counter rejeicoesCircuitoAberto;
+    private final Counter rejeicoesBulkheadCheio;
+
+    @Autowired
+    public ProtecaoValidadorCPF(
+            MeterRegistry meterRegistry,
+            @Value("${votacao.cpf.validador.disjuntor.janela:20}") int janela,
+            @Value("${votacao.cpf.validador.disjuntor.minimo-chamadas:10}") int minimoChamadas,
+            @Value("${votacao.cpf.validador.disjuntor.taxa-falha-percentual:50}") int taxaFalhaPercentual,
+            @Value("${votacao.cpf.validador.disjuntor.lentidao-ms:2000}") long lentidaoMs,
+            @Value("${votacao.cpf.validador.disjuntor.duracao-aberto-ms:10000}") long duracaoAbertoMs,
+            @Value("${votacao.cpf.validador.disjuntor.chamadas-semiaberto:3}") int chamadasSemiAberto,
+            @Value("${votacao.cpf.validador.bulkhead.max-concorrentes:50}") int maxConcorrentes,
+            @Value("${votacao.cpf.validador.bulkhead.espera-ms:100}") long esperaBulkheadMs) {
+        this(meterRegistry,
+                new Disjuntor(janela, minimoChamadas, taxaFalhaPercentual, lentidaoMs,
+                        duracaoAbertoMs, chamadasSemiAberto, System::nanoTime),
+                maxConcorrentes, esperaBulkheadMs, System::nanoTime);
+    }
+
+    ProtecaoValidadorCPF(MeterRegistry meterRegistry, Disjuntor disjuntor, int maxConcorrentes,
+                         long esperaBulkheadMs, LongSupplier relogio) {
+        this.disjuntor = disjuntor;
+        this.bulkhead = new Semaphore(maxConcorrentes);
+        this.esperaBulkheadMs = esperaBulkheadMs;
+        this.relogio = relogio;
+
+        this.latenciaApto = latencia(meterRegistry, "apto");
+        this.latenciaInapto = latencia(meterRegistry, "inapto");
+        this.latenciaInvalido = latencia(meterRegistry, "invalido");
+        this.latenciaErro = latencia(meterRegistry, "erro");
+        this.rejeicoesCircuitoAberto = Counter.builder(METRICA_REJEICOES)
+                .description("Validações de CPF recusadas sem chamar o validador")
+                .tag("motivo", "circuito-aberto")
+                .register(meterRegistry);
+        this.rejeicoesBulkheadCheio = Counter.builder(METRICA_REJEICOES)
+                .description("Validações de CPF recusadas sem chamar o validador")
+                .tag("motivo", "bulkhead-cheio")
+                .register(meterRegistry);
+        Gauge.builder("votacao.cpf.validador.disjuntor.estado", disjuntor, d -> d.getEstado().ordinal())
+                .description("Estado do disjuntor do validador de CPF (0 fechado, 1 aberto, 2 semiaberto)")
+                .register(meterRegistry);
+        Gauge.builder("votacao.cpf.validador.bulkhead.disponiveis", bulkhead, Semaphore::availablePermits)
+                .description("Chamadas simultâneas ainda disponíveis ao validador de CPF")
+                .register(meterRegistry);
+    }
+
+    private static Timer latencia(MeterRegistry meterRegistry, String resultado) {
+        return Timer.builder(METRICA_LATENCIA)
+                .description("Latência das chamadas ao validador de CPF")
+                .tag("resultado", resultado)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    /**
+     * Make a call to the validator, unless the bulkhead is full or the circuit is open
+     * Invalid CPFs and associates unable to vote are answers of a healthy validator and do not
+     * count as failures.
+     *
+     * @param chamada Call to the remote validator
+     * @return Result of the call
+     * @throws ValidadorCPFIndisponivelException if the call was not made
+     */
+    public StatusVotacao executar(Supplier<StatusVotacao> chamada) {
+        return Futuros.aguardar(executarAsync(() -> CompletableFuture.completedFuture(chamada.get())));
+    }
+
+    /**
+     * Start a non-blocking call to the validator, unless the bulkhead is full or the circuit is open
+     * The bulkhead permit is held until the returned future completes, so it caps the calls in
+     * flight rather than the threads waiting on them. Only acquiring the permit may wait, for
+     * at most the configured bulkhead wait.
+     *
+     * @param chamada Call to the remote validator
+     * @return Future of the call, failed with ValidadorCPFIndisponivelException if the call was not made
+     */
+    public CompletableFuture<StatusVotacao> executarAsync(Supplier<CompletableFuture<StatusVotacao>> chamada) {
+        if (!adquirirBulkhead()) {
+            rejeicoesBulkheadCheio.increment();
+            return CompletableFuture.failedFuture(
+                    new ValidadorCPFIndisponivelException("Validador de CPF sobrecarregado, tente novamente"));
+        }
+        if (!disjuntor.permitir()) {
+            bulkhead.release();
+            rejeicoesCircuitoAberto.increment();
+            return CompletableFuture.failedFuture(
+                    new ValidadorCPFIndisponivelException("Validador de CPF indisponível, tente novamente"));
+        }
+
+        long inicio = relogio.getAsLong();
+        return Futuros.chamar(chamada).whenComplete((status, erro) -> {
+            try {
+                registrar(relogio.getAsLong() - inicio, erro == null ? null : Futuros.causa(erro));
+            } finally {
+                bulkhead.release();
+            }
+        });
+    }
+
+    /**
+     * Current state of the circuit breaker
+     *
+     * @return State of the circuit
+     */
+    public Disjuntor.Estado getEstado() {
+        return disjuntor.getEstado();
+    }
+
+    private void registrar(long duracao, Throwable erro) {
+        if (erro == null) {
+            concluir(duracao, latenciaApto);
+        } else if (erro instanceof AssociadoNaoPodeVotarException) {
+            concluir(duracao, latenciaInapto);
+        } else if (erro instanceof CPFInvalidoException) {
+            concluir(duracao, latenciaInvalido);
+        } else {
+            latenciaErro.record(duracao, TimeUnit.NANOSECONDS);
+            disjuntor.registrarFalha();
+            if (disjuntor.getEstado() == Disjuntor.Estado.ABERTO) {
+                log.warn("Falha ao chamar o validador de CPF, disjuntor aberto: {}", erro.getMessage());
+            }
+        }
+    }
+
+    private void concluir(long duracao, Timer latencia) {
+        latencia.record(duracao, TimeUnit.NANOSECONDS);
+        disjuntor.registrarSucesso(duracao);
+    }
+
+    private boolean adquirirBulkhead() {
+        try {
+            return bulkhead.tryAcquire(esperaBulkheadMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.cooperativa.sistema.votacao.client;
+
+/**
+ * Local, allocation-free validation of the CPF check digits
+ * Accepts the digits alone or formatted (e.g. 123.456.789-09) and rejects wrong lengths,
+ * repeated-digit sequences such as 111.111.111-11 and wrong mod-11 check digits,
+ * so malformed CPFs never reach the remote validator.
+ */
+public final class ValidadorDigitosCPF {
+
+    private static final int TAMANHO = 11;
+
+    private ValidadorDigitosCPF() {
+    }
+
+    /**
+     * Check whether a CPF has 11 digits and valid check digits
+     *
+     * @param cpf CPF, formatted or not
+     * @return true if the check digits are valid
+     */
+    public static boolean isValido(CharSequence cpf) {
+        if (cpf == null) {
+            return false;
+        }
+
+        int digitos = 0;
+        int primeiro = -1;
+        boolean repetido = true;
+        int soma1 = 0;
+        int soma2 = 0;
+        int dv1 = 0;
+        int dv2 = 0;
+
+        for (int i = 0; i < cpf.length(); i++) {
+            char c = cpf.charAt(i);
+            if (c < '0' || c > '9') {
+                if (isFormatacao(c)) {
+                    continue;
+                }
+                return false;
+            }
+            if (digitos == TAMANHO) {
+                return false;
+            }
+
+            int d = c - '0';
+            if (primeiro < 0) {
+                primeiro = d;
+            } else if (d != primeiro) {
+                repetido = false;
+            }
+
+            // Weights 10..2 for the first check digit and 11..2 for the second
+            if (digitos < 9) {
+                soma1 += d * (10 - digitos);
+                soma2 += d * (11 - digitos);
+            } else if (digitos == 9) {
+                dv1 = d;
+                soma2 += d * 2;
+            } else {
+                dv2 = d;
+            }
+            digitos++;
+        }
+
+        return digitos == TAMANHO
+                && !repetido
+                && digitoVerificador(soma1) == dv1
+                && digitoVerificador(soma2) == dv2;
+    }
+
+    /**
+     * Remove the formatting of a CPF
+     *
+     * @param cpf CPF, formatted or not
+     * @return The 11 digits, or the same instance when it has no formatting
+     */
+    public static String normalizar(String cpf) {
+        if (cpf == null) {
+            return null;
+        }
+        for (int i = 0; i < cpf.length(); i++) {
+            if (isFormatacao(cpf.charAt(i))) {
+                return removerFormatacao(cpf);
+            }
+        }
+        return cpf;
+    }
+
+    private static String removerFormatacao(String cpf) {
+        StringBuilder digitos = new StringBuilder(TAMANHO);
+        for (int i = 0; i < cpf.length(); i++) {
+            char c = cpf.charAt(i);
+            if (!isFormatacao(c)) {
+                digitos.append(c);
+            }
+        }
+        return digitos.toString();
+    }
+
+    private static boolean isFormatacao(char c) {
+        return c == '.' || c == '-' || c == ' ';
+    }
+
+    private static int digitoVerificador(int soma) {
+        int resto = (soma * 10) % 11;
+        return resto == 10 ? 0 : resto;
+    }
+}
@@ -0,0 +1,101 @@
+package com.cooperativa.sistema.votacao.config;
+
+import com.cooperativa.sistema.votacao.cache.CacheDoisNiveisManager;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.jsontype.BasicPolymorphicTypeValidator;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializationContext.SerializationPair;
+
+import java.time.Duration;
+
+/**
+ * Configuração do cache das pautas, sessões e resultados
+ * Com spring.cache.type=simple (padrão) os caches ficam em memória, adequados a uma única
+ * instância. Com spring.cache.type=redis os caches têm dois níveis: um nível local limitado em
+ * cada instância na frente do Redis, invalidado entre as instâncias via pub/sub do Redis.
+ * Nos dois casos as gravações e remoções feitas dentro de uma transação só valem após o commit.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    /**
+     * Gerenciador dos caches em memória, no lugar do que o Spring Boot criaria
+     * Uma remoção feita no encerramento de uma sessão só vale após o commit; antes disso uma
+     * leitura concorrente ainda lê a sessão aberta do banco e a colocaria de volta no cache.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "spring.cache.type", havingValue = "simple", matchIfMissing = true)
+    public CacheManager cacheManagerSimples() {
+        return new TransactionAwareCacheManagerProxy(new ConcurrentMapCacheManager());
+    }
+
+    /**
+     * Gerenciador dos caches em dois níveis; o Spring Boot deixa de criar o seu quando ele existe
+     * Os valores vão ao Redis em JSON com o tipo do DTO, pois os DTOs não são Serializable.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "spring.cache.type", havingValue = "redis")
+    public CacheDoisNiveisManager cacheManager(
+            RedisConnectionFactory connectionFactory,
+            StringRedisTemplate redisTemplate,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${votacao.cache.redis.ttl-s:3600}") long ttlRedisSegundos,
+            @Value("${votacao.cache.local.tamanho-maximo:10000}") int tamanhoMaximoLocal,
+            @Value("${votacao.cache.local.ttl-s:60}") long ttlLocalSegundos,
+            @Value("${votacao.cache.invalidacao.canal:votacao:cache:invalidacao}") String canal,
+            @Value("${votacao.cluster.instancia:${random.uuid}}") String instancia) {
+        ObjectMapper mapperRedis = objectMapper.copy().activateDefaultTyping(
+                BasicPolymorphicTypeValidator.builder()
+                        .allowIfSubType("com.cooperativa.sistema.votacao.dto.")
+                        .build(),
+                ObjectMapper.DefaultTyping.NON_FINAL, JsonTypeInfo.As.PROPERTY);
+        RedisCacheConfiguration padrao = RedisCacheConfiguration.defaultCacheConfig()
+                .entryTtl(Duration.ofSeconds(ttlRedisSegundos))
+                .prefixCacheNameWith("votacao:")
+                .disableCachingNullValues()
+                .serializeValuesWith(SerializationPair.fromSerializer(
+                        new GenericJackson2JsonRedisSerializer(mapperRedis)));
+        RedisCacheManager redis = RedisCacheManager.builder(connectionFactory)
+                .cacheDefaults(padrao)
+                // Só os resultados de sessões encerradas são cacheados, e eles não mudam mais
+                .withCacheConfiguration("resultados", padrao.entryTtl(Duration.ZERO))
+                .build();
+        // Não é um bean, então a configuração própria de "resultados" é carregada aqui
+        redis.afterPropertiesSet();
+        return new CacheDoisNiveisManager(redis, redisTemplate, canal, instancia,
+                tamanhoMaximoLocal, ttlLocalSegundos, meterRegistry);
+    }
+
+    /**
+     * Assinatura do canal de invalidação, que limpa o nível local quando outra instância altera uma chave
+     */
+    @Bean
+    @ConditionalOnProperty(name = "spring.cache.type", havingValue = "redis")
+    public RedisMessageListenerContainer invalidacaoCacheListenerContainer(
+            RedisConnectionFactory connectionFactory,
+            CacheDoisNiveisManager cacheManager,
+            @Value("${votacao.cache.invalidacao.canal:votacao:cache:invalidacao}") String canal) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(cacheManager, new ChannelTopic(canal));
+        return container;
+    }
+}
@@ -0,0 +1,73 @@
+package com.cooperativa.sistema.votacao.config;
+
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.config.TlsConfig;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.impl.async.HttpAsyncClients;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManagerBuilder;
+import org.apache.hc.core5.http2.HttpVersionPolicy;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuração do cliente HTTP assíncrono usado nas chamadas ao validador de CPF
+ */
+@Configuration
+public class HttpClientConfig {
+
+    @Value("${REST_CONNECT_TIMEOUT:5000}")
+    private int connectTimeout;
+
+    @Value("${REST_READ_TIMEOUT:5000}")
+    private int readTimeout;
+
+    @Value("${votacao.http.max-conexoes-por-rota:50}")
+    private int maxConexoesPorRota;
+
+    @Value("${votacao.http.max-conexoes:200}")
+    private int maxConexoes;
+
+    @Value("${votacao.http.espera-conexao-ms:1000}")
+    private long esperaConexaoMs;
+
+    @Value("${votacao.http.ociosidade-ms:30000}")
+    private long ociosidadeMs;
+
+    @Value("${votacao.http.versao:NEGOTIATE}")
+    private HttpVersionPolicy versao;
+
+    /**
+     * Cliente HTTP não bloqueante com pool de conexões keep-alive
+     * Com NEGOTIATE, conexões TLS usam HTTP/2 quando o servidor o oferece via ALPN e HTTP/1.1
+     * nos demais casos; FORCE_HTTP_1 desativa o HTTP/2. Uma conexão HTTP/2 multiplexa várias
+     * chamadas, então o limite de conexões por rota pesa sobretudo em HTTP/1.1.
+     *
+     * @return Cliente iniciado, encerrado junto com o contexto
+     */
+    @Bean(destroyMethod = "close")
+    public CloseableHttpAsyncClient httpAsyncClient() {
+        CloseableHttpAsyncClient client = HttpAsyncClients.custom()
+                .setConnectionManager(PoolingAsyncClientConnectionManagerBuilder.create()
+                        .setMaxConnPerRoute(maxConexoesPorRota)
+                        .setMaxConnTotal(maxConexoes)
+                        .setDefaultConnectionConfig(ConnectionConfig.custom()
+                                .setConnectTimeout(Timeout.ofMilliseconds(connectTimeout))
+                                .build())
+                        .setDefaultTlsConfig(TlsConfig.custom()
+                                .setVersionPolicy(versao)
+                                .build())
+                        .build())
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.ofMilliseconds(esperaConexaoMs))
+                        .setResponseTimeout(Timeout.ofMilliseconds(readTimeout))
+                        .build())
+                .evictIdleConnections(TimeValue.ofMilliseconds(ociosidadeMs))
+                .build();
+        client.start();
+        return client;
+    }
+}
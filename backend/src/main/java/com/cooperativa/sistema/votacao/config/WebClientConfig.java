@@ -2,7 +2,6 @@ package com.cooperativa.sistema.votacao.config;
 
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.web.client.RestTemplate;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
@@ -12,15 +11,6 @@ import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 @Configuration
 public class WebClientConfig {
     
-    /**
-     * RestTemplate for making HTTP requests
-     * Nome alterado para evitar conflito com o bean em RestTemplateConfig
-     */
-    @Bean(name = "webClientRestTemplate")
-    public RestTemplate webClientRestTemplate() {
-        return new RestTemplate();
-    }
-    
     /**
      * Configure CORS for the application
      */
@@ -2,6 +2,7 @@ package com.cooperativa.sistema.votacao.controller;
 
 import com.cooperativa.sistema.votacao.dto.AssociadoDTO;
 import com.cooperativa.sistema.votacao.dto.AssociadoRequest;
+import com.cooperativa.sistema.votacao.dto.PaginaCursorDTO;
 import com.cooperativa.sistema.votacao.service.AssociadoService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -84,6 +85,30 @@ public class AssociadoController {
         return ResponseEntity.ok(result);
     }
     
+    /**
+     * GET /api/v1/associados/cursor : List associates by cursor, without the page count
+     *
+     * @param cursor Cursor of the next page, as returned in proximo (omit for the first page)
+     * @param size Page size (default: 10)
+     * @param total Whether to include the approximate total (default: false)
+     * @return ResponseEntity with the page of associates
+     */
+    @GetMapping("/cursor")
+    @Operation(summary = "Listar associados por cursor",
+            description = "Retorna uma página de associados e o cursor da próxima, sem contar o total a cada página")
+    @ApiResponse(responseCode = "200", description = "Associados encontrados com sucesso")
+    @ApiResponse(responseCode = "400", description = "Cursor ou tamanho de página inválido")
+    public ResponseEntity<PaginaCursorDTO<AssociadoDTO>> listarAssociadosPorCursor(
+            @Parameter(description = "Cursor da próxima página, do campo proximo da página anterior") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Tamanho da página") @RequestParam(defaultValue = "10") int size,
+            @Parameter(description = "Incluir o total aproximado de associados") @RequestParam(defaultValue = "false") boolean total) {
+        log.info("REST request para listar associados por cursor: size={}, total={}", size, total);
+        
+        PaginaCursorDTO<AssociadoDTO> result = associadoService.listarAssociados(cursor, size, total);
+        
+        return ResponseEntity.ok(result);
+    }
+    
     /**
      * GET /api/v1/associados/busca : Search associates by name or CPF
      *
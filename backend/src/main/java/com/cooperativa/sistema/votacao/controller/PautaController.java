@@ -1,5 +1,6 @@
 package com.cooperativa.sistema.votacao.controller;
 
+import com.cooperativa.sistema.votacao.dto.PaginaCursorDTO;
 import com.cooperativa.sistema.votacao.dto.PautaDTO;
 import com.cooperativa.sistema.votacao.dto.PautaRequest;
 import com.cooperativa.sistema.votacao.service.PautaService;
@@ -62,6 +63,26 @@ public class PautaController {
         return ResponseEntity.ok(result);
     }
     
+    /**
+     * GET /api/v1/pautas/cursor : Get agendas by cursor, without the page count
+     *
+     * @param cursor Cursor of the next page, as returned in proximo (omit for the first page)
+     * @param size Page size (default 10)
+     * @param total Whether to include the approximate total (default false)
+     * @return ResponseEntity with the page of agendas
+     */
+    @GetMapping("/cursor")
+    public ResponseEntity<PaginaCursorDTO<PautaDTO>> listarPautasPorCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "false") boolean total) {
+        log.info("REST request para listar pautas por cursor: size={}, total={}", size, total);
+        
+        PaginaCursorDTO<PautaDTO> result = pautaService.listarPautas(cursor, size, total);
+        
+        return ResponseEntity.ok(result);
+    }
+    
     /**
      * GET /api/v1/pautas/{id} : Get details of a specific agenda
      *
@@ -1,5 +1,6 @@
 package com.cooperativa.sistema.votacao.controller;
 
+import com.cooperativa.sistema.votacao.dto.PaginaCursorDTO;
 import com.cooperativa.sistema.votacao.dto.ResultadoVotacaoDTO;
 import com.cooperativa.sistema.votacao.dto.SessaoVotacaoDTO;
 import com.cooperativa.sistema.votacao.dto.SessaoRequest;
@@ -111,4 +112,24 @@ public class SessaoVotacaoController {
         
         return ResponseEntity.ok(result);
     }
+    
+    /**
+     * GET /api/v1/sessoes/cursor : List voting sessions by cursor, without the page count
+     *
+     * @param cursor Cursor of the next page, as returned in proximo (omit for the first page)
+     * @param size Page size (default: 10)
+     * @param total Whether to include the approximate total (default: false)
+     * @return ResponseEntity with the page of voting sessions
+     */
+    @GetMapping("/sessoes/cursor")
+    public ResponseEntity<PaginaCursorDTO<SessaoVotacaoDTO>> listarSessoesPorCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "false") boolean total) {
+        log.info("REST request para listar sessões de votação por cursor: size={}, total={}", size, total);
+        
+        PaginaCursorDTO<SessaoVotacaoDTO> result = sessaoService.listarSessoes(cursor, size, total);
+        
+        return ResponseEntity.ok(result);
+    }
 }
\ No newline at end of file
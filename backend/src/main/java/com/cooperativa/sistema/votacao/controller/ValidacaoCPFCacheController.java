@@ -0,0 +1,50 @@
+package com.cooperativa.sistema.votacao.controller;
+
+import com.cooperativa.sistema.votacao.cache.ValidacaoCPFCache;
+import com.cooperativa.sistema.votacao.client.ValidadorDigitosCPF;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * REST controller for evicting cached CPF validation outcomes
+ */
+@RestController
+@RequestMapping("/api/v1/cpf-validacoes/cache")
+@Slf4j
+public class ValidacaoCPFCacheController {
+
+    private final ValidacaoCPFCache cache;
+
+    @Autowired
+    public ValidacaoCPFCacheController(ValidacaoCPFCache cache) {
+        this.cache = cache;
+    }
+
+    /**
+     * DELETE /api/v1/cpf-validacoes/cache/{cpf} : Evict the cached outcome of a CPF
+     *
+     * @param cpf CPF to evict, with or without formatting
+     * @return ResponseEntity with HTTP status 204 (No Content)
+     */
+    @DeleteMapping("/{cpf}")
+    public ResponseEntity<Void> invalidar(@PathVariable String cpf) {
+        log.info("REST request para remover CPF {} do cache de validação", cpf);
+        // The cache is keyed by the digits only, as CPFValidator looks it up
+        cache.invalidar(ValidadorDigitosCPF.normalizar(cpf));
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * DELETE /api/v1/cpf-validacoes/cache : Evict every cached outcome
+     *
+     * @return ResponseEntity with HTTP status 204 (No Content)
+     */
+    @DeleteMapping
+    public ResponseEntity<Void> invalidarTodos() {
+        log.info("REST request para esvaziar o cache de validação de CPF");
+        cache.invalidarTodos();
+        return ResponseEntity.noContent().build();
+    }
+}
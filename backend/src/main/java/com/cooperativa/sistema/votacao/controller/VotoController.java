@@ -40,4 +40,21 @@ public class VotoController {
         VotoDTO result = votoService.registrarVoto(sessaoId, request);
         return ResponseEntity.status(HttpStatus.CREATED).body(result);
     }
+    
+    /**
+     * GET /api/v1/sessoes/{sessaoId}/votos/{idAssociado} : Get the vote of an associate in a session
+     * Used to confirm that a vote accepted asynchronously was persisted
+     *
+     * @param sessaoId ID of the voting session
+     * @param idAssociado ID of the associate
+     * @return ResponseEntity with the vote
+     */
+    @GetMapping("/sessoes/{sessaoId}/votos/{idAssociado}")
+    public ResponseEntity<VotoDTO> obterVoto(
+            @PathVariable Long sessaoId,
+            @PathVariable String idAssociado) {
+        log.info("REST request para obter voto do associado {} na sessão {}", idAssociado, sessaoId);
+        VotoDTO result = votoService.obterVoto(sessaoId, idAssociado);
+        return ResponseEntity.ok(result);
+    }
 }
\ No newline at end of file
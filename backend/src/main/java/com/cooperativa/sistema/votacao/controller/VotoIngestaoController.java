@@ -0,0 +1,49 @@
+package com.cooperativa.sistema.votacao.controller;
+
+import com.cooperativa.sistema.votacao.dto.ReciboVotoDTO;
+import com.cooperativa.sistema.votacao.dto.VotoRequest;
+import com.cooperativa.sistema.votacao.service.VotoIngestaoService;
+import jakarta.validation.Valid;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.net.URI;
+
+/**
+ * REST controller for the asynchronous vote ingestion
+ * Only enabled when votacao.ingestao.assincrona.enabled=true
+ */
+@RestController
+@RequestMapping("/api/v1")
+@ConditionalOnProperty(name = "votacao.ingestao.assincrona.enabled", havingValue = "true")
+@Slf4j
+public class VotoIngestaoController {
+    
+    private final VotoIngestaoService votoIngestaoService;
+    
+    @Autowired
+    public VotoIngestaoController(VotoIngestaoService votoIngestaoService) {
+        this.votoIngestaoService = votoIngestaoService;
+    }
+    
+    /**
+     * POST /api/v1/sessoes/{sessaoId}/votos/assincrono : Queue a vote for persistence
+     *
+     * @param sessaoId ID of the voting session
+     * @param request VotoRequest containing vote details
+     * @return ResponseEntity with the vote receipt and HTTP status 202 (Accepted)
+     */
+    @PostMapping("/sessoes/{sessaoId}/votos/assincrono")
+    public ResponseEntity<ReciboVotoDTO> enfileirarVoto(
+            @PathVariable Long sessaoId,
+            @Valid @RequestBody VotoRequest request) {
+        log.info("REST request para enfileirar voto na sessão {}: {}", sessaoId, request);
+        ReciboVotoDTO result = votoIngestaoService.enfileirar(sessaoId, request);
+        return ResponseEntity.accepted()
+                .location(URI.create(result.getUrlConfirmacao()))
+                .body(result);
+    }
+}
@@ -0,0 +1,65 @@
+package com.cooperativa.sistema.votacao.controller;
+
+import com.cooperativa.sistema.votacao.dto.ResultadoLoteVotosDTO;
+import com.cooperativa.sistema.votacao.dto.VotoRequest;
+import com.cooperativa.sistema.votacao.service.VotoLoteService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.InputStream;
+import java.util.List;
+
+/**
+ * REST controller for bulk vote submissions
+ */
+@RestController
+@RequestMapping("/api/v1")
+@Slf4j
+public class VotoLoteController {
+    
+    private final VotoLoteService votoLoteService;
+    
+    @Autowired
+    public VotoLoteController(VotoLoteService votoLoteService) {
+        this.votoLoteService = votoLoteService;
+    }
+    
+    /**
+     * POST /api/v1/sessoes/{sessaoId}/votos/lote : Register a batch of votes sent as a JSON array
+     * Invalid votes are reported per item instead of failing the whole batch
+     *
+     * @param sessaoId ID of the voting session
+     * @param corpo Request body
+     * @return ResponseEntity with the outcome of each vote
+     */
+    @PostMapping(value = "/sessoes/{sessaoId}/votos/lote", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ResultadoLoteVotosDTO> registrarLote(
+            @PathVariable Long sessaoId,
+            InputStream corpo) {
+        // Read element by element, so an oversized array is rejected without deserializing all of it
+        List<VotoRequest> requests = votoLoteService.lerJson(corpo);
+        log.info("REST request para registrar lote de {} votos na sessão {}", requests.size(), sessaoId);
+        ResultadoLoteVotosDTO result = votoLoteService.registrarLote(sessaoId, requests);
+        return ResponseEntity.ok(result);
+    }
+    
+    /**
+     * POST /api/v1/sessoes/{sessaoId}/votos/lote : Register a batch of votes sent as NDJSON, one vote per line
+     *
+     * @param sessaoId ID of the voting session
+     * @param corpo Request body
+     * @return ResponseEntity with the outcome of each vote
+     */
+    @PostMapping(value = "/sessoes/{sessaoId}/votos/lote", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<ResultadoLoteVotosDTO> registrarLoteNdjson(
+            @PathVariable Long sessaoId,
+            InputStream corpo) {
+        log.info("REST request para registrar lote NDJSON de votos na sessão {}", sessaoId);
+        List<VotoRequest> requests = votoLoteService.lerNdjson(corpo);
+        ResultadoLoteVotosDTO result = votoLoteService.registrarLote(sessaoId, requests);
+        return ResponseEntity.ok(result);
+    }
+}
@@ -0,0 +1,25 @@
+package com.cooperativa.sistema.votacao.diagnostico;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event of counting the votes of a session and saving its result
+ */
+@Name(EventoApuracao.NOME)
+@Label("Apuração de resultado")
+@Category({"Votação", "Sessões"})
+@StackTrace(false)
+public class EventoApuracao extends Event {
+
+    public static final String NOME = "votacao.Apuracao";
+
+    @Label("Sessão")
+    public long sessaoId;
+
+    @Label("Total de votos")
+    public int totalVotos;
+}
@@ -0,0 +1,33 @@
+package com.cooperativa.sistema.votacao.diagnostico;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event of an HTTP call to the remote CPF validator
+ * The call is asynchronous, so the event is committed by the thread that receives the response.
+ */
+@Name(EventoChamadaValidadorCPF.NOME)
+@Label("Chamada ao validador de CPF")
+@Category({"Votação", "Validador de CPF"})
+@Description("Chamada HTTP ao validador de CPF, até a chegada da resposta")
+@StackTrace(false)
+public class EventoChamadaValidadorCPF extends Event {
+
+    public static final String NOME = "votacao.ChamadaValidadorCPF";
+
+    @Label("Tipo")
+    @Description("individual ou lote")
+    public String tipo;
+
+    @Label("CPFs")
+    public int cpfs;
+
+    @Label("Status HTTP")
+    @Description("Status da resposta, 0 quando não houve resposta")
+    public int status;
+}
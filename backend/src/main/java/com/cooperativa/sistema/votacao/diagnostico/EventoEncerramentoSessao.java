@@ -0,0 +1,28 @@
+package com.cooperativa.sistema.votacao.diagnostico;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event of closing voting sessions, including the wait for pending votes and the tally
+ */
+@Name(EventoEncerramentoSessao.NOME)
+@Label("Encerramento de sessão")
+@Category({"Votação", "Sessões"})
+@Description("Encerramento de sessões de votação, incluindo a espera pelos votos pendentes e a apuração")
+@StackTrace(false)
+public class EventoEncerramentoSessao extends Event {
+
+    public static final String NOME = "votacao.EncerramentoSessao";
+
+    @Label("Sessão")
+    @Description("Sessão encerrada, 0 quando encerradas em lote")
+    public long sessaoId;
+
+    @Label("Sessões encerradas")
+    public int sessoes;
+}
@@ -0,0 +1,40 @@
+package com.cooperativa.sistema.votacao.diagnostico;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event of a vote registration, from the session check until the transaction completes
+ */
+@Name(EventoRegistroVoto.NOME)
+@Label("Registro de voto")
+@Category({"Votação", "Votos"})
+@Description("Registro de um voto, da verificação da sessão até o fim da transação")
+@StackTrace(false)
+public class EventoRegistroVoto extends Event {
+
+    public static final String NOME = "votacao.RegistroVoto";
+    public static final String REGISTRADO = "registrado";
+    public static final String REVERTIDO = "revertido";
+
+    @Label("Sessão")
+    public long sessaoId;
+
+    @Label("Desfecho")
+    @Description("registrado, revertido ou o nome da exceção que recusou o voto")
+    public String desfecho;
+
+    /**
+     * Set the outcome and commit the event, ending its duration now
+     *
+     * @param desfecho Outcome of the registration
+     */
+    public void concluir(String desfecho) {
+        this.desfecho = desfecho;
+        commit();
+    }
+}
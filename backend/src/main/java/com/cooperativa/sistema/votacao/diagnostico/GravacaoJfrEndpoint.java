@@ -0,0 +1,159 @@
+package com.cooperativa.sistema.votacao.diagnostico;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Actuator endpoint to start, dump and stop a Java Flight Recorder recording in-process
+ * POST /actuator/jfr starts it, GET /actuator/jfr/dump downloads what was recorded so far and
+ * DELETE /actuator/jfr stops it, saving the recording to the configured directory. The business
+ * events of the application (votes, session closing, tallies and CPF validator calls) are
+ * recorded next to the JVM events of the chosen configuration, e.g. GC pauses and lock contention.
+ * Only one recording runs at a time; it keeps the last idade-maxima-minutos of events.
+ */
+@Component
+@Endpoint(id = "jfr")
+@Slf4j
+public class GravacaoJfrEndpoint implements DisposableBean {
+
+    static final String ACAO_DUMP = "dump";
+
+    private static final List<String> EVENTOS_APLICACAO = List.of(EventoRegistroVoto.NOME,
+            EventoEncerramentoSessao.NOME, EventoApuracao.NOME, EventoChamadaValidadorCPF.NOME);
+    private static final DateTimeFormatter FORMATO_ARQUIVO = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private final Path diretorio;
+    private final Duration idadeMaxima;
+    private Recording gravacao;
+
+    public GravacaoJfrEndpoint(
+            @Value("${votacao.jfr.diretorio:${java.io.tmpdir}}") String diretorio,
+            @Value("${votacao.jfr.idade-maxima-minutos:30}") long idadeMaximaMinutos) {
+        this.diretorio = Path.of(diretorio);
+        this.idadeMaxima = Duration.ofMinutes(idadeMaximaMinutos);
+    }
+
+    /**
+     * State of the recording
+     */
+    @ReadOperation
+    public synchronized Map<String, Object> estado() {
+        Map<String, Object> estado = new LinkedHashMap<>();
+        estado.put("gravando", isGravando());
+        if (gravacao != null) {
+            estado.put("inicio", gravacao.getStartTime());
+            estado.put("tamanhoBytes", gravacao.getSize());
+            estado.put("idadeMaxima", gravacao.getMaxAge());
+        }
+        estado.put("diretorio", diretorio.toAbsolutePath().toString());
+        return estado;
+    }
+
+    /**
+     * Start a recording, unless one is already running
+     *
+     * @param configuracao JFR configuration of the JVM events, "default" or "profile" (default)
+     * @return State of the recording
+     * @throws InvalidEndpointRequestException if the configuration does not exist
+     */
+    @WriteOperation
+    public synchronized Map<String, Object> iniciar(@Nullable String configuracao) {
+        if (isGravando()) {
+            return estado();
+        }
+        destroy();
+        String nome = configuracao != null ? configuracao : "profile";
+        try {
+            gravacao = new Recording(Configuration.getConfiguration(nome));
+        } catch (IOException | ParseException e) {
+            throw new InvalidEndpointRequestException("Configuração JFR desconhecida: " + nome, e.getMessage());
+        }
+        gravacao.setName("votacao");
+        gravacao.setToDisk(true);
+        gravacao.setMaxAge(idadeMaxima);
+        EVENTOS_APLICACAO.forEach(evento -> gravacao.enable(evento).withoutThreshold());
+        gravacao.start();
+        log.info("Gravação JFR iniciada com a configuração {}", nome);
+        return estado();
+    }
+
+    /**
+     * Write what was recorded so far to a file and download it, without stopping the recording
+     *
+     * @param acao Must be "dump"
+     * @return Recording file, or null (404) when not recording
+     */
+    @ReadOperation(produces = "application/octet-stream")
+    public synchronized Resource dump(@Selector String acao) {
+        if (!ACAO_DUMP.equals(acao) || !isGravando()) {
+            return null;
+        }
+        return new FileSystemResource(salvar());
+    }
+
+    /**
+     * Stop the recording, saving it to the configured directory
+     *
+     * @return Path of the saved recording, or empty when not recording
+     */
+    @DeleteOperation
+    public synchronized Map<String, Object> parar() {
+        if (!isGravando()) {
+            return Map.of();
+        }
+        Path arquivo = salvar();
+        gravacao.close();
+        gravacao = null;
+        log.info("Gravação JFR encerrada e salva em {}", arquivo);
+        return Map.of("arquivo", arquivo.toString());
+    }
+
+    @Override
+    public synchronized void destroy() {
+        if (gravacao != null) {
+            gravacao.close();
+            gravacao = null;
+        }
+    }
+
+    private boolean isGravando() {
+        return gravacao != null && gravacao.getState() == RecordingState.RUNNING;
+    }
+
+    private Path salvar() {
+        try {
+            Files.createDirectories(diretorio);
+            Path arquivo = diretorio.resolve("votacao-" + LocalDateTime.now().format(FORMATO_ARQUIVO) + ".jfr");
+            gravacao.dump(arquivo);
+            return arquivo;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Não foi possível salvar a gravação JFR", e);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.cooperativa.sistema.votacao.diagnostico;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Logs virtual threads pinned to their carrier thread, e.g. while blocking inside a
+ * synchronized block of a JDBC driver or HTTP client
+ * Listens to the jdk.VirtualThreadPinned JFR event in-process, so no recording file or
+ * -Djdk.tracePinnedThreads flag is needed. Only pinnings longer than the threshold are reported.
+ */
+@Component
+@ConditionalOnProperty(name = "votacao.virtual-threads.diagnostico-pinning.enabled", havingValue = "true")
+@Slf4j
+public class MonitorPinningThreads implements SmartLifecycle {
+
+    static final String EVENTO_PINNING = "jdk.VirtualThreadPinned";
+
+    private static final int QUADROS_EXIBIDOS = 8;
+
+    private final Duration limite;
+    private final LongAdder ocorrencias = new LongAdder();
+    private RecordingStream stream;
+
+    public MonitorPinningThreads(
+            @Value("${votacao.virtual-threads.diagnostico-pinning.limite-ms:20}") long limiteMs) {
+        this.limite = Duration.ofMillis(limiteMs);
+    }
+
+    /**
+     * Number of pinnings reported since the application started
+     *
+     * @return Count of jdk.VirtualThreadPinned events above the threshold
+     */
+    public long getOcorrencias() {
+        return ocorrencias.sum();
+    }
+
+    @Override
+    public void start() {
+        stream = new RecordingStream();
+        stream.enable(EVENTO_PINNING).withThreshold(limite).withStackTrace();
+        stream.onEvent(EVENTO_PINNING, this::registrar);
+        stream.startAsync();
+        log.info("Diagnóstico de pinning de virtual threads ativo (limite: {} ms)", limite.toMillis());
+    }
+
+    @Override
+    public void stop() {
+        stream.close();
+        stream = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return stream != null;
+    }
+
+    void registrar(RecordedEvent evento) {
+        ocorrencias.increment();
+        log.warn("Virtual thread {} presa à carrier thread por {} ms em:\n{}",
+                evento.getThread() != null ? evento.getThread().getJavaName() : "?",
+                evento.getDuration().toMillis(),
+                formatarPilha(evento));
+    }
+
+    private static String formatarPilha(RecordedEvent evento) {
+        if (evento.getStackTrace() == null) {
+            return "\t(pilha indisponível)";
+        }
+        List<RecordedFrame> quadros = evento.getStackTrace().getFrames();
+        return quadros.stream()
+                .limit(QUADROS_EXIBIDOS)
+                .map(quadro -> "\tat " + quadro.getMethod().getType().getName() + "." + quadro.getMethod().getName()
+                        + "(linha " + quadro.getLineNumber() + ")")
+                .collect(Collectors.joining("\n"));
+    }
+}
@@ -22,7 +22,8 @@ import java.util.List;
 public class Pauta {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "pauta_seq")
+    @SequenceGenerator(name = "pauta_seq", sequenceName = "pauta_seq", allocationSize = 50)
     private Long id;
     
     @Column(nullable = false)
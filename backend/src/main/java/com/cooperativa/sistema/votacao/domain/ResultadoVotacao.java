@@ -20,7 +20,8 @@ import java.time.LocalDateTime;
 public class ResultadoVotacao {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "resultado_votacao_seq")
+    @SequenceGenerator(name = "resultado_votacao_seq", sequenceName = "resultado_votacao_seq", allocationSize = 50)
     private Long id;
     
     @OneToOne(fetch = FetchType.LAZY)
@@ -22,7 +22,8 @@ import java.util.List;
 public class SessaoVotacao {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sessao_votacao_seq")
+    @SequenceGenerator(name = "sessao_votacao_seq", sequenceName = "sessao_votacao_seq", allocationSize = 50)
     private Long id;
     
     @ManyToOne(fetch = FetchType.LAZY)
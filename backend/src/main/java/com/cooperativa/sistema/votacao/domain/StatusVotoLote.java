@@ -0,0 +1,13 @@
+package com.cooperativa.sistema.votacao.domain;
+
+/**
+ * Enumeration for the outcome of each vote of a bulk submission
+ */
+public enum StatusVotoLote {
+    ACEITO,
+    REQUISICAO_INVALIDA,
+    VOTO_DUPLICADO,
+    CPF_INVALIDO,
+    ASSOCIADO_NAO_PODE_VOTAR,
+    ERRO
+}
@@ -0,0 +1,32 @@
+package com.cooperativa.sistema.votacao.domain;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entity representing a lease on a piece of work shared by all application instances,
+ * e.g. closing a session, held by one instance until it expires or is released
+ */
+@Entity
+@Table(name = "trava_execucao")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TravaExecucao {
+
+    @Id
+    @Column(length = 100)
+    private String nome;
+
+    @Column(nullable = false, length = 100)
+    private String dono;
+
+    @Column(nullable = false)
+    private LocalDateTime expiraEm;
+}
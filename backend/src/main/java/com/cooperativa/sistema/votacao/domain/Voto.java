@@ -21,7 +21,8 @@ import java.time.LocalDateTime;
 public class Voto {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "voto_seq")
+    @SequenceGenerator(name = "voto_seq", sequenceName = "voto_seq", allocationSize = 50)
     private Long id;
     
     @Column(name = "id_associado", nullable = false)
@@ -43,6 +44,8 @@ public class Voto {
     
     @PrePersist
     protected void onCreate() {
-        dataHoraVoto = LocalDateTime.now();
+        if (dataHoraVoto == null) {
+            dataHoraVoto = LocalDateTime.now();
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,22 @@
+package com.cooperativa.sistema.votacao.dto;
+
+import com.cooperativa.sistema.votacao.domain.StatusVotacao;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Validation result of one CPF of a batch
+ * The status is only present for valid CPFs.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CPFValidationBatchItem {
+    
+    private String cpf;
+    private boolean valido;
+    private StatusVotacao status;
+}
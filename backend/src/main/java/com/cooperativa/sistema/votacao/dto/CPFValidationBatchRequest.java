@@ -0,0 +1,20 @@
+package com.cooperativa.sistema.votacao.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Request object for validating several CPFs in a single call
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CPFValidationBatchRequest {
+    
+    private List<String> cpfs;
+}
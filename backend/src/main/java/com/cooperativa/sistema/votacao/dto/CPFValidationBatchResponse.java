@@ -0,0 +1,20 @@
+package com.cooperativa.sistema.votacao.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Response object for the validation of several CPFs in a single call
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CPFValidationBatchResponse {
+    
+    private List<CPFValidationBatchItem> resultados;
+}
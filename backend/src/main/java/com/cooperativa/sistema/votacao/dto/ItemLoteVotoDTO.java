@@ -0,0 +1,22 @@
+package com.cooperativa.sistema.votacao.dto;
+
+import com.cooperativa.sistema.votacao.domain.StatusVotoLote;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data Transfer Object for the outcome of a single vote of a bulk submission
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemLoteVotoDTO {
+    
+    private Integer indice;
+    private String idAssociado;
+    private StatusVotoLote status;
+    private String mensagem;
+}
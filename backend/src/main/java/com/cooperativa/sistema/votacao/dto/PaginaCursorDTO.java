@@ -0,0 +1,24 @@
+package com.cooperativa.sistema.votacao.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object for one page of a cursor (keyset) listing
+ * proximo is the opaque cursor of the next page, null on the last one; totalAproximado is only
+ * filled when requested and may lag behind the table by the count's cache time.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaginaCursorDTO<T> {
+
+    private List<T> conteudo;
+    private String proximo;
+    private Long totalAproximado;
+}
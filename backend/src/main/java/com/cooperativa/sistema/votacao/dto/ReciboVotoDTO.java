@@ -0,0 +1,25 @@
+package com.cooperativa.sistema.votacao.dto;
+
+import com.cooperativa.sistema.votacao.domain.OpcaoVoto;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Receipt for a vote accepted by the asynchronous ingestion, before it is persisted
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReciboVotoDTO {
+    
+    private Long sessaoId;
+    private String idAssociado;
+    private OpcaoVoto opcao;
+    private LocalDateTime dataHoraVoto;
+    private String urlConfirmacao;
+}
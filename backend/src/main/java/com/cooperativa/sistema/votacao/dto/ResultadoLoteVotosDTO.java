@@ -0,0 +1,24 @@
+package com.cooperativa.sistema.votacao.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object for the outcome of a bulk vote submission
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResultadoLoteVotosDTO {
+    
+    private Long sessaoId;
+    private Integer totalRecebidos;
+    private Integer totalAceitos;
+    private Integer totalRejeitados;
+    private List<ItemLoteVotoDTO> itens;
+}
@@ -205,6 +205,70 @@ public class ApiExceptionHandler {
         return new ResponseEntity<>(response, HttpStatus.FORBIDDEN);
     }
 
+    /**
+     * Handle FilaVotosCheiaException
+     */
+    @ExceptionHandler(FilaVotosCheiaException.class)
+    public ResponseEntity<ErrorResponse> handleFilaVotosCheiaException(
+            FilaVotosCheiaException ex, WebRequest request) {
+        
+        log.error("Fila de votos cheia: {}", ex.getMessage());
+        ErrorResponse response = new ErrorResponse(
+                HttpStatus.SERVICE_UNAVAILABLE,
+                ex.getMessage(),
+                request.getDescription(false).substring(4));
+        
+        return new ResponseEntity<>(response, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    /**
+     * Handle ValidadorCPFIndisponivelException
+     */
+    @ExceptionHandler(ValidadorCPFIndisponivelException.class)
+    public ResponseEntity<ErrorResponse> handleValidadorCPFIndisponivelException(
+            ValidadorCPFIndisponivelException ex, WebRequest request) {
+        
+        log.error("Validador de CPF indisponível: {}", ex.getMessage());
+        ErrorResponse response = new ErrorResponse(
+                HttpStatus.SERVICE_UNAVAILABLE,
+                ex.getMessage(),
+                request.getDescription(false).substring(4));
+        
+        return new ResponseEntity<>(response, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    /**
+     * Handle LoteVotosInvalidoException
+     */
+    @ExceptionHandler(LoteVotosInvalidoException.class)
+    public ResponseEntity<ErrorResponse> handleLoteVotosInvalidoException(
+            LoteVotosInvalidoException ex, WebRequest request) {
+        
+        log.error("Lote de votos inválido: {}", ex.getMessage());
+        ErrorResponse response = new ErrorResponse(
+                HttpStatus.BAD_REQUEST,
+                ex.getMessage(),
+                request.getDescription(false).substring(4));
+        
+        return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
+    }
+
+    /**
+     * Handle PaginacaoInvalidaException
+     */
+    @ExceptionHandler(PaginacaoInvalidaException.class)
+    public ResponseEntity<ErrorResponse> handlePaginacaoInvalidaException(
+            PaginacaoInvalidaException ex, WebRequest request) {
+
+        log.error("Paginação inválida: {}", ex.getMessage());
+        ErrorResponse response = new ErrorResponse(
+                HttpStatus.BAD_REQUEST,
+                ex.getMessage(),
+                request.getDescription(false).substring(4));
+
+        return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
+    }
+
     /**
      * Handle general exceptions
      */
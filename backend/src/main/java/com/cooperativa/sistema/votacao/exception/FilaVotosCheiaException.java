@@ -0,0 +1,19 @@
+package com.cooperativa.sistema.votacao.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exception thrown when the asynchronous vote ingestion queue is full
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class FilaVotosCheiaException extends RuntimeException {
+    
+    public FilaVotosCheiaException(String message) {
+        super(message);
+    }
+    
+    public FilaVotosCheiaException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,19 @@
+package com.cooperativa.sistema.votacao.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exception thrown when a bulk vote submission cannot be read or exceeds the size limit
+ */
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class LoteVotosInvalidoException extends RuntimeException {
+    
+    public LoteVotosInvalidoException(String message) {
+        super(message);
+    }
+    
+    public LoteVotosInvalidoException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,19 @@
+package com.cooperativa.sistema.votacao.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exception thrown when a listing cursor cannot be read or the page size is out of range
+ */
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class PaginacaoInvalidaException extends RuntimeException {
+
+    public PaginacaoInvalidaException(String message) {
+        super(message);
+    }
+
+    public PaginacaoInvalidaException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,19 @@
+package com.cooperativa.sistema.votacao.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exception thrown when the CPF validator is not called because its circuit is open or too many calls are in flight
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class ValidadorCPFIndisponivelException extends RuntimeException {
+    
+    public ValidadorCPFIndisponivelException(String message) {
+        super(message);
+    }
+    
+    public ValidadorCPFIndisponivelException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -1,6 +1,7 @@
 package com.cooperativa.sistema.votacao.repository;
 
 import com.cooperativa.sistema.votacao.domain.Associado;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -8,6 +9,8 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -32,6 +35,13 @@ public interface AssociadoRepository extends JpaRepository<Associado, String> {
      */
     boolean existsByCpf(String cpf);
     
+    /**
+     * Count active associates
+     * 
+     * @return Number of active associates
+     */
+    long countByAtivoTrue();
+    
     /**
      * Find associates by name or CPF
      * 
@@ -45,4 +55,26 @@ public interface AssociadoRepository extends JpaRepository<Associado, String> {
             @Param("nome") String nome, 
             @Param("cpf") String cpf, 
             Pageable pageable);
+    
+    /**
+     * First page of the cursor listing, newest associates first
+     * 
+     * @param limite Maximum number of associates
+     * @return Associates ordered by registration date and ID, descending
+     */
+    @Query("SELECT a FROM Associado a ORDER BY a.dataCadastro DESC, a.id DESC")
+    List<Associado> findPrimeiraPagina(Limit limite);
+    
+    /**
+     * Next page of the cursor listing: the associates after the last one of the previous page
+     * The redundant dataCadastro <= bound is what lets the database seek on the index.
+     * 
+     * @param dataCadastro Registration date of the last associate of the previous page
+     * @param id ID of the last associate of the previous page
+     * @param limite Maximum number of associates
+     * @return Associates ordered by registration date and ID, descending
+     */
+    @Query("SELECT a FROM Associado a WHERE a.dataCadastro <= :dataCadastro " +
+           "AND (a.dataCadastro < :dataCadastro OR a.id < :id) ORDER BY a.dataCadastro DESC, a.id DESC")
+    List<Associado> findPaginaApos(@Param("dataCadastro") LocalDateTime dataCadastro, @Param("id") String id, Limit limite);
 }
\ No newline at end of file
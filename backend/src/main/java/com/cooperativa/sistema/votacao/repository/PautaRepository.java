@@ -1,13 +1,40 @@
 package com.cooperativa.sistema.votacao.repository;
 
 import com.cooperativa.sistema.votacao.domain.Pauta;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 /**
  * Repository for Pauta entity
  */
 @Repository
 public interface PautaRepository extends JpaRepository<Pauta, Long> {
-    // Default methods from JpaRepository are sufficient for now
+    
+    /**
+     * First page of the cursor listing, newest agendas first
+     * 
+     * @param limite Maximum number of agendas
+     * @return Agendas ordered by creation date and ID, descending
+     */
+    @Query("SELECT p FROM Pauta p ORDER BY p.dataCriacao DESC, p.id DESC")
+    List<Pauta> findPrimeiraPagina(Limit limite);
+    
+    /**
+     * Next page of the cursor listing: the agendas after the last one of the previous page
+     * The redundant dataCriacao <= bound is what lets the database seek on the index.
+     * 
+     * @param dataCriacao Creation date of the last agenda of the previous page
+     * @param id ID of the last agenda of the previous page
+     * @param limite Maximum number of agendas
+     * @return Agendas ordered by creation date and ID, descending
+     */
+    @Query("SELECT p FROM Pauta p WHERE p.dataCriacao <= :dataCriacao " +
+           "AND (p.dataCriacao < :dataCriacao OR p.id < :id) ORDER BY p.dataCriacao DESC, p.id DESC")
+    List<Pauta> findPaginaApos(@Param("dataCriacao") LocalDateTime dataCriacao, @Param("id") Long id, Limit limite);
 }
\ No newline at end of file
@@ -0,0 +1,70 @@
+package com.cooperativa.sistema.votacao.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+/**
+ * Repository for tallying the results of many closed sessions with a single statement
+ * Result ids are taken straight from resultado_votacao_seq. With the pooled optimizer each
+ * value V reserves the ids (V - allocationSize, V] for whoever read it, so V itself never
+ * collides with ids handed out by Hibernate; the rest of the block is skipped.
+ * Must be called inside a transaction.
+ */
+@Repository
+public class ResultadoLoteRepository {
+
+    private static final String APURAR = """
+            INSERT INTO resultado_votacao (id, sessao_votacao_id, total_votos, votos_sim, votos_nao, data_apuracao)
+            SELECT %s, contagem.sessao_id, contagem.total, contagem.sim, contagem.nao, :dataApuracao
+            FROM (
+                SELECT s.id AS sessao_id,
+                       COUNT(v.id) AS total,
+                       COALESCE(SUM(CASE WHEN v.opcao = 'SIM' THEN 1 ELSE 0 END), 0) AS sim,
+                       COALESCE(SUM(CASE WHEN v.opcao = 'NAO' THEN 1 ELSE 0 END), 0) AS nao
+                FROM sessao_votacao s
+                LEFT JOIN voto v ON v.sessao_votacao_id = s.id
+                WHERE s.id IN (:sessaoIds)
+                  AND s.encerrada = true
+                  AND NOT EXISTS (SELECT 1 FROM resultado_votacao r WHERE r.sessao_votacao_id = s.id)
+                GROUP BY s.id
+            ) contagem
+            """;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final String apurar;
+
+    @Autowired
+    public ResultadoLoteRepository(EntityManagerFactory entityManagerFactory) {
+        String proximoId = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices().getDialect().getSequenceSupport()
+                .getSelectSequenceNextValString("resultado_votacao_seq");
+        this.apurar = APURAR.formatted(proximoId);
+    }
+
+    /**
+     * Count the votes of every given session that is closed and has no result yet, and insert their results
+     * Sessions already tallied are skipped, so calling it again is harmless.
+     *
+     * @param sessaoIds IDs of the voting sessions
+     * @param dataApuracao Tally time recorded on the results
+     * @return Number of results inserted
+     */
+    public int apurar(Collection<Long> sessaoIds, LocalDateTime dataApuracao) {
+        if (sessaoIds.isEmpty()) {
+            return 0;
+        }
+        return entityManager.createNativeQuery(apurar)
+                .setParameter("sessaoIds", sessaoIds)
+                .setParameter("dataApuracao", dataApuracao)
+                .executeUpdate();
+    }
+}
@@ -1,11 +1,14 @@
 package com.cooperativa.sistema.votacao.repository;
 
 import com.cooperativa.sistema.votacao.domain.SessaoVotacao;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -22,6 +25,32 @@ public interface SessaoVotacaoRepository extends JpaRepository<SessaoVotacao, Lo
      */
     List<SessaoVotacao> findByEncerradaFalseAndDataFechamentoBefore(LocalDateTime now);
     
+    /**
+     * Mark voting sessions as closed with a single UPDATE
+     * 
+     * @param ids IDs of the voting sessions
+     * @return Number of sessions that were still open
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE SessaoVotacao s SET s.encerrada = true WHERE s.id IN :ids AND s.encerrada = false")
+    int encerrarTodas(Collection<Long> ids);
+    
+    /**
+     * Check if a voting session is closed, without loading the session entity
+     * 
+     * @param id ID of the voting session
+     * @return true if the session is closed, false if it is open, null if it does not exist
+     */
+    @Query("SELECT s.encerrada FROM SessaoVotacao s WHERE s.id = :id")
+    Boolean findEncerradaById(Long id);
+    
+    /**
+     * Find all voting sessions that are not closed yet
+     * 
+     * @return List of voting sessions not closed
+     */
+    List<SessaoVotacao> findByEncerradaFalse();
+    
     /**
      * Find all voting sessions for a specific agenda
      * 
@@ -40,4 +69,26 @@ public interface SessaoVotacaoRepository extends JpaRepository<SessaoVotacao, Lo
     @Query("SELECT CASE WHEN COUNT(s) > 0 THEN true ELSE false END FROM SessaoVotacao s " +
            "WHERE s.pauta.id = :pautaId AND s.encerrada = false AND s.dataAbertura <= :now AND s.dataFechamento >= :now")
     boolean existsOpenSessionForPauta(Long pautaId, LocalDateTime now);
+    
+    /**
+     * First page of the cursor listing, most recently opened sessions first, with their agenda
+     * 
+     * @param limite Maximum number of sessions
+     * @return Voting sessions ordered by opening date and ID, descending
+     */
+    @Query("SELECT s FROM SessaoVotacao s JOIN FETCH s.pauta ORDER BY s.dataAbertura DESC, s.id DESC")
+    List<SessaoVotacao> findPrimeiraPagina(Limit limite);
+    
+    /**
+     * Next page of the cursor listing: the sessions after the last one of the previous page
+     * The redundant dataAbertura <= bound is what lets the database seek on the index.
+     * 
+     * @param dataAbertura Opening date of the last session of the previous page
+     * @param id ID of the last session of the previous page
+     * @param limite Maximum number of sessions
+     * @return Voting sessions ordered by opening date and ID, descending
+     */
+    @Query("SELECT s FROM SessaoVotacao s JOIN FETCH s.pauta WHERE s.dataAbertura <= :dataAbertura " +
+           "AND (s.dataAbertura < :dataAbertura OR s.id < :id) ORDER BY s.dataAbertura DESC, s.id DESC")
+    List<SessaoVotacao> findPaginaApos(LocalDateTime dataAbertura, Long id, Limit limite);
 }
\ No newline at end of file
@@ -0,0 +1,54 @@
+package com.cooperativa.sistema.votacao.repository;
+
+import com.cooperativa.sistema.votacao.domain.TravaExecucao;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Repository for TravaExecucao entity
+ * Every statement is a single conditional write, so concurrent instances are serialized by the row lock.
+ */
+@Repository
+public interface TravaExecucaoRepository extends JpaRepository<TravaExecucao, String> {
+
+    /**
+     * Take over a lease that is expired or already held by the same owner
+     *
+     * @param nome Name of the lease
+     * @param dono Instance taking the lease
+     * @param expiraEm New expiration time
+     * @param agora Current time
+     * @return 1 if the lease was taken, 0 if it does not exist or is held by another instance
+     */
+    @Modifying
+    @Query("UPDATE TravaExecucao t SET t.dono = :dono, t.expiraEm = :expiraEm " +
+           "WHERE t.nome = :nome AND (t.dono = :dono OR t.expiraEm < :agora)")
+    int renovar(String nome, String dono, LocalDateTime expiraEm, LocalDateTime agora);
+
+    /**
+     * Create a lease, failing with a constraint violation if another instance created it first
+     *
+     * @param nome Name of the lease
+     * @param dono Instance taking the lease
+     * @param expiraEm Expiration time
+     */
+    @Modifying
+    @Query(value = "INSERT INTO trava_execucao (nome, dono, expira_em) VALUES (:nome, :dono, :expiraEm)",
+           nativeQuery = true)
+    void criar(String nome, String dono, LocalDateTime expiraEm);
+
+    /**
+     * Release a lease, only if still held by the given owner
+     *
+     * @param nome Name of the lease
+     * @param dono Instance releasing the lease
+     * @return 1 if the lease was released
+     */
+    @Modifying
+    @Query("DELETE FROM TravaExecucao t WHERE t.nome = :nome AND t.dono = :dono")
+    int liberar(String nome, String dono);
+}
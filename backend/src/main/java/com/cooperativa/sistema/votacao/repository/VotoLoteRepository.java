@@ -0,0 +1,48 @@
+package com.cooperativa.sistema.votacao.repository;
+
+import com.cooperativa.sistema.votacao.domain.Voto;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Repository for inserting votes in batches
+ * Vote ids come from a pooled sequence, so Hibernate groups the INSERTs into
+ * JDBC batches of hibernate.jdbc.batch_size statements.
+ * Must be called inside a transaction.
+ */
+@Repository
+public class VotoLoteRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Insert all votes, flushing them as JDBC batches
+     *
+     * @param votos Votes to insert
+     */
+    public void inserirLote(List<Voto> votos) {
+        votos.forEach(this::persistir);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    /**
+     * Insert a single vote
+     *
+     * @param voto Vote to insert
+     */
+    public void inserir(Voto voto) {
+        persistir(voto);
+        entityManager.flush();
+    }
+
+    private void persistir(Voto voto) {
+        // A vote retried after a rolled back batch still carries the id assigned by that batch
+        voto.setId(null);
+        entityManager.persist(voto);
+    }
+}
@@ -6,6 +6,8 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -32,6 +34,25 @@ public interface VotoRepository extends JpaRepository<Voto, Long> {
      */
     Optional<Voto> findBySessaoVotacaoIdAndIdAssociado(Long sessaoId, String idAssociado);
     
+    /**
+     * Get the IDs of all associates that voted in a session
+     * 
+     * @param sessaoId ID of the voting session
+     * @return List of associate IDs
+     */
+    @Query("SELECT v.idAssociado FROM Voto v WHERE v.sessaoVotacao.id = :sessaoId")
+    List<String> findIdAssociadoBySessaoVotacaoId(Long sessaoId);
+    
+    /**
+     * Get which of the given associates already voted in a session
+     * 
+     * @param sessaoId ID of the voting session
+     * @param idsAssociado IDs of the associates to check
+     * @return IDs of the associates that voted
+     */
+    @Query("SELECT v.idAssociado FROM Voto v WHERE v.sessaoVotacao.id = :sessaoId AND v.idAssociado IN :idsAssociado")
+    List<String> findIdAssociadoBySessaoVotacaoIdAndIdAssociadoIn(Long sessaoId, Collection<String> idsAssociado);
+    
     /**
      * Count votes by option for a specific voting session
      * 
@@ -53,8 +74,8 @@ public interface VotoRepository extends JpaRepository<Voto, Long> {
      * Get vote counts by option for a specific session
      * 
      * @param sessaoId ID of the voting session
-     * @return Object array with vote option and count
+     * @return List of object arrays with vote option and count
      */
     @Query("SELECT v.opcao, COUNT(v) FROM Voto v WHERE v.sessaoVotacao.id = :sessaoId GROUP BY v.opcao")
-    Object[][] countVotosBySessaoId(Long sessaoId);
+    List<Object[]> countVotosBySessaoId(Long sessaoId);
 }
\ No newline at end of file
@@ -0,0 +1,34 @@
+package com.cooperativa.sistema.votacao.scheduler;
+
+import com.cooperativa.sistema.votacao.client.CPFValidator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Scheduler for validating again the CPFs accepted provisionally while the CPF validator was unavailable
+ */
+@Component
+@Slf4j
+public class RevalidacaoCPFScheduler {
+
+    private final CPFValidator cpfValidator;
+
+    @Autowired
+    public RevalidacaoCPFScheduler(CPFValidator cpfValidator) {
+        this.cpfValidator = cpfValidator;
+    }
+
+    /**
+     * Validate the pending CPFs, by default every 30 seconds
+     */
+    @Scheduled(fixedDelayString = "${votacao.cpf.validador.revalidacao.intervalo-ms:30000}")
+    public void revalidarPendentes() {
+        try {
+            cpfValidator.revalidarPendentes();
+        } catch (Exception e) {
+            log.error("Erro ao revalidar CPFs pendentes: {}", e.getMessage());
+        }
+    }
+}
@@ -3,68 +3,305 @@ package com.cooperativa.sistema.votacao.scheduler;
 import com.cooperativa.sistema.votacao.domain.SessaoVotacao;
 import com.cooperativa.sistema.votacao.repository.SessaoVotacaoRepository;
 import com.cooperativa.sistema.votacao.service.SessaoVotacaoService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.SmartLifecycle;
 import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 
 /**
  * Scheduler for managing voting sessions
- * Responsible for closing expired sessions automatically
+ * Closes each session at its closing time: open sessions wait on a DelayQueue and a single timer
+ * thread hands each one to a virtual thread as soon as it is due; sessions due together are
+ * closed and tallied together with a few set-based statements. The queue is rebuilt from the
+ * database on startup, and a slow polling job remains as a safety net for sessions it missed,
+ * e.g. opened by another instance.
+ * With several instances a session is scheduled by the instance that opened it and by every
+ * instance started while it is open; the others only find it through the polling job. Since
+ * several instances may still be due to close the same session, each closing and each polling
+ * run first takes a lease in the database and only the instance holding it does the work.
  */
 @Component
 @Slf4j
-public class SessaoScheduler {
+public class SessaoScheduler implements SmartLifecycle {
+
+    static final String TRAVA_VERIFICACAO = "sessoes-expiradas";
 
     private final SessaoVotacaoService sessaoVotacaoService;
     private final SessaoVotacaoRepository sessaoVotacaoRepository;
+    private final TravaDistribuida trava;
+    private final Duration duracaoTravaFechamento;
+    private final Duration duracaoTravaVerificacao;
+    private final DelayQueue<FechamentoAgendado> fila = new DelayQueue<>();
+    private final Map<Long, FechamentoAgendado> agendados = new ConcurrentHashMap<>();
+    private final Timer atrasoFechamento;
+    private final DistributionSummary sessoesPorEncerramento;
+
+    private volatile boolean executando;
+    private Thread temporizador;
+    private ExecutorService encerramentos;
 
     @Autowired
     public SessaoScheduler(@Lazy SessaoVotacaoService sessaoVotacaoService,
-                          SessaoVotacaoRepository sessaoVotacaoRepository) {
+                          SessaoVotacaoRepository sessaoVotacaoRepository,
+                          TravaDistribuida trava,
+                          MeterRegistry meterRegistry,
+                          @Value("${votacao.cluster.trava-fechamento-ms:60000}") long duracaoTravaFechamentoMs,
+                          @Value("${votacao.sessao.verificacao-intervalo-ms:300000}") long intervaloVerificacaoMs) {
         this.sessaoVotacaoService = sessaoVotacaoService;
         this.sessaoVotacaoRepository = sessaoVotacaoRepository;
+        this.trava = trava;
+        this.duracaoTravaFechamento = Duration.ofMillis(duracaoTravaFechamentoMs);
+        // Held until the next run, so one instance keeps polling while it is alive
+        this.duracaoTravaVerificacao = Duration.ofMillis(intervaloVerificacaoMs);
+        this.atrasoFechamento = Timer.builder("votacao.sessoes.fechamento.atraso")
+                .description("Tempo entre o horário de fechamento da sessão e o seu encerramento")
+                .register(meterRegistry);
+        this.sessoesPorEncerramento = DistributionSummary.builder("votacao.sessoes.encerradas")
+                .description("Sessões encerradas a cada encerramento em lote")
+                .register(meterRegistry);
+        Gauge.builder("votacao.sessoes.fechamentos-agendados", agendados, Map::size)
+                .description("Sessões abertas com fechamento agendado")
+                .register(meterRegistry);
     }
 
     /**
      * Schedule session closing based on session end time
-     * This method would be called when a new session is created
-     * 
+     * Called when a new session is created; inside a transaction the session is only scheduled
+     * after commit, so a rolled back session is never closed. Scheduling a session again replaces
+     * its previous closing time.
+     *
      * @param sessao Session to schedule closing for
      */
     public void agendarFechamento(SessaoVotacao sessao) {
-        log.info("Agendando fechamento da sessão {} para {}", sessao.getId(), sessao.getDataFechamento());
-        // No need to explicitly schedule individual tasks since we have the batch job below
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    agendar(sessao.getId(), sessao.getDataFechamento());
+                }
+            });
+        } else {
+            agendar(sessao.getId(), sessao.getDataFechamento());
+        }
+    }
+
+    /**
+     * Drop the scheduled closing of a session, e.g. when it is closed manually
+     *
+     * @param sessaoId ID of the voting session
+     */
+    public void cancelarFechamento(Long sessaoId) {
+        FechamentoAgendado agendado = agendados.remove(sessaoId);
+        if (agendado != null) {
+            fila.remove(agendado);
+        }
+    }
+
+    /**
+     * Number of sessions waiting for their closing time
+     *
+     * @return Number of scheduled closings
+     */
+    public int getFechamentosAgendados() {
+        return agendados.size();
+    }
+
+    /**
+     * Schedule the closing of every open session when the application starts
+     * Sessions already past their closing time are closed right away.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void carregarSessoesAbertas() {
+        List<SessaoVotacao> sessoesAbertas = sessaoVotacaoRepository.findByEncerradaFalse();
+        sessoesAbertas.forEach(sessao -> agendar(sessao.getId(), sessao.getDataFechamento()));
+        log.info("Fechamento agendado para {} sessões abertas", sessoesAbertas.size());
     }
 
     /**
-     * Check for expired sessions every 10 seconds
-     * This is a batch job that closes all expired sessions
+     * Safety net for sessions without a scheduled closing, by default every 5 minutes
+     * Runs on a single instance at a time: the one holding the polling lease.
      */
-    @Scheduled(fixedRate = 10, timeUnit = TimeUnit.SECONDS)
+    @Scheduled(fixedRateString = "${votacao.sessao.verificacao-intervalo-ms:300000}",
+            initialDelayString = "${votacao.sessao.verificacao-intervalo-ms:300000}")
     public void verificarSessoesExpiradas() {
-        log.info("Verificando sessões expiradas");
-        
+        if (!trava.adquirir(TRAVA_VERIFICACAO, duracaoTravaVerificacao)) {
+            log.debug("Verificação de sessões expiradas feita por outra instância");
+            return;
+        }
+        log.debug("Verificando sessões expiradas");
+
         LocalDateTime now = LocalDateTime.now();
         List<SessaoVotacao> sessoesExpiradas = sessaoVotacaoRepository
                 .findByEncerradaFalseAndDataFechamentoBefore(now);
-        
+
         if (!sessoesExpiradas.isEmpty()) {
             log.info("Encontradas {} sessões expiradas para encerramento", sessoesExpiradas.size());
-            
-            for (SessaoVotacao sessao : sessoesExpiradas) {
-                log.info("Encerrando automaticamente a sessão {}", sessao.getId());
-                try {
-                    sessaoVotacaoService.encerrarSessao(sessao.getId());
-                } catch (Exception e) {
-                    log.error("Erro ao encerrar sessão {}: {}", sessao.getId(), e.getMessage());
+
+            Map<Long, LocalDateTime> fechamentos = new HashMap<>();
+            sessoesExpiradas.forEach(sessao -> fechamentos.put(sessao.getId(), sessao.getDataFechamento()));
+            encerrar(fechamentos);
+        }
+    }
+
+    @Override
+    public void start() {
+        executando = true;
+        encerramentos = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("encerrar-sessao-", 0).factory());
+        temporizador = new Thread(this::executar, "fechamento-sessoes");
+        temporizador.setDaemon(true);
+        temporizador.start();
+        log.info("Agendador de fechamento de sessões iniciado");
+    }
+
+    @Override
+    public void stop() {
+        executando = false;
+        temporizador.interrupt();
+        try {
+            temporizador.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Closings already started are allowed to finish; the pending ones are picked up on the next startup
+        encerramentos.close();
+        log.info("Agendador de fechamento de sessões encerrado");
+    }
+
+    @Override
+    public boolean isRunning() {
+        return executando;
+    }
+
+    private void agendar(Long sessaoId, LocalDateTime dataFechamento) {
+        long atrasoNanos = Duration.between(LocalDateTime.now(), dataFechamento).toNanos();
+        FechamentoAgendado agendado = new FechamentoAgendado(sessaoId, dataFechamento, System.nanoTime() + atrasoNanos);
+        FechamentoAgendado anterior = agendados.put(sessaoId, agendado);
+        if (anterior != null) {
+            fila.remove(anterior);
+        }
+        fila.add(agendado);
+        log.info("Agendando fechamento da sessão {} para {}", sessaoId, dataFechamento);
+    }
+
+    /**
+     * Timer loop: wait for the next due session, take every other session already due with it and
+     * close them together on a virtual thread, so a slow closing (e.g. waiting for queued votes)
+     * does not delay the next ones
+     */
+    private void executar() {
+        while (executando) {
+            List<FechamentoAgendado> vencidos = new ArrayList<>();
+            try {
+                vencidos.add(fila.take());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            fila.drainTo(vencidos);
+
+            Map<Long, LocalDateTime> fechamentos = new HashMap<>();
+            for (FechamentoAgendado agendado : vencidos) {
+                // Skip closings replaced or cancelled while they were being taken from the queue
+                if (agendados.remove(agendado.sessaoId(), agendado)) {
+                    fechamentos.put(agendado.sessaoId(), agendado.dataFechamento());
+                }
+            }
+            if (!fechamentos.isEmpty()) {
+                encerramentos.execute(() -> encerrar(fechamentos));
+            }
+        }
+    }
+
+    /**
+     * Close the sessions no other instance is already closing, all in one bulk closing
+     * If this instance dies while closing, the leases expire and the polling job of another
+     * instance finishes the work.
+     *
+     * @param fechamentos Closing time of each session, by session ID
+     */
+    private void encerrar(Map<Long, LocalDateTime> fechamentos) {
+        List<Long> travadas = new ArrayList<>();
+        for (Long sessaoId : fechamentos.keySet()) {
+            try {
+                if (trava.adquirir(travaFechamento(sessaoId), duracaoTravaFechamento)) {
+                    travadas.add(sessaoId);
+                } else {
+                    log.info("Sessão {} sendo encerrada por outra instância", sessaoId);
                 }
+            } catch (Exception e) {
+                log.error("Erro ao adquirir a trava de fechamento da sessão {}: {}", sessaoId, e.getMessage());
+            }
+        }
+        if (travadas.isEmpty()) {
+            return;
+        }
+
+        log.info("Encerrando automaticamente as sessões {}", travadas);
+        try {
+            int encerradas = sessaoVotacaoService.encerrarSessoes(travadas);
+            sessoesPorEncerramento.record(encerradas);
+            LocalDateTime agora = LocalDateTime.now();
+            travadas.forEach(sessaoId -> atrasoFechamento.record(Duration.between(fechamentos.get(sessaoId), agora)));
+        } catch (Exception e) {
+            log.error("Erro ao encerrar sessões {}: {}", travadas, e.getMessage());
+        } finally {
+            travadas.forEach(sessaoId -> liberar(travaFechamento(sessaoId)));
+        }
+    }
+
+    private void liberar(String nomeTrava) {
+        try {
+            trava.liberar(nomeTrava);
+        } catch (Exception e) {
+            // The lease expires on its own
+            log.warn("Erro ao liberar a trava {}: {}", nomeTrava, e.getMessage());
+        }
+    }
+
+    static String travaFechamento(Long sessaoId) {
+        return "sessao-fechamento:" + sessaoId;
+    }
+
+    /**
+     * Closing of a session, due when System.nanoTime() reaches prazoNanos
+     */
+    record FechamentoAgendado(Long sessaoId, LocalDateTime dataFechamento, long prazoNanos) implements Delayed {
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(prazoNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed outro) {
+            if (outro instanceof FechamentoAgendado fechamento) {
+                return Long.compare(prazoNanos, fechamento.prazoNanos);
             }
+            return Long.compare(getDelay(TimeUnit.NANOSECONDS), outro.getDelay(TimeUnit.NANOSECONDS));
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,86 @@
+package com.cooperativa.sistema.votacao.scheduler;
+
+import com.cooperativa.sistema.votacao.repository.TravaExecucaoRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Leases stored in the database, so that work shared by all application instances runs on one of them
+ * A lease is held until it expires or is released; if its holder dies, another instance takes it over
+ * once it expires. Each operation commits on its own, outside any caller transaction.
+ * Expiration uses each instance's clock, so leases must be much longer than the clock skew between them.
+ */
+@Component
+@Slf4j
+public class TravaDistribuida {
+
+    private final TravaExecucaoRepository repository;
+    private final TransactionTemplate transacao;
+    private final String instancia;
+
+    @Autowired
+    public TravaDistribuida(
+            TravaExecucaoRepository repository,
+            PlatformTransactionManager transactionManager,
+            @Value("${votacao.cluster.instancia:${random.uuid}}") String instancia) {
+        this.repository = repository;
+        this.transacao = new TransactionTemplate(transactionManager);
+        this.transacao.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.instancia = instancia;
+        log.info("Instância {} participando das travas distribuídas", instancia);
+    }
+
+    /**
+     * Take a lease, or extend it if this instance already holds it
+     *
+     * @param nome Name of the lease
+     * @param duracao How long the lease is held if not released
+     * @return true if this instance holds the lease
+     */
+    public boolean adquirir(String nome, Duration duracao) {
+        LocalDateTime agora = LocalDateTime.now();
+        LocalDateTime expiraEm = agora.plus(duracao);
+        try {
+            Boolean adquirida = transacao.execute(status -> {
+                if (repository.renovar(nome, instancia, expiraEm, agora) > 0) {
+                    return true;
+                }
+                repository.criar(nome, instancia, expiraEm);
+                return true;
+            });
+            return Boolean.TRUE.equals(adquirida);
+        } catch (DataIntegrityViolationException | ConcurrencyFailureException e) {
+            // Created or taken by another instance in the meantime, or held and not yet expired
+            log.debug("Trava {} pertence a outra instância", nome);
+            return false;
+        }
+    }
+
+    /**
+     * Release a lease held by this instance, so others do not have to wait for it to expire
+     *
+     * @param nome Name of the lease
+     */
+    public void liberar(String nome) {
+        transacao.executeWithoutResult(status -> repository.liberar(nome, instancia));
+    }
+
+    /**
+     * Identifier of this instance as the owner of its leases
+     *
+     * @return Instance identifier
+     */
+    public String getInstancia() {
+        return instancia;
+    }
+}
@@ -1,15 +1,19 @@
 package com.cooperativa.sistema.votacao.service;
 
+import com.cooperativa.sistema.votacao.cache.TotaisAproximadosCache;
 import com.cooperativa.sistema.votacao.domain.Associado;
 import com.cooperativa.sistema.votacao.dto.AssociadoDTO;
 import com.cooperativa.sistema.votacao.dto.AssociadoRequest;
+import com.cooperativa.sistema.votacao.dto.PaginaCursorDTO;
 import com.cooperativa.sistema.votacao.exception.CPFDuplicadoException;
+import com.cooperativa.sistema.votacao.exception.PaginacaoInvalidaException;
 import com.cooperativa.sistema.votacao.exception.ResourceNotFoundException;
 import com.cooperativa.sistema.votacao.mapper.AssociadoMapper;
 import com.cooperativa.sistema.votacao.repository.AssociadoRepository;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -28,11 +32,14 @@ public class AssociadoService {
     
     private final AssociadoRepository associadoRepository;
     private final AssociadoMapper mapper;
+    private final TotaisAproximadosCache totaisAproximados;
     
     @Autowired
-    public AssociadoService(AssociadoRepository associadoRepository, AssociadoMapper mapper) {
+    public AssociadoService(AssociadoRepository associadoRepository, AssociadoMapper mapper,
+                            TotaisAproximadosCache totaisAproximados) {
         this.associadoRepository = associadoRepository;
         this.mapper = mapper;
+        this.totaisAproximados = totaisAproximados;
     }
     
     /**
@@ -97,6 +104,34 @@ public class AssociadoService {
         return associadoRepository.findAll(pageable).map(mapper::toDto);
     }
     
+    /**
+     * List associates by cursor, newest first, without counting them on every page
+     * 
+     * @param cursor Cursor of the previous page, or null for the first page
+     * @param tamanho Page size
+     * @param incluirTotal Whether to fill the approximate total
+     * @return Page of associate DTOs with the cursor of the next page
+     * @throws PaginacaoInvalidaException if the cursor or the size is invalid
+     */
+    @Transactional(readOnly = true)
+    public PaginaCursorDTO<AssociadoDTO> listarAssociados(String cursor, int tamanho, boolean incluirTotal) {
+        log.info("Listando associados por cursor");
+        Limit limite = CursorPaginacao.limite(tamanho);
+        List<Associado> associados;
+        if (cursor == null) {
+            associados = associadoRepository.findPrimeiraPagina(limite);
+        } else {
+            CursorPaginacao posicao = CursorPaginacao.decodificar(cursor);
+            associados = associadoRepository.findPaginaApos(posicao.chave(), posicao.id(), limite);
+        }
+        PaginaCursorDTO<AssociadoDTO> pagina = CursorPaginacao.montar(associados, tamanho,
+                associado -> new CursorPaginacao(associado.getDataCadastro(), associado.getId()), mapper::toDto);
+        if (incluirTotal) {
+            pagina.setTotalAproximado(totaisAproximados.obter("associados", associadoRepository::count));
+        }
+        return pagina;
+    }
+    
     /**
      * Search associates by name or CPF
      * 
@@ -0,0 +1,100 @@
+package com.cooperativa.sistema.votacao.service;
+
+import com.cooperativa.sistema.votacao.dto.PaginaCursorDTO;
+import com.cooperativa.sistema.votacao.exception.PaginacaoInvalidaException;
+import org.springframework.data.domain.Limit;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Position of a cursor (keyset) listing: the sort key and id of the last row of the previous page
+ * Listings are ordered by (chave DESC, id DESC), so the next page is the rows strictly after this
+ * pair and the database seeks to it through the index instead of skipping OFFSET rows. Clients get
+ * it as an opaque Base64 URL-safe string and must not build it themselves.
+ */
+record CursorPaginacao(LocalDateTime chave, String id) {
+
+    static final int TAMANHO_MAXIMO = 1000;
+
+    private static final char SEPARADOR = '|';
+
+    /**
+     * Read a cursor received from a client
+     *
+     * @param cursor Value of proximo from the previous page
+     * @return Position after which the page starts
+     * @throws PaginacaoInvalidaException if the cursor was not issued by this API
+     */
+    static CursorPaginacao decodificar(String cursor) {
+        try {
+            String texto = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separador = texto.indexOf(SEPARADOR);
+            if (separador < 0 || separador == texto.length() - 1) {
+                throw new PaginacaoInvalidaException("Cursor de paginação inválido");
+            }
+            return new CursorPaginacao(LocalDateTime.parse(texto.substring(0, separador)),
+                    texto.substring(separador + 1));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new PaginacaoInvalidaException("Cursor de paginação inválido", e);
+        }
+    }
+
+    /**
+     * The id of the cursor as a numeric id
+     *
+     * @return Numeric id
+     * @throws PaginacaoInvalidaException if the cursor belongs to a listing with text ids
+     */
+    Long idNumerico() {
+        try {
+            return Long.valueOf(id);
+        } catch (NumberFormatException e) {
+            throw new PaginacaoInvalidaException("Cursor de paginação inválido", e);
+        }
+    }
+
+    String codificar() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((chave.toString() + SEPARADOR + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Rows to fetch for a page: one beyond its size, which tells whether there is a next page
+     * without counting the table
+     *
+     * @param tamanho Page size
+     * @return Limit of the seek query
+     * @throws PaginacaoInvalidaException if the size is out of range
+     */
+    static Limit limite(int tamanho) {
+        if (tamanho < 1 || tamanho > TAMANHO_MAXIMO) {
+            throw new PaginacaoInvalidaException(
+                    "O tamanho da página deve estar entre 1 e " + TAMANHO_MAXIMO);
+        }
+        return Limit.of(tamanho + 1);
+    }
+
+    /**
+     * Build a page from the rows fetched with {@link #limite(int)}
+     *
+     * @param linhas Rows in listing order, at most tamanho + 1
+     * @param tamanho Page size
+     * @param posicao Cursor position of a row
+     * @param paraDto Maps a row to its DTO
+     * @return Page without the approximate total
+     */
+    static <E, D> PaginaCursorDTO<D> montar(List<E> linhas, int tamanho,
+                                            Function<E, CursorPaginacao> posicao, Function<E, D> paraDto) {
+        boolean haMais = linhas.size() > tamanho;
+        List<E> pagina = haMais ? linhas.subList(0, tamanho) : linhas;
+        return PaginaCursorDTO.<D>builder()
+                .conteudo(pagina.stream().map(paraDto).toList())
+                .proximo(haMais ? posicao.apply(pagina.get(tamanho - 1)).codificar() : null)
+                .build();
+    }
+}
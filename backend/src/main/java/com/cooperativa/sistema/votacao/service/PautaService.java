@@ -1,14 +1,18 @@
 package com.cooperativa.sistema.votacao.service;
 
+import com.cooperativa.sistema.votacao.cache.TotaisAproximadosCache;
 import com.cooperativa.sistema.votacao.domain.Pauta;
+import com.cooperativa.sistema.votacao.dto.PaginaCursorDTO;
 import com.cooperativa.sistema.votacao.dto.PautaDTO;
 import com.cooperativa.sistema.votacao.dto.PautaRequest;
+import com.cooperativa.sistema.votacao.exception.PaginacaoInvalidaException;
 import com.cooperativa.sistema.votacao.exception.ResourceNotFoundException;
 import com.cooperativa.sistema.votacao.mapper.PautaMapper;
 import com.cooperativa.sistema.votacao.repository.PautaRepository;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -25,11 +29,13 @@ public class PautaService {
     
     private final PautaRepository pautaRepository;
     private final PautaMapper mapper;
+    private final TotaisAproximadosCache totaisAproximados;
     
     @Autowired
-    public PautaService(PautaRepository pautaRepository, PautaMapper mapper) {
+    public PautaService(PautaRepository pautaRepository, PautaMapper mapper, TotaisAproximadosCache totaisAproximados) {
         this.pautaRepository = pautaRepository;
         this.mapper = mapper;
+        this.totaisAproximados = totaisAproximados;
     }
     
     /**
@@ -61,6 +67,34 @@ public class PautaService {
         return pautaRepository.findAll(pageable).map(mapper::toDto);
     }
     
+    /**
+     * List agendas by cursor, newest first, without counting them on every page
+     * 
+     * @param cursor Cursor of the previous page, or null for the first page
+     * @param tamanho Page size
+     * @param incluirTotal Whether to fill the approximate total
+     * @return Page of agenda DTOs with the cursor of the next page
+     * @throws PaginacaoInvalidaException if the cursor or the size is invalid
+     */
+    @Transactional(readOnly = true)
+    public PaginaCursorDTO<PautaDTO> listarPautas(String cursor, int tamanho, boolean incluirTotal) {
+        log.info("Listando pautas por cursor");
+        Limit limite = CursorPaginacao.limite(tamanho);
+        List<Pauta> pautas;
+        if (cursor == null) {
+            pautas = pautaRepository.findPrimeiraPagina(limite);
+        } else {
+            CursorPaginacao posicao = CursorPaginacao.decodificar(cursor);
+            pautas = pautaRepository.findPaginaApos(posicao.chave(), posicao.idNumerico(), limite);
+        }
+        PaginaCursorDTO<PautaDTO> pagina = CursorPaginacao.montar(pautas, tamanho,
+                pauta -> new CursorPaginacao(pauta.getDataCriacao(), pauta.getId().toString()), mapper::toDto);
+        if (incluirTotal) {
+            pagina.setTotalAproximado(totaisAproximados.obter("pautas", pautaRepository::count));
+        }
+        return pagina;
+    }
+    
     /**
      * Get a specific agenda by ID
      * 
@@ -1,18 +1,30 @@
 package com.cooperativa.sistema.votacao.service;
 
+import com.cooperativa.sistema.votacao.cache.ContagemVotosRegistry;
+import com.cooperativa.sistema.votacao.cache.ContagemVotosRegistry.ContagemVotos;
+import com.cooperativa.sistema.votacao.cache.FiltroVotosRegistry;
+import com.cooperativa.sistema.votacao.cache.JanelaSessaoRegistry;
+import com.cooperativa.sistema.votacao.cache.ResultadosParciaisCache;
+import com.cooperativa.sistema.votacao.cache.TotaisAproximadosCache;
+import com.cooperativa.sistema.votacao.cache.VotosPendentesRegistry;
+import com.cooperativa.sistema.votacao.diagnostico.EventoApuracao;
+import com.cooperativa.sistema.votacao.diagnostico.EventoEncerramentoSessao;
 import com.cooperativa.sistema.votacao.domain.Pauta;
 import com.cooperativa.sistema.votacao.domain.ResultadoVotacao;
 import com.cooperativa.sistema.votacao.domain.SessaoVotacao;
 import com.cooperativa.sistema.votacao.domain.Voto;
 import com.cooperativa.sistema.votacao.domain.OpcaoVoto;
+import com.cooperativa.sistema.votacao.dto.PaginaCursorDTO;
 import com.cooperativa.sistema.votacao.dto.ResultadoVotacaoDTO;
 import com.cooperativa.sistema.votacao.dto.SessaoVotacaoDTO;
 import com.cooperativa.sistema.votacao.dto.SessaoRequest;
+import com.cooperativa.sistema.votacao.exception.PaginacaoInvalidaException;
 import com.cooperativa.sistema.votacao.exception.ResourceNotFoundException;
 import com.cooperativa.sistema.votacao.exception.SessaoJaExistenteException;
 import com.cooperativa.sistema.votacao.mapper.ResultadoVotacaoMapper;
 import com.cooperativa.sistema.votacao.mapper.SessaoVotacaoMapper;
 import com.cooperativa.sistema.votacao.repository.PautaRepository;
+import com.cooperativa.sistema.votacao.repository.ResultadoLoteRepository;
 import com.cooperativa.sistema.votacao.repository.ResultadoVotacaoRepository;
 import com.cooperativa.sistema.votacao.repository.SessaoVotacaoRepository;
 import com.cooperativa.sistema.votacao.repository.VotoRepository;
@@ -22,11 +34,16 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.context.annotation.Lazy;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import org.springframework.data.domain.Page;
@@ -39,30 +56,58 @@ import java.util.Map;
 @Slf4j
 public class SessaoVotacaoService {
     
+    private static final Duration ESPERA_VOTOS_PENDENTES = Duration.ofSeconds(5);
+    
     private final SessaoVotacaoRepository sessaoRepository;
     private final PautaRepository pautaRepository;
     private final ResultadoVotacaoRepository resultadoRepository;
+    private final ResultadoLoteRepository resultadoLoteRepository;
     private final VotoRepository votoRepository;
     private final SessaoVotacaoMapper mapper;
     private final ResultadoVotacaoMapper resultadoMapper;
     private final SessaoScheduler sessaoScheduler;
+    private final ContagemVotosRegistry contagemRegistry;
+    private final FiltroVotosRegistry filtroVotos;
+    private final JanelaSessaoRegistry janelaSessoes;
+    private final ResultadosParciaisCache resultadosParciais;
+    private final TotaisAproximadosCache totaisAproximados;
+    private final VotosPendentesRegistry votosPendentes;
+    private final TransactionTemplate leitura;
     
     @Autowired
     public SessaoVotacaoService(
             SessaoVotacaoRepository sessaoRepository,
             PautaRepository pautaRepository,
             ResultadoVotacaoRepository resultadoRepository,
+            ResultadoLoteRepository resultadoLoteRepository,
             VotoRepository votoRepository,
             SessaoVotacaoMapper mapper,
             ResultadoVotacaoMapper resultadoMapper,
-            @Lazy SessaoScheduler sessaoScheduler) {
+            @Lazy SessaoScheduler sessaoScheduler,
+            ContagemVotosRegistry contagemRegistry,
+            FiltroVotosRegistry filtroVotos,
+            JanelaSessaoRegistry janelaSessoes,
+            ResultadosParciaisCache resultadosParciais,
+            TotaisAproximadosCache totaisAproximados,
+            VotosPendentesRegistry votosPendentes,
+            PlatformTransactionManager transactionManager) {
         this.sessaoRepository = sessaoRepository;
         this.pautaRepository = pautaRepository;
         this.resultadoRepository = resultadoRepository;
+        this.resultadoLoteRepository = resultadoLoteRepository;
         this.votoRepository = votoRepository;
         this.mapper = mapper;
         this.resultadoMapper = resultadoMapper;
         this.sessaoScheduler = sessaoScheduler;
+        this.contagemRegistry = contagemRegistry;
+        this.filtroVotos = filtroVotos;
+        this.janelaSessoes = janelaSessoes;
+        this.resultadosParciais = resultadosParciais;
+        this.totaisAproximados = totaisAproximados;
+        this.votosPendentes = votosPendentes;
+        // Partial results are recalculated in the background, outside the reader's transaction
+        this.leitura = new TransactionTemplate(transactionManager);
+        this.leitura.setReadOnly(true);
     }
     
     /**
@@ -101,6 +146,7 @@ public class SessaoVotacaoService {
         }
         
         sessao = sessaoRepository.save(sessao);
+        janelaSessoes.registrar(sessao);
         
         // Schedule session closing
         sessaoScheduler.agendarFechamento(sessao);
@@ -153,6 +199,8 @@ public class SessaoVotacaoService {
     @CacheEvict(value = "sessoes", key = "#id")
     public void encerrarSessao(Long id) {
         log.info("Encerrando sessão de votação com ID: {}", id);
+        EventoEncerramentoSessao evento = new EventoEncerramentoSessao();
+        evento.begin();
         
         SessaoVotacao sessao = sessaoRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Sessão de votação não encontrada com o ID: " + id));
@@ -163,6 +211,14 @@ public class SessaoVotacaoService {
             return;
         }
         
+        // Stop accepting votes before waiting for the pending ones
+        janelaSessoes.encerrar(id);
+        sessaoScheduler.cancelarFechamento(id);
+        
+        // Votes queued by the asynchronous ingestion and bulk submissions that saw the session open
+        // must be part of the result
+        votosPendentes.aguardar(id, ESPERA_VOTOS_PENDENTES);
+        
         // Close session
         sessao.setEncerrada(true);
         sessaoRepository.save(sessao);
@@ -173,9 +229,55 @@ public class SessaoVotacaoService {
             calcularResultado(sessao);
         }
         
+        // The persisted result replaces the live tally from now on, and no more votes need duplicate checks
+        contagemRegistry.remover(id);
+        resultadosParciais.remover(id);
+        filtroVotos.remover(id);
+        
+        evento.sessaoId = id;
+        evento.sessoes = 1;
+        evento.commit();
         log.info("Sessão de votação encerrada com sucesso. ID: {}", id);
     }
     
+    /**
+     * Close many voting sessions at once and tally their results, e.g. when an assembly ends
+     * One UPDATE marks the sessions closed and one INSERT ... SELECT ... GROUP BY counts the votes
+     * of all of them. Sessions already closed or already tallied are skipped, so it is idempotent.
+     * 
+     * @param ids IDs of the sessions to close
+     * @return Number of sessions that were still open and are now closed
+     */
+    @Transactional
+    @CacheEvict(value = "sessoes", allEntries = true)
+    public int encerrarSessoes(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        log.info("Encerrando {} sessões de votação em lote", ids.size());
+        EventoEncerramentoSessao evento = new EventoEncerramentoSessao();
+        evento.begin();
+        
+        // Stop accepting votes before waiting for the pending ones
+        ids.forEach(janelaSessoes::encerrar);
+        ids.forEach(sessaoScheduler::cancelarFechamento);
+        ids.forEach(id -> votosPendentes.aguardar(id, ESPERA_VOTOS_PENDENTES));
+        
+        int encerradas = sessaoRepository.encerrarTodas(ids);
+        int apuradas = resultadoLoteRepository.apurar(ids, LocalDateTime.now());
+        
+        ids.forEach(id -> {
+            contagemRegistry.remover(id);
+            resultadosParciais.remover(id);
+            filtroVotos.remover(id);
+        });
+        
+        evento.sessoes = encerradas;
+        evento.commit();
+        log.info("{} sessões encerradas e {} resultados apurados em lote", encerradas, apuradas);
+        return encerradas;
+    }
+    
     /**
      * Calculate and save voting results
      * 
@@ -192,6 +294,9 @@ public class SessaoVotacaoService {
                     .orElseThrow(() -> new IllegalStateException("Resultados inconsistentes para sessão " + sessao.getId()));
         }
         
+        EventoApuracao evento = new EventoApuracao();
+        evento.begin();
+        
         // Get vote counts
         Integer totalVotos = (int) votoRepository.countBySessaoVotacaoId(sessao.getId());
         Integer votosSim = (int) votoRepository.countBySessaoVotacaoIdAndOpcao(sessao.getId(), OpcaoVoto.SIM);
@@ -208,6 +313,9 @@ public class SessaoVotacaoService {
         
         resultado = resultadoRepository.save(resultado);
         
+        evento.sessaoId = sessao.getId();
+        evento.totalVotos = totalVotos;
+        evento.commit();
         log.info("Resultado calculado para sessão {}: Total={}, Sim={}, Não={}, Aprovado={}",
                 sessao.getId(), totalVotos, votosSim, votosNao, resultado.isAprovado());
         
@@ -216,14 +324,24 @@ public class SessaoVotacaoService {
     
     /**
      * Get voting results for a session
+     * Results of open sessions are partial, served from a time-bucketed cache and recalculated
+     * in the background; the "resultados" cache is not looked up for them. Results of closed
+     * sessions are immutable and stay cached.
      * 
      * @param sessaoId ID of the session
      * @return DTO with voting results
      * @throws ResourceNotFoundException if session not found
      */
     @Transactional(readOnly = true)
-    @Cacheable(value = "resultados", key = "#sessaoId")
+    @Cacheable(value = "resultados", key = "#sessaoId",
+            condition = "!@resultadosParciaisCache.contem(#sessaoId)", unless = "#result.id == null")
     public ResultadoVotacaoDTO obterResultado(Long sessaoId) {
+        ResultadoVotacaoDTO parcial = resultadosParciais.obter(sessaoId,
+                () -> leitura.execute(status -> calcularResultadoParcial(sessaoId)));
+        if (parcial != null) {
+            return parcial;
+        }
+        
         log.info("Buscando resultado para sessão de votação com ID: {}", sessaoId);
         
         // Get session
@@ -236,31 +354,41 @@ public class SessaoVotacaoService {
             resultado = resultadoRepository.findBySessaoVotacaoId(sessaoId)
                     .orElseThrow(() -> new IllegalStateException("Resultados inconsistentes para sessão " + sessaoId));
         } else {
-            // If session is still open, calculate partial results without persisting
-            if (!sessao.getEncerrada()) {
-                Integer totalVotos = (int) votoRepository.countBySessaoVotacaoId(sessaoId);
-                Integer votosSim = (int) votoRepository.countBySessaoVotacaoIdAndOpcao(sessaoId, OpcaoVoto.SIM);
-                Integer votosNao = (int) votoRepository.countBySessaoVotacaoIdAndOpcao(sessaoId, OpcaoVoto.NAO);
-                
-                resultado = ResultadoVotacao.builder()
-                        .sessaoVotacao(sessao)
-                        .totalVotos(totalVotos)
-                        .votosSim(votosSim)
-                        .votosNao(votosNao)
-                        .dataApuracao(LocalDateTime.now())
-                        .build();
-                
-                log.info("Resultados parciais para sessão {}: Total={}, Sim={}, Não={}", 
-                        sessaoId, totalVotos, votosSim, votosNao);
-            } else {
-                // If session is closed, calculate and persist results
-                resultado = calcularResultado(sessao);
-            }
+            // If session is closed, calculate and persist results
+            resultado = calcularResultado(sessao);
         }
         
         return resultadoMapper.toDto(resultado);
     }
     
+    /**
+     * Build the partial result of an open session from the live tally, without persisting it
+     * 
+     * @param sessaoId ID of the session
+     * @return DTO with voting results and no ID, or null if the session is closed
+     * @throws ResourceNotFoundException if session not found
+     */
+    private ResultadoVotacaoDTO calcularResultadoParcial(Long sessaoId) {
+        SessaoVotacao sessao = sessaoRepository.findById(sessaoId)
+                .orElseThrow(() -> new ResourceNotFoundException("Sessão de votação não encontrada com o ID: " + sessaoId));
+        if (sessao.getEncerrada()) {
+            return null;
+        }
+        
+        ContagemVotos contagem = contagemRegistry.obter(sessaoId);
+        ResultadoVotacao resultado = ResultadoVotacao.builder()
+                .sessaoVotacao(sessao)
+                .totalVotos((int) contagem.totalVotos())
+                .votosSim((int) contagem.votosSim())
+                .votosNao((int) contagem.votosNao())
+                .dataApuracao(LocalDateTime.now())
+                .build();
+        
+        log.info("Resultados parciais para sessão {}: Total={}, Sim={}, Não={}", 
+                sessaoId, resultado.getTotalVotos(), resultado.getVotosSim(), resultado.getVotosNao());
+        return resultadoMapper.toDto(resultado);
+    }
+    
     /**
      * List all voting sessions with pagination
      * 
@@ -272,4 +400,32 @@ public class SessaoVotacaoService {
         log.info("Listando sessões de votação");
         return sessaoRepository.findAll(pageable).map(mapper::toDto);
     }
+    
+    /**
+     * List voting sessions by cursor, most recently opened first, without counting them on every page
+     * 
+     * @param cursor Cursor of the previous page, or null for the first page
+     * @param tamanho Page size
+     * @param incluirTotal Whether to fill the approximate total
+     * @return Page of session DTOs with the cursor of the next page
+     * @throws PaginacaoInvalidaException if the cursor or the size is invalid
+     */
+    @Transactional(readOnly = true)
+    public PaginaCursorDTO<SessaoVotacaoDTO> listarSessoes(String cursor, int tamanho, boolean incluirTotal) {
+        log.info("Listando sessões de votação por cursor");
+        Limit limite = CursorPaginacao.limite(tamanho);
+        List<SessaoVotacao> sessoes;
+        if (cursor == null) {
+            sessoes = sessaoRepository.findPrimeiraPagina(limite);
+        } else {
+            CursorPaginacao posicao = CursorPaginacao.decodificar(cursor);
+            sessoes = sessaoRepository.findPaginaApos(posicao.chave(), posicao.idNumerico(), limite);
+        }
+        PaginaCursorDTO<SessaoVotacaoDTO> pagina = CursorPaginacao.montar(sessoes, tamanho,
+                sessao -> new CursorPaginacao(sessao.getDataAbertura(), sessao.getId().toString()), mapper::toDto);
+        if (incluirTotal) {
+            pagina.setTotalAproximado(totaisAproximados.obter("sessoes", sessaoRepository::count));
+        }
+        return pagina;
+    }
 }
\ No newline at end of file
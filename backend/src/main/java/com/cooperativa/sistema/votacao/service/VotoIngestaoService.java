@@ -0,0 +1,269 @@
+package com.cooperativa.sistema.votacao.service;
+
+import com.cooperativa.sistema.votacao.cache.ContagemVotosRegistry;
+import com.cooperativa.sistema.votacao.cache.FiltroVotosRegistry;
+import com.cooperativa.sistema.votacao.cache.VotosPendentesRegistry;
+import com.cooperativa.sistema.votacao.domain.SessaoVotacao;
+import com.cooperativa.sistema.votacao.domain.Voto;
+import com.cooperativa.sistema.votacao.dto.ReciboVotoDTO;
+import com.cooperativa.sistema.votacao.dto.VotoRequest;
+import com.cooperativa.sistema.votacao.exception.FilaVotosCheiaException;
+import com.cooperativa.sistema.votacao.exception.ResourceNotFoundException;
+import com.cooperativa.sistema.votacao.exception.SessaoEncerradaException;
+import com.cooperativa.sistema.votacao.exception.VotoJaRealizadoException;
+import com.cooperativa.sistema.votacao.mapper.VotoMapper;
+import com.cooperativa.sistema.votacao.repository.VotoLoteRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.context.WebServerGracefulShutdownLifecycle;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service for the asynchronous (write-behind) vote ingestion
+ * Votes are validated on arrival, put on a bounded queue and group-committed by a single
+ * writer thread using JDBC batch inserts. The unique constraint of the voto table remains
+ * the final arbiter of duplicates.
+ * A vote is registered in VotosPendentesRegistry from before the session window is checked until
+ * it is written or rejected, so closing a session that a vote saw open always waits for that vote.
+ * Only enabled when votacao.ingestao.assincrona.enabled=true
+ */
+@Service
+@ConditionalOnProperty(name = "votacao.ingestao.assincrona.enabled", havingValue = "true")
+@Slf4j
+public class VotoIngestaoService implements SmartLifecycle {
+
+    private final VotoService votoService;
+    private final VotoMapper mapper;
+    private final VotoLoteRepository votoLoteRepository;
+    private final ContagemVotosRegistry contagemRegistry;
+    private final FiltroVotosRegistry filtroVotos;
+    private final VotosPendentesRegistry votosPendentes;
+    private final TransactionTemplate transactionTemplate;
+    private final BlockingQueue<Voto> fila;
+    private final int tamanhoLote;
+    private final long intervaloMs;
+
+    // Votes waiting on the queue, used to reject repeated submissions before they reach the database
+    private final Set<String> votosEnfileirados = ConcurrentHashMap.newKeySet();
+
+    private volatile boolean executando;
+    private Thread gravador;
+
+    @Autowired
+    public VotoIngestaoService(
+            VotoService votoService,
+            VotoMapper mapper,
+            VotoLoteRepository votoLoteRepository,
+            ContagemVotosRegistry contagemRegistry,
+            FiltroVotosRegistry filtroVotos,
+            VotosPendentesRegistry votosPendentes,
+            TransactionTemplate transactionTemplate,
+            @Value("${votacao.ingestao.fila-capacidade:10000}") int capacidadeFila,
+            @Value("${votacao.ingestao.lote-tamanho:500}") int tamanhoLote,
+            @Value("${votacao.ingestao.intervalo-ms:10}") long intervaloMs) {
+        this.votoService = votoService;
+        this.mapper = mapper;
+        this.votoLoteRepository = votoLoteRepository;
+        this.contagemRegistry = contagemRegistry;
+        this.filtroVotos = filtroVotos;
+        this.votosPendentes = votosPendentes;
+        this.transactionTemplate = transactionTemplate;
+        this.fila = new ArrayBlockingQueue<>(capacidadeFila);
+        this.tamanhoLote = tamanhoLote;
+        this.intervaloMs = intervaloMs;
+    }
+
+    /**
+     * Validate a vote and queue it for persistence
+     *
+     * @param sessaoId ID of the voting session
+     * @param request VotoRequest containing vote details
+     * @return Receipt of the queued vote
+     * @throws ResourceNotFoundException if session not found
+     * @throws SessaoEncerradaException if session is closed
+     * @throws VotoJaRealizadoException if associate already voted or has a vote waiting on the queue
+     * @throws FilaVotosCheiaException if the queue is full or the ingestion is shutting down
+     */
+    public ReciboVotoDTO enfileirar(Long sessaoId, VotoRequest request) {
+        log.info("Enfileirando voto para sessão {}, associado {}", sessaoId, request.getIdAssociado());
+
+        // Registered before the window check, so a session closed from now on waits for this vote
+        votosPendentes.iniciar(sessaoId);
+        boolean enfileirado = false;
+        Voto voto;
+        try {
+            validarExecutando();
+            SessaoVotacao sessao = votoService.validarVoto(sessaoId, request);
+
+            String chave = chave(sessaoId, request.getIdAssociado());
+            if (!votosEnfileirados.add(chave)) {
+                log.warn("Associado {} já possui voto pendente na sessão {}", request.getIdAssociado(), sessaoId);
+                throw new VotoJaRealizadoException("Associado já votou nesta sessão");
+            }
+
+            voto = mapper.toEntity(request, sessao);
+            voto.setDataHoraVoto(LocalDateTime.now());
+
+            if (!fila.offer(voto)) {
+                votosEnfileirados.remove(chave);
+                log.warn("Fila de votos cheia, voto do associado {} recusado", request.getIdAssociado());
+                throw new FilaVotosCheiaException("Sistema sobrecarregado, tente votar novamente em instantes");
+            }
+            // The writer may have drained the queue and finished meanwhile: take the vote back unless it got it
+            if (!executando && fila.remove(voto)) {
+                votosEnfileirados.remove(chave);
+                validarExecutando();
+            }
+            enfileirado = true;
+        } finally {
+            // Once queued, the writer releases the vote after writing it
+            if (!enfileirado) {
+                votosPendentes.concluir(sessaoId);
+            }
+        }
+
+        return ReciboVotoDTO.builder()
+                .sessaoId(sessaoId)
+                .idAssociado(voto.getIdAssociado())
+                .opcao(voto.getOpcao())
+                .dataHoraVoto(voto.getDataHoraVoto())
+                .urlConfirmacao("/api/v1/sessoes/" + sessaoId + "/votos/" + voto.getIdAssociado())
+                .build();
+    }
+
+    private void validarExecutando() {
+        if (!executando) {
+            log.warn("Ingestão assíncrona de votos encerrada, voto recusado");
+            throw new FilaVotosCheiaException("Sistema em manutenção, tente votar novamente em instantes");
+        }
+    }
+
+    @Override
+    public void start() {
+        executando = true;
+        gravador = new Thread(this::executar, "gravador-votos");
+        gravador.start();
+        log.info("Ingestão assíncrona de votos iniciada (lote: {}, intervalo: {} ms)", tamanhoLote, intervaloMs);
+    }
+
+    @Override
+    public void stop() {
+        executando = false;
+        try {
+            // The writer drains the queue before finishing
+            gravador.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        log.info("Ingestão assíncrona de votos encerrada");
+    }
+
+    @Override
+    public boolean isRunning() {
+        return executando;
+    }
+
+    // Below the web server's start/stop phase, so the writer only stops once no request can queue a vote
+    @Override
+    public int getPhase() {
+        return WebServerGracefulShutdownLifecycle.SMART_LIFECYCLE_PHASE - 2048;
+    }
+
+    /**
+     * Writer loop: wait for the first vote, then drain whatever else arrived meanwhile into the same batch
+     */
+    private void executar() {
+        while (executando || !fila.isEmpty()) {
+            Voto primeiro;
+            try {
+                primeiro = fila.poll(intervaloMs, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (primeiro == null) {
+                continue;
+            }
+            
+            List<Voto> lote = new ArrayList<>(tamanhoLote);
+            lote.add(primeiro);
+            fila.drainTo(lote, tamanhoLote - 1);
+            try {
+                gravar(lote);
+            } catch (RuntimeException e) {
+                log.error("Erro inesperado no gravador de votos: {}", e.getMessage(), e);
+            } finally {
+                lote.forEach(this::liberar);
+            }
+        }
+    }
+
+    /**
+     * Write a batch of votes in a single transaction, falling back to one transaction per vote
+     * when the batch fails, so that duplicates are rejected individually by the unique constraint
+     *
+     * @param lote Votes to write
+     */
+    private void gravar(List<Voto> lote) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                votoLoteRepository.inserirLote(lote);
+                lote.forEach(this::contar);
+            });
+            lote.forEach(this::confirmar);
+            log.debug("Lote de {} votos gravado", lote.size());
+        } catch (RuntimeException e) {
+            log.warn("Falha ao gravar lote de {} votos, gravando individualmente: {}", lote.size(), e.getMessage());
+            lote.forEach(this::gravarIndividualmente);
+        }
+    }
+
+    private void gravarIndividualmente(Voto voto) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                votoLoteRepository.inserir(voto);
+                contar(voto);
+            });
+            confirmar(voto);
+        } catch (DataIntegrityViolationException e) {
+            log.warn("Voto duplicado descartado: associado {} na sessão {}",
+                    voto.getIdAssociado(), voto.getSessaoVotacao().getId());
+        } catch (RuntimeException e) {
+            log.error("Erro ao gravar voto do associado {} na sessão {}: {}",
+                    voto.getIdAssociado(), voto.getSessaoVotacao().getId(), e.getMessage());
+        }
+    }
+
+    // Inside the write transaction, so the live tally and a load running meanwhile agree on the vote
+    private void contar(Voto voto) {
+        contagemRegistry.registrar(voto.getSessaoVotacao().getId(), voto.getOpcao());
+    }
+
+    private void confirmar(Voto voto) {
+        filtroVotos.registrar(voto.getSessaoVotacao().getId(), voto.getIdAssociado());
+    }
+
+    private void liberar(Voto voto) {
+        Long sessaoId = voto.getSessaoVotacao().getId();
+        votosEnfileirados.remove(chave(sessaoId, voto.getIdAssociado()));
+        votosPendentes.concluir(sessaoId);
+    }
+
+    private static String chave(Long sessaoId, String idAssociado) {
+        return sessaoId + ":" + idAssociado;
+    }
+}
@@ -0,0 +1,352 @@
+package com.cooperativa.sistema.votacao.service;
+
+import com.cooperativa.sistema.votacao.cache.ContagemVotosRegistry;
+import com.cooperativa.sistema.votacao.cache.FiltroVotosRegistry;
+import com.cooperativa.sistema.votacao.cache.JanelaSessaoRegistry;
+import com.cooperativa.sistema.votacao.cache.VotosPendentesRegistry;
+import com.cooperativa.sistema.votacao.client.CPFValidator;
+import com.cooperativa.sistema.votacao.client.Futuros;
+import com.cooperativa.sistema.votacao.domain.SessaoVotacao;
+import com.cooperativa.sistema.votacao.domain.StatusVotacao;
+import com.cooperativa.sistema.votacao.domain.StatusVotoLote;
+import com.cooperativa.sistema.votacao.domain.Voto;
+import com.cooperativa.sistema.votacao.dto.ItemLoteVotoDTO;
+import com.cooperativa.sistema.votacao.dto.ResultadoLoteVotosDTO;
+import com.cooperativa.sistema.votacao.dto.VotoRequest;
+import com.cooperativa.sistema.votacao.exception.AssociadoNaoPodeVotarException;
+import com.cooperativa.sistema.votacao.exception.CPFInvalidoException;
+import com.cooperativa.sistema.votacao.exception.LoteVotosInvalidoException;
+import com.cooperativa.sistema.votacao.exception.ResourceNotFoundException;
+import com.cooperativa.sistema.votacao.exception.SessaoEncerradaException;
+import com.cooperativa.sistema.votacao.mapper.VotoMapper;
+import com.cooperativa.sistema.votacao.repository.SessaoVotacaoRepository;
+import com.cooperativa.sistema.votacao.repository.VotoLoteRepository;
+import com.cooperativa.sistema.votacao.repository.VotoRepository;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.stream.Collectors;
+
+/**
+ * Service for bulk vote submissions, e.g. uploads from polling station tablets
+ * The session is checked once, duplicates are found with set-based queries, CPFs are validated
+ * concurrently and the accepted votes are inserted as JDBC batches. Each vote gets its own
+ * outcome instead of failing the whole submission.
+ * The batch is registered as a write in progress before the session is checked, so closing the
+ * session waits for it before tallying, and the session is checked again right before inserting.
+ */
+@Service
+@Slf4j
+public class VotoLoteService {
+
+    // Keeps the IN list of the duplicate query within what every database accepts
+    private static final int TAMANHO_CONSULTA_DUPLICADOS = 1000;
+
+    private final JanelaSessaoRegistry janelaSessoes;
+    private final VotosPendentesRegistry votosPendentes;
+    private final FiltroVotosRegistry filtroVotos;
+    private final ContagemVotosRegistry contagemRegistry;
+    private final VotoRepository votoRepository;
+    private final SessaoVotacaoRepository sessaoRepository;
+    private final VotoLoteRepository votoLoteRepository;
+    private final CPFValidator cpfValidator;
+    private final VotoMapper mapper;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final int tamanhoMaximo;
+    private final int validacoesSimultaneas;
+
+    @Autowired
+    public VotoLoteService(
+            JanelaSessaoRegistry janelaSessoes,
+            VotosPendentesRegistry votosPendentes,
+            FiltroVotosRegistry filtroVotos,
+            ContagemVotosRegistry contagemRegistry,
+            VotoRepository votoRepository,
+            SessaoVotacaoRepository sessaoRepository,
+            VotoLoteRepository votoLoteRepository,
+            CPFValidator cpfValidator,
+            VotoMapper mapper,
+            Validator validator,
+            ObjectMapper objectMapper,
+            TransactionTemplate transactionTemplate,
+            @Value("${votacao.lote.tamanho-maximo:10000}") int tamanhoMaximo,
+            @Value("${votacao.lote.validacoes-simultaneas:32}") int validacoesSimultaneas) {
+        this.janelaSessoes = janelaSessoes;
+        this.votosPendentes = votosPendentes;
+        this.filtroVotos = filtroVotos;
+        this.contagemRegistry = contagemRegistry;
+        this.votoRepository = votoRepository;
+        this.sessaoRepository = sessaoRepository;
+        this.votoLoteRepository = votoLoteRepository;
+        this.cpfValidator = cpfValidator;
+        this.mapper = mapper;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = transactionTemplate;
+        this.tamanhoMaximo = tamanhoMaximo;
+        this.validacoesSimultaneas = validacoesSimultaneas;
+    }
+
+    /**
+     * Read a bulk submission sent as a JSON array, one element at a time
+     *
+     * @param json Request body
+     * @return Votes in the order they were sent
+     * @throws LoteVotosInvalidoException if the body is not an array of votes or the limit is exceeded
+     */
+    public List<VotoRequest> lerJson(InputStream json) {
+        List<VotoRequest> requests = new ArrayList<>();
+        try (JsonParser parser = objectMapper.createParser(json)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new LoteVotosInvalidoException("O lote de votos deve ser um array JSON");
+            }
+            // Stops reading right after the limit instead of buffering an oversized body
+            while (parser.nextToken() != JsonToken.END_ARRAY && requests.size() <= tamanhoMaximo) {
+                requests.add(objectMapper.readValue(parser, VotoRequest.class));
+            }
+        } catch (JsonProcessingException e) {
+            throw new LoteVotosInvalidoException("Voto " + (requests.size() + 1) + " do lote de votos inválido: "
+                    + e.getOriginalMessage(), e);
+        } catch (IOException e) {
+            throw new LoteVotosInvalidoException("Não foi possível ler o lote de votos", e);
+        }
+        return requests;
+    }
+
+    /**
+     * Read a bulk submission in NDJSON format, one vote per line
+     *
+     * @param ndjson Request body
+     * @return Votes in the order they were sent
+     * @throws LoteVotosInvalidoException if a line is not a valid vote or the limit is exceeded
+     */
+    public List<VotoRequest> lerNdjson(InputStream ndjson) {
+        List<VotoRequest> requests = new ArrayList<>();
+        try (MappingIterator<VotoRequest> linhas = objectMapper.readerFor(VotoRequest.class).readValues(ndjson)) {
+            // Stops reading right after the limit instead of buffering an oversized body
+            while (linhas.hasNextValue() && requests.size() <= tamanhoMaximo) {
+                requests.add(linhas.nextValue());
+            }
+        } catch (JsonProcessingException e) {
+            throw new LoteVotosInvalidoException("Linha " + (requests.size() + 1) + " do lote de votos inválida: "
+                    + e.getOriginalMessage(), e);
+        } catch (IOException e) {
+            throw new LoteVotosInvalidoException("Não foi possível ler o lote de votos", e);
+        }
+        return requests;
+    }
+
+    /**
+     * Register a batch of votes in a voting session
+     *
+     * @param sessaoId ID of the voting session
+     * @param requests Votes to register
+     * @return Outcome of each vote, in the order they were sent
+     * @throws ResourceNotFoundException if session not found
+     * @throws SessaoEncerradaException if session is closed
+     * @throws LoteVotosInvalidoException if the batch exceeds the size limit
+     */
+    public ResultadoLoteVotosDTO registrarLote(Long sessaoId, List<VotoRequest> requests) {
+        log.info("Registrando lote de {} votos para sessão {}", requests.size(), sessaoId);
+
+        if (requests.size() > tamanhoMaximo) {
+            throw new LoteVotosInvalidoException("O lote deve conter no máximo " + tamanhoMaximo + " votos");
+        }
+
+        ItemLoteVotoDTO[] itens = new ItemLoteVotoDTO[requests.size()];
+        // Registered before the session check, so a session closed from now on waits for this batch
+        votosPendentes.iniciar(sessaoId);
+        try {
+            // Check if session is open, once for the whole batch
+            validarSessaoAberta(sessaoId);
+
+            Map<String, Integer> candidatos = validarRequisicoes(requests, itens);
+            descartarDuplicados(sessaoId, candidatos, itens);
+            validarCPFs(requests, candidatos, itens);
+
+            SessaoVotacao sessao = sessaoRepository.getReferenceById(sessaoId);
+            List<Voto> votos = new ArrayList<>(candidatos.size());
+            candidatos.values().forEach(indice -> votos.add(mapper.toEntity(requests.get(indice), sessao)));
+
+            // The validations may outlast the wait of a closing session, so nothing is inserted once it closed
+            validarSessaoAberta(sessaoId);
+            gravar(sessaoId, votos, candidatos, itens);
+        } finally {
+            votosPendentes.concluir(sessaoId);
+        }
+
+        List<ItemLoteVotoDTO> resultado = Arrays.asList(itens);
+        int aceitos = (int) resultado.stream().filter(item -> item.getStatus() == StatusVotoLote.ACEITO).count();
+        log.info("Lote da sessão {} processado: {} aceitos, {} rejeitados", sessaoId, aceitos, itens.length - aceitos);
+
+        return ResultadoLoteVotosDTO.builder()
+                .sessaoId(sessaoId)
+                .totalRecebidos(itens.length)
+                .totalAceitos(aceitos)
+                .totalRejeitados(itens.length - aceitos)
+                .itens(resultado)
+                .build();
+    }
+
+    private void validarSessaoAberta(Long sessaoId) {
+        if (!janelaSessoes.obter(sessaoId).isAberta(LocalDateTime.now())) {
+            log.warn("Tentativa de voto em lote na sessão {} não aberta", sessaoId);
+            throw new SessaoEncerradaException("Sessão de votação não está aberta");
+        }
+    }
+
+    /**
+     * Reject malformed votes and associates repeated within the batch
+     *
+     * @return Index of the first vote of each remaining associate, in submission order
+     */
+    private Map<String, Integer> validarRequisicoes(List<VotoRequest> requests, ItemLoteVotoDTO[] itens) {
+        Map<String, Integer> candidatos = new LinkedHashMap<>();
+        for (int i = 0; i < requests.size(); i++) {
+            VotoRequest request = requests.get(i);
+            if (request == null) {
+                itens[i] = item(i, null, StatusVotoLote.REQUISICAO_INVALIDA, "Voto vazio");
+                continue;
+            }
+
+            Set<ConstraintViolation<VotoRequest>> violacoes = validator.validate(request);
+            if (!violacoes.isEmpty()) {
+                String mensagem = violacoes.stream()
+                        .map(ConstraintViolation::getMessage)
+                        .sorted()
+                        .collect(Collectors.joining("; "));
+                itens[i] = item(i, request.getIdAssociado(), StatusVotoLote.REQUISICAO_INVALIDA, mensagem);
+            } else if (candidatos.putIfAbsent(request.getIdAssociado(), i) != null) {
+                itens[i] = item(i, request.getIdAssociado(), StatusVotoLote.VOTO_DUPLICADO, "Associado repetido no lote");
+            }
+        }
+        return candidatos;
+    }
+
+    /**
+     * Reject associates that already voted, querying only those the Bloom filter cannot rule out
+     */
+    private void descartarDuplicados(Long sessaoId, Map<String, Integer> candidatos, ItemLoteVotoDTO[] itens) {
+        List<String> suspeitos = candidatos.keySet().stream()
+                .filter(idAssociado -> filtroVotos.possivelmenteVotou(sessaoId, idAssociado))
+                .toList();
+
+        for (int inicio = 0; inicio < suspeitos.size(); inicio += TAMANHO_CONSULTA_DUPLICADOS) {
+            List<String> consulta = suspeitos.subList(inicio, Math.min(inicio + TAMANHO_CONSULTA_DUPLICADOS, suspeitos.size()));
+            for (String idAssociado : votoRepository.findIdAssociadoBySessaoVotacaoIdAndIdAssociadoIn(sessaoId, consulta)) {
+                int indice = candidatos.remove(idAssociado);
+                itens[indice] = item(indice, idAssociado, StatusVotoLote.VOTO_DUPLICADO, "Associado já votou nesta sessão");
+            }
+        }
+    }
+
+    /**
+     * Reject votes whose CPF is invalid or whose associate cannot vote
+     * At most validacoes-simultaneas validations run at once, below the validator's bulkhead, so a
+     * large batch neither waits for one call at a time nor gets its own calls rejected.
+     */
+    private void validarCPFs(List<VotoRequest> requests, Map<String, Integer> candidatos, ItemLoteVotoDTO[] itens) {
+        Semaphore vagas = new Semaphore(validacoesSimultaneas);
+        Map<Integer, CompletableFuture<StatusVotacao>> validacoes = new LinkedHashMap<>();
+        for (int indice : candidatos.values()) {
+            vagas.acquireUninterruptibly();
+            CompletableFuture<StatusVotacao> validacao =
+                    Futuros.chamar(() -> cpfValidator.validarCPFAsync(requests.get(indice).getCpf()));
+            validacao.whenComplete((status, erro) -> vagas.release());
+            validacoes.put(indice, validacao);
+        }
+
+        candidatos.values().removeIf(indice -> {
+            VotoRequest request = requests.get(indice);
+            try {
+                Futuros.aguardar(validacoes.get(indice));
+                return false;
+            } catch (CPFInvalidoException e) {
+                itens[indice] = item(indice, request.getIdAssociado(), StatusVotoLote.CPF_INVALIDO, e.getMessage());
+            } catch (AssociadoNaoPodeVotarException e) {
+                itens[indice] = item(indice, request.getIdAssociado(), StatusVotoLote.ASSOCIADO_NAO_PODE_VOTAR, e.getMessage());
+            } catch (RuntimeException e) {
+                log.error("Erro ao validar CPF do associado {}: {}", request.getIdAssociado(), e.getMessage());
+                itens[indice] = item(indice, request.getIdAssociado(), StatusVotoLote.ERRO, "Não foi possível validar o CPF");
+            }
+            return true;
+        });
+    }
+
+    /**
+     * Insert the accepted votes in a single transaction, falling back to one transaction per vote
+     * when the batch fails, so that votes raced in by other requests are rejected individually
+     */
+    private void gravar(Long sessaoId, List<Voto> votos, Map<String, Integer> candidatos, ItemLoteVotoDTO[] itens) {
+        if (votos.isEmpty()) {
+            return;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                votoLoteRepository.inserirLote(votos);
+                votos.forEach(voto -> contagemRegistry.registrar(sessaoId, voto.getOpcao()));
+            });
+            votos.forEach(voto -> confirmar(sessaoId, voto, candidatos, itens));
+        } catch (RuntimeException e) {
+            log.warn("Falha ao gravar lote de {} votos da sessão {}, gravando individualmente: {}",
+                    votos.size(), sessaoId, e.getMessage());
+            votos.forEach(voto -> gravarIndividualmente(sessaoId, voto, candidatos, itens));
+        }
+    }
+
+    private void gravarIndividualmente(Long sessaoId, Voto voto, Map<String, Integer> candidatos, ItemLoteVotoDTO[] itens) {
+        int indice = candidatos.get(voto.getIdAssociado());
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                votoLoteRepository.inserir(voto);
+                contagemRegistry.registrar(sessaoId, voto.getOpcao());
+            });
+            confirmar(sessaoId, voto, candidatos, itens);
+        } catch (DataIntegrityViolationException e) {
+            itens[indice] = item(indice, voto.getIdAssociado(), StatusVotoLote.VOTO_DUPLICADO, "Associado já votou nesta sessão");
+        } catch (RuntimeException e) {
+            log.error("Erro ao gravar voto do associado {} na sessão {}: {}", voto.getIdAssociado(), sessaoId, e.getMessage());
+            itens[indice] = item(indice, voto.getIdAssociado(), StatusVotoLote.ERRO, "Não foi possível gravar o voto");
+        }
+    }
+
+    private void confirmar(Long sessaoId, Voto voto, Map<String, Integer> candidatos, ItemLoteVotoDTO[] itens) {
+        int indice = candidatos.get(voto.getIdAssociado());
+        itens[indice] = item(indice, voto.getIdAssociado(), StatusVotoLote.ACEITO, null);
+        filtroVotos.registrar(sessaoId, voto.getIdAssociado());
+    }
+
+    private static ItemLoteVotoDTO item(int indice, String idAssociado, StatusVotoLote status, String mensagem) {
+        return ItemLoteVotoDTO.builder()
+                .indice(indice)
+                .idAssociado(idAssociado)
+                .status(status)
+                .mensagem(mensagem)
+                .build();
+    }
+}
@@ -1,7 +1,14 @@
 package com.cooperativa.sistema.votacao.service;
 
+import com.cooperativa.sistema.votacao.cache.ContagemVotosRegistry;
+import com.cooperativa.sistema.votacao.cache.FiltroVotosRegistry;
+import com.cooperativa.sistema.votacao.cache.JanelaSessaoRegistry;
+import com.cooperativa.sistema.votacao.cache.JanelaSessaoRegistry.JanelaSessao;
 import com.cooperativa.sistema.votacao.client.CPFValidator;
+import com.cooperativa.sistema.votacao.client.Futuros;
+import com.cooperativa.sistema.votacao.diagnostico.EventoRegistroVoto;
 import com.cooperativa.sistema.votacao.domain.SessaoVotacao;
+import com.cooperativa.sistema.votacao.domain.StatusVotacao;
 import com.cooperativa.sistema.votacao.domain.Voto;
 import com.cooperativa.sistema.votacao.dto.VotoDTO;
 import com.cooperativa.sistema.votacao.dto.VotoRequest;
@@ -11,12 +18,20 @@ import com.cooperativa.sistema.votacao.exception.VotoJaRealizadoException;
 import com.cooperativa.sistema.votacao.mapper.VotoMapper;
 import com.cooperativa.sistema.votacao.repository.SessaoVotacaoRepository;
 import com.cooperativa.sistema.votacao.repository.VotoRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Service for managing votes
@@ -25,21 +40,56 @@ import org.springframework.transaction.annotation.Transactional;
 @Slf4j
 public class VotoService {
     
+    static final String METRICA_ETAPAS = "votacao.votos.registro.etapa";
+    static final String METRICA_REJEICOES = "votacao.votos.rejeicoes";
+    
     private final VotoRepository votoRepository;
     private final SessaoVotacaoRepository sessaoRepository;
     private final CPFValidator cpfValidator;
     private final VotoMapper mapper;
+    private final ContagemVotosRegistry contagemRegistry;
+    private final FiltroVotosRegistry filtroVotos;
+    private final JanelaSessaoRegistry janelaSessoes;
+    private final MeterRegistry meterRegistry;
+    private final Timer etapaSessao;
+    private final Timer etapaDuplicidade;
+    private final Timer etapaCpf;
+    private final Timer etapaMapeamento;
+    private final Timer etapaInsercao;
+    private final Timer etapaCommit;
     
     @Autowired
     public VotoService(
             VotoRepository votoRepository,
             SessaoVotacaoRepository sessaoRepository,
             CPFValidator cpfValidator,
-            VotoMapper mapper) {
+            VotoMapper mapper,
+            ContagemVotosRegistry contagemRegistry,
+            FiltroVotosRegistry filtroVotos,
+            JanelaSessaoRegistry janelaSessoes,
+            MeterRegistry meterRegistry) {
         this.votoRepository = votoRepository;
         this.sessaoRepository = sessaoRepository;
         this.cpfValidator = cpfValidator;
         this.mapper = mapper;
+        this.contagemRegistry = contagemRegistry;
+        this.filtroVotos = filtroVotos;
+        this.janelaSessoes = janelaSessoes;
+        this.meterRegistry = meterRegistry;
+        this.etapaSessao = etapa(meterRegistry, "sessao");
+        this.etapaDuplicidade = etapa(meterRegistry, "duplicidade");
+        this.etapaCpf = etapa(meterRegistry, "cpf");
+        this.etapaMapeamento = etapa(meterRegistry, "mapeamento");
+        this.etapaInsercao = etapa(meterRegistry, "insercao");
+        this.etapaCommit = etapa(meterRegistry, "commit");
+    }
+    
+    private static Timer etapa(MeterRegistry meterRegistry, String etapa) {
+        return Timer.builder(METRICA_ETAPAS)
+                .description("Tempo de cada etapa do registro de um voto")
+                .tag("etapa", etapa)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
     }
     
     /**
@@ -53,36 +103,93 @@ public class VotoService {
      * @throws VotoJaRealizadoException if associate already voted
      */
     @Transactional
-    @CacheEvict(value = "resultados", key = "#sessaoId")
     public VotoDTO registrarVoto(Long sessaoId, VotoRequest request) {
         log.info("Registrando voto para sessão {}, associado {}", sessaoId, request.getIdAssociado());
         
-        // Get session
-        SessaoVotacao sessao = sessaoRepository.findById(sessaoId)
-                .orElseThrow(() -> new ResourceNotFoundException("Sessão de votação não encontrada com o ID: " + sessaoId));
+        EventoRegistroVoto evento = new EventoRegistroVoto();
+        evento.begin();
+        evento.sessaoId = sessaoId;
+        try {
+            SessaoVotacao sessao = validarVoto(sessaoId, request);
+            
+            // Create and save vote
+            Voto novo = etapaMapeamento.record(() -> mapper.toEntity(request, sessao));
+            
+            Voto voto;
+            try {
+                // Flushed here, since pooled sequence ids would otherwise delay the INSERT until commit,
+                // where a concurrent duplicate would fail the unique constraint outside this catch
+                voto = etapaInsercao.record(() -> votoRepository.saveAndFlush(novo));
+            } catch (DataIntegrityViolationException e) {
+                // Handle race condition: another concurrent vote might have been saved
+                log.warn("Conflito ao registrar voto: {}", e.getMessage());
+                throw new VotoJaRealizadoException("Associado já votou nesta sessão");
+            }
+            
+            // A rolled back vote left in the filter only costs an extra query, so it is added right away
+            filtroVotos.registrar(sessaoId, voto.getIdAssociado());
+            
+            // Counted in the live tally now; undone if the transaction rolls back
+            contagemRegistry.registrar(sessaoId, voto.getOpcao());
+            concluirAposCommit(evento);
+            
+            log.info("Voto registrado com sucesso. ID: {}", voto.getId());
+            return etapaMapeamento.record(() -> mapper.toDto(voto));
+        } catch (RuntimeException e) {
+            Counter.builder(METRICA_REJEICOES)
+                    .description("Votos recusados, por exceção")
+                    .tag("excecao", e.getClass().getSimpleName())
+                    .register(meterRegistry)
+                    .increment();
+            evento.concluir(e.getClass().getSimpleName());
+            throw e;
+        }
+    }
+    
+    /**
+     * Run every business validation of a vote without persisting it
+     * 
+     * @param sessaoId ID of the voting session
+     * @param request VotoRequest containing vote details
+     * @return Reference to the session the vote belongs to, not loaded from the database
+     * @throws ResourceNotFoundException if session not found
+     * @throws SessaoEncerradaException if session is closed
+     * @throws VotoJaRealizadoException if associate already voted
+     */
+    public SessaoVotacao validarVoto(Long sessaoId, VotoRequest request) {
+        // Start the CPF validation first, so the validator call overlaps the local checks
+        CompletableFuture<StatusVotacao> validacaoCPF = cpfValidator.validarCPFAsync(request.getCpf());
         
-        // Check if session is open
-        validarSessaoAberta(sessao);
+        // Check if session is open using the cached voting window
+        etapaSessao.record(() -> validarSessaoAberta(janelaSessoes.obter(sessaoId)));
         
         // Check if associate already voted
-        validarVotoUnico(request.getIdAssociado(), sessaoId);
+        etapaDuplicidade.record(() -> validarVotoUnico(request.getIdAssociado(), sessaoId));
         
-        // Validate CPF
-        validarCPF(request.getCpf());
+        // This will throw exceptions if CPF is invalid or associate cannot vote.
+        // Only the time still left waiting is measured, the rest overlapped the checks above
+        etapaCpf.record(() -> Futuros.aguardar(validacaoCPF));
         
-        // Create and save vote
-        Voto voto = mapper.toEntity(request, sessao);
-        
-        try {
-            voto = votoRepository.save(voto);
-        } catch (DataIntegrityViolationException e) {
-            // Handle race condition: another concurrent vote might have been saved
-            log.warn("Conflito ao registrar voto: {}", e.getMessage());
-            throw new VotoJaRealizadoException("Associado já votou nesta sessão");
-        }
+        // The vote only needs the session id as foreign key
+        return sessaoRepository.getReferenceById(sessaoId);
+    }
+    
+    /**
+     * Get the vote of an associate in a session, e.g. to confirm it was persisted
+     * 
+     * @param sessaoId ID of the voting session
+     * @param idAssociado ID of the associate
+     * @return DTO with the vote
+     * @throws ResourceNotFoundException if the vote was not found
+     */
+    @Transactional(readOnly = true)
+    public VotoDTO obterVoto(Long sessaoId, String idAssociado) {
+        log.info("Buscando voto do associado {} na sessão {}", idAssociado, sessaoId);
         
-        log.info("Voto registrado com sucesso. ID: {}", voto.getId());
-        return mapper.toDto(voto);
+        return votoRepository.findBySessaoVotacaoIdAndIdAssociado(sessaoId, idAssociado)
+                .map(mapper::toDto)
+                .orElseThrow(() -> new ResourceNotFoundException(
+                        "Voto não encontrado para o associado " + idAssociado + " na sessão " + sessaoId));
     }
     
     /**
@@ -93,7 +200,9 @@ public class VotoService {
      * @throws VotoJaRealizadoException if associate already voted
      */
     private void validarVotoUnico(String idAssociado, Long sessaoId) {
-        if (votoRepository.existsBySessaoVotacaoIdAndIdAssociado(sessaoId, idAssociado)) {
+        // The Bloom filter rules out most first-time voters without a database round trip
+        if (filtroVotos.possivelmenteVotou(sessaoId, idAssociado)
+                && votoRepository.existsBySessaoVotacaoIdAndIdAssociado(sessaoId, idAssociado)) {
             log.warn("Associado {} já votou na sessão {}", idAssociado, sessaoId);
             throw new VotoJaRealizadoException("Associado já votou nesta sessão");
         }
@@ -102,23 +211,46 @@ public class VotoService {
     /**
      * Validate if a session is open for voting
      * 
-     * @param sessao Session to validate
+     * @param janela Voting window of the session to validate
      * @throws SessaoEncerradaException if session is closed
      */
-    private void validarSessaoAberta(SessaoVotacao sessao) {
-        if (!sessao.isAberta()) {
-            log.warn("Tentativa de voto em sessão {} não aberta", sessao.getId());
+    private void validarSessaoAberta(JanelaSessao janela) {
+        if (!janela.isAberta(LocalDateTime.now())) {
+            log.warn("Tentativa de voto em sessão {} não aberta", janela.id());
             throw new SessaoEncerradaException("Sessão de votação não está aberta");
         }
     }
     
     /**
-     * Validate CPF and check if associate can vote
+     * Measure the commit of the current transaction and end the registration event once the
+     * transaction completes
      * 
-     * @param cpf CPF to validate
+     * @param evento JFR event of the registration
      */
-    private void validarCPF(String cpf) {
-        // This will throw exceptions if CPF is invalid or associate cannot vote
-        cpfValidator.validarCPF(cpf);
+    private void concluirAposCommit(EventoRegistroVoto evento) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evento.concluir(EventoRegistroVoto.REGISTRADO);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            private long inicio;
+            
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                inicio = System.nanoTime();
+            }
+            
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    evento.concluir(EventoRegistroVoto.REVERTIDO);
+                    return;
+                }
+                if (inicio != 0) {
+                    etapaCommit.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+                }
+                evento.concluir(EventoRegistroVoto.REGISTRADO);
+            }
+        });
     }
 }
\ No newline at end of file
@@ -0,0 +1,68 @@
+package db.migration;
+
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+
+/**
+ * Migration of existing data from IDENTITY columns to pooled sequences
+ * Databases created by Hibernate before the switch and baselined at V1 got their sequences from
+ * V4, starting at 1 while their tables already have rows, so every sequence is moved past the
+ * highest id of its table. Written in Java because H2 and PostgreSQL ask for the next value of a
+ * sequence differently; a no-op once the sequences are ahead of the data.
+ */
+@Slf4j
+public class V5__realinhar_sequencias extends BaseJavaMigration {
+
+    /**
+     * Must match the allocationSize of the entities' @SequenceGenerator
+     */
+    private static final int ALLOCATION_SIZE = 50;
+
+    private static final Map<String, String> SEQUENCIAS = Map.of(
+            "pauta", "pauta_seq",
+            "sessao_votacao", "sessao_votacao_seq",
+            "voto", "voto_seq",
+            "resultado_votacao", "resultado_votacao_seq");
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection connection = context.getConnection();
+        boolean postgres = connection.getMetaData().getDatabaseProductName().toLowerCase().contains("postgres");
+        try (Statement statement = connection.createStatement()) {
+            for (Map.Entry<String, String> sequencia : SEQUENCIAS.entrySet()) {
+                realinhar(statement, sequencia.getKey(), sequencia.getValue(), postgres);
+            }
+        }
+    }
+
+    private void realinhar(Statement statement, String tabela, String sequencia, boolean postgres) throws SQLException {
+        long maiorId = valor(statement, "SELECT COALESCE(MAX(id), 0) FROM " + tabela);
+        if (maiorId == 0) {
+            return;
+        }
+        long proximoValor = valor(statement, postgres
+                ? "SELECT nextval('" + sequencia + "')"
+                : "SELECT NEXT VALUE FOR " + sequencia);
+
+        // With the pooled optimizer a sequence value V hands out the ids (V - ALLOCATION_SIZE, V]
+        if (proximoValor - ALLOCATION_SIZE < maiorId) {
+            long novoValor = maiorId + ALLOCATION_SIZE;
+            statement.execute("ALTER SEQUENCE " + sequencia + " RESTART WITH " + novoValor);
+            log.info("Sequência {} reiniciada em {} (maior id em {}: {})", sequencia, novoValor, tabela, maiorId);
+        }
+    }
+
+    private long valor(Statement statement, String sql) throws SQLException {
+        try (ResultSet resultado = statement.executeQuery(sql)) {
+            resultado.next();
+            return resultado.getLong(1);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+-- Schema previously created by Hibernate (ddl-auto=update)
+-- Databases that already have it are baselined at this version (spring.flyway.baseline-on-migrate)
+
+CREATE SEQUENCE pauta_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE sessao_votacao_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE voto_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE resultado_votacao_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE associado (
+    id VARCHAR(255) NOT NULL,
+    cpf VARCHAR(255) NOT NULL,
+    nome VARCHAR(255) NOT NULL,
+    data_cadastro TIMESTAMP(6) NOT NULL,
+    ativo BOOLEAN NOT NULL,
+    CONSTRAINT pk_associado PRIMARY KEY (id),
+    CONSTRAINT uk_associado_cpf UNIQUE (cpf)
+);
+
+CREATE TABLE pauta (
+    id BIGINT NOT NULL,
+    titulo VARCHAR(255) NOT NULL,
+    descricao VARCHAR(1000),
+    data_criacao TIMESTAMP(6) NOT NULL,
+    CONSTRAINT pk_pauta PRIMARY KEY (id)
+);
+
+CREATE TABLE sessao_votacao (
+    id BIGINT NOT NULL,
+    pauta_id BIGINT NOT NULL,
+    data_abertura TIMESTAMP(6) NOT NULL,
+    data_fechamento TIMESTAMP(6) NOT NULL,
+    encerrada BOOLEAN NOT NULL,
+    CONSTRAINT pk_sessao_votacao PRIMARY KEY (id),
+    CONSTRAINT fk_sessao_votacao_pauta FOREIGN KEY (pauta_id) REFERENCES pauta (id)
+);
+
+CREATE TABLE voto (
+    id BIGINT NOT NULL,
+    id_associado VARCHAR(255) NOT NULL,
+    cpf_associado VARCHAR(255) NOT NULL,
+    opcao VARCHAR(255) NOT NULL,
+    data_hora_voto TIMESTAMP(6) NOT NULL,
+    sessao_votacao_id BIGINT NOT NULL,
+    CONSTRAINT pk_voto PRIMARY KEY (id),
+    CONSTRAINT ck_voto_opcao CHECK (opcao IN ('SIM', 'NAO')),
+    -- Also serves the duplicate-vote check and every lookup of a session's votes
+    CONSTRAINT uk_voto_sessao_associado UNIQUE (sessao_votacao_id, id_associado),
+    CONSTRAINT fk_voto_sessao_votacao FOREIGN KEY (sessao_votacao_id) REFERENCES sessao_votacao (id)
+);
+
+CREATE TABLE resultado_votacao (
+    id BIGINT NOT NULL,
+    sessao_votacao_id BIGINT NOT NULL,
+    total_votos INTEGER NOT NULL,
+    votos_sim INTEGER NOT NULL,
+    votos_nao INTEGER NOT NULL,
+    data_apuracao TIMESTAMP(6) NOT NULL,
+    CONSTRAINT pk_resultado_votacao PRIMARY KEY (id),
+    CONSTRAINT uk_resultado_votacao_sessao UNIQUE (sessao_votacao_id),
+    CONSTRAINT fk_resultado_votacao_sessao_votacao FOREIGN KEY (sessao_votacao_id) REFERENCES sessao_votacao (id)
+);
+
+CREATE TABLE trava_execucao (
+    nome VARCHAR(100) NOT NULL,
+    dono VARCHAR(100) NOT NULL,
+    expira_em TIMESTAMP(6) NOT NULL,
+    CONSTRAINT pk_trava_execucao PRIMARY KEY (nome)
+);
@@ -0,0 +1,10 @@
+-- Indexes for the query shapes of the hot paths, checked with EXPLAIN in MigracoesIntegrationTest
+
+-- SessaoScheduler: findByEncerradaFalseAndDataFechamentoBefore (open sessions past their closing time)
+CREATE INDEX idx_sessao_votacao_encerrada_fechamento ON sessao_votacao (encerrada, data_fechamento);
+
+-- existsOpenSessionForPauta when opening a session; its pauta_id prefix also serves findByPautaId
+CREATE INDEX idx_sessao_votacao_pauta_encerrada ON sessao_votacao (pauta_id, encerrada);
+
+-- Tallies: countBySessaoVotacaoIdAndOpcao, countVotosBySessaoId and the bulk INSERT ... SELECT ... GROUP BY
+CREATE INDEX idx_voto_sessao_opcao ON voto (sessao_votacao_id, opcao);
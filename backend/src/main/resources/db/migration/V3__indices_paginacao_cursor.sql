@@ -0,0 +1,11 @@
+-- Indexes for the cursor (keyset) listings, ordered by sort key and id, both descending.
+-- Each page seeks to the last (sort key, id) of the previous one instead of skipping OFFSET rows.
+
+-- PautaRepository.findPrimeiraPagina / findPaginaApos
+CREATE INDEX idx_pauta_data_criacao_id ON pauta (data_criacao DESC, id DESC);
+
+-- SessaoVotacaoRepository.findPrimeiraPagina / findPaginaApos
+CREATE INDEX idx_sessao_votacao_data_abertura_id ON sessao_votacao (data_abertura DESC, id DESC);
+
+-- AssociadoRepository.findPrimeiraPagina / findPaginaApos
+CREATE INDEX idx_associado_data_cadastro_id ON associado (data_cadastro DESC, id DESC);
@@ -0,0 +1,15 @@
+-- Objects that V1 creates but databases baselined at V1 may lack: those created by Hibernate
+-- (ddl-auto=update) before the pooled sequences and the execution lease existed.
+-- IF NOT EXISTS keeps this a no-op on databases created by V1.
+
+CREATE SEQUENCE IF NOT EXISTS pauta_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS sessao_votacao_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS voto_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS resultado_votacao_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS trava_execucao (
+    nome VARCHAR(100) NOT NULL,
+    dono VARCHAR(100) NOT NULL,
+    expira_em TIMESTAMP(6) NOT NULL,
+    CONSTRAINT pk_trava_execucao PRIMARY KEY (nome)
+);
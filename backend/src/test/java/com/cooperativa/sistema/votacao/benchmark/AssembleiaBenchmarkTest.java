@@ -0,0 +1,77 @@
+package com.cooperativa.sistema.votacao.benchmark;
+
+import com.cooperativa.sistema.votacao.simulador.AssembleiaSimulada;
+import com.cooperativa.sistema.votacao.simulador.AssembleiaSimulada.Parametros;
+import com.cooperativa.sistema.votacao.simulador.AssembleiaSimulada.Relatorio;
+import com.cooperativa.sistema.votacao.simulador.ValidadorCPFSimulado;
+import com.cooperativa.sistema.votacao.simulador.ValidadorCPFSimulado.Configuracao;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Assembly load scenario against the application on a random port, with the stand-in CPF validator
+ * Run with: mvn test -Pbenchmark -Dtest=AssembleiaBenchmarkTest
+ * The scenario is sized with -Dassembleia="associados=5000 paineis=50" and the validator with
+ * -Dvalidador="latencia=cauda-longa p99-ms=800", using the keys of each simulator.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:benchmark-assembleia;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false",
+        "logging.level.com.cooperativa.sistema.votacao=WARN"
+})
+@ActiveProfiles("test")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class AssembleiaBenchmarkTest {
+
+    private static final ValidadorCPFSimulado SIMULADOR = ValidadorCPFSimulado.iniciar(0,
+            Configuracao.padrao().com(parametros("validador")));
+
+    @DynamicPropertySource
+    static void configurarValidador(DynamicPropertyRegistry registry) {
+        registry.add("cpf.validator.url", SIMULADOR::getUrl);
+        registry.add("votacao.cpf.validador.resultados-aleatorios", () -> "false");
+    }
+
+    @AfterAll
+    static void pararSimulador() {
+        SIMULADOR.close();
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @Test
+    @DisplayName("Mede a vazão e a latência de uma assembleia completa com painéis acompanhando o resultado")
+    void simularAssembleia() throws Exception {
+        Relatorio relatorio = AssembleiaSimulada.executar(
+                Parametros.padrao().comUrl("http://localhost:" + port).com(parametros("assembleia")));
+
+        System.out.println(relatorio.formatar());
+        assertEquals(relatorio.votosAceitos(), relatorio.totalVotosFinal());
+        assertTrue(relatorio.msAteResultadoFinal() >= 0);
+    }
+
+    private static Map<String, String> parametros(String propriedade) {
+        Map<String, String> parametros = new HashMap<>();
+        for (String par : System.getProperty(propriedade, "").trim().split("\\s+")) {
+            if (!par.isEmpty()) {
+                String[] chaveValor = par.split("=", 2);
+                parametros.put(chaveValor[0], chaveValor.length > 1 ? chaveValor[1] : "");
+            }
+        }
+        return parametros;
+    }
+}
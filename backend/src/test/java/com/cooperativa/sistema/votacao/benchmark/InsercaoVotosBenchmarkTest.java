@@ -0,0 +1,94 @@
+package com.cooperativa.sistema.votacao.benchmark;
+
+import com.cooperativa.sistema.votacao.domain.OpcaoVoto;
+import com.cooperativa.sistema.votacao.domain.Pauta;
+import com.cooperativa.sistema.votacao.domain.SessaoVotacao;
+import com.cooperativa.sistema.votacao.domain.Voto;
+import com.cooperativa.sistema.votacao.repository.PautaRepository;
+import com.cooperativa.sistema.votacao.repository.SessaoVotacaoRepository;
+import com.cooperativa.sistema.votacao.repository.VotoRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Bulk insert throughput of votes through JPA, against an in-memory H2 database
+ * Run with: mvn test -Dtest=InsercaoVotosBenchmarkTest -Dbenchmark=true
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false",
+        "logging.level.com.cooperativa.sistema.votacao=WARN"
+})
+@ActiveProfiles("test")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class InsercaoVotosBenchmarkTest {
+
+    private static final int TOTAL_VOTOS = 20_000;
+    private static final int VOTOS_POR_TRANSACAO = 1_000;
+    private static final int RODADAS_AQUECIMENTO = 2;
+
+    @Autowired
+    private VotoRepository votoRepository;
+
+    @Autowired
+    private SessaoVotacaoRepository sessaoRepository;
+
+    @Autowired
+    private PautaRepository pautaRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    @DisplayName("Mede a vazão de inserção de votos em lote")
+    void inserirVotosEmLote() {
+        for (int i = 0; i < RODADAS_AQUECIMENTO; i++) {
+            inserir(criarSessao());
+        }
+
+        SessaoVotacao sessao = criarSessao();
+        long inicio = System.nanoTime();
+        inserir(sessao);
+        long duracaoNanos = System.nanoTime() - inicio;
+
+        assertEquals(TOTAL_VOTOS, votoRepository.countBySessaoVotacaoId(sessao.getId()));
+        System.out.printf("Inseridos %d votos em %d ms (%.0f votos/s)%n",
+                TOTAL_VOTOS, duracaoNanos / 1_000_000, TOTAL_VOTOS / (duracaoNanos / 1e9));
+    }
+
+    private SessaoVotacao criarSessao() {
+        Pauta pauta = pautaRepository.save(Pauta.builder().titulo("Pauta de benchmark").build());
+        return sessaoRepository.save(SessaoVotacao.builder()
+                .pauta(pauta)
+                .dataAbertura(LocalDateTime.now())
+                .dataFechamento(LocalDateTime.now().plusMinutes(5))
+                .build());
+    }
+
+    private void inserir(SessaoVotacao sessao) {
+        for (int inicio = 0; inicio < TOTAL_VOTOS; inicio += VOTOS_POR_TRANSACAO) {
+            List<Voto> votos = new ArrayList<>(VOTOS_POR_TRANSACAO);
+            for (int i = 0; i < VOTOS_POR_TRANSACAO; i++) {
+                votos.add(Voto.builder()
+                        .idAssociado(UUID.randomUUID().toString())
+                        .cpfAssociado("12345678909")
+                        .opcao(i % 2 == 0 ? OpcaoVoto.SIM : OpcaoVoto.NAO)
+                        .sessaoVotacao(sessao)
+                        .build());
+            }
+            transactionTemplate.executeWithoutResult(status -> votoRepository.saveAll(votos));
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.cooperativa.sistema.votacao.benchmark;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * JMH options shared by the benchmarks
+ * Besides the console report, results are written as JSON to target/jmh/&lt;benchmark&gt;.json
+ * (or the directory in -Djmh.resultados), so two runs can be compared side by side.
+ */
+final class OpcoesJmh {
+
+    private OpcoesJmh() {
+    }
+
+    /**
+     * Options running only the given benchmark class and recording its results as JSON
+     *
+     * @param benchmark Benchmark class
+     * @return Options builder, to add profilers or override annotations
+     * @throws IOException if the results directory cannot be created
+     */
+    static ChainedOptionsBuilder para(Class<?> benchmark) throws IOException {
+        Path diretorio = Path.of(System.getProperty("jmh.resultados", "target/jmh"));
+        Files.createDirectories(diretorio);
+        return new OptionsBuilder()
+                .include(benchmark.getSimpleName())
+                .resultFormat(ResultFormatType.JSON)
+                .result(diretorio.resolve(benchmark.getSimpleName() + ".json").toString());
+    }
+}
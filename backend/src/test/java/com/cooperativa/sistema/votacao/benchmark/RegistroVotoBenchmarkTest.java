@@ -0,0 +1,125 @@
+package com.cooperativa.sistema.votacao.benchmark;
+
+import com.cooperativa.sistema.votacao.SistemaVotacaoApplication;
+import com.cooperativa.sistema.votacao.client.CPFValidator;
+import com.cooperativa.sistema.votacao.domain.OpcaoVoto;
+import com.cooperativa.sistema.votacao.domain.Pauta;
+import com.cooperativa.sistema.votacao.domain.SessaoVotacao;
+import com.cooperativa.sistema.votacao.domain.StatusVotacao;
+import com.cooperativa.sistema.votacao.dto.VotoDTO;
+import com.cooperativa.sistema.votacao.dto.VotoRequest;
+import com.cooperativa.sistema.votacao.repository.PautaRepository;
+import com.cooperativa.sistema.votacao.repository.SessaoVotacaoRepository;
+import com.cooperativa.sistema.votacao.service.VotoService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+/**
+ * JMH average time of VotoService.registrarVoto in-process, against an in-memory H2 database
+ * The CPF validator is stubbed to answer right away, so the numbers cover the local checks,
+ * the insert and the commit, without the external API.
+ * Run with: mvn test -Pbenchmark -Dtest=RegistroVotoBenchmarkTest
+ * JMH requires benchmark classes to be public.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RegistroVotoBenchmarkTest {
+
+    // Sobrescreve o CPFValidator real com um mock para não precisar da API externa
+    @Configuration
+    static class ValidadorCPFImediato {
+        @Bean
+        @Primary
+        public CPFValidator mockCpfValidator() {
+            CPFValidator mockValidator = Mockito.mock(CPFValidator.class);
+            when(mockValidator.validarCPF(anyString())).thenReturn(StatusVotacao.ABLE_TO_VOTE);
+            when(mockValidator.validarCPFAsync(anyString()))
+                    .thenReturn(CompletableFuture.completedFuture(StatusVotacao.ABLE_TO_VOTE));
+            return mockValidator;
+        }
+    }
+
+    private final AtomicLong associados = new AtomicLong();
+
+    private ConfigurableApplicationContext contexto;
+    private VotoService votoService;
+    private Long sessaoId;
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+        contexto = new SpringApplicationBuilder(SistemaVotacaoApplication.class, ValidadorCPFImediato.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:benchmark-registro;DB_CLOSE_DELAY=-1",
+                        "spring.jpa.show-sql=false",
+                        "logging.level.com.cooperativa.sistema.votacao=WARN")
+                .run();
+        votoService = contexto.getBean(VotoService.class);
+
+        Pauta pauta = contexto.getBean(PautaRepository.class)
+                .save(Pauta.builder().titulo("Pauta de benchmark").build());
+        sessaoId = contexto.getBean(SessaoVotacaoRepository.class).save(SessaoVotacao.builder()
+                .pauta(pauta)
+                .dataAbertura(LocalDateTime.now())
+                .dataFechamento(LocalDateTime.now().plusDays(1))
+                .build()).getId();
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public VotoDTO registrarVoto() {
+        // Every invocation is a new associate, otherwise the vote would be rejected as duplicated
+        return votoService.registrarVoto(sessaoId, VotoRequest.builder()
+                .idAssociado("associado-" + associados.incrementAndGet())
+                .cpf("52998224725")
+                .opcao(OpcaoVoto.SIM)
+                .build());
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    @DisplayName("Mede o tempo médio do registro de um voto com o validador de CPF imediato")
+    void executar() throws Exception {
+        new Runner(OpcoesJmh.para(RegistroVotoBenchmarkTest.class)
+                .addProfiler("gc")
+                .build()).run();
+    }
+}
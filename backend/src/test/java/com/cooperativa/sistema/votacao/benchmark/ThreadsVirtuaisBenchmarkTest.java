@@ -0,0 +1,159 @@
+package com.cooperativa.sistema.votacao.benchmark;
+
+import com.cooperativa.sistema.votacao.client.CPFValidator;
+import com.cooperativa.sistema.votacao.domain.OpcaoVoto;
+import com.cooperativa.sistema.votacao.domain.Pauta;
+import com.cooperativa.sistema.votacao.domain.SessaoVotacao;
+import com.cooperativa.sistema.votacao.domain.StatusVotacao;
+import com.cooperativa.sistema.votacao.dto.VotoRequest;
+import com.cooperativa.sistema.votacao.repository.PautaRepository;
+import com.cooperativa.sistema.votacao.repository.SessaoVotacaoRepository;
+import com.cooperativa.sistema.votacao.repository.VotoRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+/**
+ * Throughput of concurrent vote requests with a blocking CPF validator, on platform or virtual threads
+ * Tomcat is capped at 50 platform workers, as a loaded production node would be, and the CPF
+ * validator answers after 50 ms. The client keeps at most 400 requests in flight: with virtual threads
+ * Tomcat no longer bounds concurrency, and firing every request at once only queues them on the
+ * connection pool until they time out. Compare both modes with:
+ *   mvn test -Dtest=ThreadsVirtuaisBenchmarkTest -Dbenchmark=true -Dvirtual=false
+ *   mvn test -Dtest=ThreadsVirtuaisBenchmarkTest -Dbenchmark=true -Dvirtual=true
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.threads.virtual.enabled=${virtual:false}",
+        "server.tomcat.threads.max=50",
+        "spring.datasource.url=jdbc:h2:mem:benchmark-threads;DB_CLOSE_DELAY=-1",
+        "spring.datasource.hikari.maximum-pool-size=200",
+        "spring.jpa.show-sql=false",
+        "logging.level.com.cooperativa.sistema.votacao=WARN"
+})
+@ActiveProfiles("test")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ThreadsVirtuaisBenchmarkTest {
+
+    private static final int TOTAL_VOTOS = 4_000;
+    private static final int VOTOS_AQUECIMENTO = 500;
+    private static final long LATENCIA_CPF_MS = 50;
+    private static final int REQUISICOES_SIMULTANEAS = 400;
+
+    @TestConfiguration
+    static class TestConfig {
+        // Simulates the remote CPF validator blocking the request thread
+        @Bean
+        @Primary
+        public CPFValidator lentoCpfValidator() {
+            CPFValidator mockValidator = Mockito.mock(CPFValidator.class);
+            when(mockValidator.validarCPFAsync(anyString())).thenAnswer(invocation -> {
+                Thread.sleep(LATENCIA_CPF_MS);
+                return CompletableFuture.completedFuture(StatusVotacao.ABLE_TO_VOTE);
+            });
+            return mockValidator;
+        }
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @Value("${spring.threads.virtual.enabled}")
+    private boolean threadsVirtuais;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private VotoRepository votoRepository;
+
+    @Autowired
+    private SessaoVotacaoRepository sessaoRepository;
+
+    @Autowired
+    private PautaRepository pautaRepository;
+
+    @Test
+    @DisplayName("Mede a vazão de votos concorrentes com validação de CPF bloqueante")
+    void votarConcorrentemente() throws Exception {
+        try (ExecutorService clientes = Executors.newVirtualThreadPerTaskExecutor()) {
+            HttpClient http = HttpClient.newBuilder().executor(clientes).build();
+
+            votar(http, clientes, criarSessao(), VOTOS_AQUECIMENTO);
+
+            Long sessaoId = criarSessao();
+            long inicio = System.nanoTime();
+            votar(http, clientes, sessaoId, TOTAL_VOTOS);
+            long duracaoNanos = System.nanoTime() - inicio;
+
+            assertEquals(TOTAL_VOTOS, votoRepository.countBySessaoVotacaoId(sessaoId));
+            System.out.printf("[%s] %d votos em %d ms (%.0f votos/s)%n",
+                    threadsVirtuais ? "virtual threads" : "platform threads",
+                    TOTAL_VOTOS, duracaoNanos / 1_000_000, TOTAL_VOTOS / (duracaoNanos / 1e9));
+        }
+    }
+
+    private Long criarSessao() {
+        Pauta pauta = pautaRepository.save(Pauta.builder().titulo("Pauta de benchmark").build());
+        return sessaoRepository.save(SessaoVotacao.builder()
+                .pauta(pauta)
+                .dataAbertura(LocalDateTime.now())
+                .dataFechamento(LocalDateTime.now().plusMinutes(10))
+                .build()).getId();
+    }
+
+    private void votar(HttpClient http, ExecutorService clientes, Long sessaoId, int quantidade) throws Exception {
+        URI uri = URI.create("http://localhost:" + port + "/api/v1/sessoes/" + sessaoId + "/votos");
+        List<Future<Integer>> respostas = new ArrayList<>(quantidade);
+        Semaphore emAndamento = new Semaphore(REQUISICOES_SIMULTANEAS);
+        for (int i = 0; i < quantidade; i++) {
+            VotoRequest voto = VotoRequest.builder()
+                    .idAssociado(UUID.randomUUID().toString())
+                    .cpf("12345678909")
+                    .opcao(i % 2 == 0 ? OpcaoVoto.SIM : OpcaoVoto.NAO)
+                    .build();
+            HttpRequest request = HttpRequest.newBuilder(uri)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(voto)))
+                    .build();
+            respostas.add(clientes.submit(() -> {
+                emAndamento.acquire();
+                try {
+                    return http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                } finally {
+                    emAndamento.release();
+                }
+            }));
+        }
+        for (Future<Integer> resposta : respostas) {
+            assertEquals(201, resposta.get());
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.cooperativa.sistema.votacao.benchmark;
+
+import com.cooperativa.sistema.votacao.client.ValidadorDigitosCPF;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH throughput of the local CPF check digit validation
+ * Run with: mvn test -Pbenchmark -Dtest=ValidadorDigitosCPFBenchmarkTest
+ * The gc profiler reports gc.alloc.rate.norm, which should be 0 B/op.
+ * JMH requires benchmark classes to be public.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValidadorDigitosCPFBenchmarkTest {
+
+    // Non-final fields, so the JIT cannot constant-fold the validation
+    private String valido = "52998224725";
+    private String formatado = "529.982.247-25";
+    private String digitosErrados = "52998224715";
+    private String repetido = "11111111111";
+
+    @Benchmark
+    public boolean valido() {
+        return ValidadorDigitosCPF.isValido(valido);
+    }
+
+    @Benchmark
+    public boolean formatado() {
+        return ValidadorDigitosCPF.isValido(formatado);
+    }
+
+    @Benchmark
+    public boolean digitosErrados() {
+        return ValidadorDigitosCPF.isValido(digitosErrados);
+    }
+
+    @Benchmark
+    public boolean repetido() {
+        return ValidadorDigitosCPF.isValido(repetido);
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    @DisplayName("Mede a vazão da validação local de dígitos verificadores do CPF")
+    void executar() throws Exception {
+        new Runner(OpcoesJmh.para(ValidadorDigitosCPFBenchmarkTest.class)
+                .addProfiler("gc")
+                .build()).run();
+    }
+}
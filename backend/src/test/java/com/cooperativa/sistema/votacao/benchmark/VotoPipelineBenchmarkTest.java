@@ -0,0 +1,140 @@
+package com.cooperativa.sistema.votacao.benchmark;
+
+import com.cooperativa.sistema.votacao.domain.OpcaoVoto;
+import com.cooperativa.sistema.votacao.domain.Pauta;
+import com.cooperativa.sistema.votacao.domain.ResultadoVotacao;
+import com.cooperativa.sistema.votacao.domain.SessaoVotacao;
+import com.cooperativa.sistema.votacao.domain.Voto;
+import com.cooperativa.sistema.votacao.dto.ResultadoVotacaoDTO;
+import com.cooperativa.sistema.votacao.dto.VotoDTO;
+import com.cooperativa.sistema.votacao.dto.VotoRequest;
+import com.cooperativa.sistema.votacao.mapper.ResultadoVotacaoMapper;
+import com.cooperativa.sistema.votacao.mapper.ResultadoVotacaoMapperImpl;
+import com.cooperativa.sistema.votacao.mapper.VotoMapper;
+import com.cooperativa.sistema.votacao.mapper.VotoMapperImpl;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH average time of the CPU-only steps of the vote pipeline: mapping, the session window check
+ * and the JSON serialization of the responses
+ * Run with: mvn test -Pbenchmark -Dtest=VotoPipelineBenchmarkTest
+ * JMH requires benchmark classes to be public.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VotoPipelineBenchmarkTest {
+
+    private final VotoMapper votoMapper = new VotoMapperImpl();
+    private final ResultadoVotacaoMapper resultadoMapper = new ResultadoVotacaoMapperImpl();
+    // Same modules as the ObjectMapper Spring Boot configures, e.g. java.time support
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    private VotoRequest request;
+    private SessaoVotacao sessao;
+    private Voto voto;
+    private ResultadoVotacao resultado;
+    private VotoDTO votoDTO;
+    private ResultadoVotacaoDTO resultadoDTO;
+
+    @Setup
+    public void preparar() {
+        LocalDateTime agora = LocalDateTime.now();
+        Pauta pauta = Pauta.builder()
+                .id(1L)
+                .titulo("Aprovação das contas do exercício")
+                .descricao("Pauta usada nos benchmarks")
+                .dataCriacao(agora)
+                .build();
+        sessao = SessaoVotacao.builder()
+                .id(1L)
+                .pauta(pauta)
+                .dataAbertura(agora.minusMinutes(1))
+                .dataFechamento(agora.plusHours(1))
+                .build();
+        request = VotoRequest.builder()
+                .idAssociado("associado-1")
+                .cpf("52998224725")
+                .opcao(OpcaoVoto.SIM)
+                .build();
+        voto = Voto.builder()
+                .id(1L)
+                .idAssociado("associado-1")
+                .cpfAssociado("52998224725")
+                .opcao(OpcaoVoto.SIM)
+                .dataHoraVoto(agora)
+                .sessaoVotacao(sessao)
+                .build();
+        resultado = ResultadoVotacao.builder()
+                .id(1L)
+                .sessaoVotacao(sessao)
+                .totalVotos(1000)
+                .votosSim(600)
+                .votosNao(400)
+                .dataApuracao(agora)
+                .build();
+        votoDTO = votoMapper.toDto(voto);
+        resultadoDTO = resultadoMapper.toDto(resultado);
+    }
+
+    @Benchmark
+    public Voto votoToEntity() {
+        return votoMapper.toEntity(request, sessao);
+    }
+
+    @Benchmark
+    public VotoDTO votoToDto() {
+        return votoMapper.toDto(voto);
+    }
+
+    @Benchmark
+    public ResultadoVotacaoDTO resultadoToDto() {
+        return resultadoMapper.toDto(resultado);
+    }
+
+    @Benchmark
+    public boolean sessaoIsAberta() {
+        return sessao.isAberta();
+    }
+
+    @Benchmark
+    public byte[] serializarVotoDTO() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(votoDTO);
+    }
+
+    @Benchmark
+    public byte[] serializarResultadoDTO() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(resultadoDTO);
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    @DisplayName("Mede o tempo médio do mapeamento, da janela da sessão e da serialização JSON do voto")
+    void executar() throws Exception {
+        new Runner(OpcoesJmh.para(VotoPipelineBenchmarkTest.class)
+                .addProfiler("gc")
+                .build()).run();
+    }
+}
@@ -0,0 +1,40 @@
+package com.cooperativa.sistema.votacao.cache;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BloomFilterTest {
+
+    @Test
+    @DisplayName("Deve reconhecer todos os valores adicionados")
+    void semFalsosNegativos() {
+        // Arrange
+        BloomFilter filtro = new BloomFilter(10_000, 0.01);
+
+        // Act
+        IntStream.range(0, 10_000).parallel().forEach(i -> filtro.adicionar("associado-" + i));
+
+        // Assert
+        IntStream.range(0, 10_000).forEach(i -> assertTrue(filtro.possivelmenteContem("associado-" + i)));
+    }
+
+    @Test
+    @DisplayName("Deve manter a taxa de falsos positivos próxima da configurada")
+    void taxaFalsosPositivos() {
+        // Arrange
+        BloomFilter filtro = new BloomFilter(10_000, 0.01);
+        IntStream.range(0, 10_000).forEach(i -> filtro.adicionar("associado-" + i));
+
+        // Act
+        long falsosPositivos = IntStream.range(0, 100_000)
+                .filter(i -> filtro.possivelmenteContem("outro-" + i))
+                .count();
+
+        // Assert
+        assertTrue(falsosPositivos < 2_000, "Falsos positivos: " + falsosPositivos);
+    }
+}
@@ -0,0 +1,169 @@
+package com.cooperativa.sistema.votacao.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CacheDoisNiveisTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private AtomicLong agora;
+    private ConcurrentMapCache remoto;
+    private List<String> invalidacoes;
+    private CacheDoisNiveis cache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        agora = new AtomicLong();
+        remoto = new ConcurrentMapCache("sessoes");
+        invalidacoes = new ArrayList<>();
+        cache = new CacheDoisNiveis(remoto, 2, TimeUnit.SECONDS.toNanos(60), agora::get,
+                (nome, chave) -> invalidacoes.add(nome + ":" + chave), meterRegistry);
+    }
+
+    private double requisicoes(String nivel) {
+        return meterRegistry.get("votacao.cache.requisicoes").tag("cache", "sessoes").tag("nivel", nivel).counter().count();
+    }
+
+    @Test
+    @DisplayName("Deve responder pelo nível local depois da primeira leitura do nível remoto")
+    void responderPeloNivelLocal() {
+        // Arrange
+        remoto.put(1L, "sessão 1");
+
+        // Act
+        Cache.ValueWrapper primeira = cache.get(1L);
+        remoto.put(1L, "alterada sem invalidação");
+        Cache.ValueWrapper segunda = cache.get(1L);
+        Cache.ValueWrapper ausente = cache.get(2L);
+
+        // Assert
+        assertEquals("sessão 1", primeira.get());
+        assertEquals("sessão 1", segunda.get());
+        assertNull(ausente);
+        assertEquals(1, requisicoes("local"));
+        assertEquals(1, requisicoes("remoto"));
+        assertEquals(1, requisicoes("falha"));
+        assertTrue(invalidacoes.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Deve gravar no nível remoto e anunciar a chave alterada")
+    void gravarEAnunciar() {
+        // Act
+        cache.put(1L, "sessão 1");
+        cache.evict(2L);
+        cache.clear();
+
+        // Assert
+        assertEquals(List.of("sessoes:1", "sessoes:2", "sessoes:null"), invalidacoes);
+        assertNull(remoto.get(1L));
+        assertEquals(0, cache.tamanhoLocal());
+    }
+
+    @Test
+    @DisplayName("Deve descartar a cópia local ao receber a invalidação de outra instância")
+    void invalidarCopiaLocal() {
+        // Arrange
+        remoto.put(1L, "sessão aberta");
+        cache.get(1L);
+        remoto.put(1L, "sessão encerrada");
+
+        // Act
+        cache.invalidarLocal("1");
+        Object depois = cache.get(1L, String.class);
+
+        // Assert
+        assertEquals("sessão encerrada", depois);
+        assertTrue(invalidacoes.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Deve reler o nível remoto quando a cópia local expira")
+    void expirarCopiaLocal() {
+        // Arrange
+        remoto.put(1L, "sessão aberta");
+        cache.get(1L);
+        remoto.put(1L, "sessão encerrada");
+
+        // Act
+        agora.addAndGet(TimeUnit.SECONDS.toNanos(61));
+        Object depois = cache.get(1L, String.class);
+
+        // Assert
+        assertEquals("sessão encerrada", depois);
+    }
+
+    @Test
+    @DisplayName("Deve limitar o nível local e expulsar a chave usada há mais tempo")
+    void limitarNivelLocal() {
+        // Arrange
+        remoto.put(1L, "a");
+        remoto.put(2L, "b");
+        remoto.put(3L, "c");
+        cache.get(1L);
+        cache.get(2L);
+        cache.get(1L);
+
+        // Act
+        cache.get(3L);
+
+        // Assert
+        assertEquals(2, cache.tamanhoLocal());
+        assertEquals(1, meterRegistry.get("votacao.cache.local.expulsoes").counter().count());
+        cache.get(1L);
+        assertEquals(2, requisicoes("local"));
+    }
+
+    @Test
+    @DisplayName("Não deve guardar localmente um valor lido antes de uma invalidação concorrente")
+    void ignorarValorLidoAntesDaInvalidacao() {
+        // Arrange: the remote read is interleaved with an invalidation from another instance
+        Cache remotoLento = new ConcurrentMapCache("sessoes") {
+            @Override
+            public ValueWrapper get(Object key) {
+                ValueWrapper valor = super.get(key);
+                cache.invalidarLocal(String.valueOf(key));
+                return valor;
+            }
+        };
+        remotoLento.put(1L, "sessão aberta");
+        cache = new CacheDoisNiveis(remotoLento, 2, TimeUnit.SECONDS.toNanos(60), agora::get,
+                (nome, chave) -> invalidacoes.add(nome + ":" + chave), new SimpleMeterRegistry());
+
+        // Act
+        Cache.ValueWrapper valor = cache.get(1L);
+
+        // Assert
+        assertEquals("sessão aberta", valor.get());
+        assertEquals(0, cache.tamanhoLocal());
+    }
+
+    @Test
+    @DisplayName("Deve carregar o valor ausente uma vez e guardá-lo nos dois níveis")
+    void carregarValorAusente() {
+        // Arrange
+        AtomicLong carregamentos = new AtomicLong();
+
+        // Act
+        String primeiro = cache.get(1L, () -> "carregado " + carregamentos.incrementAndGet());
+        String segundo = cache.get(1L, () -> "carregado " + carregamentos.incrementAndGet());
+
+        // Assert
+        assertEquals("carregado 1", primeiro);
+        assertEquals("carregado 1", segundo);
+        assertEquals("carregado 1", remoto.get(1L).get());
+        assertEquals(List.of("sessoes:1"), invalidacoes);
+    }
+}
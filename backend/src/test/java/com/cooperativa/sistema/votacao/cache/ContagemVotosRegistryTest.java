@@ -0,0 +1,219 @@
+package com.cooperativa.sistema.votacao.cache;
+
+import com.cooperativa.sistema.votacao.cache.ContagemVotosRegistry.ContagemVotos;
+import com.cooperativa.sistema.votacao.domain.OpcaoVoto;
+import com.cooperativa.sistema.votacao.domain.SessaoVotacao;
+import com.cooperativa.sistema.votacao.repository.SessaoVotacaoRepository;
+import com.cooperativa.sistema.votacao.repository.VotoRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ContagemVotosRegistryTest {
+
+    @Mock
+    private VotoRepository votoRepository;
+
+    @Mock
+    private SessaoVotacaoRepository sessaoRepository;
+
+    @InjectMocks
+    private ContagemVotosRegistry registry;
+
+    private List<Object[]> linhas(long sim, long nao) {
+        List<Object[]> linhas = new ArrayList<>();
+        linhas.add(new Object[]{OpcaoVoto.SIM, sim});
+        linhas.add(new Object[]{OpcaoVoto.NAO, nao});
+        return linhas;
+    }
+
+    @Test
+    @DisplayName("Deve carregar a contagem do banco apenas no primeiro acesso")
+    void obterCarregaUmaVez() {
+        // Arrange
+        when(votoRepository.countVotosBySessaoId(1L)).thenReturn(linhas(3, 2));
+
+        // Act
+        ContagemVotos primeira = registry.obter(1L);
+        ContagemVotos segunda = registry.obter(1L);
+
+        // Assert
+        assertEquals(3, primeira.votosSim());
+        assertEquals(2, primeira.votosNao());
+        assertEquals(5, primeira.totalVotos());
+        assertEquals(primeira, segunda);
+        verify(votoRepository, times(1)).countVotosBySessaoId(1L);
+    }
+
+    @Test
+    @DisplayName("Deve somar votos registrados concorrentemente à contagem carregada")
+    void registrarVotosConcorrentes() {
+        // Arrange
+        when(votoRepository.countVotosBySessaoId(1L)).thenReturn(linhas(1, 0));
+        registry.obter(1L);
+
+        // Act
+        IntStream.range(0, 1000).parallel()
+                .forEach(i -> registry.registrar(1L, i % 2 == 0 ? OpcaoVoto.SIM : OpcaoVoto.NAO));
+
+        // Assert
+        ContagemVotos contagem = registry.obter(1L);
+        assertEquals(501, contagem.votosSim());
+        assertEquals(500, contagem.votosNao());
+        assertEquals(1001, contagem.totalVotos());
+    }
+
+    @Test
+    @DisplayName("Deve ignorar votos de sessões ainda não carregadas")
+    void registrarSessaoNaoCarregada() {
+        // Arrange
+        when(votoRepository.countVotosBySessaoId(2L)).thenReturn(linhas(4, 4));
+
+        // Act
+        registry.registrar(2L, OpcaoVoto.SIM);
+        ContagemVotos contagem = registry.obter(2L);
+
+        // Assert
+        assertEquals(8, contagem.totalVotos());
+    }
+
+    @Test
+    @DisplayName("Deve contar o voto registrado enquanto a primeira leitura carrega a contagem")
+    void registrarDuranteCarregamento() throws Exception {
+        // Arrange
+        CountDownLatch carregando = new CountDownLatch(1);
+        CountDownLatch registrando = new CountDownLatch(1);
+        // The query does not see the vote, which is registered before the load finishes
+        when(votoRepository.countVotosBySessaoId(1L)).thenAnswer(invocation -> {
+            carregando.countDown();
+            assertTrue(registrando.await(5, TimeUnit.SECONDS));
+            Thread.sleep(100);
+            return linhas(4, 4);
+        });
+
+        // Act
+        CompletableFuture<ContagemVotos> leitura = CompletableFuture.supplyAsync(() -> registry.obter(1L));
+        assertTrue(carregando.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Void> registro = CompletableFuture.runAsync(() -> {
+            registrando.countDown();
+            registry.registrar(1L, OpcaoVoto.SIM);
+        });
+        leitura.get(5, TimeUnit.SECONDS);
+        registro.get(5, TimeUnit.SECONDS);
+
+        // Assert
+        ContagemVotos contagem = registry.obter(1L);
+        assertEquals(5, contagem.votosSim());
+        assertEquals(9, contagem.totalVotos());
+        verify(votoRepository, times(1)).countVotosBySessaoId(1L);
+    }
+
+    private void concluirTransacao(int status) {
+        try {
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sincronizacao -> sincronizacao.afterCompletion(status));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("Deve desfazer o voto contado quando a transação for desfeita")
+    void registrarTransacaoDesfeita() {
+        // Arrange
+        when(votoRepository.countVotosBySessaoId(1L)).thenReturn(linhas(1, 0));
+        registry.obter(1L);
+        TransactionSynchronizationManager.initSynchronization();
+        registry.registrar(1L, OpcaoVoto.SIM);
+        assertEquals(2, registry.obter(1L).votosSim());
+
+        // Act
+        concluirTransacao(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        // Assert
+        assertEquals(1, registry.obter(1L).votosSim());
+    }
+
+    @Test
+    @DisplayName("Não deve contar duas vezes o voto já lido pela carga feita durante a transação")
+    void registrarCarregadoDuranteTransacao() {
+        // Arrange: the load runs between the commit and its callback, so its query sees the vote
+        when(votoRepository.countVotosBySessaoId(1L)).thenReturn(linhas(1, 0));
+        TransactionSynchronizationManager.initSynchronization();
+        registry.registrar(1L, OpcaoVoto.SIM);
+        registry.obter(1L);
+
+        // Act
+        concluirTransacao(TransactionSynchronization.STATUS_COMMITTED);
+
+        // Assert: the tally is loaded again instead of being incremented
+        assertEquals(1, registry.obter(1L).totalVotos());
+        verify(votoRepository, times(2)).countVotosBySessaoId(1L);
+    }
+
+    @Test
+    @DisplayName("Deve manter o voto contado quando a transação for confirmada")
+    void registrarTransacaoConfirmada() {
+        // Arrange
+        when(votoRepository.countVotosBySessaoId(1L)).thenReturn(linhas(1, 0));
+        registry.obter(1L);
+        TransactionSynchronizationManager.initSynchronization();
+        registry.registrar(1L, OpcaoVoto.NAO);
+
+        // Act
+        concluirTransacao(TransactionSynchronization.STATUS_COMMITTED);
+
+        // Assert
+        assertEquals(1, registry.obter(1L).votosNao());
+        verify(votoRepository, times(1)).countVotosBySessaoId(1L);
+    }
+
+    @Test
+    @DisplayName("Deve recarregar a contagem do banco após a remoção da sessão")
+    void removerSessao() {
+        // Arrange
+        when(votoRepository.countVotosBySessaoId(1L)).thenReturn(linhas(1, 1), linhas(2, 1));
+        registry.obter(1L);
+
+        // Act
+        registry.remover(1L);
+        ContagemVotos contagem = registry.obter(1L);
+
+        // Assert
+        assertEquals(3, contagem.totalVotos());
+        verify(votoRepository, times(2)).countVotosBySessaoId(1L);
+    }
+
+    @Test
+    @DisplayName("Deve carregar as contagens de todas as sessões abertas na inicialização")
+    void carregarSessoesAbertas() {
+        // Arrange
+        SessaoVotacao sessao = SessaoVotacao.builder().id(7L).encerrada(false).build();
+        when(sessaoRepository.findByEncerradaFalse()).thenReturn(List.of(sessao));
+        when(votoRepository.countVotosBySessaoId(7L)).thenReturn(linhas(0, 2));
+
+        // Act
+        registry.carregarSessoesAbertas();
+        ContagemVotos contagem = registry.obter(7L);
+
+        // Assert
+        assertEquals(2, contagem.votosNao());
+        verify(votoRepository, times(1)).countVotosBySessaoId(7L);
+    }
+}
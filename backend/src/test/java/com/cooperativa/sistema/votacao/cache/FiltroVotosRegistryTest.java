@@ -0,0 +1,85 @@
+package com.cooperativa.sistema.votacao.cache;
+
+import com.cooperativa.sistema.votacao.repository.AssociadoRepository;
+import com.cooperativa.sistema.votacao.repository.VotoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class FiltroVotosRegistryTest {
+
+    @Mock
+    private VotoRepository votoRepository;
+
+    @Mock
+    private AssociadoRepository associadoRepository;
+
+    private FiltroVotosRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        registry = new FiltroVotosRegistry(votoRepository, associadoRepository, 0.01);
+    }
+
+    @Test
+    @DisplayName("Deve carregar os votos do banco apenas no primeiro acesso")
+    void possivelmenteVotouCarregaUmaVez() {
+        // Arrange
+        when(votoRepository.findIdAssociadoBySessaoVotacaoId(1L)).thenReturn(List.of("1", "2"));
+        when(associadoRepository.countByAtivoTrue()).thenReturn(100L);
+
+        // Act & Assert
+        assertTrue(registry.possivelmenteVotou(1L, "1"));
+        assertTrue(registry.possivelmenteVotou(1L, "2"));
+        assertFalse(registry.possivelmenteVotou(1L, "3"));
+        verify(votoRepository, times(1)).findIdAssociadoBySessaoVotacaoId(1L);
+    }
+
+    @Test
+    @DisplayName("Deve incluir votos registrados após o carregamento")
+    void registrarVoto() {
+        // Arrange
+        when(votoRepository.findIdAssociadoBySessaoVotacaoId(1L)).thenReturn(List.of());
+        assertFalse(registry.possivelmenteVotou(1L, "1"));
+
+        // Act
+        registry.registrar(1L, "1");
+
+        // Assert
+        assertTrue(registry.possivelmenteVotou(1L, "1"));
+    }
+
+    @Test
+    @DisplayName("Deve ignorar votos de sessões ainda não carregadas")
+    void registrarSessaoNaoCarregada() {
+        // Act
+        registry.registrar(2L, "1");
+
+        // Assert
+        verifyNoInteractions(votoRepository);
+    }
+
+    @Test
+    @DisplayName("Deve recarregar o filtro do banco após a remoção da sessão")
+    void removerSessao() {
+        // Arrange
+        when(votoRepository.findIdAssociadoBySessaoVotacaoId(1L)).thenReturn(List.of(), List.of("1"));
+        assertFalse(registry.possivelmenteVotou(1L, "1"));
+
+        // Act
+        registry.remover(1L);
+
+        // Assert
+        assertTrue(registry.possivelmenteVotou(1L, "1"));
+        verify(votoRepository, times(2)).findIdAssociadoBySessaoVotacaoId(1L);
+    }
+}
@@ -0,0 +1,235 @@
+package com.cooperativa.sistema.votacao.cache;
+
+import com.cooperativa.sistema.votacao.cache.JanelaSessaoRegistry.JanelaSessao;
+import com.cooperativa.sistema.votacao.domain.SessaoVotacao;
+import com.cooperativa.sistema.votacao.exception.ResourceNotFoundException;
+import com.cooperativa.sistema.votacao.repository.SessaoVotacaoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class JanelaSessaoRegistryTest {
+
+    @Mock
+    private SessaoVotacaoRepository sessaoRepository;
+
+    @InjectMocks
+    private JanelaSessaoRegistry registry;
+
+    private LocalDateTime agora;
+
+    @BeforeEach
+    void setUp() {
+        agora = LocalDateTime.now();
+    }
+
+    private SessaoVotacao sessao(Long id, boolean encerrada) {
+        return SessaoVotacao.builder()
+                .id(id)
+                .dataAbertura(agora.minusMinutes(1))
+                .dataFechamento(agora.plusMinutes(1))
+                .encerrada(encerrada)
+                .build();
+    }
+
+    @Test
+    @DisplayName("Deve responder sessões registradas na abertura sem carregar a sessão do banco")
+    void obterSessaoRegistrada() {
+        // Arrange
+        registry.registrar(sessao(1L, false));
+        when(sessaoRepository.findEncerradaById(1L)).thenReturn(false);
+
+        // Act
+        JanelaSessao janela = registry.obter(1L);
+
+        // Assert
+        assertTrue(janela.isAberta(agora));
+        assertFalse(janela.isAberta(agora.plusMinutes(2)));
+        verify(sessaoRepository, never()).findById(any());
+    }
+
+    @Test
+    @DisplayName("Deve responder como fechada a sessão encerrada por outra instância")
+    void obterSessaoEncerradaPorOutraInstancia() {
+        // Arrange
+        registry.registrar(sessao(1L, false));
+        when(sessaoRepository.findEncerradaById(1L)).thenReturn(true);
+
+        // Act
+        JanelaSessao janela = registry.obter(1L);
+
+        // Assert: the window stays closed without asking the database again
+        assertFalse(janela.isAberta(agora));
+        assertFalse(registry.obter(1L).isAberta(agora));
+        verify(sessaoRepository, times(1)).findEncerradaById(1L);
+    }
+
+    @Test
+    @DisplayName("Deve remover as janelas de sessões que já passaram do horário de fechamento")
+    void removerJanelasExpiradas() {
+        // Arrange
+        registry.registrar(SessaoVotacao.builder()
+                .id(1L)
+                .dataAbertura(agora.minusMinutes(2))
+                .dataFechamento(agora.minusMinutes(1))
+                .encerrada(true)
+                .build());
+
+        // Act
+        registry.registrar(sessao(2L, false));
+
+        // Assert
+        assertEquals(1, registry.tamanho());
+    }
+
+    @Test
+    @DisplayName("Deve carregar do banco apenas uma vez a janela de sessão aberta")
+    void obterCarregaUmaVez() {
+        // Arrange
+        when(sessaoRepository.findById(1L)).thenReturn(Optional.of(sessao(1L, false)));
+
+        // Act
+        registry.obter(1L);
+        JanelaSessao janela = registry.obter(1L);
+
+        // Assert
+        assertTrue(janela.isAberta(agora));
+        verify(sessaoRepository, times(1)).findById(1L);
+    }
+
+    @Test
+    @DisplayName("Deve carregar do banco apenas uma vez a janela de sessão encerrada")
+    void obterSessaoEncerrada() {
+        // Arrange
+        when(sessaoRepository.findById(2L)).thenReturn(Optional.of(sessao(2L, true)));
+
+        // Act
+        registry.obter(2L);
+        JanelaSessao janela = registry.obter(2L);
+
+        // Assert
+        assertFalse(janela.isAberta(agora));
+        verify(sessaoRepository, times(1)).findById(2L);
+    }
+
+    @Test
+    @DisplayName("Deve responder a sessão encerrada como fechada sem consultar o banco")
+    void encerrarSessao() {
+        // Arrange
+        registry.registrar(sessao(1L, false));
+
+        // Act
+        registry.encerrar(1L);
+
+        // Assert
+        JanelaSessao janela = registry.obter(1L);
+        assertFalse(janela.isAberta(agora));
+        assertEquals(agora.plusMinutes(1), janela.dataFechamento());
+        verifyNoInteractions(sessaoRepository);
+    }
+
+    @Test
+    @DisplayName("Não deve reabrir a sessão encerrada durante um carregamento ainda aberto no banco")
+    void encerrarDuranteCarregamento() {
+        // Arrange: the session is closed while a vote is still loading it as open
+        when(sessaoRepository.findById(1L)).thenAnswer(invocation -> {
+            registry.encerrar(1L);
+            return Optional.of(sessao(1L, false));
+        });
+
+        // Act
+        JanelaSessao carregada = registry.obter(1L);
+
+        // Assert
+        assertFalse(carregada.isAberta(agora));
+        assertFalse(registry.obter(1L).isAberta(agora));
+        verify(sessaoRepository, times(1)).findById(1L);
+    }
+
+    @Test
+    @DisplayName("Deve descartar o encerramento quando a transação for desfeita")
+    void encerrarTransacaoDesfeita() {
+        // Arrange
+        registry.registrar(sessao(1L, false));
+        when(sessaoRepository.findById(1L)).thenReturn(Optional.of(sessao(1L, false)));
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            registry.encerrar(1L);
+            assertFalse(registry.obter(1L).isAberta(agora));
+
+            // Act
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sincronizacao -> sincronizacao.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        // Assert
+        assertTrue(registry.obter(1L).isAberta(agora));
+        verify(sessaoRepository, times(1)).findById(1L);
+    }
+
+    @Test
+    @DisplayName("Deve manter o encerramento quando a transação for confirmada")
+    void encerrarTransacaoConfirmada() {
+        // Arrange
+        registry.registrar(sessao(1L, false));
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            registry.encerrar(1L);
+
+            // Act
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sincronizacao -> sincronizacao.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        // Assert
+        assertFalse(registry.obter(1L).isAberta(agora));
+        verifyNoInteractions(sessaoRepository);
+    }
+
+    @Test
+    @DisplayName("Deve descartar a marca de encerramento sem datas quando a transação for confirmada")
+    void encerrarSessaoNaoCarregada() {
+        // Arrange
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            registry.encerrar(1L);
+
+            // Act
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sincronizacao -> sincronizacao.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        // Assert
+        assertEquals(0, registry.tamanho());
+    }
+
+    @Test
+    @DisplayName("Deve lançar exceção para sessão inexistente")
+    void obterSessaoInexistente() {
+        // Arrange
+        when(sessaoRepository.findById(99L)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(ResourceNotFoundException.class, () -> registry.obter(99L));
+    }
+}
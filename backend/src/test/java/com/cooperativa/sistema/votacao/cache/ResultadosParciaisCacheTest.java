@@ -0,0 +1,162 @@
+package com.cooperativa.sistema.votacao.cache;
+
+import com.cooperativa.sistema.votacao.dto.ResultadoVotacaoDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResultadosParciaisCacheTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private AtomicLong agora;
+    private Queue<Runnable> recalculosPendentes;
+    private ResultadosParciaisCache cache;
+
+    private AtomicInteger votos;
+    private AtomicInteger calculos;
+    private Supplier<ResultadoVotacaoDTO> calcular;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        agora = new AtomicLong();
+        recalculosPendentes = new ArrayDeque<>();
+        cache = new ResultadosParciaisCache(meterRegistry, 1000, agora::get, recalculosPendentes::add);
+
+        votos = new AtomicInteger();
+        calculos = new AtomicInteger();
+        calcular = () -> {
+            calculos.incrementAndGet();
+            return ResultadoVotacaoDTO.builder().sessaoId(1L).totalVotos(votos.get()).build();
+        };
+    }
+
+    private void avancar(long milissegundos) {
+        agora.addAndGet(TimeUnit.MILLISECONDS.toNanos(milissegundos));
+    }
+
+    private double requisicoes(String resultado) {
+        return meterRegistry.get("votacao.resultados.parciais.requisicoes").tag("resultado", resultado).counter().count();
+    }
+
+    @Test
+    @DisplayName("Deve calcular o resultado parcial uma vez por janela")
+    void calcularUmaVezPorJanela() {
+        // Act
+        ResultadoVotacaoDTO primeiro = cache.obter(1L, calcular);
+        votos.set(5);
+        avancar(500);
+        ResultadoVotacaoDTO segundo = cache.obter(1L, calcular);
+
+        // Assert
+        assertEquals(0, primeiro.getTotalVotos());
+        assertSame(primeiro, segundo);
+        assertEquals(1, calculos.get());
+        assertTrue(recalculosPendentes.isEmpty());
+        assertEquals(1, requisicoes("ausente"));
+        assertEquals(1, requisicoes("recente"));
+    }
+
+    @Test
+    @DisplayName("Deve responder o resultado anterior e recalcular uma única vez em segundo plano")
+    void recalcularEmSegundoPlano() {
+        // Arrange
+        cache.obter(1L, calcular);
+        votos.set(5);
+        avancar(1000);
+
+        // Act
+        ResultadoVotacaoDTO durante1 = cache.obter(1L, calcular);
+        ResultadoVotacaoDTO durante2 = cache.obter(1L, calcular);
+        ResultadoVotacaoDTO durante3 = cache.obter(1L, calcular);
+        int recalculosAgendados = recalculosPendentes.size();
+        recalculosPendentes.remove().run();
+        ResultadoVotacaoDTO depois = cache.obter(1L, calcular);
+
+        // Assert
+        assertEquals(0, durante1.getTotalVotos());
+        assertEquals(0, durante2.getTotalVotos());
+        assertEquals(0, durante3.getTotalVotos());
+        assertEquals(1, recalculosAgendados);
+        assertEquals(5, depois.getTotalVotos());
+        assertEquals(2, calculos.get());
+        assertEquals(3, requisicoes("desatualizado"));
+        assertEquals(1, requisicoes("recente"));
+    }
+
+    @Test
+    @DisplayName("Deve descartar o resultado parcial quando o recálculo indica sessão encerrada")
+    void descartarSessaoEncerrada() {
+        // Arrange
+        cache.obter(1L, calcular);
+        avancar(1000);
+
+        // Act
+        cache.obter(1L, () -> null);
+        recalculosPendentes.remove().run();
+
+        // Assert
+        assertFalse(cache.contem(1L));
+        assertNull(cache.obter(1L, () -> null));
+    }
+
+    @Test
+    @DisplayName("Deve manter o resultado anterior e tentar de novo quando o recálculo falha")
+    void tentarDeNovoAposFalha() {
+        // Arrange
+        ResultadoVotacaoDTO anterior = cache.obter(1L, calcular);
+        avancar(1000);
+        cache.obter(1L, () -> {
+            throw new IllegalStateException("banco indisponível");
+        });
+
+        // Act
+        recalculosPendentes.remove().run();
+        ResultadoVotacaoDTO aposFalha = cache.obter(1L, calcular);
+
+        // Assert
+        assertSame(anterior, aposFalha);
+        assertEquals(1, recalculosPendentes.size());
+    }
+
+    @Test
+    @DisplayName("Não deve restaurar o resultado de uma sessão removida durante o recálculo")
+    void naoRestaurarSessaoRemovida() {
+        // Arrange
+        cache.obter(1L, calcular);
+        avancar(1000);
+        cache.obter(1L, calcular);
+
+        // Act
+        cache.remover(1L);
+        recalculosPendentes.remove().run();
+
+        // Assert
+        assertFalse(cache.contem(1L));
+    }
+
+    @Test
+    @DisplayName("Deve calcular a cada leitura quando a janela é zero")
+    void semJanela() {
+        // Arrange
+        cache = new ResultadosParciaisCache(meterRegistry, 0, agora::get, recalculosPendentes::add);
+
+        // Act
+        cache.obter(1L, calcular);
+        cache.obter(1L, calcular);
+
+        // Assert
+        assertEquals(2, calculos.get());
+        assertFalse(cache.contem(1L));
+    }
+}
@@ -0,0 +1,132 @@
+package com.cooperativa.sistema.votacao.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TotaisAproximadosCacheTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private AtomicLong agora;
+    private TotaisAproximadosCache cache;
+
+    private AtomicLong linhas;
+    private AtomicInteger contagens;
+    private LongSupplier contar;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        agora = new AtomicLong();
+        cache = new TotaisAproximadosCache(meterRegistry, 60, agora::get);
+
+        linhas = new AtomicLong(100);
+        contagens = new AtomicInteger();
+        contar = () -> {
+            contagens.incrementAndGet();
+            return linhas.get();
+        };
+    }
+
+    private void avancar(long segundos) {
+        agora.addAndGet(TimeUnit.SECONDS.toNanos(segundos));
+    }
+
+    private double requisicoes(String resultado) {
+        return meterRegistry.get("votacao.paginacao.totais.requisicoes").tag("resultado", resultado).counter().count();
+    }
+
+    @Test
+    @DisplayName("Deve contar a listagem uma vez dentro do tempo de cache")
+    void contarUmaVezDentroDoTtl() {
+        // Act
+        long primeiro = cache.obter("associados", contar);
+        linhas.set(150);
+        avancar(59);
+        long segundo = cache.obter("associados", contar);
+
+        // Assert
+        assertEquals(100, primeiro);
+        assertEquals(100, segundo);
+        assertEquals(1, contagens.get());
+        assertEquals(1, requisicoes("contagem"));
+        assertEquals(1, requisicoes("acerto"));
+    }
+
+    @Test
+    @DisplayName("Deve contar de novo quando o total expira")
+    void contarDeNovoAposExpirar() {
+        // Arrange
+        cache.obter("associados", contar);
+        linhas.set(150);
+        avancar(60);
+
+        // Act
+        long total = cache.obter("associados", contar);
+
+        // Assert
+        assertEquals(150, total);
+        assertEquals(2, contagens.get());
+    }
+
+    @Test
+    @DisplayName("Deve responder o total anterior enquanto outra leitura conta de novo")
+    void responderTotalAnteriorDuranteContagem() {
+        // Arrange
+        cache.obter("associados", contar);
+        avancar(60);
+        AtomicLong lidoDuranteContagem = new AtomicLong();
+
+        // Act
+        long total = cache.obter("associados", () -> {
+            lidoDuranteContagem.set(cache.obter("associados", contar));
+            return 150;
+        });
+
+        // Assert
+        assertEquals(150, total);
+        assertEquals(100, lidoDuranteContagem.get());
+        assertEquals(1, contagens.get());
+    }
+
+    @Test
+    @DisplayName("Deve manter um total por listagem")
+    void totalPorListagem() {
+        // Act
+        long associados = cache.obter("associados", contar);
+        long pautas = cache.obter("pautas", () -> 7);
+
+        // Assert
+        assertEquals(100, associados);
+        assertEquals(7, pautas);
+        assertEquals(100, cache.obter("associados", contar));
+        assertEquals(1, contagens.get());
+    }
+
+    @Test
+    @DisplayName("Deve contar de novo na próxima leitura quando a contagem falha")
+    void contarDeNovoAposFalha() {
+        // Arrange
+        cache.obter("associados", contar);
+        avancar(60);
+
+        // Act
+        assertThrows(IllegalStateException.class, () -> cache.obter("associados", () -> {
+            throw new IllegalStateException("banco indisponível");
+        }));
+        linhas.set(150);
+        long total = cache.obter("associados", contar);
+
+        // Assert
+        assertEquals(150, total);
+        assertEquals(2, contagens.get());
+    }
+}
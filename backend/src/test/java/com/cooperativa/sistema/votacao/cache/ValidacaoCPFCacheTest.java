@@ -0,0 +1,120 @@
+package com.cooperativa.sistema.votacao.cache;
+
+import com.cooperativa.sistema.votacao.cache.ValidacaoCPFCache.ResultadoValidacaoCPF;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ValidacaoCPFCacheTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private AtomicLong agora;
+    private ValidacaoCPFCache cache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        agora = new AtomicLong();
+        cache = new ValidacaoCPFCache(meterRegistry, 3, 60, 10, 3600, agora::get);
+    }
+
+    private void avancar(long segundos) {
+        agora.addAndGet(TimeUnit.SECONDS.toNanos(segundos));
+    }
+
+    private double requisicoes(String resultado) {
+        return meterRegistry.get("votacao.cpf.cache.requisicoes").tag("resultado", resultado).counter().count();
+    }
+
+    @Test
+    @DisplayName("Deve responder resultados registrados e contar acertos e falhas")
+    void obterResultadoRegistrado() {
+        // Act
+        Optional<ResultadoValidacaoCPF> antes = cache.obter("12345678909");
+        cache.registrar("12345678909", ResultadoValidacaoCPF.APTO);
+        Optional<ResultadoValidacaoCPF> depois = cache.obter("12345678909");
+
+        // Assert
+        assertTrue(antes.isEmpty());
+        assertEquals(Optional.of(ResultadoValidacaoCPF.APTO), depois);
+        assertEquals(1, requisicoes("acerto"));
+        assertEquals(1, requisicoes("falha"));
+    }
+
+    @Test
+    @DisplayName("Deve expirar cada resultado conforme o seu TTL")
+    void expirarPorResultado() {
+        // Arrange
+        cache.registrar("11111111111", ResultadoValidacaoCPF.APTO);
+        cache.registrar("22222222222", ResultadoValidacaoCPF.INAPTO);
+        cache.registrar("33333333333", ResultadoValidacaoCPF.INVALIDO);
+
+        // Act
+        avancar(30);
+
+        // Assert
+        assertTrue(cache.obter("11111111111").isPresent());
+        assertTrue(cache.obter("22222222222").isEmpty());
+        assertTrue(cache.obter("33333333333").isPresent());
+
+        avancar(60);
+        assertTrue(cache.obter("11111111111").isEmpty());
+        assertTrue(cache.obter("33333333333").isPresent());
+    }
+
+    @Test
+    @DisplayName("Deve expulsar o CPF usado há mais tempo quando cheio")
+    void expulsarMenosRecente() {
+        // Arrange
+        cache.registrar("11111111111", ResultadoValidacaoCPF.APTO);
+        cache.registrar("22222222222", ResultadoValidacaoCPF.APTO);
+        cache.registrar("33333333333", ResultadoValidacaoCPF.APTO);
+        cache.obter("11111111111");
+
+        // Act
+        cache.registrar("44444444444", ResultadoValidacaoCPF.APTO);
+
+        // Assert
+        assertEquals(3, cache.tamanho());
+        assertTrue(cache.obter("11111111111").isPresent());
+        assertTrue(cache.obter("22222222222").isEmpty());
+        assertEquals(1, meterRegistry.get("votacao.cpf.cache.expulsoes").counter().count());
+    }
+
+    @Test
+    @DisplayName("Não deve guardar resultados cujo TTL é zero")
+    void ignorarTtlZero() {
+        // Arrange
+        ValidacaoCPFCache semNegativos = new ValidacaoCPFCache(new SimpleMeterRegistry(), 10, 60, 0, 0, agora::get);
+
+        // Act
+        semNegativos.registrar("11111111111", ResultadoValidacaoCPF.INAPTO);
+        semNegativos.registrar("22222222222", ResultadoValidacaoCPF.INVALIDO);
+
+        // Assert
+        assertEquals(0, semNegativos.tamanho());
+    }
+
+    @Test
+    @DisplayName("Deve remover CPFs explicitamente")
+    void invalidar() {
+        // Arrange
+        cache.registrar("11111111111", ResultadoValidacaoCPF.APTO);
+        cache.registrar("22222222222", ResultadoValidacaoCPF.INVALIDO);
+
+        // Act & Assert
+        cache.invalidar("11111111111");
+        assertTrue(cache.obter("11111111111").isEmpty());
+        assertTrue(cache.obter("22222222222").isPresent());
+
+        cache.invalidarTodos();
+        assertEquals(0, cache.tamanho());
+    }
+}
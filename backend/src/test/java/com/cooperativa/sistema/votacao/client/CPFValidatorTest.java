@@ -1,22 +1,26 @@
 package com.cooperativa.sistema.votacao.client;
 
+import com.cooperativa.sistema.votacao.cache.ValidacaoCPFCache;
+import com.cooperativa.sistema.votacao.cache.ValidacaoCPFCache.ResultadoValidacaoCPF;
 import com.cooperativa.sistema.votacao.domain.StatusVotacao;
-import com.cooperativa.sistema.votacao.dto.CPFValidationResponse;
 import com.cooperativa.sistema.votacao.exception.AssociadoNaoPodeVotarException;
 import com.cooperativa.sistema.votacao.exception.CPFInvalidoException;
+import com.cooperativa.sistema.votacao.exception.ValidadorCPFIndisponivelException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.client.HttpClientErrorException;
-import org.springframework.web.client.RestTemplate;
 
+import java.util.Optional;
 import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -26,30 +30,35 @@ import static org.mockito.Mockito.*;
 class CPFValidatorTest {
 
     @Mock
-    private RestTemplate restTemplate;
+    private ClienteValidadorCPF cliente;
 
     @Mock
     private Random random;
 
-    @InjectMocks
-    private CPFValidator cpfValidator;
+    @Mock
+    private ValidacaoCPFCache cache;
+
+    @Mock
+    private ProtecaoValidadorCPF protecao;
 
-    private final String validatorUrl = "http://localhost:8080/api/cpf-validation";
+    private CPFValidator cpfValidator;
 
     @BeforeEach
     void setUp() {
-        // Usando um método privado para acessar o campo random privado
-        setPrivateField();
+        lenient().when(protecao.executarAsync(any())).thenAnswer(invocation ->
+                invocation.<Supplier<CompletableFuture<StatusVotacao>>>getArgument(0).get());
+        cpfValidator = criarValidador(PoliticaFallbackCPF.REJEITAR);
     }
 
     @Test
     @DisplayName("Deve retornar que o associado pode votar quando o CPF é válido")
     void validarCPFValido() {
         // Arrange
-        String cpf = "12345678900";
+        String cpf = "12345678909";
         
         // Configurar o mock para não retornar 0 (não será CPF inválido nem "não pode votar")
         when(random.nextInt(5)).thenReturn(1, 1);
+        when(cliente.consultarAsync(cpf)).thenReturn(CompletableFuture.completedFuture(StatusVotacao.ABLE_TO_VOTE));
 
         // Act
         StatusVotacao result = cpfValidator.validarCPF(cpf);
@@ -57,13 +66,14 @@ class CPFValidatorTest {
         // Assert
         assertEquals(StatusVotacao.ABLE_TO_VOTE, result);
         verify(random, times(2)).nextInt(5);
+        verify(cache).registrar(cpf, ResultadoValidacaoCPF.APTO);
     }
 
     @Test
     @DisplayName("Deve lançar exceção quando o associado não pode votar")
     void validarCPFAssociadoNaoPodeVotar() {
         // Arrange
-        String cpf = "12345678900";
+        String cpf = "12345678909";
         
         // Primeiro verificar se o CPF é inválido (não), depois verificar se o associado pode votar (não pode)
         when(random.nextInt(5)).thenReturn(1, 0);
@@ -75,21 +85,22 @@ class CPFValidatorTest {
         
         assertEquals("Associado não pode votar", exception.getMessage());
         verify(random, times(2)).nextInt(5);
+        verifyNoInteractions(cliente);
+        // Um resultado simulado não é cacheado, então o próximo voto sorteia de novo
+        verify(cache, never()).registrar(anyString(), any());
     }
 
     @Test
-    @DisplayName("Deve lançar exceção quando ocorre erro HTTP 404")
-    void validarCPFErroHTTP() {
+    @DisplayName("Deve lançar exceção quando o validador informa CPF inválido")
+    void validarCPFInvalidoNoValidador() {
         // Arrange
-        String cpf = "12345678900";
+        String cpf = "12345678909";
         
         // Configurar o mock para não ser CPF inválido nem "não pode votar" no random
         when(random.nextInt(5)).thenReturn(1, 1);
         
-        // Simular erro HTTP 404
-        HttpClientErrorException notFoundException = new HttpClientErrorException(HttpStatus.NOT_FOUND);
-        when(restTemplate.getForEntity(anyString(), eq(CPFValidationResponse.class)))
-            .thenThrow(notFoundException);
+        // Simular o validador respondendo CPF inválido
+        when(cliente.consultarAsync(cpf)).thenReturn(CompletableFuture.failedFuture(new CPFInvalidoException("CPF inválido")));
 
         // Act & Assert
         CPFInvalidoException exception = assertThrows(CPFInvalidoException.class, () -> {
@@ -98,22 +109,22 @@ class CPFValidatorTest {
         
         assertEquals("CPF inválido", exception.getMessage());
         verify(random, times(2)).nextInt(5);
-        verify(restTemplate).getForEntity(anyString(), eq(CPFValidationResponse.class));
+        verify(cliente).consultarAsync(cpf);
+        verify(cache).registrar(cpf, ResultadoValidacaoCPF.INVALIDO);
     }
 
     @Test
     @DisplayName("Deve lançar exceção original quando ocorre erro HTTP diferente de 404")
     void validarCPFErroHTTPOutro() {
         // Arrange
-        String cpf = "12345678900";
+        String cpf = "12345678909";
         
         // Configurar o mock para não ser CPF inválido nem "não pode votar" no random
         when(random.nextInt(5)).thenReturn(1, 1);
         
         // Simular erro HTTP 500
         HttpClientErrorException internalServerError = new HttpClientErrorException(HttpStatus.INTERNAL_SERVER_ERROR);
-        when(restTemplate.getForEntity(anyString(), eq(CPFValidationResponse.class)))
-            .thenThrow(internalServerError);
+        when(cliente.consultarAsync(cpf)).thenReturn(CompletableFuture.failedFuture(internalServerError));
 
         // Act & Assert
         HttpClientErrorException exception = assertThrows(HttpClientErrorException.class, () -> {
@@ -122,19 +133,185 @@ class CPFValidatorTest {
         
         assertSame(internalServerError, exception);
         verify(random, times(2)).nextInt(5);
-        verify(restTemplate).getForEntity(anyString(), eq(CPFValidationResponse.class));
+        verify(cliente).consultarAsync(cpf);
+        verify(cache, never()).registrar(anyString(), any());
+    }
+
+    @Test
+    @DisplayName("Deve responder pelo cache sem consultar o validador")
+    void validarCPFEmCache() {
+        // Arrange
+        String cpf = "12345678909";
+        when(cache.obter(cpf)).thenReturn(Optional.of(ResultadoValidacaoCPF.APTO));
+
+        // Act
+        StatusVotacao result = cpfValidator.validarCPF(cpf);
+
+        // Assert
+        assertEquals(StatusVotacao.ABLE_TO_VOTE, result);
+        verifyNoInteractions(random, cliente);
+        verify(cache, never()).registrar(anyString(), any());
+    }
+
+    @Test
+    @DisplayName("Deve reproduzir resultados negativos em cache")
+    void validarCPFNegativoEmCache() {
+        // Arrange
+        when(cache.obter("52998224725")).thenReturn(Optional.of(ResultadoValidacaoCPF.INVALIDO));
+        when(cache.obter("12345678909")).thenReturn(Optional.of(ResultadoValidacaoCPF.INAPTO));
+
+        // Act & Assert
+        assertThrows(CPFInvalidoException.class, () -> cpfValidator.validarCPF("52998224725"));
+        assertThrows(AssociadoNaoPodeVotarException.class, () -> cpfValidator.validarCPF("12345678909"));
+        verifyNoInteractions(random, cliente);
+    }
+    
+    @Test
+    @DisplayName("Deve rejeitar CPFs com dígitos verificadores inválidos sem consultar o validador")
+    void validarCPFDigitosInvalidos() {
+        // Act & Assert
+        assertThrows(CPFInvalidoException.class, () -> cpfValidator.validarCPF("12345678900"));
+        assertThrows(CPFInvalidoException.class, () -> cpfValidator.validarCPF("11111111111"));
+        assertThrows(CPFInvalidoException.class, () -> cpfValidator.validarCPF(null));
+        verifyNoInteractions(random, cliente, cache);
+    }
+
+    @Test
+    @DisplayName("Deve validar CPFs formatados pelos seus dígitos")
+    void validarCPFFormatado() {
+        // Arrange
+        when(cache.obter("52998224725")).thenReturn(Optional.of(ResultadoValidacaoCPF.APTO));
+
+        // Act
+        StatusVotacao result = cpfValidator.validarCPF("529.982.247-25");
+
+        // Assert
+        assertEquals(StatusVotacao.ABLE_TO_VOTE, result);
+        verifyNoInteractions(random, cliente);
     }
     
+    @Test
+    @DisplayName("Deve rejeitar o voto quando o validador está indisponível e a política é REJEITAR")
+    void validarCPFIndisponivelRejeitar() {
+        // Arrange
+        when(random.nextInt(5)).thenReturn(1);
+        doReturn(indisponivel()).when(protecao).executarAsync(any());
+
+        // Act & Assert
+        assertThrows(ValidadorCPFIndisponivelException.class, () -> cpfValidator.validarCPF("12345678909"));
+        assertEquals(0, cpfValidator.getPendentesRevalidacao());
+        verify(cache, never()).registrar(anyString(), any());
+    }
+
+    @Test
+    @DisplayName("Deve aceitar provisoriamente e revalidar depois quando o validador está indisponível")
+    void validarCPFIndisponivelAceitarProvisoriamente() {
+        // Arrange
+        cpfValidator = criarValidador(PoliticaFallbackCPF.ACEITAR_PROVISORIAMENTE);
+        when(random.nextInt(5)).thenReturn(1);
+        doReturn(indisponivel(), CompletableFuture.failedFuture(new CPFInvalidoException("CPF inválido")))
+                .when(protecao).executarAsync(any());
+
+        // Act
+        StatusVotacao result = cpfValidator.validarCPF("12345678909");
+
+        // Assert
+        assertEquals(StatusVotacao.ABLE_TO_VOTE, result);
+        assertEquals(1, cpfValidator.getPendentesRevalidacao());
+        verify(cache, never()).registrar(anyString(), any());
+
+        // Act: the validator is back and rejects the CPF
+        cpfValidator.revalidarPendentes();
+
+        // Assert
+        assertEquals(0, cpfValidator.getPendentesRevalidacao());
+        verify(cache).registrar("12345678909", ResultadoValidacaoCPF.INVALIDO);
+    }
+
+    @Test
+    @DisplayName("Deve manter CPFs pendentes enquanto o validador continua indisponível")
+    void revalidarComValidadorIndisponivel() {
+        // Arrange
+        cpfValidator = criarValidador(PoliticaFallbackCPF.ACEITAR_PROVISORIAMENTE);
+        when(random.nextInt(5)).thenReturn(1);
+        doReturn(indisponivel()).when(protecao).executarAsync(any());
+        cpfValidator.validarCPF("12345678909");
+
+        // Act
+        cpfValidator.revalidarPendentes();
+
+        // Assert
+        assertEquals(1, cpfValidator.getPendentesRevalidacao());
+    }
+
+    @Test
+    @DisplayName("Deve iniciar a validação sem bloquear o chamador")
+    void validarCPFAsync() {
+        // Arrange
+        String cpf = "12345678909";
+        CompletableFuture<StatusVotacao> resposta = new CompletableFuture<>();
+        when(random.nextInt(5)).thenReturn(1, 1);
+        when(cliente.consultarAsync(cpf)).thenReturn(resposta);
+
+        // Act
+        CompletableFuture<StatusVotacao> validacao = cpfValidator.validarCPFAsync(cpf);
+
+        // Assert
+        assertFalse(validacao.isDone());
+        verify(cache, never()).registrar(anyString(), any());
+
+        resposta.complete(StatusVotacao.ABLE_TO_VOTE);
+        assertEquals(StatusVotacao.ABLE_TO_VOTE, validacao.join());
+        verify(cache).registrar(cpf, ResultadoValidacaoCPF.APTO);
+    }
+
+    @Test
+    @DisplayName("Deve devolver uma validação já concluída para CPFs malformados")
+    void validarCPFAsyncDigitosInvalidos() {
+        // Act
+        CompletableFuture<StatusVotacao> validacao = cpfValidator.validarCPFAsync("12345678900");
+
+        // Assert
+        assertTrue(validacao.isCompletedExceptionally());
+        assertThrows(CPFInvalidoException.class, () -> Futuros.aguardar(validacao));
+        verifyNoInteractions(random, cliente, cache, protecao);
+    }
+
+    @Test
+    @DisplayName("Deve consultar apenas o validador quando os resultados aleatórios estão desativados")
+    void validarCPFSemResultadosAleatorios() {
+        // Arrange
+        String cpf = "12345678909";
+        cpfValidator = new CPFValidator(cliente, cache, new SimpleMeterRegistry(), protecao,
+                PoliticaFallbackCPF.REJEITAR, 100, false);
+        when(cliente.consultarAsync(cpf)).thenReturn(CompletableFuture.completedFuture(StatusVotacao.ABLE_TO_VOTE));
+
+        // Act
+        StatusVotacao result = cpfValidator.validarCPF(cpf);
+
+        // Assert
+        assertEquals(StatusVotacao.ABLE_TO_VOTE, result);
+        verify(cliente).consultarAsync(cpf);
+        verifyNoInteractions(random);
+    }
+
+    private static CompletableFuture<StatusVotacao> indisponivel() {
+        return CompletableFuture.failedFuture(new ValidadorCPFIndisponivelException("Validador de CPF indisponível"));
+    }
+
     /**
-     * Método para injetar o mock de Random no CPFValidator usando Reflection 
+     * Cria o CPFValidator e injeta o mock de Random usando Reflection
      */
-    private void setPrivateField() {
+    private CPFValidator criarValidador(PoliticaFallbackCPF politica) {
+        CPFValidator validador = new CPFValidator(cliente, cache, new SimpleMeterRegistry(), protecao,
+                politica, 100, true);
         try {
             java.lang.reflect.Field randomField = CPFValidator.class.getDeclaredField("random");
             randomField.setAccessible(true);
-            randomField.set(cpfValidator, random);
+            randomField.set(validador, random);
         } catch (Exception e) {
             fail("Não foi possível configurar o campo random: " + e.getMessage());
         }
+        return validador;
     }
-} 
\ No newline at end of file
+}
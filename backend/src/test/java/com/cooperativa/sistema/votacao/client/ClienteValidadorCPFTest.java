@@ -0,0 +1,229 @@
+package com.cooperativa.sistema.votacao.client;
+
+import com.cooperativa.sistema.votacao.domain.StatusVotacao;
+import com.cooperativa.sistema.votacao.dto.CPFValidationBatchItem;
+import com.cooperativa.sistema.votacao.dto.CPFValidationBatchRequest;
+import com.cooperativa.sistema.votacao.dto.CPFValidationBatchResponse;
+import com.cooperativa.sistema.votacao.dto.CPFValidationResponse;
+import com.cooperativa.sistema.votacao.exception.AssociadoNaoPodeVotarException;
+import com.cooperativa.sistema.votacao.exception.CPFInvalidoException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.impl.async.HttpAsyncClients;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests against a local HTTP server, so the pooled async client is exercised end to end
+ */
+class ClienteValidadorCPFTest {
+
+    private static final Map<String, StatusVotacao> CPFS_VALIDOS = Map.of(
+            "12345678909", StatusVotacao.ABLE_TO_VOTE,
+            "52998224725", StatusVotacao.UNABLE_TO_VOTE);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AtomicInteger chamadasIndividuais = new AtomicInteger();
+    private final List<List<String>> lotesRecebidos = new CopyOnWriteArrayList<>();
+
+    private HttpServer servidor;
+    private ExecutorService executorServidor;
+    private CloseableHttpAsyncClient httpClient;
+    private ClienteValidadorCPF cliente;
+    private String url;
+
+    // Behaviour of the fake validator, changed by each test
+    private volatile int statusLote = 200;
+    private volatile CountDownLatch liberarRespostas = new CountDownLatch(0);
+
+    @BeforeEach
+    void setUp() throws IOException {
+        servidor = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        executorServidor = Executors.newCachedThreadPool();
+        servidor.setExecutor(executorServidor);
+        servidor.createContext("/cpf-validator", this::responder);
+        servidor.start();
+        url = "http://localhost:" + servidor.getAddress().getPort() + "/cpf-validator";
+
+        httpClient = HttpAsyncClients.createDefault();
+        httpClient.start();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        liberarRespostas.countDown();
+        if (cliente != null) {
+            cliente.destroy();
+        }
+        httpClient.close();
+        servidor.stop(0);
+        executorServidor.shutdownNow();
+    }
+
+    private ClienteValidadorCPF criarCliente(boolean lote, long janelaMs, int tamanhoMaximo) {
+        return new ClienteValidadorCPF(httpClient, objectMapper, url, new SimpleMeterRegistry(),
+                lote, janelaMs, tamanhoMaximo);
+    }
+
+    /**
+     * Fake validator: GET ?cpf= answers 404 for unknown CPFs, POST /lote answers statusLote
+     */
+    private void responder(HttpExchange troca) throws IOException {
+        try {
+            liberarRespostas.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        if (troca.getRequestURI().getPath().endsWith("/lote")) {
+            if (statusLote != 200) {
+                enviar(troca, statusLote, new byte[0]);
+                return;
+            }
+            CPFValidationBatchRequest requisicao =
+                    objectMapper.readValue(troca.getRequestBody(), CPFValidationBatchRequest.class);
+            lotesRecebidos.add(requisicao.getCpfs());
+            List<CPFValidationBatchItem> resultados = requisicao.getCpfs().stream()
+                    .map(cpf -> CPFValidationBatchItem.builder()
+                            .cpf(cpf)
+                            .valido(CPFS_VALIDOS.containsKey(cpf))
+                            .status(CPFS_VALIDOS.get(cpf))
+                            .build())
+                    .toList();
+            enviar(troca, 200, objectMapper.writeValueAsBytes(new CPFValidationBatchResponse(resultados)));
+            return;
+        }
+
+        chamadasIndividuais.incrementAndGet();
+        String cpf = troca.getRequestURI().getQuery().substring("cpf=".length());
+        if (cpf.equals("99999999999")) {
+            enviar(troca, 500, new byte[0]);
+        } else if (!CPFS_VALIDOS.containsKey(cpf)) {
+            enviar(troca, 404, new byte[0]);
+        } else {
+            enviar(troca, 200, objectMapper.writeValueAsBytes(new CPFValidationResponse(CPFS_VALIDOS.get(cpf))));
+        }
+    }
+
+    private static void enviar(HttpExchange troca, int status, byte[] corpo) throws IOException {
+        troca.getResponseHeaders().add("Content-Type", "application/json");
+        troca.sendResponseHeaders(status, corpo.length == 0 ? -1 : corpo.length);
+        if (corpo.length > 0) {
+            troca.getResponseBody().write(corpo);
+        }
+        troca.close();
+    }
+
+    @Test
+    @DisplayName("Deve interpretar as respostas individuais do validador")
+    void consultarIndividualmente() {
+        // Arrange
+        cliente = criarCliente(false, 5, 100);
+
+        // Act & Assert
+        assertEquals(StatusVotacao.ABLE_TO_VOTE, cliente.consultar("12345678909"));
+        assertThrows(AssociadoNaoPodeVotarException.class, () -> cliente.consultar("52998224725"));
+        assertThrows(CPFInvalidoException.class, () -> cliente.consultar("00000000191"));
+        assertThrows(HttpServerErrorException.class, () -> cliente.consultar("99999999999"));
+        assertEquals(4, chamadasIndividuais.get());
+        assertTrue(lotesRecebidos.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Deve consultar o validador sem bloquear o chamador")
+    void consultarSemBloquear() {
+        // Arrange
+        cliente = criarCliente(false, 5, 100);
+        liberarRespostas = new CountDownLatch(1);
+
+        // Act
+        CompletableFuture<StatusVotacao> consulta = cliente.consultarAsync("12345678909");
+
+        // Assert
+        assertFalse(consulta.isDone());
+        liberarRespostas.countDown();
+        assertEquals(StatusVotacao.ABLE_TO_VOTE, consulta.join());
+    }
+
+    @Test
+    @DisplayName("Deve agrupar validações concorrentes em uma única chamada de lote")
+    void consultarEmLote() {
+        // Arrange: the batch is sent as soon as it has 3 CPFs, long before the window expires
+        cliente = criarCliente(true, 60_000, 3);
+
+        // Act
+        CompletableFuture<StatusVotacao> apto = cliente.consultarAsync("12345678909");
+        CompletableFuture<StatusVotacao> inapto = cliente.consultarAsync("52998224725");
+        CompletableFuture<StatusVotacao> invalido = cliente.consultarAsync("00000000191");
+
+        // Assert
+        assertEquals(StatusVotacao.ABLE_TO_VOTE, Futuros.aguardar(apto));
+        assertThrows(AssociadoNaoPodeVotarException.class, () -> Futuros.aguardar(inapto));
+        assertThrows(CPFInvalidoException.class, () -> Futuros.aguardar(invalido));
+        assertEquals(List.of(List.of("12345678909", "52998224725", "00000000191")), lotesRecebidos);
+        assertEquals(0, chamadasIndividuais.get());
+    }
+
+    @Test
+    @DisplayName("Deve enviar o lote quando a janela expira")
+    void enviarAoExpirarJanela() {
+        // Arrange
+        cliente = criarCliente(true, 5, 100);
+
+        // Act & Assert
+        assertEquals(StatusVotacao.ABLE_TO_VOTE, cliente.consultar("12345678909"));
+        assertEquals(1, lotesRecebidos.size());
+    }
+
+    @Test
+    @DisplayName("Deve passar a chamadas individuais quando o validador não tem endpoint de lote")
+    void usarChamadasIndividuaisSemEndpointDeLote() {
+        // Arrange
+        cliente = criarCliente(true, 5, 100);
+        statusLote = 404;
+
+        // Act
+        StatusVotacao primeira = cliente.consultar("12345678909");
+        StatusVotacao segunda = cliente.consultar("12345678909");
+
+        // Assert
+        assertEquals(StatusVotacao.ABLE_TO_VOTE, primeira);
+        assertEquals(StatusVotacao.ABLE_TO_VOTE, segunda);
+        assertEquals(2, chamadasIndividuais.get());
+    }
+
+    @Test
+    @DisplayName("Deve propagar falhas do lote para todos os chamadores")
+    void propagarFalhaDoLote() {
+        // Arrange
+        cliente = criarCliente(true, 5, 100);
+        statusLote = 429;
+
+        // Act & Assert
+        HttpClientErrorException erro = assertThrows(HttpClientErrorException.class,
+                () -> cliente.consultar("12345678909"));
+        assertEquals(429, erro.getStatusCode().value());
+        assertEquals(0, chamadasIndividuais.get());
+    }
+}
@@ -0,0 +1,156 @@
+package com.cooperativa.sistema.votacao.client;
+
+import com.cooperativa.sistema.votacao.exception.CPFInvalidoException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CoalescedorChamadasTest {
+
+    private static final int CHAMADORES = 10;
+
+    private SimpleMeterRegistry meterRegistry;
+    private CoalescedorChamadas<String> coalescedor;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        coalescedor = new CoalescedorChamadas<>(meterRegistry, "teste");
+    }
+
+    private double chamadas(String tipo) {
+        return meterRegistry.get("teste.chamadas").tag("tipo", tipo).counter().count();
+    }
+
+    /**
+     * Start concurrent callers of the same key and release the call only once all of them are waiting
+     */
+    private List<Future<String>> chamarConcorrentemente(ExecutorService executor, CountDownLatch liberar,
+                                                       AtomicInteger execucoes, RuntimeException erro) throws Exception {
+        List<Future<String>> resultados = new ArrayList<>();
+        for (int i = 0; i < CHAMADORES; i++) {
+            resultados.add(executor.submit(() -> coalescedor.executar("12345678909", () -> {
+                execucoes.incrementAndGet();
+                try {
+                    liberar.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                if (erro != null) {
+                    throw erro;
+                }
+                return "APTO";
+            })));
+        }
+        long limite = System.currentTimeMillis() + 5_000;
+        while (chamadas("coalescida") < CHAMADORES - 1 && System.currentTimeMillis() < limite) {
+            Thread.sleep(10);
+        }
+        liberar.countDown();
+        return resultados;
+    }
+
+    @Test
+    @DisplayName("Deve executar uma única chamada para chamadores concorrentes da mesma chave")
+    void coalescerResultado() throws Exception {
+        // Arrange
+        AtomicInteger execucoes = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(CHAMADORES);
+
+        try {
+            // Act
+            List<Future<String>> resultados = chamarConcorrentemente(executor, new CountDownLatch(1), execucoes, null);
+
+            // Assert
+            for (Future<String> resultado : resultados) {
+                assertEquals("APTO", resultado.get());
+            }
+            assertEquals(1, execucoes.get());
+            assertEquals(1, chamadas("executada"));
+            assertEquals(CHAMADORES - 1, chamadas("coalescida"));
+            assertEquals(0, coalescedor.emAndamento());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Deve propagar a mesma exceção para todos os chamadores coalescidos")
+    void coalescerExcecao() throws Exception {
+        // Arrange
+        AtomicInteger execucoes = new AtomicInteger();
+        CPFInvalidoException erro = new CPFInvalidoException("CPF inválido");
+        ExecutorService executor = Executors.newFixedThreadPool(CHAMADORES);
+
+        try {
+            // Act
+            List<Future<String>> resultados = chamarConcorrentemente(executor, new CountDownLatch(1), execucoes, erro);
+
+            // Assert
+            for (Future<String> resultado : resultados) {
+                ExecutionException falha = assertThrows(ExecutionException.class, resultado::get);
+                assertSame(erro, falha.getCause());
+            }
+            assertEquals(1, execucoes.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Deve executar novamente chamadas que não estão mais em andamento")
+    void executarChamadasSequenciais() {
+        // Act
+        String primeira = coalescedor.executar("12345678909", () -> "APTO");
+        String segunda = coalescedor.executar("12345678909", () -> "INAPTO");
+
+        // Assert
+        assertEquals("APTO", primeira);
+        assertEquals("INAPTO", segunda);
+        assertEquals(2, chamadas("executada"));
+        assertEquals(0, chamadas("coalescida"));
+    }
+
+    @Test
+    @DisplayName("Deve coalescer chamadas assíncronas até o futuro da chamada concluir")
+    void coalescerChamadasAssincronas() {
+        // Arrange
+        CompletableFuture<String> resposta = new CompletableFuture<>();
+        AtomicInteger execucoes = new AtomicInteger();
+
+        // Act
+        CompletableFuture<String> primeira = coalescedor.executarAsync("12345678909", () -> {
+            execucoes.incrementAndGet();
+            return resposta;
+        });
+        CompletableFuture<String> segunda = coalescedor.executarAsync("12345678909", () -> {
+            execucoes.incrementAndGet();
+            return CompletableFuture.completedFuture("INAPTO");
+        });
+
+        // Assert
+        assertFalse(primeira.isDone());
+        assertFalse(segunda.isDone());
+        assertEquals(1, coalescedor.emAndamento());
+
+        resposta.complete("APTO");
+        assertEquals("APTO", primeira.join());
+        assertEquals("APTO", segunda.join());
+        assertEquals(1, execucoes.get());
+        assertEquals(1, chamadas("coalescida"));
+        assertEquals(0, coalescedor.emAndamento());
+    }
+}
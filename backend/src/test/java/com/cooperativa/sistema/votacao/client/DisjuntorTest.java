@@ -0,0 +1,145 @@
+package com.cooperativa.sistema.votacao.client;
+
+import com.cooperativa.sistema.votacao.client.Disjuntor.Estado;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DisjuntorTest {
+
+    private static final long RAPIDA = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long LENTA = TimeUnit.MILLISECONDS.toNanos(500);
+
+    private AtomicLong agora;
+    private Disjuntor disjuntor;
+
+    @BeforeEach
+    void setUp() {
+        agora = new AtomicLong();
+        // Window of 10 calls, opens at 50% failures after 4 calls, slow above 100 ms, open for 1 s, 2 probes
+        disjuntor = new Disjuntor(10, 4, 50, 100, 1_000, 2, agora::get);
+    }
+
+    private void chamar(boolean falha) {
+        assertTrue(disjuntor.permitir());
+        if (falha) {
+            disjuntor.registrarFalha();
+        } else {
+            disjuntor.registrarSucesso(RAPIDA);
+        }
+    }
+
+    private void abrir() {
+        for (int i = 0; i < 4; i++) {
+            chamar(true);
+        }
+        assertEquals(Estado.ABERTO, disjuntor.getEstado());
+    }
+
+    @Test
+    @DisplayName("Deve continuar fechado abaixo da taxa de falhas")
+    void manterFechado() {
+        // Act: 25% after the minimum of 4 calls, then 40%
+        chamar(true);
+        chamar(false);
+        chamar(false);
+        chamar(false);
+        chamar(true);
+
+        // Assert
+        assertEquals(Estado.FECHADO, disjuntor.getEstado());
+    }
+
+    @Test
+    @DisplayName("Não deve abrir antes do mínimo de chamadas")
+    void aguardarMinimoChamadas() {
+        // Act
+        chamar(true);
+        chamar(true);
+        chamar(true);
+
+        // Assert
+        assertEquals(Estado.FECHADO, disjuntor.getEstado());
+    }
+
+    @Test
+    @DisplayName("Deve abrir ao atingir a taxa de falhas e recusar chamadas")
+    void abrirAoAtingirTaxa() {
+        // Act
+        chamar(false);
+        chamar(true);
+        chamar(false);
+        chamar(true);
+
+        // Assert
+        assertEquals(Estado.ABERTO, disjuntor.getEstado());
+        assertFalse(disjuntor.permitir());
+    }
+
+    @Test
+    @DisplayName("Deve contar chamadas lentas como falhas")
+    void contarLentasComoFalhas() {
+        // Act
+        for (int i = 0; i < 4; i++) {
+            assertTrue(disjuntor.permitir());
+            disjuntor.registrarSucesso(LENTA);
+        }
+
+        // Assert
+        assertEquals(Estado.ABERTO, disjuntor.getEstado());
+    }
+
+    @Test
+    @DisplayName("Deve fechar depois que as chamadas de teste têm sucesso")
+    void fecharAposSondas() {
+        // Arrange
+        abrir();
+        agora.addAndGet(TimeUnit.SECONDS.toNanos(1));
+
+        // Act
+        assertTrue(disjuntor.permitir());
+        assertTrue(disjuntor.permitir());
+        assertFalse(disjuntor.permitir());
+        disjuntor.registrarSucesso(RAPIDA);
+        disjuntor.registrarSucesso(RAPIDA);
+
+        // Assert
+        assertEquals(Estado.FECHADO, disjuntor.getEstado());
+        assertTrue(disjuntor.permitir());
+    }
+
+    @Test
+    @DisplayName("Deve reabrir quando uma chamada de teste falha")
+    void reabrirAoFalharSonda() {
+        // Arrange
+        abrir();
+        agora.addAndGet(TimeUnit.SECONDS.toNanos(1));
+
+        // Act
+        assertTrue(disjuntor.permitir());
+        disjuntor.registrarFalha();
+
+        // Assert
+        assertEquals(Estado.ABERTO, disjuntor.getEstado());
+        assertFalse(disjuntor.permitir());
+    }
+
+    @Test
+    @DisplayName("Deve esquecer falhas que saíram da janela")
+    void esquecerFalhasAntigas() {
+        // Act: 20% failures over three windows; only a window that forgets old failures stays below 50%
+        for (int janela = 0; janela < 3; janela++) {
+            for (int i = 0; i < 10; i++) {
+                chamar(i == 0 || i == 4);
+            }
+        }
+
+        // Assert
+        assertEquals(Estado.FECHADO, disjuntor.getEstado());
+    }
+}
@@ -0,0 +1,159 @@
+package com.cooperativa.sistema.votacao.client;
+
+import com.cooperativa.sistema.votacao.domain.StatusVotacao;
+import com.cooperativa.sistema.votacao.exception.AssociadoNaoPodeVotarException;
+import com.cooperativa.sistema.votacao.exception.CPFInvalidoException;
+import com.cooperativa.sistema.votacao.exception.ValidadorCPFIndisponivelException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProtecaoValidadorCPFTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ProtecaoValidadorCPF protecao;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        // Opens after 2 failures in a window of 4, bulkhead of 1 call with 50 ms of wait
+        Disjuntor disjuntor = new Disjuntor(4, 2, 50, 1_000, 60_000, 1, System::nanoTime);
+        protecao = new ProtecaoValidadorCPF(meterRegistry, disjuntor, 1, 50, System::nanoTime);
+    }
+
+    private long latencias(String resultado) {
+        return meterRegistry.get("votacao.cpf.validador.latencia").tag("resultado", resultado).timer().count();
+    }
+
+    private double rejeicoes(String motivo) {
+        return meterRegistry.get("votacao.cpf.validador.rejeicoes").tag("motivo", motivo).counter().count();
+    }
+
+    @Test
+    @DisplayName("Deve registrar a latência por resultado sem contar respostas negativas como falhas")
+    void registrarLatenciaPorResultado() {
+        // Act
+        protecao.executar(() -> StatusVotacao.ABLE_TO_VOTE);
+        for (int i = 0; i < 3; i++) {
+            assertThrows(CPFInvalidoException.class, () -> protecao.executar(() -> {
+                throw new CPFInvalidoException("CPF inválido");
+            }));
+        }
+        assertThrows(AssociadoNaoPodeVotarException.class, () -> protecao.executar(() -> {
+            throw new AssociadoNaoPodeVotarException("Associado não pode votar");
+        }));
+
+        // Assert
+        assertEquals(1, latencias("apto"));
+        assertEquals(3, latencias("invalido"));
+        assertEquals(1, latencias("inapto"));
+        assertEquals(Disjuntor.Estado.FECHADO, protecao.getEstado());
+    }
+
+    @Test
+    @DisplayName("Deve recusar chamadas sem executá-las quando o disjuntor abre")
+    void recusarComCircuitoAberto() {
+        // Arrange
+        AtomicInteger chamadas = new AtomicInteger();
+        for (int i = 0; i < 2; i++) {
+            assertThrows(ResourceAccessException.class, () -> protecao.executar(() -> {
+                chamadas.incrementAndGet();
+                throw new ResourceAccessException("Read timed out");
+            }));
+        }
+
+        // Act & Assert
+        assertThrows(ValidadorCPFIndisponivelException.class, () -> protecao.executar(() -> {
+            chamadas.incrementAndGet();
+            return StatusVotacao.ABLE_TO_VOTE;
+        }));
+        assertEquals(2, chamadas.get());
+        assertEquals(2, latencias("erro"));
+        assertEquals(1, rejeicoes("circuito-aberto"));
+        assertEquals(Disjuntor.Estado.ABERTO, protecao.getEstado());
+    }
+
+    @Test
+    @DisplayName("Deve recusar chamadas além do limite de concorrência")
+    void recusarComBulkheadCheio() throws Exception {
+        // Arrange
+        CountDownLatch emAndamento = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        try {
+            Future<StatusVotacao> lenta = executor.submit(() -> protecao.executar(() -> {
+                emAndamento.countDown();
+                try {
+                    liberar.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return StatusVotacao.ABLE_TO_VOTE;
+            }));
+            emAndamento.await();
+
+            // Act & Assert
+            assertThrows(ValidadorCPFIndisponivelException.class,
+                    () -> protecao.executar(() -> StatusVotacao.ABLE_TO_VOTE));
+            assertEquals(1, rejeicoes("bulkhead-cheio"));
+
+            liberar.countDown();
+            assertEquals(StatusVotacao.ABLE_TO_VOTE, lenta.get());
+            assertEquals(StatusVotacao.ABLE_TO_VOTE, protecao.executar(() -> StatusVotacao.ABLE_TO_VOTE));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Deve manter a vaga do bulkhead até a chamada assíncrona terminar")
+    void manterBulkheadAteChamadaAssincronaTerminar() {
+        // Arrange
+        CompletableFuture<StatusVotacao> resposta = new CompletableFuture<>();
+
+        // Act
+        CompletableFuture<StatusVotacao> emAndamento = protecao.executarAsync(() -> resposta);
+
+        // Assert: the caller is not blocked, but the only permit is taken
+        assertFalse(emAndamento.isDone());
+        CompletableFuture<StatusVotacao> recusada = protecao.executarAsync(
+                () -> CompletableFuture.completedFuture(StatusVotacao.ABLE_TO_VOTE));
+        assertInstanceOf(ValidadorCPFIndisponivelException.class,
+                assertThrows(CompletionException.class, recusada::join).getCause());
+        assertEquals(1, rejeicoes("bulkhead-cheio"));
+
+        resposta.complete(StatusVotacao.ABLE_TO_VOTE);
+        assertEquals(StatusVotacao.ABLE_TO_VOTE, emAndamento.join());
+        assertEquals(1, latencias("apto"));
+        assertEquals(StatusVotacao.ABLE_TO_VOTE, protecao.executarAsync(
+                () -> CompletableFuture.completedFuture(StatusVotacao.ABLE_TO_VOTE)).join());
+    }
+
+    @Test
+    @DisplayName("Deve contar falhas de chamadas assíncronas no disjuntor")
+    void contarFalhasAssincronas() {
+        // Act
+        for (int i = 0; i < 2; i++) {
+            CompletableFuture<StatusVotacao> falha = protecao.executarAsync(
+                    () -> CompletableFuture.failedFuture(new ResourceAccessException("Read timed out")));
+            assertThrows(ResourceAccessException.class, () -> Futuros.aguardar(falha));
+        }
+
+        // Assert
+        assertEquals(2, latencias("erro"));
+        assertEquals(Disjuntor.Estado.ABERTO, protecao.getEstado());
+    }
+}
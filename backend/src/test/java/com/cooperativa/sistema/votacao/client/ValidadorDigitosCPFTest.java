@@ -0,0 +1,42 @@
+package com.cooperativa.sistema.votacao.client;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ValidadorDigitosCPFTest {
+
+    @ParameterizedTest
+    @ValueSource(strings = {"12345678909", "52998224725", "529.982.247-25", "529 982 247 25", "00000000191"})
+    @DisplayName("Deve aceitar CPFs com dígitos verificadores corretos")
+    void aceitarCPFsValidos(String cpf) {
+        assertTrue(ValidadorDigitosCPF.isValido(cpf));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"12345678900", "52998224715", "1234567890", "123456789091", "5299822472a",
+            "529/982/247-25", "11111111111", "000.000.000-00", ""})
+    @DisplayName("Deve rejeitar CPFs malformados, repetidos ou com dígitos verificadores errados")
+    void rejeitarCPFsInvalidos(String cpf) {
+        assertFalse(ValidadorDigitosCPF.isValido(cpf));
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar CPF nulo")
+    void rejeitarNulo() {
+        assertFalse(ValidadorDigitosCPF.isValido(null));
+    }
+
+    @Test
+    @DisplayName("Deve remover a formatação e manter CPFs sem formatação intactos")
+    void normalizar() {
+        String semFormatacao = "52998224725";
+
+        assertEquals("52998224725", ValidadorDigitosCPF.normalizar("529.982.247-25"));
+        assertSame(semFormatacao, ValidadorDigitosCPF.normalizar(semFormatacao));
+        assertNull(ValidadorDigitosCPF.normalizar(null));
+    }
+}
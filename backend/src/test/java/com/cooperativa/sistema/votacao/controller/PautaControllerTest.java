@@ -1,7 +1,9 @@
 package com.cooperativa.sistema.votacao.controller;
 
+import com.cooperativa.sistema.votacao.dto.PaginaCursorDTO;
 import com.cooperativa.sistema.votacao.dto.PautaDTO;
 import com.cooperativa.sistema.votacao.dto.PautaRequest;
+import com.cooperativa.sistema.votacao.exception.PaginacaoInvalidaException;
 import com.cooperativa.sistema.votacao.exception.ResourceNotFoundException;
 import com.cooperativa.sistema.votacao.service.PautaService;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -115,6 +117,39 @@ class PautaControllerTest {
         verify(pautaService).listarPautas(any(PageRequest.class));
     }
 
+    @Test
+    @DisplayName("Deve listar pautas por cursor")
+    void listarPautasPorCursor() throws Exception {
+        PaginaCursorDTO<PautaDTO> pagina = PaginaCursorDTO.<PautaDTO>builder()
+                .conteudo(List.of(pautaDTO))
+                .proximo("cHJveGltbw")
+                .build();
+        when(pautaService.listarPautas("YW50ZXJpb3I", 1, false)).thenReturn(pagina);
+
+        mockMvc.perform(get("/api/v1/pautas/cursor")
+                .param("cursor", "YW50ZXJpb3I")
+                .param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.conteudo", hasSize(1)))
+                .andExpect(jsonPath("$.conteudo[0].id", is(1)))
+                .andExpect(jsonPath("$.proximo", is("cHJveGltbw")))
+                .andExpect(jsonPath("$.totalAproximado").value(nullValue()));
+
+        verify(pautaService).listarPautas("YW50ZXJpb3I", 1, false);
+    }
+
+    @Test
+    @DisplayName("Deve retornar erro ao listar pautas com cursor inválido")
+    void listarPautasComCursorInvalido() throws Exception {
+        when(pautaService.listarPautas("invalido", 10, false))
+                .thenThrow(new PaginacaoInvalidaException("Cursor de paginação inválido"));
+
+        mockMvc.perform(get("/api/v1/pautas/cursor")
+                .param("cursor", "invalido"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message", is("Cursor de paginação inválido")));
+    }
+
     @Test
     @DisplayName("Deve obter uma pauta específica pelo ID")
     void obterPauta() throws Exception {
@@ -0,0 +1,50 @@
+package com.cooperativa.sistema.votacao.controller;
+
+import com.cooperativa.sistema.votacao.cache.ValidacaoCPFCache;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(ValidacaoCPFCacheController.class)
+class ValidacaoCPFCacheControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ValidacaoCPFCache cache;
+
+    @Test
+    @DisplayName("Deve remover do cache o CPF informado sem formatação")
+    void invalidar() throws Exception {
+        mockMvc.perform(delete("/api/v1/cpf-validacoes/cache/12345678909"))
+                .andExpect(status().isNoContent());
+
+        verify(cache).invalidar("12345678909");
+    }
+
+    @Test
+    @DisplayName("Deve remover do cache pelos dígitos o CPF informado com formatação")
+    void invalidarCpfFormatado() throws Exception {
+        mockMvc.perform(delete("/api/v1/cpf-validacoes/cache/123.456.789-09"))
+                .andExpect(status().isNoContent());
+
+        verify(cache).invalidar("12345678909");
+    }
+
+    @Test
+    @DisplayName("Deve esvaziar o cache de validação")
+    void invalidarTodos() throws Exception {
+        mockMvc.perform(delete("/api/v1/cpf-validacoes/cache"))
+                .andExpect(status().isNoContent());
+
+        verify(cache).invalidarTodos();
+    }
+}
@@ -147,4 +147,29 @@ class VotoControllerTest {
 
         verify(votoService, never()).registrarVoto(anyLong(), any(VotoRequest.class));
     }
-} 
\ No newline at end of file
+
+    @Test
+    @DisplayName("Deve obter o voto de um associado na sessão")
+    void obterVoto() throws Exception {
+        when(votoService.obterVoto(1L, "1")).thenReturn(votoDTO);
+
+        mockMvc.perform(get("/api/v1/sessoes/1/votos/1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id", is(1)))
+                .andExpect(jsonPath("$.idAssociado", is("1")))
+                .andExpect(jsonPath("$.opcao", is("SIM")));
+
+        verify(votoService).obterVoto(1L, "1");
+    }
+
+    @Test
+    @DisplayName("Deve retornar erro quando o voto ainda não foi gravado")
+    void obterVotoInexistente() throws Exception {
+        when(votoService.obterVoto(1L, "2"))
+                .thenThrow(new ResourceNotFoundException("Voto não encontrado para o associado 2 na sessão 1"));
+
+        mockMvc.perform(get("/api/v1/sessoes/1/votos/2"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.message", containsString("Voto não encontrado")));
+    }
+}
@@ -0,0 +1,135 @@
+package com.cooperativa.sistema.votacao.controller;
+
+import com.cooperativa.sistema.votacao.domain.OpcaoVoto;
+import com.cooperativa.sistema.votacao.domain.StatusVotoLote;
+import com.cooperativa.sistema.votacao.dto.ItemLoteVotoDTO;
+import com.cooperativa.sistema.votacao.dto.ResultadoLoteVotosDTO;
+import com.cooperativa.sistema.votacao.dto.VotoRequest;
+import com.cooperativa.sistema.votacao.exception.LoteVotosInvalidoException;
+import com.cooperativa.sistema.votacao.exception.SessaoEncerradaException;
+import com.cooperativa.sistema.votacao.service.VotoLoteService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.InputStream;
+import java.util.List;
+
+import static org.hamcrest.Matchers.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(VotoLoteController.class)
+class VotoLoteControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockBean
+    private VotoLoteService votoLoteService;
+
+    private ResultadoLoteVotosDTO resultado;
+
+    @BeforeEach
+    void setUp() {
+        resultado = ResultadoLoteVotosDTO.builder()
+                .sessaoId(1L)
+                .totalRecebidos(2)
+                .totalAceitos(1)
+                .totalRejeitados(1)
+                .itens(List.of(
+                        ItemLoteVotoDTO.builder().indice(0).idAssociado("1").status(StatusVotoLote.ACEITO).build(),
+                        ItemLoteVotoDTO.builder().indice(1).idAssociado("1").status(StatusVotoLote.VOTO_DUPLICADO)
+                                .mensagem("Associado repetido no lote").build()))
+                .build();
+    }
+
+    @Test
+    @DisplayName("Deve registrar um lote de votos enviado como array JSON")
+    void registrarLoteJson() throws Exception {
+        List<VotoRequest> requests = List.of(
+                new VotoRequest("1", "12345678909", OpcaoVoto.SIM),
+                new VotoRequest("1", "12345678909", OpcaoVoto.NAO));
+        when(votoLoteService.lerJson(any(InputStream.class))).thenReturn(requests);
+        when(votoLoteService.registrarLote(1L, requests)).thenReturn(resultado);
+
+        mockMvc.perform(post("/api/v1/sessoes/1/votos/lote")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(requests)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalAceitos", is(1)))
+                .andExpect(jsonPath("$.itens", hasSize(2)))
+                .andExpect(jsonPath("$.itens[1].status", is("VOTO_DUPLICADO")));
+
+        verify(votoLoteService).lerJson(any(InputStream.class));
+        verify(votoLoteService).registrarLote(1L, requests);
+    }
+
+    @Test
+    @DisplayName("Deve retornar erro para lote JSON inválido")
+    void registrarLoteJsonInvalido() throws Exception {
+        when(votoLoteService.lerJson(any(InputStream.class)))
+                .thenThrow(new LoteVotosInvalidoException("O lote de votos deve ser um array JSON"));
+
+        mockMvc.perform(post("/api/v1/sessoes/1/votos/lote")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message", containsString("array JSON")));
+    }
+
+    @Test
+    @DisplayName("Deve registrar um lote de votos enviado como NDJSON")
+    void registrarLoteNdjson() throws Exception {
+        List<VotoRequest> requests = List.of(new VotoRequest("1", "12345678909", OpcaoVoto.SIM));
+        when(votoLoteService.lerNdjson(any(InputStream.class))).thenReturn(requests);
+        when(votoLoteService.registrarLote(1L, requests)).thenReturn(resultado);
+
+        mockMvc.perform(post("/api/v1/sessoes/1/votos/lote")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .content("{\"idAssociado\":\"1\",\"cpf\":\"12345678909\",\"opcao\":\"SIM\"}\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.sessaoId", is(1)));
+
+        verify(votoLoteService).lerNdjson(any(InputStream.class));
+    }
+
+    @Test
+    @DisplayName("Deve retornar erro para lote NDJSON inválido")
+    void registrarLoteNdjsonInvalido() throws Exception {
+        when(votoLoteService.lerNdjson(any(InputStream.class)))
+                .thenThrow(new LoteVotosInvalidoException("Linha 1 do lote de votos inválida"));
+
+        mockMvc.perform(post("/api/v1/sessoes/1/votos/lote")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .content("{"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message", containsString("Linha 1")));
+    }
+
+    @Test
+    @DisplayName("Deve retornar erro ao enviar lote para sessão encerrada")
+    void registrarLoteSessaoEncerrada() throws Exception {
+        when(votoLoteService.registrarLote(eq(2L), anyList()))
+                .thenThrow(new SessaoEncerradaException("Sessão de votação não está aberta"));
+
+        mockMvc.perform(post("/api/v1/sessoes/2/votos/lote")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[]"))
+                .andExpect(status().isForbidden())
+                .andExpect(jsonPath("$.message", containsString("Sessão de votação não está aberta")));
+    }
+}
@@ -0,0 +1,88 @@
+package com.cooperativa.sistema.votacao.diagnostico;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.core.io.Resource;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GravacaoJfrEndpointTest {
+
+    @TempDir
+    Path diretorio;
+
+    private GravacaoJfrEndpoint endpoint;
+
+    @BeforeEach
+    void setUp() {
+        endpoint = new GravacaoJfrEndpoint(diretorio.toString(), 5);
+    }
+
+    @AfterEach
+    void tearDown() {
+        endpoint.destroy();
+    }
+
+    @Test
+    @DisplayName("Deve gravar os eventos da aplicação e salvá-los ao parar a gravação")
+    void gravarEventosAplicacao() throws Exception {
+        // Arrange
+        endpoint.iniciar("default");
+
+        // Act
+        EventoRegistroVoto evento = new EventoRegistroVoto();
+        evento.begin();
+        evento.sessaoId = 42;
+        evento.concluir(EventoRegistroVoto.REGISTRADO);
+        String arquivo = (String) endpoint.parar().get("arquivo");
+
+        // Assert
+        List<RecordedEvent> eventos = RecordingFile.readAllEvents(Path.of(arquivo)).stream()
+                .filter(e -> e.getEventType().getName().equals(EventoRegistroVoto.NOME))
+                .toList();
+        assertEquals(1, eventos.size());
+        assertEquals(42, eventos.get(0).getLong("sessaoId"));
+        assertEquals("registrado", eventos.get(0).getString("desfecho"));
+        assertEquals(false, endpoint.estado().get("gravando"));
+    }
+
+    @Test
+    @DisplayName("Deve baixar a gravação em andamento sem interrompê-la")
+    void dumpSemParar() throws Exception {
+        // Arrange
+        endpoint.iniciar(null);
+
+        // Act
+        Resource dump = endpoint.dump(GravacaoJfrEndpoint.ACAO_DUMP);
+
+        // Assert
+        assertNotNull(dump);
+        assertTrue(dump.contentLength() > 0);
+        assertEquals(true, endpoint.estado().get("gravando"));
+    }
+
+    @Test
+    @DisplayName("Não deve gerar dump sem gravação em andamento")
+    void dumpSemGravacao() {
+        // Act & Assert
+        assertNull(endpoint.dump(GravacaoJfrEndpoint.ACAO_DUMP));
+        assertTrue(endpoint.parar().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Deve recusar configurações JFR inexistentes")
+    void configuracaoInexistente() {
+        // Act & Assert
+        assertThrows(InvalidEndpointRequestException.class, () -> endpoint.iniciar("inexistente"));
+        assertEquals(false, endpoint.estado().get("gravando"));
+    }
+}
@@ -0,0 +1,65 @@
+package com.cooperativa.sistema.votacao.diagnostico;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MonitorPinningThreadsTest {
+
+    private final MonitorPinningThreads monitor = new MonitorPinningThreads(10);
+
+    @AfterEach
+    void tearDown() {
+        if (monitor.isRunning()) {
+            monitor.stop();
+        }
+    }
+
+    @Test
+    @DisplayName("Deve registrar virtual threads bloqueadas dentro de blocos synchronized")
+    void registrarPinning() throws Exception {
+        // Arrange
+        monitor.start();
+        Object trava = new Object();
+
+        // Act: sleeping while holding a monitor pins the virtual thread to its carrier
+        Thread.ofVirtual().start(() -> {
+            synchronized (trava) {
+                try {
+                    Thread.sleep(100);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }).join();
+
+        // Assert: JFR delivers streamed events asynchronously, about once per second
+        long limite = System.currentTimeMillis() + 10_000;
+        while (monitor.getOcorrencias() == 0 && System.currentTimeMillis() < limite) {
+            Thread.sleep(100);
+        }
+        assertTrue(monitor.getOcorrencias() > 0);
+    }
+
+    @Test
+    @DisplayName("Não deve registrar virtual threads que bloqueiam sem segurar monitores")
+    void ignorarBloqueioSemPinning() throws Exception {
+        // Arrange
+        monitor.start();
+
+        // Act
+        Thread.ofVirtual().start(() -> {
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }).join();
+        Thread.sleep(2_000);
+
+        // Assert
+        assertEquals(0, monitor.getOcorrencias());
+    }
+}
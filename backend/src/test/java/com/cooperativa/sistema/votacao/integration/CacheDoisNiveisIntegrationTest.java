@@ -0,0 +1,166 @@
+package com.cooperativa.sistema.votacao.integration;
+
+import com.cooperativa.sistema.votacao.cache.CacheDoisNiveis;
+import com.cooperativa.sistema.votacao.cache.CacheDoisNiveisManager;
+import com.cooperativa.sistema.votacao.config.CacheConfig;
+import com.cooperativa.sistema.votacao.domain.Pauta;
+import com.cooperativa.sistema.votacao.domain.SessaoVotacao;
+import com.cooperativa.sistema.votacao.dto.PautaDTO;
+import com.cooperativa.sistema.votacao.dto.SessaoVotacaoDTO;
+import com.cooperativa.sistema.votacao.repository.PautaRepository;
+import com.cooperativa.sistema.votacao.repository.SessaoVotacaoRepository;
+import com.cooperativa.sistema.votacao.service.PautaService;
+import com.cooperativa.sistema.votacao.service.SessaoVotacaoService;
+import com.cooperativa.sistema.votacao.simulador.RedisSimulado;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Two-level cache against the stand-in Redis, with a second instance sharing it
+ * The application context is one instance; the other one is a CacheDoisNiveisManager built by
+ * CacheConfig with another instance id and its own subscription to the invalidation channel.
+ */
+@SpringBootTest(properties = {
+        "spring.cache.type=redis",
+        "votacao.cluster.instancia=instancia-a"
+})
+@ActiveProfiles("test")
+class CacheDoisNiveisIntegrationTest {
+
+    private static final RedisSimulado REDIS = RedisSimulado.iniciar(0);
+    private static final String CANAL = "votacao:cache:invalidacao";
+
+    @DynamicPropertySource
+    static void configurarRedis(DynamicPropertyRegistry registry) {
+        registry.add("spring.data.redis.host", () -> "localhost");
+        registry.add("spring.data.redis.port", REDIS::getPorta);
+    }
+
+    @AfterAll
+    static void pararRedis() {
+        REDIS.close();
+    }
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private RedisConnectionFactory connectionFactory;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PautaService pautaService;
+
+    @Autowired
+    private SessaoVotacaoService sessaoService;
+
+    @Autowired
+    private PautaRepository pautaRepository;
+
+    @Autowired
+    private SessaoVotacaoRepository sessaoRepository;
+
+    private SimpleMeterRegistry metricasOutraInstancia;
+    private CacheDoisNiveisManager outraInstancia;
+    private RedisMessageListenerContainer listenerOutraInstancia;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        metricasOutraInstancia = new SimpleMeterRegistry();
+        outraInstancia = new CacheConfig().cacheManager(connectionFactory, new StringRedisTemplate(connectionFactory),
+                objectMapper, metricasOutraInstancia, 3600, 100, 60, CANAL, "instancia-b");
+        // Without the transaction-aware decorator, so the test reaches the local level of each cache
+        outraInstancia.setTransactionAware(false);
+        outraInstancia.afterPropertiesSet();
+        listenerOutraInstancia = new CacheConfig().invalidacaoCacheListenerContainer(connectionFactory, outraInstancia, CANAL);
+        listenerOutraInstancia.afterPropertiesSet();
+        listenerOutraInstancia.start();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        listenerOutraInstancia.destroy();
+    }
+
+    private double invalidacoesRecebidas(String cache) {
+        return metricasOutraInstancia.counter("votacao.cache.invalidacoes.recebidas", "cache", cache).count();
+    }
+
+    private static boolean aguardar(BooleanSupplier condicao) throws InterruptedException {
+        long prazo = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condicao.getAsBoolean()) {
+            if (System.nanoTime() - prazo > 0) {
+                return false;
+            }
+            Thread.sleep(10);
+        }
+        return true;
+    }
+
+    @Test
+    @DisplayName("Deve compartilhar pelo Redis o DTO cacheado por uma instância")
+    void compartilharPeloRedis() {
+        // Arrange
+        Pauta pauta = pautaRepository.save(Pauta.builder().titulo("Pauta compartilhada").descricao("Cache").build());
+
+        // Act
+        PautaDTO lidaPelaAplicacao = pautaService.obterPauta(pauta.getId());
+        PautaDTO lidaPelaOutraInstancia = outraInstancia.getCache("pautas").get(pauta.getId(), PautaDTO.class);
+
+        // Assert
+        assertNotNull(lidaPelaOutraInstancia);
+        assertEquals(lidaPelaAplicacao, lidaPelaOutraInstancia);
+        assertInstanceOf(CacheDoisNiveisManager.class, cacheManager);
+    }
+
+    @Test
+    @DisplayName("Deve invalidar a cópia local das outras instâncias quando a sessão é encerrada")
+    void invalidarAoEncerrarSessao() throws Exception {
+        // Arrange
+        Pauta pauta = pautaRepository.save(Pauta.builder().titulo("Pauta da sessão cacheada").build());
+        SessaoVotacao sessao = sessaoRepository.save(SessaoVotacao.builder()
+                .pauta(pauta)
+                .dataAbertura(LocalDateTime.now())
+                .dataFechamento(LocalDateTime.now().plusMinutes(5))
+                .build());
+        CacheDoisNiveis sessoesOutraInstancia = (CacheDoisNiveis) outraInstancia.getCache("sessoes");
+        assertFalse(sessaoService.obterSessao(sessao.getId()).getEncerrada());
+        // Caching the session is announced too; once it arrives, the other instance may keep its copy
+        assertTrue(aguardar(() -> invalidacoesRecebidas("sessoes") >= 1));
+        assertFalse(sessoesOutraInstancia.get(sessao.getId(), SessaoVotacaoDTO.class).getEncerrada());
+        assertEquals(1, sessoesOutraInstancia.tamanhoLocal());
+
+        // Act
+        sessaoService.encerrarSessao(sessao.getId());
+
+        // Assert
+        assertTrue(aguardar(() -> invalidacoesRecebidas("sessoes") >= 2),
+                "A outra instância não recebeu a invalidação");
+        assertEquals(0, sessoesOutraInstancia.tamanhoLocal());
+        assertNull(sessoesOutraInstancia.get(sessao.getId()));
+        assertTrue(sessaoService.obterSessao(sessao.getId()).getEncerrada());
+        assertTrue(sessoesOutraInstancia.get(sessao.getId(), SessaoVotacaoDTO.class).getEncerrada());
+    }
+}
@@ -0,0 +1,170 @@
+package com.cooperativa.sistema.votacao.integration;
+
+import com.cooperativa.sistema.votacao.domain.OpcaoVoto;
+import com.cooperativa.sistema.votacao.domain.Pauta;
+import com.cooperativa.sistema.votacao.domain.ResultadoVotacao;
+import com.cooperativa.sistema.votacao.domain.SessaoVotacao;
+import com.cooperativa.sistema.votacao.domain.Voto;
+import com.cooperativa.sistema.votacao.repository.PautaRepository;
+import com.cooperativa.sistema.votacao.repository.ResultadoVotacaoRepository;
+import com.cooperativa.sistema.votacao.repository.SessaoVotacaoRepository;
+import com.cooperativa.sistema.votacao.repository.VotoRepository;
+import com.cooperativa.sistema.votacao.service.SessaoVotacaoService;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Bulk closing and tallying of sessions against the real database
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class EncerramentoSessoesIntegrationTest {
+
+    @Autowired
+    private SessaoVotacaoService sessaoService;
+
+    @Autowired
+    private PautaRepository pautaRepository;
+
+    @Autowired
+    private SessaoVotacaoRepository sessaoRepository;
+
+    @Autowired
+    private VotoRepository votoRepository;
+
+    @Autowired
+    private ResultadoVotacaoRepository resultadoRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private Pauta pauta;
+
+    @BeforeEach
+    void setUp() {
+        pauta = pautaRepository.save(Pauta.builder()
+                .titulo("Assembleia com várias pautas")
+                .descricao("Sessões que vencem juntas")
+                .build());
+    }
+
+    private SessaoVotacao sessaoExpirada(int sim, int nao) {
+        SessaoVotacao sessao = sessaoRepository.save(SessaoVotacao.builder()
+                .pauta(pauta)
+                .dataAbertura(LocalDateTime.now().minusMinutes(10))
+                .dataFechamento(LocalDateTime.now().minusSeconds(1))
+                .build());
+        for (int i = 0; i < sim + nao; i++) {
+            votoRepository.save(Voto.builder()
+                    .sessaoVotacao(sessao)
+                    .idAssociado(UUID.randomUUID().toString())
+                    .cpfAssociado("12345678909")
+                    .opcao(i < sim ? OpcaoVoto.SIM : OpcaoVoto.NAO)
+                    .build());
+        }
+        return sessao;
+    }
+
+    private ResultadoVotacao resultado(SessaoVotacao sessao) {
+        return resultadoRepository.findBySessaoVotacaoId(sessao.getId()).orElseThrow();
+    }
+
+    @Test
+    @DisplayName("Deve encerrar as sessões e apurar os seus resultados em lote")
+    void encerrarEmLote() {
+        // Arrange
+        SessaoVotacao aprovada = sessaoExpirada(3, 1);
+        SessaoVotacao rejeitada = sessaoExpirada(0, 2);
+        SessaoVotacao semVotos = sessaoExpirada(0, 0);
+        entityManager.flush();
+
+        // Act
+        int encerradas = sessaoService.encerrarSessoes(List.of(aprovada.getId(), rejeitada.getId(), semVotos.getId()));
+
+        // Assert
+        assertEquals(3, encerradas);
+        assertTrue(sessaoRepository.findById(aprovada.getId()).orElseThrow().getEncerrada());
+        assertEquals(List.of(4, 3, 1), List.of(resultado(aprovada).getTotalVotos(),
+                resultado(aprovada).getVotosSim(), resultado(aprovada).getVotosNao()));
+        assertTrue(resultado(aprovada).isAprovado());
+        assertEquals(List.of(2, 0, 2), List.of(resultado(rejeitada).getTotalVotos(),
+                resultado(rejeitada).getVotosSim(), resultado(rejeitada).getVotosNao()));
+        assertEquals(0, resultado(semVotos).getTotalVotos());
+    }
+
+    @Test
+    @DisplayName("Deve ignorar sessões já encerradas e apuradas ao encerrar novamente")
+    void encerrarNovamente() {
+        // Arrange
+        SessaoVotacao sessao = sessaoExpirada(1, 1);
+        entityManager.flush();
+        sessaoService.encerrarSessoes(List.of(sessao.getId()));
+        Long resultadoId = resultado(sessao).getId();
+
+        // Act
+        int encerradas = sessaoService.encerrarSessoes(List.of(sessao.getId()));
+
+        // Assert
+        assertEquals(0, encerradas);
+        assertEquals(resultadoId, resultado(sessao).getId());
+        assertEquals(1, resultadoRepository.findAll().stream()
+                .filter(r -> r.getSessaoVotacao().getId().equals(sessao.getId()))
+                .count());
+    }
+
+    @Test
+    @DisplayName("Deve apurar sessões encerradas que ficaram sem resultado")
+    void apurarSessaoEncerradaSemResultado() {
+        // Arrange: closed by an instance that died before tallying
+        SessaoVotacao sessao = sessaoExpirada(2, 0);
+        sessao.setEncerrada(true);
+        entityManager.flush();
+
+        // Act
+        int encerradas = sessaoService.encerrarSessoes(List.of(sessao.getId()));
+
+        // Assert
+        assertEquals(0, encerradas);
+        assertEquals(2, resultado(sessao).getVotosSim());
+    }
+
+    @Test
+    @DisplayName("Deve manter a sessão no cache até o commit do encerramento")
+    @SuppressWarnings("unchecked")
+    void encerrarRemoveDoCacheAposCommit() {
+        // Arrange: a copy cached while the session was open
+        SessaoVotacao sessao = sessaoExpirada(1, 0);
+        Cache sessoes = cacheManager.getCache("sessoes");
+        Map<Object, Object> nativo = (Map<Object, Object>) sessoes.getNativeCache();
+        nativo.put(sessao.getId(), "sessão aberta");
+
+        try {
+            // Act: the test transaction is rolled back, never committed
+            sessaoService.encerrarSessoes(List.of(sessao.getId()));
+
+            // Assert
+            assertNotNull(sessoes.get(sessao.getId()));
+        } finally {
+            nativo.remove(sessao.getId());
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.cooperativa.sistema.votacao.integration;
+
+import com.cooperativa.sistema.votacao.client.CPFValidator;
+import com.cooperativa.sistema.votacao.domain.OpcaoVoto;
+import com.cooperativa.sistema.votacao.domain.Pauta;
+import com.cooperativa.sistema.votacao.domain.SessaoVotacao;
+import com.cooperativa.sistema.votacao.domain.StatusVotacao;
+import com.cooperativa.sistema.votacao.dto.VotoRequest;
+import com.cooperativa.sistema.votacao.repository.PautaRepository;
+import com.cooperativa.sistema.votacao.repository.SessaoVotacaoRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Meters of the vote registration served in the Prometheus format
+ * Not transactional, so the vote is committed and the commit stage is measured.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+@ActiveProfiles("test")
+class MetricasIntegrationTest {
+
+    @TestConfiguration
+    static class TestConfig {
+        // Sobrescreve o CPFValidator real com um mock para não precisar da API externa
+        @Bean
+        @Primary
+        public CPFValidator mockCpfValidator() {
+            CPFValidator mockValidator = Mockito.mock(CPFValidator.class);
+            when(mockValidator.validarCPFAsync(anyString()))
+                    .thenReturn(CompletableFuture.completedFuture(StatusVotacao.ABLE_TO_VOTE));
+            return mockValidator;
+        }
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PautaRepository pautaRepository;
+
+    @Autowired
+    private SessaoVotacaoRepository sessaoRepository;
+
+    @Test
+    @DisplayName("Deve expor as etapas do registro de voto e as rejeições no endpoint Prometheus")
+    void exporMetricasPrometheus() throws Exception {
+        // Arrange
+        Pauta pauta = pautaRepository.save(Pauta.builder().titulo("Pauta das métricas").build());
+        SessaoVotacao sessao = sessaoRepository.save(SessaoVotacao.builder()
+                .pauta(pauta)
+                .dataAbertura(LocalDateTime.now())
+                .dataFechamento(LocalDateTime.now().plusMinutes(5))
+                .build());
+        String voto = objectMapper.writeValueAsString(VotoRequest.builder()
+                .idAssociado(UUID.randomUUID().toString())
+                .cpf("52998224725")
+                .opcao(OpcaoVoto.SIM)
+                .build());
+
+        // Act
+        mockMvc.perform(post("/api/v1/sessoes/{sessaoId}/votos", sessao.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(voto))
+                .andExpect(status().isCreated());
+        mockMvc.perform(post("/api/v1/sessoes/{sessaoId}/votos", sessao.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(voto))
+                .andExpect(status().isConflict());
+
+        // Assert
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("votacao_votos_registro_etapa_seconds_bucket{etapa=\"cpf\"")))
+                .andExpect(content().string(containsString("votacao_votos_registro_etapa_seconds_count{etapa=\"commit\"")))
+                .andExpect(content().string(containsString("votacao_votos_rejeicoes_total{excecao=\"VotoJaRealizadoException\"")));
+    }
+}
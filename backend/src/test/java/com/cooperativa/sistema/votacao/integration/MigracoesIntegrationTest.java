@@ -0,0 +1,126 @@
+package com.cooperativa.sistema.votacao.integration;
+
+import com.cooperativa.sistema.votacao.domain.Pauta;
+import com.cooperativa.sistema.votacao.domain.SessaoVotacao;
+import com.cooperativa.sistema.votacao.repository.PautaRepository;
+import com.cooperativa.sistema.votacao.repository.SessaoVotacaoRepository;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Schema migrations and the indexes chosen for the hot-path queries, checked with H2's EXPLAIN
+ * The queries below are the SQL the repositories generate for each query shape.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class MigracoesIntegrationTest {
+
+    @Autowired
+    private Flyway flyway;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PautaRepository pautaRepository;
+
+    @Autowired
+    private SessaoVotacaoRepository sessaoRepository;
+
+    private String plano(String sql) {
+        // H2 picks indexes by column selectivity, which is only known after ANALYZE
+        jdbcTemplate.execute("ANALYZE");
+        return String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + sql, String.class)).toLowerCase();
+    }
+
+    @Test
+    @DisplayName("Deve aplicar todas as migrações na inicialização")
+    void aplicarMigracoes() {
+        // Act
+        var info = flyway.info();
+
+        // Assert
+        assertEquals(0, info.pending().length);
+        assertNotNull(info.current());
+        assertEquals("5", info.current().getVersion().getVersion());
+    }
+
+    @Test
+    @DisplayName("Deve usar o índice de encerramento ao buscar sessões expiradas")
+    void indiceSessoesExpiradas() {
+        // Act: findByEncerradaFalseAndDataFechamentoBefore
+        String plano = plano("SELECT * FROM sessao_votacao WHERE encerrada = FALSE AND data_fechamento < CURRENT_TIMESTAMP");
+
+        // Assert
+        assertTrue(plano.contains("idx_sessao_votacao_encerrada_fechamento"), plano);
+    }
+
+    @Test
+    @DisplayName("Deve buscar pelo índice de pauta ao verificar se a pauta tem sessão aberta")
+    void indiceSessaoAbertaDaPauta() {
+        // Arrange: sessions spread over several pautas, so ANALYZE has statistics even on an empty
+        // database; ANALYZE commits, so they are removed afterwards
+        List<Pauta> pautas = new ArrayList<>();
+        List<SessaoVotacao> sessoes = new ArrayList<>();
+        LocalDateTime abertura = LocalDateTime.now();
+        for (int i = 0; i < 20; i++) {
+            Pauta pauta = pautaRepository.save(Pauta.builder().titulo("Pauta do plano " + i).build());
+            pautas.add(pauta);
+            for (boolean encerrada : new boolean[] {true, false}) {
+                sessoes.add(sessaoRepository.save(SessaoVotacao.builder()
+                        .pauta(pauta)
+                        .dataAbertura(abertura)
+                        .dataFechamento(abertura.plusHours(1))
+                        .encerrada(encerrada)
+                        .build()));
+            }
+        }
+
+        // Act: existsOpenSessionForPauta
+        String plano;
+        try {
+            plano = plano("SELECT COUNT(*) FROM sessao_votacao WHERE pauta_id = 1 AND encerrada = FALSE "
+                    + "AND data_abertura <= CURRENT_TIMESTAMP AND data_fechamento >= CURRENT_TIMESTAMP");
+        } finally {
+            sessaoRepository.deleteAll(sessoes);
+            pautaRepository.deleteAll(pautas);
+        }
+
+        // Assert: H2 gives a boolean column no selectivity, so (pauta_id, encerrada) ties with the
+        // foreign key's own pauta_id index and either may win; what matters is the seek by pauta_id
+        assertTrue(plano.matches("(?s).*/\\* public\\.\\w+: pauta_id = .*"), plano);
+    }
+
+    @Test
+    @DisplayName("Deve usar o índice de sessão e opção ao contar os votos")
+    void indiceApuracao() {
+        // Act: countBySessaoVotacaoIdAndOpcao
+        String plano = plano("SELECT COUNT(*) FROM voto WHERE sessao_votacao_id = 1 AND opcao = 'SIM'");
+
+        // Assert
+        assertTrue(plano.contains("idx_voto_sessao_opcao"), plano);
+    }
+
+    @Test
+    @DisplayName("Deve usar o índice de data de cadastro ao continuar a listagem de associados por cursor")
+    void indicePaginacaoCursorAssociados() {
+        // Act: AssociadoRepository.findPaginaApos
+        String plano = plano("SELECT * FROM associado WHERE data_cadastro <= TIMESTAMP '2024-05-10 14:30:00' "
+                + "AND (data_cadastro < TIMESTAMP '2024-05-10 14:30:00' OR id < 'abc') "
+                + "ORDER BY data_cadastro DESC, id DESC FETCH FIRST 11 ROWS ONLY");
+
+        // Assert
+        assertTrue(plano.contains("idx_associado_data_cadastro_id"), plano);
+    }
+}
@@ -0,0 +1,92 @@
+package com.cooperativa.sistema.votacao.integration;
+
+import com.cooperativa.sistema.votacao.domain.Pauta;
+import com.cooperativa.sistema.votacao.domain.SessaoVotacao;
+import com.cooperativa.sistema.votacao.dto.PaginaCursorDTO;
+import com.cooperativa.sistema.votacao.dto.SessaoVotacaoDTO;
+import com.cooperativa.sistema.votacao.repository.PautaRepository;
+import com.cooperativa.sistema.votacao.repository.SessaoVotacaoRepository;
+import com.cooperativa.sistema.votacao.service.SessaoVotacaoService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Walking the cursor listing of sessions page by page against the database
+ * Other tests share the database, so the walk is compared with the full listing in the same order.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class PaginacaoCursorIntegrationTest {
+
+    @Autowired
+    private SessaoVotacaoService sessaoService;
+
+    @Autowired
+    private PautaRepository pautaRepository;
+
+    @Autowired
+    private SessaoVotacaoRepository sessaoRepository;
+
+    @Test
+    @DisplayName("Deve percorrer todas as sessões por cursor sem repetir nem pular, inclusive com datas iguais")
+    void percorrerSessoesPorCursor() {
+        // Arrange
+        Pauta pauta = pautaRepository.save(Pauta.builder().titulo("Pauta paginada").build());
+        // Whole seconds, as the database stores them, and two sessions opened at the same time
+        LocalDateTime abertura = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        for (int minutos : new int[] {0, 1, 1, 2, 3}) {
+            sessaoRepository.save(SessaoVotacao.builder()
+                    .pauta(pauta)
+                    .dataAbertura(abertura.minusMinutes(minutos))
+                    .dataFechamento(abertura.plusMinutes(5))
+                    .build());
+        }
+        List<Long> esperado = sessaoRepository.findAll(Sort.by(Sort.Direction.DESC, "dataAbertura", "id"))
+                .stream().map(SessaoVotacao::getId).toList();
+
+        // Act
+        List<SessaoVotacaoDTO> percorrido = new ArrayList<>();
+        int paginas = 0;
+        String cursor = null;
+        do {
+            PaginaCursorDTO<SessaoVotacaoDTO> pagina = sessaoService.listarSessoes(cursor, 2, false);
+            percorrido.addAll(pagina.getConteudo());
+            cursor = pagina.getProximo();
+            paginas++;
+        } while (cursor != null);
+
+        // Assert
+        assertEquals(esperado, percorrido.stream().map(SessaoVotacaoDTO::getId).toList());
+        assertEquals((esperado.size() + 1) / 2, paginas);
+        List<SessaoVotacaoDTO> daPauta = percorrido.stream()
+                .filter(sessao -> pauta.getId().equals(sessao.getPautaId()))
+                .toList();
+        assertEquals(5, daPauta.size());
+        assertTrue(daPauta.stream().allMatch(sessao -> "Pauta paginada".equals(sessao.getTituloPauta())));
+    }
+
+    @Test
+    @DisplayName("Deve incluir o total aproximado apenas quando solicitado")
+    void incluirTotalAproximado() {
+        // Act
+        PaginaCursorDTO<SessaoVotacaoDTO> semTotal = sessaoService.listarSessoes(null, 10, false);
+        PaginaCursorDTO<SessaoVotacaoDTO> comTotal = sessaoService.listarSessoes(null, 10, true);
+
+        // Assert
+        assertNull(semTotal.getTotalAproximado());
+        assertNotNull(comTotal.getTotalAproximado());
+    }
+}
@@ -0,0 +1,81 @@
+package com.cooperativa.sistema.votacao.integration;
+
+import com.cooperativa.sistema.votacao.cache.ContagemVotosRegistry;
+import com.cooperativa.sistema.votacao.domain.OpcaoVoto;
+import com.cooperativa.sistema.votacao.domain.Pauta;
+import com.cooperativa.sistema.votacao.domain.SessaoVotacao;
+import com.cooperativa.sistema.votacao.domain.Voto;
+import com.cooperativa.sistema.votacao.dto.ResultadoVotacaoDTO;
+import com.cooperativa.sistema.votacao.repository.PautaRepository;
+import com.cooperativa.sistema.votacao.repository.SessaoVotacaoRepository;
+import com.cooperativa.sistema.votacao.repository.VotoRepository;
+import com.cooperativa.sistema.votacao.service.SessaoVotacaoService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Partial results of an open session served within their time window, then the final result once closed
+ * Not transactional, so closing the session commits and its partial result is discarded after commit.
+ */
+@SpringBootTest(properties = "votacao.resultados.parciais.janela-ms=60000")
+@ActiveProfiles("test")
+class ResultadosParciaisIntegrationTest {
+
+    @Autowired
+    private SessaoVotacaoService sessaoService;
+
+    @Autowired
+    private ContagemVotosRegistry contagemRegistry;
+
+    @Autowired
+    private PautaRepository pautaRepository;
+
+    @Autowired
+    private SessaoVotacaoRepository sessaoRepository;
+
+    @Autowired
+    private VotoRepository votoRepository;
+
+    @Test
+    @DisplayName("Deve servir o resultado parcial da janela atual e o resultado final após o encerramento")
+    void servirParcialEDepoisFinal() {
+        // Arrange
+        Pauta pauta = pautaRepository.save(Pauta.builder().titulo("Pauta com painel").build());
+        SessaoVotacao sessao = sessaoRepository.save(SessaoVotacao.builder()
+                .pauta(pauta)
+                .dataAbertura(LocalDateTime.now())
+                .dataFechamento(LocalDateTime.now().plusMinutes(5))
+                .build());
+        ResultadoVotacaoDTO antesDoVoto = sessaoService.obterResultado(sessao.getId());
+        votoRepository.save(Voto.builder()
+                .sessaoVotacao(sessao)
+                .idAssociado(UUID.randomUUID().toString())
+                .cpfAssociado("52998224725")
+                .opcao(OpcaoVoto.SIM)
+                .build());
+        contagemRegistry.registrar(sessao.getId(), OpcaoVoto.SIM);
+
+        // Act
+        ResultadoVotacaoDTO mesmaJanela = sessaoService.obterResultado(sessao.getId());
+        sessaoService.encerrarSessao(sessao.getId());
+        ResultadoVotacaoDTO finalizado = sessaoService.obterResultado(sessao.getId());
+        ResultadoVotacaoDTO finalizadoDeNovo = sessaoService.obterResultado(sessao.getId());
+
+        // Assert
+        assertNull(antesDoVoto.getId());
+        assertEquals(0, antesDoVoto.getTotalVotos());
+        assertEquals("Pauta com painel", antesDoVoto.getTituloPauta());
+        assertEquals(antesDoVoto, mesmaJanela);
+        assertNotNull(finalizado.getId());
+        assertEquals(1, finalizado.getTotalVotos());
+        assertEquals(finalizado, finalizadoDeNovo);
+    }
+}
@@ -0,0 +1,116 @@
+package com.cooperativa.sistema.votacao.integration;
+
+import com.cooperativa.sistema.votacao.repository.TravaExecucaoRepository;
+import com.cooperativa.sistema.votacao.scheduler.TravaDistribuida;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Several instances, each with its own TravaDistribuida, competing for leases in the same database
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class TravaDistribuidaIntegrationTest {
+
+    private static final Duration DURACAO = Duration.ofMinutes(1);
+
+    @Autowired
+    private TravaExecucaoRepository repository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private String nome;
+
+    @BeforeEach
+    void setUp() {
+        nome = "teste:" + UUID.randomUUID();
+    }
+
+    private TravaDistribuida instancia(String id) {
+        return new TravaDistribuida(repository, transactionManager, id);
+    }
+
+    @Test
+    @DisplayName("Deve conceder a trava a uma única instância até ser liberada")
+    void adquirirELiberar() {
+        // Arrange
+        TravaDistribuida a = instancia("a");
+        TravaDistribuida b = instancia("b");
+
+        // Act & Assert
+        assertTrue(a.adquirir(nome, DURACAO));
+        assertTrue(a.adquirir(nome, DURACAO), "A dona da trava pode renová-la");
+        assertFalse(b.adquirir(nome, DURACAO));
+
+        b.liberar(nome);
+        assertFalse(b.adquirir(nome, DURACAO), "Só a dona pode liberar a trava");
+
+        a.liberar(nome);
+        assertTrue(b.adquirir(nome, DURACAO));
+        assertFalse(repository.findById(nome).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Deve passar a trava a outra instância quando a dona não a renova")
+    void assumirTravaExpirada() throws InterruptedException {
+        // Arrange: the holder dies without releasing the lease
+        TravaDistribuida a = instancia("a");
+        TravaDistribuida b = instancia("b");
+        assertTrue(a.adquirir(nome, Duration.ofMillis(50)));
+
+        // Act
+        Thread.sleep(100);
+
+        // Assert
+        assertTrue(b.adquirir(nome, DURACAO));
+        assertFalse(a.adquirir(nome, DURACAO));
+        assertEquals("b", repository.findById(nome).orElseThrow().getDono());
+    }
+
+    @Test
+    @DisplayName("Deve conceder a trava a uma única instância quando várias a disputam ao mesmo tempo")
+    void disputaConcorrente() throws Exception {
+        // Arrange
+        int instancias = 8;
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Future<Boolean>> resultados = new ArrayList<>();
+
+        // Act
+        try (ExecutorService executor = Executors.newFixedThreadPool(instancias)) {
+            for (int i = 0; i < instancias; i++) {
+                TravaDistribuida trava = instancia("instancia-" + i);
+                resultados.add(executor.submit(() -> {
+                    largada.await();
+                    return trava.adquirir(nome, DURACAO);
+                }));
+            }
+            largada.countDown();
+        }
+
+        // Assert
+        long vencedoras = 0;
+        for (Future<Boolean> resultado : resultados) {
+            if (resultado.get()) {
+                vencedoras++;
+            }
+        }
+        assertEquals(1, vencedoras);
+    }
+}
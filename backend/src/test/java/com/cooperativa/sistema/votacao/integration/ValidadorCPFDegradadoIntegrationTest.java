@@ -0,0 +1,184 @@
+package com.cooperativa.sistema.votacao.integration;
+
+import com.cooperativa.sistema.votacao.domain.OpcaoVoto;
+import com.cooperativa.sistema.votacao.dto.PautaDTO;
+import com.cooperativa.sistema.votacao.dto.PautaRequest;
+import com.cooperativa.sistema.votacao.dto.SessaoRequest;
+import com.cooperativa.sistema.votacao.dto.SessaoVotacaoDTO;
+import com.cooperativa.sistema.votacao.dto.VotoRequest;
+import com.cooperativa.sistema.votacao.simulador.ValidadorCPFSimulado;
+import com.cooperativa.sistema.votacao.simulador.ValidadorCPFSimulado.Configuracao;
+import com.cooperativa.sistema.votacao.simulador.ValidadorCPFSimulado.Latencia;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Vote path against the stand-in CPF validator, healthy and degraded
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Transactional
+class ValidadorCPFDegradadoIntegrationTest {
+
+    private static final long READ_TIMEOUT_MS = 300;
+
+    private static final ValidadorCPFSimulado SIMULADOR = ValidadorCPFSimulado.iniciar(0, Configuracao.padrao());
+
+    @DynamicPropertySource
+    static void configurarValidador(DynamicPropertyRegistry registry) {
+        registry.add("cpf.validator.url", SIMULADOR::getUrl);
+        registry.add("votacao.cpf.validador.resultados-aleatorios", () -> "false");
+        registry.add("REST_READ_TIMEOUT", () -> String.valueOf(READ_TIMEOUT_MS));
+        // Opens after 2 failures in a window of 4 and stays open for the rest of the test
+        registry.add("votacao.cpf.validador.disjuntor.janela", () -> "4");
+        registry.add("votacao.cpf.validador.disjuntor.minimo-chamadas", () -> "2");
+        registry.add("votacao.cpf.validador.disjuntor.duracao-aberto-ms", () -> "60000");
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final Random random = new Random();
+    private Long sessaoId;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        SIMULADOR.configurar(Configuracao.padrao().comTaxaInaptos(0));
+        sessaoId = abrirSessao();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SIMULADOR.destravar();
+    }
+
+    @AfterAll
+    static void pararSimulador() {
+        SIMULADOR.close();
+    }
+
+    @Test
+    @DisplayName("Deve registrar votos com o validador respondendo com latência de cauda longa")
+    void votarComLatenciaCaudaLonga() throws Exception {
+        // Arrange
+        SIMULADOR.configurar(SIMULADOR.getConfiguracao().comLatencia(new Latencia.CaudaLonga(5, 100)));
+        long chamadasAntes = SIMULADOR.getChamadas();
+
+        // Act & Assert
+        for (int i = 0; i < 5; i++) {
+            votar(gerarCpfValido()).andExpect(status().isCreated());
+        }
+        assertEquals(5, SIMULADOR.getChamadas() - chamadasAntes);
+    }
+
+    @Test
+    @DisplayName("Deve recusar o voto de associados que o validador informa não poderem votar")
+    void recusarAssociadoInapto() throws Exception {
+        // Arrange
+        SIMULADOR.configurar(SIMULADOR.getConfiguracao().comTaxaInaptos(1));
+
+        // Act & Assert
+        votar(gerarCpfValido()).andExpect(status().isForbidden());
+    }
+
+    @Test
+    @DirtiesContext
+    @DisplayName("Deve falhar rápido quando o validador para de responder")
+    void falharRapidoComValidadorTravado() throws Exception {
+        // Arrange: the validator hangs, so each call waits for the whole read timeout
+        SIMULADOR.travar();
+        for (int i = 0; i < 2; i++) {
+            votar(gerarCpfValido()).andExpect(status().is5xxServerError());
+        }
+
+        // Act: the circuit breaker is now open
+        long inicio = System.nanoTime();
+        ResultActions resultado = votar(gerarCpfValido());
+        long duracaoMs = (System.nanoTime() - inicio) / 1_000_000;
+
+        // Assert
+        resultado.andExpect(status().isServiceUnavailable());
+        assertTrue(duracaoMs < READ_TIMEOUT_MS, "Voto levou " + duracaoMs + " ms com o disjuntor aberto");
+    }
+
+    private ResultActions votar(String cpf) throws Exception {
+        VotoRequest request = VotoRequest.builder()
+                .idAssociado(UUID.randomUUID().toString())
+                .cpf(cpf)
+                .opcao(OpcaoVoto.SIM)
+                .build();
+        return mockMvc.perform(post("/api/v1/sessoes/{sessaoId}/votos", sessaoId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)));
+    }
+
+    private Long abrirSessao() throws Exception {
+        PautaRequest pautaRequest = new PautaRequest();
+        pautaRequest.setTitulo("Pauta com validador degradado");
+        pautaRequest.setDescricao("Pauta para testar o voto contra o validador de CPF simulado");
+        String pautaJson = mockMvc.perform(post("/api/v1/pautas")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(pautaRequest)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        Long pautaId = objectMapper.readValue(pautaJson, PautaDTO.class).getId();
+
+        SessaoRequest sessaoRequest = new SessaoRequest();
+        sessaoRequest.setDuracaoMinutos(5);
+        String sessaoJson = mockMvc.perform(post("/api/v1/pautas/{pautaId}/sessoes", pautaId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(sessaoRequest)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readValue(sessaoJson, SessaoVotacaoDTO.class).getId();
+    }
+
+    /**
+     * Random CPF with valid check digits, so it is not rejected before reaching the validator
+     */
+    private String gerarCpfValido() {
+        int[] digitos = new int[11];
+        for (int i = 0; i < 9; i++) {
+            digitos[i] = random.nextInt(10);
+        }
+        for (int posicao = 9; posicao <= 10; posicao++) {
+            int soma = 0;
+            for (int i = 0; i < posicao; i++) {
+                soma += digitos[i] * (posicao + 1 - i);
+            }
+            digitos[posicao] = soma * 10 % 11 % 10;
+        }
+        StringBuilder cpf = new StringBuilder();
+        for (int digito : digitos) {
+            cpf.append(digito);
+        }
+        return cpf.toString();
+    }
+}
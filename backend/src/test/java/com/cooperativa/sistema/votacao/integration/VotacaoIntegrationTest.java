@@ -22,6 +22,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.Random;
+import java.util.concurrent.CompletableFuture;
 
 import static org.hamcrest.Matchers.*;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
@@ -45,6 +46,8 @@ class VotacaoIntegrationTest {
             CPFValidator mockValidator = Mockito.mock(CPFValidator.class);
             // Configura o mock para retornar ABLE_TO_VOTE para qualquer CPF
             when(mockValidator.validarCPF(anyString())).thenReturn(StatusVotacao.ABLE_TO_VOTE);
+            when(mockValidator.validarCPFAsync(anyString()))
+                    .thenReturn(CompletableFuture.completedFuture(StatusVotacao.ABLE_TO_VOTE));
             return mockValidator;
         }
     }
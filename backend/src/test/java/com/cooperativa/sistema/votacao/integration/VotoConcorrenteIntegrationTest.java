@@ -0,0 +1,133 @@
+package com.cooperativa.sistema.votacao.integration;
+
+import com.cooperativa.sistema.votacao.client.CPFValidator;
+import com.cooperativa.sistema.votacao.domain.OpcaoVoto;
+import com.cooperativa.sistema.votacao.domain.Pauta;
+import com.cooperativa.sistema.votacao.domain.SessaoVotacao;
+import com.cooperativa.sistema.votacao.domain.StatusVotacao;
+import com.cooperativa.sistema.votacao.dto.VotoRequest;
+import com.cooperativa.sistema.votacao.repository.PautaRepository;
+import com.cooperativa.sistema.votacao.repository.SessaoVotacaoRepository;
+import com.cooperativa.sistema.votacao.repository.VotoRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Two requests voting for the same associate at the same time
+ * The CPF validation only completes once both requests started, so both usually pass the
+ * duplicate check before either inserts and the second one hits the unique constraint.
+ * Not transactional, so each request commits on its own.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class VotoConcorrenteIntegrationTest {
+
+    private static final CountDownLatch AMBOS_VALIDANDO = new CountDownLatch(2);
+
+    @TestConfiguration
+    static class TestConfig {
+        // O CPF só é considerado apto depois que as duas requisições começaram a validá-lo
+        @Bean
+        @Primary
+        public CPFValidator mockCpfValidator() {
+            CPFValidator mockValidator = Mockito.mock(CPFValidator.class);
+            when(mockValidator.validarCPFAsync(anyString())).thenAnswer(invocation -> {
+                AMBOS_VALIDANDO.countDown();
+                return CompletableFuture.supplyAsync(() -> {
+                    try {
+                        AMBOS_VALIDANDO.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return StatusVotacao.ABLE_TO_VOTE;
+                });
+            });
+            return mockValidator;
+        }
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PautaRepository pautaRepository;
+
+    @Autowired
+    private SessaoVotacaoRepository sessaoRepository;
+
+    @Autowired
+    private VotoRepository votoRepository;
+
+    @Test
+    @DisplayName("Deve aceitar um voto e responder 409 ao voto duplicado concorrente")
+    void votoDuplicadoConcorrente() throws Exception {
+        // Arrange
+        Pauta pauta = pautaRepository.save(Pauta.builder().titulo("Pauta concorrida").build());
+        SessaoVotacao sessao = sessaoRepository.save(SessaoVotacao.builder()
+                .pauta(pauta)
+                .dataAbertura(LocalDateTime.now())
+                .dataFechamento(LocalDateTime.now().plusMinutes(5))
+                .build());
+        String voto = objectMapper.writeValueAsString(
+                new VotoRequest(UUID.randomUUID().toString(), "52998224725", OpcaoVoto.SIM));
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        // Act
+        List<Integer> status;
+        try {
+            List<Future<Integer>> respostas = executor.invokeAll(List.of(
+                    () -> votar(sessao.getId(), voto),
+                    () -> votar(sessao.getId(), voto)));
+            status = respostas.stream().map(resposta -> {
+                try {
+                    return resposta.get();
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            }).sorted().toList();
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Assert
+        assertEquals(List.of(201, 409), status);
+        assertEquals(1, votoRepository.countBySessaoVotacaoId(sessao.getId()));
+    }
+
+    private int votar(Long sessaoId, String voto) throws Exception {
+        return mockMvc.perform(post("/api/v1/sessoes/{sessaoId}/votos", sessaoId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(voto))
+                .andReturn().getResponse().getStatus();
+    }
+}
@@ -0,0 +1,112 @@
+package com.cooperativa.sistema.votacao.integration;
+
+import com.cooperativa.sistema.votacao.client.CPFValidator;
+import com.cooperativa.sistema.votacao.domain.OpcaoVoto;
+import com.cooperativa.sistema.votacao.domain.StatusVotacao;
+import com.cooperativa.sistema.votacao.dto.*;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.hamcrest.Matchers.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = "votacao.ingestao.assincrona.enabled=true")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class VotoIngestaoIntegrationTest {
+
+    @TestConfiguration
+    static class TestConfig {
+        // Sobrescreve o CPFValidator real com um mock para não precisar da API externa
+        @Bean
+        @Primary
+        public CPFValidator mockCpfValidator() {
+            CPFValidator mockValidator = Mockito.mock(CPFValidator.class);
+            when(mockValidator.validarCPF(anyString())).thenReturn(StatusVotacao.ABLE_TO_VOTE);
+            when(mockValidator.validarCPFAsync(anyString()))
+                    .thenReturn(CompletableFuture.completedFuture(StatusVotacao.ABLE_TO_VOTE));
+            return mockValidator;
+        }
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    @DisplayName("Deve aceitar votos assíncronos, gravá-los em lote e considerá-los no resultado")
+    void fluxoVotacaoAssincrona() throws Exception {
+        // Passo 1: Criar uma pauta e abrir uma sessão
+        PautaRequest pautaRequest = new PautaRequest();
+        pautaRequest.setTitulo("Pauta de Votação Assíncrona");
+        pautaRequest.setDescricao("Pauta para teste da ingestão assíncrona de votos");
+
+        MvcResult pautaResult = mockMvc.perform(post("/api/v1/pautas")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(pautaRequest)))
+                .andExpect(status().isCreated())
+                .andReturn();
+        PautaDTO pautaDTO = objectMapper.readValue(pautaResult.getResponse().getContentAsString(), PautaDTO.class);
+
+        SessaoRequest sessaoRequest = new SessaoRequest();
+        sessaoRequest.setDuracaoMinutos(5);
+
+        MvcResult sessaoResult = mockMvc.perform(post("/api/v1/pautas/{pautaId}/sessoes", pautaDTO.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(sessaoRequest)))
+                .andExpect(status().isCreated())
+                .andReturn();
+        SessaoVotacaoDTO sessaoDTO = objectMapper.readValue(sessaoResult.getResponse().getContentAsString(), SessaoVotacaoDTO.class);
+        Long sessaoId = sessaoDTO.getId();
+
+        // Passo 2: Enviar três votos assíncronos
+        String[] associados = new String[3];
+        for (int i = 0; i < associados.length; i++) {
+            associados[i] = UUID.randomUUID().toString();
+            VotoRequest votoRequest = new VotoRequest(associados[i], "12345678909", i == 0 ? OpcaoVoto.NAO : OpcaoVoto.SIM);
+
+            mockMvc.perform(post("/api/v1/sessoes/{sessaoId}/votos/assincrono", sessaoId)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(votoRequest)))
+                    .andExpect(status().isAccepted())
+                    .andExpect(header().string("Location", "/api/v1/sessoes/" + sessaoId + "/votos/" + associados[i]))
+                    .andExpect(jsonPath("$.idAssociado", is(associados[i])));
+        }
+
+        // Passo 3: Encerrar a sessão, que aguarda os votos pendentes antes de apurar
+        mockMvc.perform(put("/api/v1/sessoes/{sessaoId}/encerrar", sessaoId))
+                .andExpect(status().isOk());
+
+        // Passo 4: Confirmar que os votos foram gravados
+        mockMvc.perform(get("/api/v1/sessoes/{sessaoId}/votos/{idAssociado}", sessaoId, associados[0]))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id", notNullValue()))
+                .andExpect(jsonPath("$.opcao", is("NAO")));
+
+        mockMvc.perform(get("/api/v1/sessoes/{sessaoId}/resultado", sessaoId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalVotos", is(3)))
+                .andExpect(jsonPath("$.votosSim", is(2)))
+                .andExpect(jsonPath("$.votosNao", is(1)));
+    }
+}
@@ -0,0 +1,120 @@
+package com.cooperativa.sistema.votacao.integration;
+
+import com.cooperativa.sistema.votacao.client.CPFValidator;
+import com.cooperativa.sistema.votacao.domain.OpcaoVoto;
+import com.cooperativa.sistema.votacao.domain.StatusVotacao;
+import com.cooperativa.sistema.votacao.dto.*;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.hamcrest.Matchers.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class VotoLoteIntegrationTest {
+
+    @TestConfiguration
+    static class TestConfig {
+        // Sobrescreve o CPFValidator real com um mock para não precisar da API externa
+        @Bean
+        @Primary
+        public CPFValidator mockCpfValidator() {
+            CPFValidator mockValidator = Mockito.mock(CPFValidator.class);
+            when(mockValidator.validarCPFAsync(anyString()))
+                    .thenReturn(CompletableFuture.completedFuture(StatusVotacao.ABLE_TO_VOTE));
+            return mockValidator;
+        }
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    @DisplayName("Deve registrar lotes JSON e NDJSON e considerá-los no resultado")
+    void fluxoVotacaoEmLote() throws Exception {
+        // Passo 1: Criar uma pauta e abrir uma sessão
+        PautaRequest pautaRequest = new PautaRequest();
+        pautaRequest.setTitulo("Pauta de Votação em Lote");
+        pautaRequest.setDescricao("Pauta para teste do envio de votos em lote");
+
+        MvcResult pautaResult = mockMvc.perform(post("/api/v1/pautas")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(pautaRequest)))
+                .andExpect(status().isCreated())
+                .andReturn();
+        PautaDTO pautaDTO = objectMapper.readValue(pautaResult.getResponse().getContentAsString(), PautaDTO.class);
+
+        SessaoRequest sessaoRequest = new SessaoRequest();
+        sessaoRequest.setDuracaoMinutos(5);
+
+        MvcResult sessaoResult = mockMvc.perform(post("/api/v1/pautas/{pautaId}/sessoes", pautaDTO.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(sessaoRequest)))
+                .andExpect(status().isCreated())
+                .andReturn();
+        SessaoVotacaoDTO sessaoDTO = objectMapper.readValue(sessaoResult.getResponse().getContentAsString(), SessaoVotacaoDTO.class);
+        Long sessaoId = sessaoDTO.getId();
+
+        // Passo 2: Enviar um lote JSON com um associado repetido
+        String associado1 = UUID.randomUUID().toString();
+        String associado2 = UUID.randomUUID().toString();
+        List<VotoRequest> lote = List.of(
+                new VotoRequest(associado1, "12345678909", OpcaoVoto.SIM),
+                new VotoRequest(associado2, "12345678909", OpcaoVoto.NAO),
+                new VotoRequest(associado1, "12345678909", OpcaoVoto.NAO));
+
+        mockMvc.perform(post("/api/v1/sessoes/{sessaoId}/votos/lote", sessaoId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(lote)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalAceitos", is(2)))
+                .andExpect(jsonPath("$.itens[2].status", is("VOTO_DUPLICADO")));
+
+        // Passo 3: Enviar um lote NDJSON com um associado que já votou
+        String associado3 = UUID.randomUUID().toString();
+        String ndjson = objectMapper.writeValueAsString(new VotoRequest(associado3, "12345678909", OpcaoVoto.SIM)) + "\n"
+                + objectMapper.writeValueAsString(new VotoRequest(associado2, "12345678909", OpcaoVoto.SIM)) + "\n";
+
+        mockMvc.perform(post("/api/v1/sessoes/{sessaoId}/votos/lote", sessaoId)
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .content(ndjson))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalAceitos", is(1)))
+                .andExpect(jsonPath("$.itens[0].status", is("ACEITO")))
+                .andExpect(jsonPath("$.itens[1].status", is("VOTO_DUPLICADO")));
+
+        // Passo 4: Encerrar a sessão e conferir o resultado
+        mockMvc.perform(put("/api/v1/sessoes/{sessaoId}/encerrar", sessaoId))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/v1/sessoes/{sessaoId}/resultado", sessaoId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalVotos", is(3)))
+                .andExpect(jsonPath("$.votosSim", is(2)))
+                .andExpect(jsonPath("$.votosNao", is(1)));
+    }
+}
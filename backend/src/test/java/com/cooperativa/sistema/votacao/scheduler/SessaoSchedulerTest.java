@@ -0,0 +1,220 @@
+package com.cooperativa.sistema.votacao.scheduler;
+
+import com.cooperativa.sistema.votacao.domain.SessaoVotacao;
+import com.cooperativa.sistema.votacao.repository.SessaoVotacaoRepository;
+import com.cooperativa.sistema.votacao.service.SessaoVotacaoService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SessaoSchedulerTest {
+
+    @Mock
+    private SessaoVotacaoService sessaoVotacaoService;
+
+    @Mock
+    private SessaoVotacaoRepository sessaoVotacaoRepository;
+
+    @Mock
+    private TravaDistribuida trava;
+
+    private SessaoScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(trava.adquirir(anyString(), any(Duration.class))).thenReturn(true);
+        scheduler = new SessaoScheduler(sessaoVotacaoService, sessaoVotacaoRepository, trava,
+                new SimpleMeterRegistry(), 60_000, 300_000);
+        scheduler.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        scheduler.stop();
+    }
+
+    private SessaoVotacao sessao(Long id, LocalDateTime dataFechamento) {
+        return SessaoVotacao.builder()
+                .id(id)
+                .dataAbertura(dataFechamento.minusMinutes(1))
+                .dataFechamento(dataFechamento)
+                .encerrada(false)
+                .build();
+    }
+
+    @Test
+    @DisplayName("Deve encerrar a sessão no seu horário de fechamento")
+    void encerrarNoHorarioDeFechamento() {
+        // Arrange
+        scheduler.agendarFechamento(sessao(1L, LocalDateTime.now().plusNanos(200_000_000)));
+
+        // Act & Assert
+        verify(sessaoVotacaoService, after(100).never()).encerrarSessoes(List.of(1L));
+        verify(sessaoVotacaoService, timeout(1000)).encerrarSessoes(List.of(1L));
+        assertEquals(0, scheduler.getFechamentosAgendados());
+    }
+
+    @Test
+    @DisplayName("Deve encerrar as sessões na ordem dos horários de fechamento")
+    void encerrarEmOrdem() {
+        // Arrange
+        LocalDateTime agora = LocalDateTime.now();
+        scheduler.agendarFechamento(sessao(2L, agora.plusNanos(150_000_000)));
+        scheduler.agendarFechamento(sessao(1L, agora.plusNanos(50_000_000)));
+
+        // Act & Assert
+        verify(sessaoVotacaoService, timeout(1000)).encerrarSessoes(List.of(1L));
+        verify(sessaoVotacaoService, never()).encerrarSessoes(List.of(2L));
+        verify(sessaoVotacaoService, timeout(1000)).encerrarSessoes(List.of(2L));
+    }
+
+    @Test
+    @DisplayName("Não deve encerrar sessões com fechamento cancelado")
+    void naoEncerrarSessaoCancelada() {
+        // Arrange
+        scheduler.agendarFechamento(sessao(1L, LocalDateTime.now().plusNanos(100_000_000)));
+
+        // Act
+        scheduler.cancelarFechamento(1L);
+
+        // Assert
+        verify(sessaoVotacaoService, after(300).never()).encerrarSessoes(anyCollection());
+        assertEquals(0, scheduler.getFechamentosAgendados());
+    }
+
+    @Test
+    @DisplayName("Deve substituir o fechamento de uma sessão agendada novamente")
+    void substituirFechamento() {
+        // Arrange
+        LocalDateTime agora = LocalDateTime.now();
+        scheduler.agendarFechamento(sessao(1L, agora.plusNanos(50_000_000)));
+
+        // Act
+        scheduler.agendarFechamento(sessao(1L, agora.plusMinutes(10)));
+
+        // Assert
+        verify(sessaoVotacaoService, after(300).never()).encerrarSessoes(anyCollection());
+        assertEquals(1, scheduler.getFechamentosAgendados());
+    }
+
+    @Test
+    @DisplayName("Deve reagendar as sessões abertas na inicialização e encerrar as já vencidas")
+    void carregarSessoesAbertas() {
+        // Arrange
+        LocalDateTime agora = LocalDateTime.now();
+        when(sessaoVotacaoRepository.findByEncerradaFalse()).thenReturn(List.of(
+                sessao(1L, agora.minusSeconds(30)),
+                sessao(2L, agora.plusMinutes(10))));
+
+        // Act
+        scheduler.carregarSessoesAbertas();
+
+        // Assert
+        verify(sessaoVotacaoService, timeout(1000)).encerrarSessoes(List.of(1L));
+        verify(sessaoVotacaoService, never()).encerrarSessoes(List.of(2L));
+        assertEquals(1, scheduler.getFechamentosAgendados());
+    }
+
+    @Test
+    @DisplayName("Deve continuar agendando quando o encerramento de uma sessão falha")
+    void continuarAposFalha() {
+        // Arrange
+        doThrow(new IllegalStateException("falha")).when(sessaoVotacaoService).encerrarSessoes(List.of(1L));
+        LocalDateTime agora = LocalDateTime.now();
+        scheduler.agendarFechamento(sessao(1L, agora));
+        scheduler.agendarFechamento(sessao(2L, agora.plusNanos(50_000_000)));
+
+        // Act & Assert
+        verify(sessaoVotacaoService, timeout(1000)).encerrarSessoes(List.of(1L));
+        verify(sessaoVotacaoService, timeout(1000)).encerrarSessoes(List.of(2L));
+    }
+
+    @Test
+    @DisplayName("Deve liberar a trava da sessão depois de encerrá-la")
+    void liberarTravaAposEncerrar() {
+        // Arrange
+        scheduler.agendarFechamento(sessao(1L, LocalDateTime.now()));
+
+        // Act & Assert
+        verify(trava, timeout(1000)).liberar(SessaoScheduler.travaFechamento(1L));
+        verify(sessaoVotacaoService).encerrarSessoes(List.of(1L));
+    }
+
+    @Test
+    @DisplayName("Não deve encerrar a sessão quando outra instância detém a trava")
+    void naoEncerrarSemTrava() {
+        // Arrange
+        when(trava.adquirir(eq(SessaoScheduler.travaFechamento(1L)), any(Duration.class))).thenReturn(false);
+
+        // Act
+        scheduler.agendarFechamento(sessao(1L, LocalDateTime.now()));
+
+        // Assert
+        verify(trava, timeout(1000)).adquirir(eq(SessaoScheduler.travaFechamento(1L)), any(Duration.class));
+        verify(sessaoVotacaoService, after(100).never()).encerrarSessoes(anyCollection());
+        verify(trava, never()).liberar(anyString());
+    }
+
+    @Test
+    @DisplayName("Deve verificar sessões expiradas apenas na instância que detém a trava")
+    void verificarApenasComTrava() {
+        // Arrange
+        when(trava.adquirir(eq(SessaoScheduler.TRAVA_VERIFICACAO), any(Duration.class))).thenReturn(false, true);
+        when(sessaoVotacaoRepository.findByEncerradaFalseAndDataFechamentoBefore(any(LocalDateTime.class)))
+                .thenReturn(List.of(sessao(1L, LocalDateTime.now().minusSeconds(1))));
+
+        // Act & Assert
+        scheduler.verificarSessoesExpiradas();
+        verifyNoInteractions(sessaoVotacaoRepository, sessaoVotacaoService);
+
+        scheduler.verificarSessoesExpiradas();
+        verify(sessaoVotacaoService).encerrarSessoes(List.of(1L));
+    }
+
+    @Test
+    @DisplayName("Deve encerrar juntas as sessões que vencem ao mesmo tempo")
+    void encerrarSessoesVencidasJuntas() {
+        // Arrange
+        LocalDateTime fechamento = LocalDateTime.now().plusNanos(100_000_000);
+        scheduler.agendarFechamento(sessao(1L, fechamento));
+        scheduler.agendarFechamento(sessao(2L, fechamento));
+        scheduler.agendarFechamento(sessao(3L, fechamento));
+
+        // Act & Assert
+        verify(sessaoVotacaoService, timeout(1000)).encerrarSessoes(
+                argThat(ids -> ids.size() == 3 && ids.containsAll(List.of(1L, 2L, 3L))));
+        verifyNoMoreInteractions(sessaoVotacaoService);
+    }
+
+    @Test
+    @DisplayName("Deve encerrar em lote apenas as sessões cuja trava foi adquirida")
+    void encerrarApenasSessoesTravadas() {
+        // Arrange
+        when(trava.adquirir(eq(SessaoScheduler.travaFechamento(2L)), any(Duration.class))).thenReturn(false);
+        when(sessaoVotacaoRepository.findByEncerradaFalseAndDataFechamentoBefore(any(LocalDateTime.class)))
+                .thenReturn(List.of(
+                        sessao(1L, LocalDateTime.now().minusSeconds(1)),
+                        sessao(2L, LocalDateTime.now().minusSeconds(1))));
+
+        // Act
+        scheduler.verificarSessoesExpiradas();
+
+        // Assert
+        verify(sessaoVotacaoService).encerrarSessoes(List.of(1L));
+        verify(trava).liberar(SessaoScheduler.travaFechamento(1L));
+        verify(trava, never()).liberar(SessaoScheduler.travaFechamento(2L));
+    }
+}
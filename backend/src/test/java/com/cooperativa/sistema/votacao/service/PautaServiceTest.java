@@ -1,8 +1,11 @@
 package com.cooperativa.sistema.votacao.service;
 
+import com.cooperativa.sistema.votacao.cache.TotaisAproximadosCache;
 import com.cooperativa.sistema.votacao.domain.Pauta;
+import com.cooperativa.sistema.votacao.dto.PaginaCursorDTO;
 import com.cooperativa.sistema.votacao.dto.PautaDTO;
 import com.cooperativa.sistema.votacao.dto.PautaRequest;
+import com.cooperativa.sistema.votacao.exception.PaginacaoInvalidaException;
 import com.cooperativa.sistema.votacao.exception.ResourceNotFoundException;
 import com.cooperativa.sistema.votacao.mapper.PautaMapper;
 import com.cooperativa.sistema.votacao.repository.PautaRepository;
@@ -13,6 +16,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
@@ -22,10 +26,12 @@ import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.LongSupplier;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -37,6 +43,9 @@ class PautaServiceTest {
     @Mock
     private PautaMapper pautaMapper;
 
+    @Mock
+    private TotaisAproximadosCache totaisAproximados;
+
     @InjectMocks
     private PautaService pautaService;
 
@@ -129,6 +138,74 @@ class PautaServiceTest {
         verify(pautaMapper, times(2)).toDto(any(Pauta.class));
     }
 
+    @Test
+    @DisplayName("Deve listar a primeira página por cursor sem contar as pautas")
+    void listarPautasPorCursor() {
+        // Arrange
+        LocalDateTime criacao = LocalDateTime.of(2024, 5, 10, 14, 30, 15, 123456000);
+        Pauta segunda = Pauta.builder().id(2L).titulo("Outra Pauta").dataCriacao(criacao).build();
+        Pauta terceira = Pauta.builder().id(3L).titulo("Mais uma Pauta").dataCriacao(criacao).build();
+        when(pautaRepository.findPrimeiraPagina(Limit.of(3))).thenReturn(List.of(pauta, segunda, terceira));
+        when(pautaMapper.toDto(any(Pauta.class))).thenReturn(pautaDTO);
+
+        // Act
+        PaginaCursorDTO<PautaDTO> result = pautaService.listarPautas(null, 2, false);
+
+        // Assert
+        assertEquals(2, result.getConteudo().size());
+        assertNotNull(result.getProximo());
+        assertNull(result.getTotalAproximado());
+        verify(pautaMapper, times(2)).toDto(any(Pauta.class));
+        verify(pautaRepository, never()).count();
+        verifyNoInteractions(totaisAproximados);
+    }
+
+    @Test
+    @DisplayName("Deve continuar a listagem após a última pauta da página anterior")
+    void listarPaginaSeguintePorCursor() {
+        // Arrange
+        LocalDateTime criacao = LocalDateTime.of(2024, 5, 10, 14, 30, 15, 123456000);
+        Pauta ultimaDaPagina = Pauta.builder().id(2L).titulo("Outra Pauta").dataCriacao(criacao).build();
+        when(pautaRepository.findPrimeiraPagina(Limit.of(2))).thenReturn(List.of(ultimaDaPagina, pauta));
+        when(pautaMapper.toDto(any(Pauta.class))).thenReturn(pautaDTO);
+        String proximo = pautaService.listarPautas(null, 1, false).getProximo();
+        when(pautaRepository.findPaginaApos(criacao, 2L, Limit.of(2))).thenReturn(List.of(pauta));
+
+        // Act
+        PaginaCursorDTO<PautaDTO> result = pautaService.listarPautas(proximo, 1, false);
+
+        // Assert
+        assertEquals(List.of(pautaDTO), result.getConteudo());
+        assertNull(result.getProximo());
+        verify(pautaRepository).findPaginaApos(criacao, 2L, Limit.of(2));
+    }
+
+    @Test
+    @DisplayName("Deve incluir o total aproximado quando solicitado")
+    void listarPautasComTotalAproximado() {
+        // Arrange
+        when(pautaRepository.findPrimeiraPagina(Limit.of(11))).thenReturn(List.of(pauta));
+        when(pautaMapper.toDto(pauta)).thenReturn(pautaDTO);
+        when(totaisAproximados.obter(eq("pautas"), any(LongSupplier.class))).thenReturn(42L);
+
+        // Act
+        PaginaCursorDTO<PautaDTO> result = pautaService.listarPautas(null, 10, true);
+
+        // Assert
+        assertEquals(42L, result.getTotalAproximado());
+        assertNull(result.getProximo());
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar cursor inválido ou tamanho de página fora do limite")
+    void rejeitarPaginacaoInvalida() {
+        // Act & Assert
+        assertThrows(PaginacaoInvalidaException.class, () -> pautaService.listarPautas("nao-e-um-cursor", 10, false));
+        assertThrows(PaginacaoInvalidaException.class, () -> pautaService.listarPautas(null, 0, false));
+        assertThrows(PaginacaoInvalidaException.class, () -> pautaService.listarPautas(null, 1001, false));
+        verifyNoInteractions(pautaRepository);
+    }
+
     @Test
     @DisplayName("Deve obter uma pauta específica pelo ID")
     void obterPauta() {
@@ -0,0 +1,268 @@
+package com.cooperativa.sistema.votacao.service;
+
+import com.cooperativa.sistema.votacao.cache.ContagemVotosRegistry;
+import com.cooperativa.sistema.votacao.cache.FiltroVotosRegistry;
+import com.cooperativa.sistema.votacao.cache.VotosPendentesRegistry;
+import com.cooperativa.sistema.votacao.domain.OpcaoVoto;
+import com.cooperativa.sistema.votacao.domain.SessaoVotacao;
+import com.cooperativa.sistema.votacao.domain.Voto;
+import com.cooperativa.sistema.votacao.dto.ReciboVotoDTO;
+import com.cooperativa.sistema.votacao.dto.VotoRequest;
+import com.cooperativa.sistema.votacao.exception.FilaVotosCheiaException;
+import com.cooperativa.sistema.votacao.exception.SessaoEncerradaException;
+import com.cooperativa.sistema.votacao.exception.VotoJaRealizadoException;
+import com.cooperativa.sistema.votacao.mapper.VotoMapper;
+import com.cooperativa.sistema.votacao.repository.VotoLoteRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.boot.web.context.WebServerGracefulShutdownLifecycle;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class VotoIngestaoServiceTest {
+
+    @Mock
+    private VotoService votoService;
+
+    @Mock
+    private VotoMapper votoMapper;
+
+    @Mock
+    private VotoLoteRepository votoLoteRepository;
+
+    @Mock
+    private ContagemVotosRegistry contagemRegistry;
+
+    @Mock
+    private FiltroVotosRegistry filtroVotos;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private VotosPendentesRegistry votosPendentes;
+
+    private VotoIngestaoService ingestaoService;
+
+    private SessaoVotacao sessao;
+
+    @BeforeEach
+    void setUp() {
+        sessao = SessaoVotacao.builder().id(1L).encerrada(false).build();
+        votosPendentes = new VotosPendentesRegistry();
+        ingestaoService = criarServico(10);
+
+        when(votoService.validarVoto(eq(1L), any(VotoRequest.class))).thenReturn(sessao);
+        when(votoMapper.toEntity(any(VotoRequest.class), eq(sessao))).thenAnswer(invocation -> {
+            VotoRequest request = invocation.getArgument(0);
+            return Voto.builder()
+                    .idAssociado(request.getIdAssociado())
+                    .cpfAssociado(request.getCpf())
+                    .opcao(request.getOpcao())
+                    .sessaoVotacao(sessao)
+                    .build();
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (ingestaoService.isRunning()) {
+            ingestaoService.stop();
+        }
+    }
+
+    private VotoIngestaoService criarServico(int capacidadeFila) {
+        return new VotoIngestaoService(votoService, votoMapper, votoLoteRepository, contagemRegistry, filtroVotos,
+                votosPendentes, new TransactionTemplate(transactionManager), capacidadeFila, 100, 5);
+    }
+
+    /**
+     * Hold the writer inside its first batch write until the returned latch is released
+     */
+    private CountDownLatch bloquearGravador() throws InterruptedException {
+        CountDownLatch gravando = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            gravando.countDown();
+            liberar.await(5, TimeUnit.SECONDS);
+            return null;
+        }).doNothing().when(votoLoteRepository).inserirLote(anyList());
+        ingestaoService.start();
+        ingestaoService.enfileirar(1L, request("0", OpcaoVoto.SIM));
+        assertTrue(gravando.await(5, TimeUnit.SECONDS));
+        return liberar;
+    }
+
+    private VotoRequest request(String idAssociado, OpcaoVoto opcao) {
+        return VotoRequest.builder().idAssociado(idAssociado).cpf("12345678909").opcao(opcao).build();
+    }
+
+    @Test
+    @DisplayName("Deve enfileirar o voto e gravá-lo em lote")
+    void enfileirarEGravar() throws InterruptedException {
+        // Arrange
+        CountDownLatch liberar = bloquearGravador();
+
+        // Act
+        ReciboVotoDTO recibo = ingestaoService.enfileirar(1L, request("1", OpcaoVoto.SIM));
+        ingestaoService.enfileirar(1L, request("2", OpcaoVoto.NAO));
+        liberar.countDown();
+
+        // Assert
+        assertEquals(1L, recibo.getSessaoId());
+        assertEquals("1", recibo.getIdAssociado());
+        assertNotNull(recibo.getDataHoraVoto());
+        assertEquals("/api/v1/sessoes/1/votos/1", recibo.getUrlConfirmacao());
+
+        assertTrue(votosPendentes.aguardar(1L, Duration.ofSeconds(5)));
+        verify(votoLoteRepository).inserirLote(argThat(lote -> lote.size() == 2));
+        verify(votoLoteRepository, never()).inserir(any(Voto.class));
+        // Besides the vote the writer was holding
+        verify(contagemRegistry, times(2)).registrar(1L, OpcaoVoto.SIM);
+        verify(contagemRegistry).registrar(1L, OpcaoVoto.NAO);
+        verify(filtroVotos).registrar(1L, "1");
+        verify(filtroVotos).registrar(1L, "2");
+    }
+
+    @Test
+    @DisplayName("Deve recusar um segundo voto do mesmo associado ainda pendente na fila")
+    void enfileirarVotoPendenteDuplicado() throws InterruptedException {
+        // Arrange
+        CountDownLatch liberar = bloquearGravador();
+        ingestaoService.enfileirar(1L, request("1", OpcaoVoto.SIM));
+
+        // Act & Assert
+        assertThrows(VotoJaRealizadoException.class,
+                () -> ingestaoService.enfileirar(1L, request("1", OpcaoVoto.NAO)));
+
+        // Only the queued vote stays pending
+        liberar.countDown();
+        assertTrue(votosPendentes.aguardar(1L, Duration.ofSeconds(5)));
+        verify(votoLoteRepository).inserirLote(argThat(lote -> lote.size() == 1 && lote.get(0).getIdAssociado().equals("1")));
+    }
+
+    @Test
+    @DisplayName("Deve contar o voto como pendente já durante a verificação da sessão")
+    void enfileirarPendenteDuranteValidacao() {
+        // Arrange
+        int[] pendentesDuranteValidacao = new int[1];
+        when(votoService.validarVoto(eq(1L), any(VotoRequest.class))).thenAnswer(invocation -> {
+            pendentesDuranteValidacao[0] = votosPendentes.pendentes(1L);
+            return sessao;
+        });
+        ingestaoService.start();
+
+        // Act
+        ingestaoService.enfileirar(1L, request("1", OpcaoVoto.SIM));
+
+        // Assert
+        assertEquals(1, pendentesDuranteValidacao[0]);
+        assertTrue(votosPendentes.aguardar(1L, Duration.ofSeconds(5)));
+    }
+
+    @Test
+    @DisplayName("Deve recusar o voto quando a fila estiver cheia")
+    void enfileirarFilaCheia() throws InterruptedException {
+        // Arrange: the writer holds one vote and the queue holds another
+        ingestaoService = criarServico(1);
+        CountDownLatch liberar = bloquearGravador();
+        ingestaoService.enfileirar(1L, request("1", OpcaoVoto.SIM));
+
+        // Act & Assert
+        assertThrows(FilaVotosCheiaException.class,
+                () -> ingestaoService.enfileirar(1L, request("2", OpcaoVoto.SIM)));
+
+        // The refused vote must not stay marked as pending
+        liberar.countDown();
+        assertTrue(votosPendentes.aguardar(1L, Duration.ofSeconds(5)));
+    }
+
+    @Test
+    @DisplayName("Não deve enfileirar voto que falhou na validação")
+    void enfileirarVotoInvalido() {
+        // Arrange
+        when(votoService.validarVoto(eq(2L), any(VotoRequest.class)))
+                .thenThrow(new SessaoEncerradaException("Sessão de votação não está aberta"));
+        ingestaoService.start();
+
+        // Act & Assert
+        assertThrows(SessaoEncerradaException.class,
+                () -> ingestaoService.enfileirar(2L, request("1", OpcaoVoto.SIM)));
+        assertEquals(0, votosPendentes.pendentes(2L));
+    }
+
+    @Test
+    @DisplayName("Deve gravar individualmente quando o lote violar a restrição de unicidade")
+    void gravarLoteComDuplicado() {
+        // Arrange
+        doThrow(new DataIntegrityViolationException("duplicado")).when(votoLoteRepository).inserirLote(anyList());
+        doThrow(new DataIntegrityViolationException("duplicado")).when(votoLoteRepository)
+                .inserir(argThat(voto -> voto.getIdAssociado().equals("2")));
+        ingestaoService.start();
+
+        // Act
+        ingestaoService.enfileirar(1L, request("1", OpcaoVoto.SIM));
+        ingestaoService.enfileirar(1L, request("2", OpcaoVoto.NAO));
+
+        // Assert
+        assertTrue(votosPendentes.aguardar(1L, Duration.ofSeconds(5)));
+        verify(votoLoteRepository, times(2)).inserir(any(Voto.class));
+        verify(contagemRegistry).registrar(1L, OpcaoVoto.SIM);
+        verify(contagemRegistry, never()).registrar(1L, OpcaoVoto.NAO);
+    }
+
+    @Test
+    @DisplayName("Deve gravar os votos restantes da fila ao parar")
+    void pararDescarregaFila() {
+        // Arrange
+        ingestaoService.start();
+
+        // Act
+        ingestaoService.enfileirar(1L, request("1", OpcaoVoto.SIM));
+        ingestaoService.stop();
+
+        // Assert
+        assertFalse(ingestaoService.isRunning());
+        verify(votoLoteRepository).inserirLote(argThat(lote -> lote.size() == 1));
+    }
+
+    @Test
+    @DisplayName("Deve recusar o voto depois que a ingestão parou")
+    void enfileirarAposParar() {
+        // Arrange
+        ingestaoService.start();
+        ingestaoService.stop();
+
+        // Act & Assert
+        assertThrows(FilaVotosCheiaException.class,
+                () -> ingestaoService.enfileirar(1L, request("1", OpcaoVoto.SIM)));
+        verify(votoService, never()).validarVoto(any(), any());
+        assertEquals(0, votosPendentes.pendentes(1L));
+    }
+
+    @Test
+    @DisplayName("Deve parar somente depois do servidor web")
+    void pararDepoisDoServidorWeb() {
+        // Assert: higher phases stop first
+        assertTrue(ingestaoService.getPhase() < WebServerGracefulShutdownLifecycle.SMART_LIFECYCLE_PHASE - 1024);
+    }
+}
@@ -0,0 +1,359 @@
+package com.cooperativa.sistema.votacao.service;
+
+import com.cooperativa.sistema.votacao.cache.ContagemVotosRegistry;
+import com.cooperativa.sistema.votacao.cache.FiltroVotosRegistry;
+import com.cooperativa.sistema.votacao.cache.JanelaSessaoRegistry;
+import com.cooperativa.sistema.votacao.cache.JanelaSessaoRegistry.JanelaSessao;
+import com.cooperativa.sistema.votacao.cache.VotosPendentesRegistry;
+import com.cooperativa.sistema.votacao.client.CPFValidator;
+import com.cooperativa.sistema.votacao.domain.OpcaoVoto;
+import com.cooperativa.sistema.votacao.domain.SessaoVotacao;
+import com.cooperativa.sistema.votacao.domain.StatusVotacao;
+import com.cooperativa.sistema.votacao.domain.StatusVotoLote;
+import com.cooperativa.sistema.votacao.domain.Voto;
+import com.cooperativa.sistema.votacao.dto.ItemLoteVotoDTO;
+import com.cooperativa.sistema.votacao.dto.ResultadoLoteVotosDTO;
+import com.cooperativa.sistema.votacao.dto.VotoRequest;
+import com.cooperativa.sistema.votacao.exception.AssociadoNaoPodeVotarException;
+import com.cooperativa.sistema.votacao.exception.CPFInvalidoException;
+import com.cooperativa.sistema.votacao.exception.LoteVotosInvalidoException;
+import com.cooperativa.sistema.votacao.exception.SessaoEncerradaException;
+import com.cooperativa.sistema.votacao.mapper.VotoMapper;
+import com.cooperativa.sistema.votacao.repository.SessaoVotacaoRepository;
+import com.cooperativa.sistema.votacao.repository.VotoLoteRepository;
+import com.cooperativa.sistema.votacao.repository.VotoRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class VotoLoteServiceTest {
+
+    @Mock
+    private JanelaSessaoRegistry janelaSessoes;
+
+    @Mock
+    private FiltroVotosRegistry filtroVotos;
+
+    @Mock
+    private ContagemVotosRegistry contagemRegistry;
+
+    @Mock
+    private VotoRepository votoRepository;
+
+    @Mock
+    private SessaoVotacaoRepository sessaoRepository;
+
+    @Mock
+    private VotoLoteRepository votoLoteRepository;
+
+    @Mock
+    private CPFValidator cpfValidator;
+
+    @Mock
+    private VotoMapper votoMapper;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private VotosPendentesRegistry votosPendentes;
+
+    private VotoLoteService votoLoteService;
+
+    private SessaoVotacao sessao;
+
+    @BeforeEach
+    void setUp() {
+        votosPendentes = new VotosPendentesRegistry();
+        votoLoteService = criarServico(100);
+
+        LocalDateTime agora = LocalDateTime.now();
+        sessao = SessaoVotacao.builder().id(1L).encerrada(false).build();
+        when(janelaSessoes.obter(1L)).thenReturn(new JanelaSessao(1L, agora.minusMinutes(1), agora.plusMinutes(5), false));
+        when(sessaoRepository.getReferenceById(1L)).thenReturn(sessao);
+        when(filtroVotos.possivelmenteVotou(anyLong(), anyString())).thenReturn(false);
+        when(cpfValidator.validarCPFAsync(anyString())).thenReturn(CompletableFuture.completedFuture(StatusVotacao.ABLE_TO_VOTE));
+        when(votoMapper.toEntity(any(VotoRequest.class), eq(sessao))).thenAnswer(invocation -> {
+            VotoRequest request = invocation.getArgument(0);
+            return Voto.builder()
+                    .idAssociado(request.getIdAssociado())
+                    .cpfAssociado(request.getCpf())
+                    .opcao(request.getOpcao())
+                    .sessaoVotacao(sessao)
+                    .build();
+        });
+    }
+
+    private VotoLoteService criarServico(int tamanhoMaximo) {
+        return new VotoLoteService(janelaSessoes, votosPendentes, filtroVotos, contagemRegistry, votoRepository,
+                sessaoRepository, votoLoteRepository, cpfValidator, votoMapper,
+                Validation.buildDefaultValidatorFactory().getValidator(), new ObjectMapper(),
+                new TransactionTemplate(transactionManager), tamanhoMaximo, 2);
+    }
+
+    private VotoRequest request(String idAssociado, String cpf, OpcaoVoto opcao) {
+        return VotoRequest.builder().idAssociado(idAssociado).cpf(cpf).opcao(opcao).build();
+    }
+
+    private StatusVotoLote status(ResultadoLoteVotosDTO resultado, int indice) {
+        ItemLoteVotoDTO item = resultado.getItens().get(indice);
+        assertEquals(indice, item.getIndice());
+        return item.getStatus();
+    }
+
+    @Test
+    @DisplayName("Deve gravar todos os votos válidos em um único lote")
+    void registrarLote() {
+        // Act
+        ResultadoLoteVotosDTO resultado = votoLoteService.registrarLote(1L, List.of(
+                request("1", "12345678909", OpcaoVoto.SIM),
+                request("2", "12345678909", OpcaoVoto.NAO)));
+
+        // Assert
+        assertEquals(2, resultado.getTotalRecebidos());
+        assertEquals(2, resultado.getTotalAceitos());
+        assertEquals(0, resultado.getTotalRejeitados());
+        assertEquals(StatusVotoLote.ACEITO, status(resultado, 0));
+        assertEquals(StatusVotoLote.ACEITO, status(resultado, 1));
+
+        verify(votoLoteRepository).inserirLote(argThat(votos -> votos.size() == 2));
+        verify(votoRepository, never()).findIdAssociadoBySessaoVotacaoIdAndIdAssociadoIn(anyLong(), anyCollection());
+        verify(contagemRegistry).registrar(1L, OpcaoVoto.SIM);
+        verify(contagemRegistry).registrar(1L, OpcaoVoto.NAO);
+        verify(filtroVotos).registrar(1L, "1");
+        verify(filtroVotos).registrar(1L, "2");
+    }
+
+    @Test
+    @DisplayName("Deve informar o motivo da rejeição de cada voto")
+    void registrarLoteComRejeicoes() {
+        // Arrange
+        when(filtroVotos.possivelmenteVotou(1L, "3")).thenReturn(true);
+        when(filtroVotos.possivelmenteVotou(1L, "4")).thenReturn(true);
+        when(votoRepository.findIdAssociadoBySessaoVotacaoIdAndIdAssociadoIn(eq(1L), anyCollection()))
+                .thenReturn(List.of("3"));
+        when(cpfValidator.validarCPFAsync("00000000000"))
+                .thenReturn(CompletableFuture.failedFuture(new CPFInvalidoException("CPF inválido")));
+        when(cpfValidator.validarCPFAsync("11111111111"))
+                .thenThrow(new AssociadoNaoPodeVotarException("Associado não pode votar"));
+
+        // Act
+        ResultadoLoteVotosDTO resultado = votoLoteService.registrarLote(1L, List.of(
+                request("1", "12345678909", OpcaoVoto.SIM),
+                request("1", "12345678909", OpcaoVoto.NAO),
+                request("2", "123", OpcaoVoto.SIM),
+                request("3", "12345678909", OpcaoVoto.SIM),
+                request("4", "12345678909", OpcaoVoto.NAO),
+                request("5", "00000000000", OpcaoVoto.SIM),
+                request("6", "11111111111", OpcaoVoto.SIM)));
+
+        // Assert
+        assertEquals(7, resultado.getTotalRecebidos());
+        assertEquals(2, resultado.getTotalAceitos());
+        assertEquals(5, resultado.getTotalRejeitados());
+        assertEquals(StatusVotoLote.ACEITO, status(resultado, 0));
+        assertEquals(StatusVotoLote.VOTO_DUPLICADO, status(resultado, 1));
+        assertEquals(StatusVotoLote.REQUISICAO_INVALIDA, status(resultado, 2));
+        assertEquals(StatusVotoLote.VOTO_DUPLICADO, status(resultado, 3));
+        assertEquals(StatusVotoLote.ACEITO, status(resultado, 4));
+        assertEquals(StatusVotoLote.CPF_INVALIDO, status(resultado, 5));
+        assertEquals(StatusVotoLote.ASSOCIADO_NAO_PODE_VOTAR, status(resultado, 6));
+
+        // Only the associates the Bloom filter could not rule out are queried
+        verify(votoRepository).findIdAssociadoBySessaoVotacaoIdAndIdAssociadoIn(1L, List.of("3", "4"));
+        verify(votoLoteRepository).inserirLote(argThat(votos -> votos.size() == 2));
+        assertEquals(0, votosPendentes.pendentes(1L));
+    }
+
+    @Test
+    @DisplayName("Deve gravar individualmente quando o lote violar a restrição de unicidade")
+    void registrarLoteComConflito() {
+        // Arrange
+        doThrow(new DataIntegrityViolationException("duplicado")).when(votoLoteRepository).inserirLote(anyList());
+        doThrow(new DataIntegrityViolationException("duplicado")).when(votoLoteRepository)
+                .inserir(argThat(voto -> voto.getIdAssociado().equals("2")));
+
+        // Act
+        ResultadoLoteVotosDTO resultado = votoLoteService.registrarLote(1L, List.of(
+                request("1", "12345678909", OpcaoVoto.SIM),
+                request("2", "12345678909", OpcaoVoto.NAO)));
+
+        // Assert
+        assertEquals(StatusVotoLote.ACEITO, status(resultado, 0));
+        assertEquals(StatusVotoLote.VOTO_DUPLICADO, status(resultado, 1));
+        verify(votoLoteRepository, times(2)).inserir(any(Voto.class));
+        verify(contagemRegistry).registrar(1L, OpcaoVoto.SIM);
+        verify(contagemRegistry, never()).registrar(1L, OpcaoVoto.NAO);
+    }
+
+    @Test
+    @DisplayName("Deve recusar o lote inteiro quando a sessão não estiver aberta")
+    void registrarLoteSessaoEncerrada() {
+        // Arrange
+        LocalDateTime agora = LocalDateTime.now();
+        when(janelaSessoes.obter(2L)).thenReturn(new JanelaSessao(2L, agora.minusMinutes(10), agora.minusMinutes(5), true));
+
+        // Act & Assert
+        assertThrows(SessaoEncerradaException.class, () -> votoLoteService.registrarLote(2L,
+                List.of(request("1", "12345678909", OpcaoVoto.SIM))));
+        verifyNoInteractions(cpfValidator, votoLoteRepository);
+        assertEquals(0, votosPendentes.pendentes(2L));
+    }
+
+    @Test
+    @DisplayName("Deve recusar o lote quando a sessão for encerrada durante a validação")
+    void registrarLoteSessaoEncerradaDuranteValidacao() {
+        // Arrange
+        LocalDateTime agora = LocalDateTime.now();
+        when(janelaSessoes.obter(1L)).thenReturn(
+                new JanelaSessao(1L, agora.minusMinutes(1), agora.plusMinutes(5), false),
+                new JanelaSessao(1L, agora.minusMinutes(1), agora.plusMinutes(5), true));
+
+        // Act & Assert
+        assertThrows(SessaoEncerradaException.class, () -> votoLoteService.registrarLote(1L,
+                List.of(request("1", "12345678909", OpcaoVoto.SIM))));
+        verifyNoInteractions(votoLoteRepository, contagemRegistry);
+        assertEquals(0, votosPendentes.pendentes(1L));
+    }
+
+    @Test
+    @DisplayName("Deve manter o lote pendente até gravar, para o encerramento da sessão aguardá-lo")
+    void registrarLotePendenteAteGravar() {
+        // Arrange
+        int[] pendentesDuranteGravacao = new int[1];
+        doAnswer(invocation -> {
+            pendentesDuranteGravacao[0] = votosPendentes.pendentes(1L);
+            return null;
+        }).when(votoLoteRepository).inserirLote(anyList());
+
+        // Act
+        votoLoteService.registrarLote(1L, List.of(request("1", "12345678909", OpcaoVoto.SIM)));
+
+        // Assert
+        assertEquals(1, pendentesDuranteGravacao[0]);
+        assertEquals(0, votosPendentes.pendentes(1L));
+    }
+
+    @Test
+    @DisplayName("Deve recusar lotes maiores que o limite configurado")
+    void registrarLoteAcimaDoLimite() {
+        // Arrange
+        votoLoteService = criarServico(1);
+
+        // Act & Assert
+        assertThrows(LoteVotosInvalidoException.class, () -> votoLoteService.registrarLote(1L, List.of(
+                request("1", "12345678909", OpcaoVoto.SIM),
+                request("2", "12345678909", OpcaoVoto.SIM))));
+        verifyNoInteractions(votoLoteRepository);
+    }
+
+    @Test
+    @DisplayName("Deve ler um voto por linha do corpo NDJSON")
+    void lerNdjson() {
+        // Arrange
+        String ndjson = """
+                {"idAssociado":"1","cpf":"12345678909","opcao":"SIM"}
+                {"idAssociado":"2","cpf":"12345678909","opcao":"NAO"}
+                """;
+
+        // Act
+        List<VotoRequest> requests = votoLoteService.lerNdjson(new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)));
+
+        // Assert
+        assertEquals(2, requests.size());
+        assertEquals("2", requests.get(1).getIdAssociado());
+        assertEquals(OpcaoVoto.NAO, requests.get(1).getOpcao());
+    }
+
+    @Test
+    @DisplayName("Deve recusar corpo NDJSON com linha malformada")
+    void lerNdjsonMalformado() {
+        // Arrange
+        String ndjson = """
+                {"idAssociado":"1","cpf":"12345678909","opcao":"SIM"}
+                {"idAssociado":"2","cpf":
+                """;
+
+        // Act & Assert
+        LoteVotosInvalidoException exception = assertThrows(LoteVotosInvalidoException.class,
+                () -> votoLoteService.lerNdjson(new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8))));
+        assertTrue(exception.getMessage().contains("Linha 2"));
+    }
+
+    @Test
+    @DisplayName("Deve ler os votos de um array JSON")
+    void lerJson() {
+        // Arrange
+        String json = """
+                [{"idAssociado":"1","cpf":"12345678909","opcao":"SIM"},
+                 {"idAssociado":"2","cpf":"12345678909","opcao":"NAO"}]
+                """;
+
+        // Act
+        List<VotoRequest> requests = votoLoteService.lerJson(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+
+        // Assert
+        assertEquals(2, requests.size());
+        assertEquals("2", requests.get(1).getIdAssociado());
+        assertEquals(OpcaoVoto.NAO, requests.get(1).getOpcao());
+    }
+
+    @Test
+    @DisplayName("Deve parar de ler o array JSON logo após o limite")
+    void lerJsonAcimaDoLimite() {
+        // Arrange
+        votoLoteService = criarServico(1);
+        // The body is cut after the third vote: reading it would fail
+        String json = """
+                [{"idAssociado":"1","cpf":"12345678909","opcao":"SIM"},
+                 {"idAssociado":"2","cpf":"12345678909","opcao":"NAO"},
+                 {"idAssociado":"3","cpf":
+                """;
+
+        // Act
+        List<VotoRequest> requests = votoLoteService.lerJson(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+
+        // Assert
+        assertEquals(2, requests.size());
+        assertThrows(LoteVotosInvalidoException.class, () -> votoLoteService.registrarLote(1L, requests));
+    }
+
+    @Test
+    @DisplayName("Deve recusar corpo JSON que não seja um array")
+    void lerJsonSemArray() {
+        // Arrange
+        String json = """
+                {"idAssociado":"1","cpf":"12345678909","opcao":"SIM"}
+                """;
+
+        // Act & Assert
+        assertThrows(LoteVotosInvalidoException.class,
+                () -> votoLoteService.lerJson(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8))));
+    }
+}
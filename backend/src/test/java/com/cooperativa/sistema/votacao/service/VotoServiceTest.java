@@ -1,5 +1,9 @@
 package com.cooperativa.sistema.votacao.service;
 
+import com.cooperativa.sistema.votacao.cache.ContagemVotosRegistry;
+import com.cooperativa.sistema.votacao.cache.FiltroVotosRegistry;
+import com.cooperativa.sistema.votacao.cache.JanelaSessaoRegistry;
+import com.cooperativa.sistema.votacao.cache.JanelaSessaoRegistry.JanelaSessao;
 import com.cooperativa.sistema.votacao.client.CPFValidator;
 import com.cooperativa.sistema.votacao.domain.OpcaoVoto;
 import com.cooperativa.sistema.votacao.domain.Pauta;
@@ -15,17 +19,19 @@ import com.cooperativa.sistema.votacao.exception.VotoJaRealizadoException;
 import com.cooperativa.sistema.votacao.mapper.VotoMapper;
 import com.cooperativa.sistema.votacao.repository.SessaoVotacaoRepository;
 import com.cooperativa.sistema.votacao.repository.VotoRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.dao.DataIntegrityViolationException;
 
 import java.time.LocalDateTime;
-import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -48,11 +54,25 @@ class VotoServiceTest {
     @Mock
     private VotoMapper votoMapper;
 
+    @Mock
+    private ContagemVotosRegistry contagemRegistry;
+
+    @Mock
+    private FiltroVotosRegistry filtroVotos;
+
+    @Mock
+    private JanelaSessaoRegistry janelaSessoes;
+
+    @Spy
+    private SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
     @InjectMocks
     private VotoService votoService;
 
     private SessaoVotacao sessaoAberta;
     private SessaoVotacao sessaoEncerrada;
+    private JanelaSessao janelaAberta;
+    private JanelaSessao janelaEncerrada;
     private Pauta pauta;
     private Voto voto;
     private VotoDTO votoDTO;
@@ -85,6 +105,9 @@ class VotoServiceTest {
                 .encerrada(true)
                 .build();
 
+        janelaAberta = new JanelaSessao(1L, sessaoAberta.getDataAbertura(), sessaoAberta.getDataFechamento(), false);
+        janelaEncerrada = new JanelaSessao(2L, sessaoEncerrada.getDataAbertura(), sessaoEncerrada.getDataFechamento(), true);
+
         voto = Voto.builder()
                 .id(1L)
                 .sessaoVotacao(sessaoAberta)
@@ -110,11 +133,13 @@ class VotoServiceTest {
     @DisplayName("Deve registrar um voto com sucesso")
     void registrarVoto() {
         // Arrange
-        when(sessaoRepository.findById(anyLong())).thenReturn(Optional.of(sessaoAberta));
+        when(janelaSessoes.obter(anyLong())).thenReturn(janelaAberta);
+        when(filtroVotos.possivelmenteVotou(anyLong(), anyString())).thenReturn(true);
         when(votoRepository.existsBySessaoVotacaoIdAndIdAssociado(anyLong(), anyString())).thenReturn(false);
-        when(cpfValidator.validarCPF(anyString())).thenReturn(StatusVotacao.ABLE_TO_VOTE);
+        when(cpfValidator.validarCPFAsync(anyString())).thenReturn(CompletableFuture.completedFuture(StatusVotacao.ABLE_TO_VOTE));
+        when(sessaoRepository.getReferenceById(1L)).thenReturn(sessaoAberta);
         when(votoMapper.toEntity(any(VotoRequest.class), any(SessaoVotacao.class))).thenReturn(voto);
-        when(votoRepository.save(any(Voto.class))).thenReturn(voto);
+        when(votoRepository.saveAndFlush(any(Voto.class))).thenReturn(voto);
         when(votoMapper.toDto(any(Voto.class))).thenReturn(votoDTO);
 
         // Act
@@ -126,19 +151,49 @@ class VotoServiceTest {
         assertEquals("1", result.getIdAssociado());
         assertEquals(OpcaoVoto.SIM, result.getOpcao());
 
-        verify(sessaoRepository).findById(1L);
+        verify(janelaSessoes).obter(1L);
         verify(votoRepository).existsBySessaoVotacaoIdAndIdAssociado(1L, "1");
-        verify(cpfValidator).validarCPF("12345678900");
+        verify(cpfValidator).validarCPFAsync("12345678900");
         verify(votoMapper).toEntity(votoRequest, sessaoAberta);
-        verify(votoRepository).save(voto);
+        verify(votoRepository).saveAndFlush(voto);
         verify(votoMapper).toDto(voto);
+        verify(contagemRegistry).registrar(1L, OpcaoVoto.SIM);
+        verify(filtroVotos).registrar(1L, "1");
+        for (String etapa : new String[]{"sessao", "duplicidade", "cpf", "insercao"}) {
+            assertEquals(1, meterRegistry.get(VotoService.METRICA_ETAPAS).tag("etapa", etapa).timer().count(), etapa);
+        }
+        assertEquals(2, meterRegistry.get(VotoService.METRICA_ETAPAS).tag("etapa", "mapeamento").timer().count());
+        assertTrue(meterRegistry.find(VotoService.METRICA_REJEICOES).counters().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Não deve consultar o banco quando o filtro garantir que o associado não votou")
+    void registrarVotoFiltroNegativo() {
+        // Arrange
+        when(janelaSessoes.obter(anyLong())).thenReturn(janelaAberta);
+        when(filtroVotos.possivelmenteVotou(anyLong(), anyString())).thenReturn(false);
+        when(cpfValidator.validarCPFAsync(anyString())).thenReturn(CompletableFuture.completedFuture(StatusVotacao.ABLE_TO_VOTE));
+        when(sessaoRepository.getReferenceById(1L)).thenReturn(sessaoAberta);
+        when(votoMapper.toEntity(any(VotoRequest.class), any(SessaoVotacao.class))).thenReturn(voto);
+        when(votoRepository.saveAndFlush(any(Voto.class))).thenReturn(voto);
+        when(votoMapper.toDto(any(Voto.class))).thenReturn(votoDTO);
+
+        // Act
+        VotoDTO result = votoService.registrarVoto(1L, votoRequest);
+
+        // Assert
+        assertNotNull(result);
+        verify(filtroVotos).possivelmenteVotou(1L, "1");
+        verify(votoRepository, never()).existsBySessaoVotacaoIdAndIdAssociado(anyLong(), anyString());
+        verify(votoRepository).saveAndFlush(voto);
     }
 
     @Test
     @DisplayName("Deve lançar exceção ao tentar registrar voto em sessão inexistente")
     void registrarVotoSessaoInexistente() {
         // Arrange
-        when(sessaoRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(janelaSessoes.obter(anyLong()))
+                .thenThrow(new ResourceNotFoundException("Sessão de votação não encontrada com o ID: 99"));
 
         // Act & Assert
         ResourceNotFoundException exception = assertThrows(ResourceNotFoundException.class, () -> {
@@ -146,15 +201,15 @@ class VotoServiceTest {
         });
 
         assertTrue(exception.getMessage().contains("Sessão de votação não encontrada"));
-        verify(sessaoRepository).findById(99L);
-        verify(votoRepository, never()).save(any(Voto.class));
+        verify(janelaSessoes).obter(99L);
+        verify(votoRepository, never()).saveAndFlush(any(Voto.class));
     }
 
     @Test
     @DisplayName("Deve lançar exceção ao tentar registrar voto em sessão encerrada")
     void registrarVotoSessaoEncerrada() {
         // Arrange
-        when(sessaoRepository.findById(anyLong())).thenReturn(Optional.of(sessaoEncerrada));
+        when(janelaSessoes.obter(anyLong())).thenReturn(janelaEncerrada);
 
         // Act & Assert
         SessaoEncerradaException exception = assertThrows(SessaoEncerradaException.class, () -> {
@@ -162,15 +217,18 @@ class VotoServiceTest {
         });
 
         assertTrue(exception.getMessage().contains("Sessão de votação não está aberta"));
-        verify(sessaoRepository).findById(2L);
-        verify(votoRepository, never()).save(any(Voto.class));
+        verify(janelaSessoes).obter(2L);
+        verify(votoRepository, never()).saveAndFlush(any(Voto.class));
+        assertEquals(1, meterRegistry.get(VotoService.METRICA_REJEICOES)
+                .tag("excecao", "SessaoEncerradaException").counter().count());
     }
 
     @Test
     @DisplayName("Deve lançar exceção ao tentar registrar voto duplicado")
     void registrarVotoDuplicado() {
         // Arrange
-        when(sessaoRepository.findById(anyLong())).thenReturn(Optional.of(sessaoAberta));
+        when(janelaSessoes.obter(anyLong())).thenReturn(janelaAberta);
+        when(filtroVotos.possivelmenteVotou(anyLong(), anyString())).thenReturn(true);
         when(votoRepository.existsBySessaoVotacaoIdAndIdAssociado(anyLong(), anyString())).thenReturn(true);
 
         // Act & Assert
@@ -179,18 +237,20 @@ class VotoServiceTest {
         });
 
         assertTrue(exception.getMessage().contains("Associado já votou nesta sessão"));
-        verify(sessaoRepository).findById(1L);
+        verify(janelaSessoes).obter(1L);
         verify(votoRepository).existsBySessaoVotacaoIdAndIdAssociado(1L, "1");
-        verify(votoRepository, never()).save(any(Voto.class));
+        verify(votoRepository, never()).saveAndFlush(any(Voto.class));
     }
 
     @Test
     @DisplayName("Deve lançar exceção ao tentar registrar voto com CPF inválido")
     void registrarVotoCPFInvalido() {
         // Arrange
-        when(sessaoRepository.findById(anyLong())).thenReturn(Optional.of(sessaoAberta));
+        when(janelaSessoes.obter(anyLong())).thenReturn(janelaAberta);
+        when(filtroVotos.possivelmenteVotou(anyLong(), anyString())).thenReturn(true);
         when(votoRepository.existsBySessaoVotacaoIdAndIdAssociado(anyLong(), anyString())).thenReturn(false);
-        doThrow(new CPFInvalidoException("CPF inválido")).when(cpfValidator).validarCPF(anyString());
+        when(cpfValidator.validarCPFAsync(anyString()))
+                .thenReturn(CompletableFuture.failedFuture(new CPFInvalidoException("CPF inválido")));
 
         // Act & Assert
         CPFInvalidoException exception = assertThrows(CPFInvalidoException.class, () -> {
@@ -198,21 +258,26 @@ class VotoServiceTest {
         });
 
         assertTrue(exception.getMessage().contains("CPF inválido"));
-        verify(sessaoRepository).findById(1L);
+        verify(janelaSessoes).obter(1L);
         verify(votoRepository).existsBySessaoVotacaoIdAndIdAssociado(1L, "1");
-        verify(cpfValidator).validarCPF("12345678900");
-        verify(votoRepository, never()).save(any(Voto.class));
+        verify(cpfValidator).validarCPFAsync("12345678900");
+        verify(votoRepository, never()).saveAndFlush(any(Voto.class));
+        assertEquals(1, meterRegistry.get(VotoService.METRICA_REJEICOES)
+                .tag("excecao", "CPFInvalidoException").counter().count());
+        assertEquals(1, meterRegistry.get(VotoService.METRICA_ETAPAS).tag("etapa", "cpf").timer().count());
     }
 
     @Test
     @DisplayName("Deve lançar exceção quando ocorrer violação de integridade ao salvar")
     void registrarVotoDataIntegrityViolation() {
         // Arrange
-        when(sessaoRepository.findById(anyLong())).thenReturn(Optional.of(sessaoAberta));
+        when(janelaSessoes.obter(anyLong())).thenReturn(janelaAberta);
+        when(filtroVotos.possivelmenteVotou(anyLong(), anyString())).thenReturn(true);
         when(votoRepository.existsBySessaoVotacaoIdAndIdAssociado(anyLong(), anyString())).thenReturn(false);
-        when(cpfValidator.validarCPF(anyString())).thenReturn(StatusVotacao.ABLE_TO_VOTE);
+        when(cpfValidator.validarCPFAsync(anyString())).thenReturn(CompletableFuture.completedFuture(StatusVotacao.ABLE_TO_VOTE));
+        when(sessaoRepository.getReferenceById(1L)).thenReturn(sessaoAberta);
         when(votoMapper.toEntity(any(VotoRequest.class), any(SessaoVotacao.class))).thenReturn(voto);
-        when(votoRepository.save(any(Voto.class))).thenThrow(new DataIntegrityViolationException("Erro de integridade"));
+        when(votoRepository.saveAndFlush(any(Voto.class))).thenThrow(new DataIntegrityViolationException("Erro de integridade"));
 
         // Act & Assert
         VotoJaRealizadoException exception = assertThrows(VotoJaRealizadoException.class, () -> {
@@ -220,10 +285,12 @@ class VotoServiceTest {
         });
 
         assertTrue(exception.getMessage().contains("Associado já votou nesta sessão"));
-        verify(sessaoRepository).findById(1L);
+        verify(janelaSessoes).obter(1L);
         verify(votoRepository).existsBySessaoVotacaoIdAndIdAssociado(1L, "1");
-        verify(cpfValidator).validarCPF("12345678900");
+        verify(cpfValidator).validarCPFAsync("12345678900");
         verify(votoMapper).toEntity(votoRequest, sessaoAberta);
-        verify(votoRepository).save(voto);
+        verify(votoRepository).saveAndFlush(voto);
+        verify(contagemRegistry, never()).registrar(anyLong(), any(OpcaoVoto.class));
+        verify(filtroVotos, never()).registrar(anyLong(), anyString());
     }
 } 
\ No newline at end of file
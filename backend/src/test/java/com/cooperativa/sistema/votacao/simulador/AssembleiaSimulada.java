@@ -0,0 +1,477 @@
+package com.cooperativa.sistema.votacao.simulador;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Load scenario of a real assembly, driven through the REST API of a running application
+ * Registers N associates, creates a pauta, opens a session and has every associate vote within
+ * the session window, with a spike right after the opening, while M dashboards poll the partial
+ * result. Some associates click twice, vote after the closing or mistype their CPF. At the end it
+ * reports throughput and p50/p99/p999 latency per endpoint, the rejection breakdown and how long
+ * after the closing time the final result was available.
+ * Depends on the JDK only, so it also runs on its own as a single source file, e.g. against the
+ * packaged jar started with CPF_VALIDATOR_URL pointing to {@link ValidadorCPFSimulado}:
+ * <pre>
+ * java src/test/java/com/cooperativa/sistema/votacao/simulador/AssembleiaSimulada.java \
+ *     url=http://localhost:8080 associados=5000 paineis=50 duracao-minutos=1
+ * </pre>
+ */
+public class AssembleiaSimulada {
+
+    private static final Pattern ID_TEXTO = Pattern.compile("\"id\"\\s*:\\s*\"([^\"]+)\"");
+    private static final Pattern ID_NUMERO = Pattern.compile("\"id\"\\s*:\\s*(\\d+)");
+    private static final Pattern ENCERRADA = Pattern.compile("\"encerrada\"\\s*:\\s*true");
+    private static final Pattern TOTAL_VOTOS = Pattern.compile("\"totalVotos\"\\s*:\\s*(\\d+)");
+    private static final long INTERVALO_FECHAMENTO_MS = 20;
+
+    private final Parametros parametros;
+    private final HttpClient http;
+    private final Map<String, Amostras> endpoints = new LinkedHashMap<>();
+    private final Map<Desfecho, AtomicLong> desfechos = new EnumMap<>(Desfecho.class);
+
+    private AssembleiaSimulada(Parametros parametros, ExecutorService executor) {
+        this.parametros = parametros;
+        this.http = HttpClient.newBuilder()
+                .executor(executor)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        for (String endpoint : List.of("POST /associados", "POST /pautas", "POST /pautas/{id}/sessoes",
+                "POST /sessoes/{id}/votos", "GET /sessoes/{id}/resultado", "GET /sessoes/{id}")) {
+            endpoints.put(endpoint, new Amostras());
+        }
+        for (Desfecho desfecho : Desfecho.values()) {
+            desfechos.put(desfecho, new AtomicLong());
+        }
+    }
+
+    /**
+     * Run the assembly against the application at parametros.url and wait for its final result
+     *
+     * @param parametros Size and behaviour of the assembly
+     * @return Measurements of the run
+     * @throws IllegalStateException if the pauta or the session cannot be created
+     */
+    public static Relatorio executar(Parametros parametros) throws InterruptedException {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            return new AssembleiaSimulada(parametros, executor).executar(executor);
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        Map<String, String> valores = new HashMap<>();
+        for (String arg : args) {
+            String[] chaveValor = arg.replaceFirst("^--", "").split("=", 2);
+            valores.put(chaveValor[0], chaveValor.length > 1 ? chaveValor[1] : "true");
+        }
+        Parametros parametros = Parametros.padrao().com(valores);
+        System.out.println("Assembleia simulada com " + parametros);
+        System.out.println(executar(parametros).formatar());
+    }
+
+    private Relatorio executar(ExecutorService executor) throws InterruptedException {
+        List<Membro> membros = cadastrarAssociados(executor);
+
+        Long pautaId = criarPauta();
+        long aberturaNanos = System.nanoTime();
+        Long sessaoId = abrirSessao(pautaId);
+        long fechamentoNanos = aberturaNanos + TimeUnit.MINUTES.toNanos(parametros.duracaoMinutos());
+
+        AtomicLong resultadoFinalNanos = new AtomicLong();
+        List<Future<?>> paineis = new ArrayList<>();
+        for (int i = 0; i < parametros.paineis(); i++) {
+            paineis.add(executor.submit(() -> {
+                acompanharResultado(sessaoId, resultadoFinalNanos);
+                return null;
+            }));
+        }
+
+        List<Future<?>> votos = new ArrayList<>(membros.size());
+        for (Membro membro : membros) {
+            long prazoNanos = aberturaNanos + momentoDoVoto(fechamentoNanos - aberturaNanos);
+            votos.add(executor.submit(() -> {
+                votar(sessaoId, membro, prazoNanos);
+                return null;
+            }));
+        }
+
+        String resultadoFinal = aguardarResultadoFinal(sessaoId, fechamentoNanos);
+        resultadoFinalNanos.set(System.nanoTime());
+        aguardar(votos);
+        aguardar(paineis);
+
+        long msAteResultadoFinal = TimeUnit.NANOSECONDS.toMillis(resultadoFinalNanos.get() - fechamentoNanos);
+        Map<String, Estatisticas> estatisticas = new LinkedHashMap<>();
+        endpoints.forEach((endpoint, amostras) -> estatisticas.put(endpoint, amostras.estatisticas()));
+        Map<Desfecho, Long> contagem = new EnumMap<>(Desfecho.class);
+        desfechos.forEach((desfecho, total) -> contagem.put(desfecho, total.get()));
+        return new Relatorio(parametros, membros.size(), estatisticas, contagem,
+                numero(TOTAL_VOTOS, resultadoFinal).orElse(-1L), msAteResultadoFinal);
+    }
+
+    private List<Membro> cadastrarAssociados(ExecutorService executor) throws InterruptedException {
+        // Random first CPF, so a run against a file database does not collide with the previous one
+        long primeiro = ThreadLocalRandom.current().nextLong(100_000_000L, 900_000_000L - parametros.associados());
+        Semaphore concorrencia = new Semaphore(parametros.concorrenciaCadastro());
+        List<Future<Membro>> cadastros = new ArrayList<>(parametros.associados());
+        for (int i = 0; i < parametros.associados(); i++) {
+            String cpf = cpfValido(primeiro + i);
+            concorrencia.acquire();
+            cadastros.add(executor.submit(() -> {
+                try {
+                    Resposta resposta = enviar("POST /associados", post("/api/v1/associados",
+                            "{\"cpf\":\"" + cpf + "\",\"nome\":\"Associado Simulado\"}"));
+                    return resposta.status() == 201
+                            ? new Membro(texto(ID_TEXTO, resposta.corpo()).orElseThrow(), cpf)
+                            : null;
+                } finally {
+                    concorrencia.release();
+                }
+            }));
+        }
+        List<Membro> membros = new ArrayList<>(cadastros.size());
+        for (Future<Membro> cadastro : cadastros) {
+            Membro membro = resultado(cadastro);
+            if (membro != null) {
+                membros.add(membro);
+            }
+        }
+        return membros;
+    }
+
+    private Long criarPauta() {
+        Resposta resposta = enviar("POST /pautas", post("/api/v1/pautas",
+                "{\"titulo\":\"Assembleia simulada\",\"descricao\":\"Cenário de carga com "
+                        + parametros.associados() + " associados\"}"));
+        return numero(ID_NUMERO, resposta.corpo())
+                .orElseThrow(() -> new IllegalStateException("Pauta não criada: " + resposta));
+    }
+
+    private Long abrirSessao(Long pautaId) {
+        Resposta resposta = enviar("POST /pautas/{id}/sessoes", post("/api/v1/pautas/" + pautaId + "/sessoes",
+                "{\"duracaoMinutos\":" + parametros.duracaoMinutos() + "}"));
+        return numero(ID_NUMERO, resposta.corpo())
+                .orElseThrow(() -> new IllegalStateException("Sessão não aberta: " + resposta));
+    }
+
+    /**
+     * Offset of a vote from the opening: a spike in the first 10% of the window, the rest spread
+     * until 90% of it, and the late ones a few seconds after the closing
+     */
+    private long momentoDoVoto(long janelaNanos) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (random.nextDouble() < parametros.taxaAtrasados()) {
+            return janelaNanos + TimeUnit.MILLISECONDS.toNanos(random.nextLong(1_000, 3_000));
+        }
+        if (random.nextDouble() < parametros.pico()) {
+            return (long) (janelaNanos * 0.1 * random.nextDouble());
+        }
+        return (long) (janelaNanos * (0.1 + 0.8 * random.nextDouble()));
+    }
+
+    private void votar(Long sessaoId, Membro membro, long prazoNanos) throws InterruptedException {
+        dormirAte(prazoNanos);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String cpf = random.nextDouble() < parametros.taxaCpfInvalido() ? digitarErrado(membro.cpf()) : membro.cpf();
+        String opcao = random.nextBoolean() ? "SIM" : "NAO";
+        HttpRequest voto = post("/api/v1/sessoes/" + sessaoId + "/votos",
+                "{\"idAssociado\":\"" + membro.id() + "\",\"cpf\":\"" + cpf + "\",\"opcao\":\"" + opcao + "\"}");
+
+        registrar(enviar("POST /sessoes/{id}/votos", voto));
+        if (random.nextDouble() < parametros.taxaDuplicados()) {
+            // Double click or a retry after a timeout on the client
+            registrar(enviar("POST /sessoes/{id}/votos", voto));
+        }
+    }
+
+    private void acompanharResultado(Long sessaoId, AtomicLong resultadoFinalNanos) throws InterruptedException {
+        // Dashboards are opened at different moments, not in lockstep
+        Thread.sleep(ThreadLocalRandom.current().nextLong(parametros.intervaloPainelMs() + 1));
+        while (resultadoFinalNanos.get() == 0) {
+            enviar("GET /sessoes/{id}/resultado", get("/api/v1/sessoes/" + sessaoId + "/resultado"));
+            Thread.sleep(parametros.intervaloPainelMs());
+        }
+    }
+
+    private String aguardarResultadoFinal(Long sessaoId, long fechamentoNanos) throws InterruptedException {
+        dormirAte(fechamentoNanos);
+        while (!ENCERRADA.matcher(enviar("GET /sessoes/{id}", get("/api/v1/sessoes/" + sessaoId)).corpo()).find()) {
+            Thread.sleep(INTERVALO_FECHAMENTO_MS);
+        }
+        return enviar("GET /sessoes/{id}/resultado", get("/api/v1/sessoes/" + sessaoId + "/resultado")).corpo();
+    }
+
+    private void registrar(Resposta resposta) {
+        desfechos.get(Desfecho.de(resposta)).incrementAndGet();
+    }
+
+    private Resposta enviar(String endpoint, HttpRequest request) {
+        long inicio = System.nanoTime();
+        Resposta resposta;
+        try {
+            HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+            resposta = new Resposta(response.statusCode(), response.body());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            resposta = new Resposta(0, e.toString());
+        } catch (Exception e) {
+            resposta = new Resposta(0, e.toString());
+        }
+        endpoints.get(endpoint).registrar(inicio, System.nanoTime());
+        return resposta;
+    }
+
+    private HttpRequest post(String caminho, String corpo) {
+        return HttpRequest.newBuilder(URI.create(parametros.url() + caminho))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(corpo))
+                .build();
+    }
+
+    private HttpRequest get(String caminho) {
+        return HttpRequest.newBuilder(URI.create(parametros.url() + caminho)).GET().build();
+    }
+
+    private static void dormirAte(long prazoNanos) throws InterruptedException {
+        long restanteNanos = prazoNanos - System.nanoTime();
+        if (restanteNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(restanteNanos);
+        }
+    }
+
+    private static void aguardar(List<Future<?>> tarefas) throws InterruptedException {
+        for (Future<?> tarefa : tarefas) {
+            resultado(tarefa);
+        }
+    }
+
+    private static <T> T resultado(Future<T> tarefa) throws InterruptedException {
+        try {
+            return tarefa.get();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Falha na assembleia simulada", e.getCause());
+        }
+    }
+
+    private static Optional<String> texto(Pattern padrao, String corpo) {
+        Matcher matcher = padrao.matcher(corpo);
+        return matcher.find() ? Optional.of(matcher.group(1)) : Optional.empty();
+    }
+
+    private static Optional<Long> numero(Pattern padrao, String corpo) {
+        return texto(padrao, corpo).map(Long::valueOf);
+    }
+
+    /**
+     * CPF with valid check digits built from a 9-digit base
+     */
+    static String cpfValido(long base) {
+        StringBuilder cpf = new StringBuilder(String.format("%09d", base));
+        for (int digito = 9; digito <= 10; digito++) {
+            int soma = 0;
+            for (int i = 0; i < digito; i++) {
+                soma += (cpf.charAt(i) - '0') * (digito + 1 - i);
+            }
+            cpf.append((soma * 10) % 11 % 10);
+        }
+        return cpf.toString();
+    }
+
+    private static String digitarErrado(String cpf) {
+        char ultimo = cpf.charAt(10);
+        return cpf.substring(0, 10) + (char) ('0' + (ultimo - '0' + 1) % 10);
+    }
+
+    private record Membro(String id, String cpf) {
+    }
+
+    private record Resposta(int status, String corpo) {
+    }
+
+    /**
+     * Latencies of one endpoint
+     */
+    private static final class Amostras {
+
+        private final ConcurrentLinkedQueue<Long> duracoesNanos = new ConcurrentLinkedQueue<>();
+        private final AtomicLong primeiroInicio = new AtomicLong(Long.MAX_VALUE);
+        private final AtomicLong ultimoFim = new AtomicLong(Long.MIN_VALUE);
+
+        void registrar(long inicioNanos, long fimNanos) {
+            duracoesNanos.add(fimNanos - inicioNanos);
+            primeiroInicio.accumulateAndGet(inicioNanos, Math::min);
+            ultimoFim.accumulateAndGet(fimNanos, Math::max);
+        }
+
+        Estatisticas estatisticas() {
+            long[] ordenadas = duracoesNanos.stream().mapToLong(Long::longValue).sorted().toArray();
+            if (ordenadas.length == 0) {
+                return new Estatisticas(0, 0, 0, 0, 0, 0);
+            }
+            double segundos = Math.max(1, ultimoFim.get() - primeiroInicio.get()) / 1e9;
+            return new Estatisticas(ordenadas.length, ordenadas.length / segundos,
+                    percentil(ordenadas, 0.5), percentil(ordenadas, 0.99), percentil(ordenadas, 0.999),
+                    TimeUnit.NANOSECONDS.toMicros(ordenadas[ordenadas.length - 1]));
+        }
+
+        private static long percentil(long[] ordenadas, double percentil) {
+            int indice = (int) Math.ceil(percentil * ordenadas.length) - 1;
+            return TimeUnit.NANOSECONDS.toMicros(ordenadas[Math.max(0, indice)]);
+        }
+    }
+
+    /**
+     * Outcome of a vote request, from its HTTP status and error message
+     */
+    public enum Desfecho {
+        ACEITO, DUPLICADO, SESSAO_ENCERRADA, CPF_INAPTO, CPF_INVALIDO, VALIDADOR_INDISPONIVEL, OUTRO;
+
+        static Desfecho de(Resposta resposta) {
+            return switch (resposta.status()) {
+                case 201 -> ACEITO;
+                case 409 -> DUPLICADO;
+                case 403 -> resposta.corpo().contains("não está aberta") ? SESSAO_ENCERRADA : CPF_INAPTO;
+                case 404 -> CPF_INVALIDO;
+                case 503 -> VALIDADOR_INDISPONIVEL;
+                default -> OUTRO;
+            };
+        }
+    }
+
+    /**
+     * Latency of one endpoint, in microseconds
+     *
+     * @param requisicoes Requests sent
+     * @param vazaoPorSegundo Requests per second between the first and the last one
+     */
+    public record Estatisticas(long requisicoes, double vazaoPorSegundo,
+                               long p50Micros, long p99Micros, long p999Micros, long maxMicros) {
+    }
+
+    /**
+     * Measurements of a run
+     *
+     * @param associados Associates registered and voting
+     * @param endpoints Latency per endpoint
+     * @param desfechos Vote requests per outcome
+     * @param totalVotosFinal Total of votes in the final result
+     * @param msAteResultadoFinal Time from the closing time until the final result was served
+     */
+    public record Relatorio(Parametros parametros, int associados, Map<String, Estatisticas> endpoints,
+                            Map<Desfecho, Long> desfechos, long totalVotosFinal, long msAteResultadoFinal) {
+
+        public long votosAceitos() {
+            return desfechos.getOrDefault(Desfecho.ACEITO, 0L);
+        }
+
+        public String formatar() {
+            StringBuilder texto = new StringBuilder();
+            texto.append(String.format("%-30s %10s %10s %10s %10s %10s %10s%n",
+                    "endpoint", "req", "req/s", "p50 ms", "p99 ms", "p999 ms", "max ms"));
+            endpoints.forEach((endpoint, e) -> texto.append(String.format("%-30s %10d %10.1f %10.2f %10.2f %10.2f %10.2f%n",
+                    endpoint, e.requisicoes(), e.vazaoPorSegundo(), e.p50Micros() / 1e3,
+                    e.p99Micros() / 1e3, e.p999Micros() / 1e3, e.maxMicros() / 1e3)));
+            texto.append(String.format("%nVotos de %d associados:%n", associados));
+            desfechos.forEach((desfecho, total) -> texto.append(String.format("  %-24s %d%n", desfecho, total)));
+            texto.append(String.format("%nResultado final com %d votos disponível %d ms após o fechamento%n",
+                    totalVotosFinal, msAteResultadoFinal));
+            return texto.toString();
+        }
+    }
+
+    /**
+     * Size and behaviour of the assembly
+     *
+     * @param url Base URL of the application
+     * @param associados Associates registered, each voting once
+     * @param paineis Dashboards polling the result during the session
+     * @param duracaoMinutos Duration of the session
+     * @param intervaloPainelMs Interval between two polls of a dashboard
+     * @param pico Fraction of the votes sent in the first 10% of the window
+     * @param taxaDuplicados Fraction of the associates sending their vote twice
+     * @param taxaAtrasados Fraction of the associates voting after the closing
+     * @param taxaCpfInvalido Fraction of the associates mistyping their CPF
+     * @param concorrenciaCadastro Concurrent registration requests
+     */
+    public record Parametros(String url, int associados, int paineis, int duracaoMinutos, long intervaloPainelMs,
+                             double pico, double taxaDuplicados, double taxaAtrasados, double taxaCpfInvalido,
+                             int concorrenciaCadastro) {
+
+        /**
+         * 1000 associates voting in a 1 minute session, half of them right after the opening, watched by 10 dashboards
+         */
+        public static Parametros padrao() {
+            return new Parametros("http://localhost:8080", 1000, 10, 1, 500, 0.5, 0.02, 0.01, 0.01, 64);
+        }
+
+        public Parametros comUrl(String url) {
+            return new Parametros(url, associados, paineis, duracaoMinutos, intervaloPainelMs,
+                    pico, taxaDuplicados, taxaAtrasados, taxaCpfInvalido, concorrenciaCadastro);
+        }
+
+        /**
+         * Apply textual parameters, as given on the command line
+         * Keys: url, associados, paineis, duracao-minutos, intervalo-painel-ms, pico, taxa-duplicados,
+         * taxa-atrasados, taxa-cpf-invalido, concorrencia-cadastro.
+         *
+         * @throws IllegalArgumentException if a key is unknown or a value cannot be parsed
+         */
+        public Parametros com(Map<String, String> valores) {
+            List<String> chaves = Arrays.asList("url", "associados", "paineis", "duracao-minutos",
+                    "intervalo-painel-ms", "pico", "taxa-duplicados", "taxa-atrasados", "taxa-cpf-invalido",
+                    "concorrencia-cadastro");
+            for (String chave : valores.keySet()) {
+                if (!chaves.contains(chave)) {
+                    throw new IllegalArgumentException("Parâmetro desconhecido: " + chave);
+                }
+            }
+            try {
+                return new Parametros(
+                        valores.getOrDefault("url", url),
+                        inteiro(valores, "associados", associados),
+                        inteiro(valores, "paineis", paineis),
+                        inteiro(valores, "duracao-minutos", duracaoMinutos),
+                        Long.parseLong(valores.getOrDefault("intervalo-painel-ms", String.valueOf(intervaloPainelMs))),
+                        decimal(valores, "pico", pico),
+                        decimal(valores, "taxa-duplicados", taxaDuplicados),
+                        decimal(valores, "taxa-atrasados", taxaAtrasados),
+                        decimal(valores, "taxa-cpf-invalido", taxaCpfInvalido),
+                        inteiro(valores, "concorrencia-cadastro", concorrenciaCadastro));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Valor inválido: " + e.getMessage(), e);
+            }
+        }
+
+        private static int inteiro(Map<String, String> valores, String chave, int padrao) {
+            String valor = valores.get(chave);
+            return valor == null ? padrao : Integer.parseInt(valor);
+        }
+
+        private static double decimal(Map<String, String> valores, String chave, double padrao) {
+            String valor = valores.get(chave);
+            return valor == null ? padrao : Double.parseDouble(valor);
+        }
+    }
+}
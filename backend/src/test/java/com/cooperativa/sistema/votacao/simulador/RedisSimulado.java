@@ -0,0 +1,530 @@
+package com.cooperativa.sistema.votacao.simulador;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-process stand-in for a Redis server, for the tests of the two-level cache
+ * Speaks RESP2 on a local port and implements the commands used by Spring Data Redis caches and
+ * listener containers: strings with expiration (GET, SET, DEL, KEYS, SCAN...) and pub/sub
+ * (PUBLISH, SUBSCRIBE, PSUBSCRIBE and their UNSUBSCRIBE). HELLO is answered as unknown, so
+ * clients fall back to RESP2. One database, no persistence, no authentication.
+ * Depends on the JDK only, so it also runs on its own as a single source file:
+ * <pre>
+ * java src/test/java/com/cooperativa/sistema/votacao/simulador/RedisSimulado.java porta=6379
+ * </pre>
+ */
+public class RedisSimulado implements AutoCloseable {
+
+    private static final byte[] FIM_LINHA = {'\r', '\n'};
+
+    private final ServerSocket servidor;
+    private final ExecutorService executor;
+    private final Map<String, Entrada> dados = new ConcurrentHashMap<>();
+    private final Set<Conexao> conexoes = ConcurrentHashMap.newKeySet();
+    private final AtomicLong comandos = new AtomicLong();
+    private final AtomicLong publicacoes = new AtomicLong();
+
+    private RedisSimulado(ServerSocket servidor) {
+        this.servidor = servidor;
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+        executor.submit(() -> {
+            aceitar();
+            return null;
+        });
+    }
+
+    /**
+     * Start the stand-in Redis
+     *
+     * @param porta Port to listen on, 0 for any free port
+     * @return Running server
+     */
+    public static RedisSimulado iniciar(int porta) {
+        try {
+            return new RedisSimulado(new ServerSocket(porta, 50, InetAddress.getLoopbackAddress()));
+        } catch (IOException e) {
+            throw new IllegalStateException("Não foi possível iniciar o Redis simulado", e);
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        int porta = 6379;
+        for (String arg : args) {
+            String[] chaveValor = arg.replaceFirst("^--", "").split("=", 2);
+            if (chaveValor[0].equals("porta") && chaveValor.length > 1) {
+                porta = Integer.parseInt(chaveValor[1]);
+            }
+        }
+        RedisSimulado simulado = iniciar(porta);
+        System.out.println("Redis simulado em localhost:" + simulado.getPorta());
+        Thread.currentThread().join();
+    }
+
+    public int getPorta() {
+        return servidor.getLocalPort();
+    }
+
+    /**
+     * Commands received from every client, pub/sub included
+     */
+    public long getComandos() {
+        return comandos.get();
+    }
+
+    /**
+     * Messages received on PUBLISH
+     */
+    public long getPublicacoes() {
+        return publicacoes.get();
+    }
+
+    /**
+     * Number of keys, including expired keys not yet removed
+     */
+    public int tamanho() {
+        return dados.size();
+    }
+
+    /**
+     * Remove every key, as FLUSHALL
+     */
+    public void limpar() {
+        dados.clear();
+    }
+
+    @Override
+    public void close() {
+        try {
+            servidor.close();
+        } catch (IOException e) {
+            // Closing anyway
+        }
+        conexoes.forEach(Conexao::fechar);
+        executor.shutdownNow();
+    }
+
+    private void aceitar() {
+        while (!servidor.isClosed()) {
+            try {
+                Conexao conexao = new Conexao(servidor.accept());
+                conexoes.add(conexao);
+                executor.submit(() -> {
+                    atender(conexao);
+                    return null;
+                });
+            } catch (IOException e) {
+                // Server closed
+            }
+        }
+    }
+
+    private void atender(Conexao conexao) {
+        try {
+            List<byte[]> comando;
+            while ((comando = conexao.lerComando()) != null) {
+                if (comando.isEmpty()) {
+                    continue;
+                }
+                comandos.incrementAndGet();
+                if (!executar(conexao, comando)) {
+                    break;
+                }
+            }
+        } catch (IOException e) {
+            // Client went away
+        } finally {
+            conexoes.remove(conexao);
+            conexao.fechar();
+        }
+    }
+
+    /**
+     * Run one command and write its reply
+     *
+     * @return false when the connection must be closed
+     */
+    private boolean executar(Conexao conexao, List<byte[]> comando) throws IOException {
+        String nome = texto(comando.get(0)).toUpperCase(Locale.ROOT);
+        List<byte[]> args = comando.subList(1, comando.size());
+        Resposta resposta = new Resposta();
+        switch (nome) {
+            case "PING" -> {
+                if (conexao.assinando()) {
+                    resposta.array(List.of(bytes("pong"), args.isEmpty() ? new byte[0] : args.get(0)));
+                } else if (args.isEmpty()) {
+                    resposta.simples("PONG");
+                } else {
+                    resposta.bulk(args.get(0));
+                }
+            }
+            case "ECHO" -> resposta.bulk(args.get(0));
+            case "HELLO" -> resposta.erro("ERR unknown command 'HELLO', with args beginning with: ");
+            case "AUTH", "CLIENT", "SELECT", "READONLY", "READWRITE" -> resposta.simples("OK");
+            case "INFO" -> resposta.bulk(bytes("# Server\r\nredis_version:7.2.0\r\nredis_mode:standalone\r\n"));
+            case "DBSIZE" -> resposta.inteiro(dados.size());
+            case "FLUSHALL", "FLUSHDB" -> {
+                dados.clear();
+                resposta.simples("OK");
+            }
+            case "GET" -> resposta.bulk(obter(texto(args.get(0))));
+            case "SET" -> definir(args, resposta);
+            case "SETEX" -> {
+                gravar(texto(args.get(0)), args.get(2), Long.parseLong(texto(args.get(1))) * 1000);
+                resposta.simples("OK");
+            }
+            case "PSETEX" -> {
+                gravar(texto(args.get(0)), args.get(2), Long.parseLong(texto(args.get(1))));
+                resposta.simples("OK");
+            }
+            case "DEL", "UNLINK" -> {
+                long removidas = args.stream().filter(chave -> remover(texto(chave))).count();
+                resposta.inteiro(removidas);
+            }
+            case "EXISTS" -> resposta.inteiro(args.stream().filter(chave -> obter(texto(chave)) != null).count());
+            case "KEYS" -> resposta.array(chaves(texto(args.get(0))));
+            case "SCAN" -> {
+                // Every key in one page, so the cursor is always 0
+                String padrao = "*";
+                for (int i = 1; i + 1 < args.size(); i += 2) {
+                    if (texto(args.get(i)).equalsIgnoreCase("MATCH")) {
+                        padrao = texto(args.get(i + 1));
+                    }
+                }
+                resposta.inicioArray(2).bulk(bytes("0")).array(chaves(padrao));
+            }
+            case "PUBLISH" -> resposta.inteiro(publicar(texto(args.get(0)), args.get(1)));
+            case "SUBSCRIBE", "PSUBSCRIBE" -> {
+                boolean padrao = nome.startsWith("P");
+                for (byte[] canal : args) {
+                    conexao.assinar(texto(canal), padrao);
+                    resposta.inicioArray(3).bulk(bytes(nome.toLowerCase(Locale.ROOT))).bulk(canal)
+                            .inteiro(conexao.assinaturas());
+                }
+            }
+            case "UNSUBSCRIBE", "PUNSUBSCRIBE" -> {
+                boolean padrao = nome.startsWith("P");
+                List<String> canais = args.isEmpty()
+                        ? conexao.assinados(padrao)
+                        : args.stream().map(RedisSimulado::texto).toList();
+                if (canais.isEmpty()) {
+                    resposta.inicioArray(3).bulk(bytes(nome.toLowerCase(Locale.ROOT))).bulk(null).inteiro(0);
+                }
+                for (String canal : canais) {
+                    conexao.cancelar(canal, padrao);
+                    resposta.inicioArray(3).bulk(bytes(nome.toLowerCase(Locale.ROOT))).bulk(bytes(canal))
+                            .inteiro(conexao.assinaturas());
+                }
+            }
+            case "QUIT" -> {
+                resposta.simples("OK");
+                conexao.escrever(resposta);
+                return false;
+            }
+            default -> resposta.erro("ERR unknown command '" + nome + "'");
+        }
+        conexao.escrever(resposta);
+        return true;
+    }
+
+    private void definir(List<byte[]> args, Resposta resposta) {
+        String chave = texto(args.get(0));
+        long ttlMs = 0;
+        boolean seAusente = false;
+        boolean sePresente = false;
+        for (int i = 2; i < args.size(); i++) {
+            switch (texto(args.get(i)).toUpperCase(Locale.ROOT)) {
+                case "EX" -> ttlMs = Long.parseLong(texto(args.get(++i))) * 1000;
+                case "PX" -> ttlMs = Long.parseLong(texto(args.get(++i)));
+                case "NX" -> seAusente = true;
+                case "XX" -> sePresente = true;
+                default -> {
+                    // KEEPTTL and GET are not needed by the caches
+                }
+            }
+        }
+        boolean existe = obter(chave) != null;
+        if ((seAusente && existe) || (sePresente && !existe)) {
+            resposta.bulk(null);
+            return;
+        }
+        gravar(chave, args.get(1), ttlMs);
+        resposta.simples("OK");
+    }
+
+    private void gravar(String chave, byte[] valor, long ttlMs) {
+        dados.put(chave, new Entrada(valor, ttlMs > 0 ? System.currentTimeMillis() + ttlMs : 0));
+    }
+
+    private byte[] obter(String chave) {
+        Entrada entrada = dados.get(chave);
+        if (entrada == null) {
+            return null;
+        }
+        if (entrada.expirada()) {
+            dados.remove(chave, entrada);
+            return null;
+        }
+        return entrada.valor();
+    }
+
+    private boolean remover(String chave) {
+        Entrada entrada = dados.remove(chave);
+        return entrada != null && !entrada.expirada();
+    }
+
+    private List<byte[]> chaves(String padrao) {
+        Pattern regex = glob(padrao);
+        return dados.keySet().stream()
+                .filter(chave -> regex.matcher(chave).matches() && obter(chave) != null)
+                .map(RedisSimulado::bytes)
+                .toList();
+    }
+
+    private int publicar(String canal, byte[] mensagem) {
+        publicacoes.incrementAndGet();
+        int entregues = 0;
+        for (Conexao conexao : conexoes) {
+            entregues += conexao.entregar(canal, mensagem);
+        }
+        return entregues;
+    }
+
+    private static Pattern glob(String padrao) {
+        StringBuilder regex = new StringBuilder();
+        for (char c : padrao.toCharArray()) {
+            switch (c) {
+                case '*' -> regex.append(".*");
+                case '?' -> regex.append('.');
+                default -> regex.append(Pattern.quote(String.valueOf(c)));
+            }
+        }
+        return Pattern.compile(regex.toString(), Pattern.DOTALL);
+    }
+
+    // Keys and channels are kept as ISO-8859-1 strings, which map every byte to one char and back
+    private static String texto(byte[] bytes) {
+        return new String(bytes, StandardCharsets.ISO_8859_1);
+    }
+
+    private static byte[] bytes(String texto) {
+        return texto.getBytes(StandardCharsets.ISO_8859_1);
+    }
+
+    private record Entrada(byte[] valor, long expiraEmMs) {
+        boolean expirada() {
+            return expiraEmMs > 0 && System.currentTimeMillis() >= expiraEmMs;
+        }
+    }
+
+    /**
+     * Reply being built in RESP2
+     */
+    private static final class Resposta {
+        private final ByteArrayOutputStream saida = new ByteArrayOutputStream();
+
+        Resposta simples(String texto) {
+            return linha("+" + texto);
+        }
+
+        Resposta erro(String mensagem) {
+            return linha("-" + mensagem);
+        }
+
+        Resposta inteiro(long valor) {
+            return linha(":" + valor);
+        }
+
+        Resposta bulk(byte[] valor) {
+            if (valor == null) {
+                return linha("$-1");
+            }
+            linha("$" + valor.length);
+            saida.writeBytes(valor);
+            saida.writeBytes(FIM_LINHA);
+            return this;
+        }
+
+        Resposta inicioArray(int tamanho) {
+            return linha("*" + tamanho);
+        }
+
+        Resposta array(List<byte[]> itens) {
+            inicioArray(itens.size());
+            itens.forEach(this::bulk);
+            return this;
+        }
+
+        byte[] bytes() {
+            return saida.toByteArray();
+        }
+
+        private Resposta linha(String linha) {
+            saida.writeBytes(RedisSimulado.bytes(linha));
+            saida.writeBytes(FIM_LINHA);
+            return this;
+        }
+    }
+
+    /**
+     * Client connection, with its subscriptions
+     * Replies and pub/sub messages are written by different threads, hence the lock.
+     */
+    private static final class Conexao {
+        private final Socket socket;
+        private final InputStream entrada;
+        private final OutputStream saida;
+        private final ReentrantLock escrita = new ReentrantLock();
+        private final Set<String> canais = ConcurrentHashMap.newKeySet();
+        private final Set<String> padroes = ConcurrentHashMap.newKeySet();
+        private final Map<String, Pattern> padroesCompilados = new ConcurrentHashMap<>();
+
+        Conexao(Socket socket) throws IOException {
+            this.socket = socket;
+            this.entrada = new BufferedInputStream(socket.getInputStream());
+            this.saida = new BufferedOutputStream(socket.getOutputStream());
+        }
+
+        /**
+         * Read one command, as a RESP array of bulk strings or as an inline command
+         *
+         * @return Command and arguments, or null at the end of the stream
+         */
+        List<byte[]> lerComando() throws IOException {
+            String linha = lerLinha();
+            if (linha == null) {
+                return null;
+            }
+            if (!linha.startsWith("*")) {
+                return Arrays.stream(linha.trim().split("\\s+"))
+                        .filter(parte -> !parte.isEmpty())
+                        .map(RedisSimulado::bytes)
+                        .toList();
+            }
+            int tamanho = Integer.parseInt(linha.substring(1));
+            List<byte[]> partes = new ArrayList<>(Math.max(tamanho, 0));
+            for (int i = 0; i < tamanho; i++) {
+                String cabecalho = lerLinha();
+                if (cabecalho == null || !cabecalho.startsWith("$")) {
+                    throw new IOException("Comando RESP inválido: " + cabecalho);
+                }
+                int bytes = Integer.parseInt(cabecalho.substring(1));
+                byte[] parte = entrada.readNBytes(bytes);
+                if (parte.length < bytes || entrada.readNBytes(2).length < 2) {
+                    throw new EOFException();
+                }
+                partes.add(parte);
+            }
+            return partes;
+        }
+
+        private String lerLinha() throws IOException {
+            ByteArrayOutputStream linha = new ByteArrayOutputStream();
+            int b;
+            while ((b = entrada.read()) != -1) {
+                if (b == '\n') {
+                    byte[] conteudo = linha.toByteArray();
+                    int fim = conteudo.length > 0 && conteudo[conteudo.length - 1] == '\r' ? conteudo.length - 1 : conteudo.length;
+                    return new String(conteudo, 0, fim, StandardCharsets.ISO_8859_1);
+                }
+                linha.write(b);
+            }
+            return null;
+        }
+
+        void escrever(Resposta resposta) throws IOException {
+            escrita.lock();
+            try {
+                saida.write(resposta.bytes());
+                saida.flush();
+            } finally {
+                escrita.unlock();
+            }
+        }
+
+        boolean assinando() {
+            return assinaturas() > 0;
+        }
+
+        int assinaturas() {
+            return canais.size() + padroes.size();
+        }
+
+        void assinar(String canal, boolean padrao) {
+            if (padrao) {
+                padroes.add(canal);
+                padroesCompilados.computeIfAbsent(canal, RedisSimulado::glob);
+            } else {
+                canais.add(canal);
+            }
+        }
+
+        void cancelar(String canal, boolean padrao) {
+            if (padrao) {
+                padroes.remove(canal);
+                padroesCompilados.remove(canal);
+            } else {
+                canais.remove(canal);
+            }
+        }
+
+        List<String> assinados(boolean padrao) {
+            return List.copyOf(padrao ? padroes : canais);
+        }
+
+        /**
+         * Send a published message if this connection subscribed to its channel
+         *
+         * @return Number of messages sent, one per matching subscription
+         */
+        int entregar(String canal, byte[] mensagem) {
+            int entregues = 0;
+            try {
+                if (canais.contains(canal)) {
+                    escrever(new Resposta().inicioArray(3).bulk(bytes("message")).bulk(bytes(canal)).bulk(mensagem));
+                    entregues++;
+                }
+                for (String padrao : padroes) {
+                    Pattern regex = padroesCompilados.get(padrao);
+                    if (regex != null && regex.matcher(canal).matches()) {
+                        escrever(new Resposta().inicioArray(4).bulk(bytes("pmessage")).bulk(bytes(padrao))
+                                .bulk(bytes(canal)).bulk(mensagem));
+                        entregues++;
+                    }
+                }
+            } catch (IOException e) {
+                fechar();
+            }
+            return entregues;
+        }
+
+        void fechar() {
+            try {
+                socket.close();
+            } catch (IOException e) {
+                // Already closed
+            }
+        }
+    }
+}
@@ -0,0 +1,409 @@
+package com.cooperativa.sistema.votacao.simulador;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Stand-in for the remote CPF validator, for load and integration tests
+ * Serves the validator API (GET {url}?cpf= and POST {url}/lote) with a configurable latency
+ * distribution, error rate, slow start after boot and a stall mode in which requests hang
+ * until released. CPFs with invalid check digits answer 404; the other ones are unable to vote
+ * at the configured rate, always with the same answer for the same CPF.
+ * Depends on the JDK only, so it also runs on its own as a single source file:
+ * <pre>
+ * java src/test/java/com/cooperativa/sistema/votacao/simulador/ValidadorCPFSimulado.java \
+ *     porta=9090 latencia=cauda-longa mediana-ms=20 p99-ms=800 taxa-erros=0.01
+ * </pre>
+ * While running it is reconfigured with POST /admin?chave=valor..., POST /admin/travar and
+ * POST /admin/destravar, using the same keys as the command line.
+ */
+public class ValidadorCPFSimulado implements AutoCloseable {
+
+    public static final String CAMINHO = "/api/v1/cpf-validator";
+
+    private static final Pattern CPF_JSON = Pattern.compile("\"(\\d{11})\"");
+    private static final long LIMITE_TRAVAMENTO_MS = TimeUnit.MINUTES.toMillis(5);
+
+    private final HttpServer servidor;
+    private final ExecutorService executor;
+    private final AtomicLong chamadas = new AtomicLong();
+    private final AtomicLong chamadasLote = new AtomicLong();
+
+    private volatile Configuracao configuracao;
+    private volatile long inicioNanos = System.nanoTime();
+    private volatile CountDownLatch trava;
+
+    private ValidadorCPFSimulado(HttpServer servidor, Configuracao configuracao) {
+        this.servidor = servidor;
+        this.configuracao = configuracao;
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+        servidor.setExecutor(executor);
+        servidor.createContext(CAMINHO, this::validar);
+        servidor.createContext("/admin", this::administrar);
+    }
+
+    /**
+     * Start the stand-in validator
+     *
+     * @param porta Port to listen on, 0 for any free port
+     * @param configuracao Initial behaviour
+     * @return Running validator
+     */
+    public static ValidadorCPFSimulado iniciar(int porta, Configuracao configuracao) {
+        try {
+            HttpServer servidor = HttpServer.create(new InetSocketAddress("localhost", porta), 0);
+            ValidadorCPFSimulado simulado = new ValidadorCPFSimulado(servidor, configuracao);
+            servidor.start();
+            return simulado;
+        } catch (IOException e) {
+            throw new IllegalStateException("Não foi possível iniciar o validador de CPF simulado", e);
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        Map<String, String> parametros = new HashMap<>();
+        for (String arg : args) {
+            String[] chaveValor = arg.replaceFirst("^--", "").split("=", 2);
+            parametros.put(chaveValor[0], chaveValor.length > 1 ? chaveValor[1] : "true");
+        }
+        int porta = Integer.parseInt(parametros.getOrDefault("porta", "9090"));
+        ValidadorCPFSimulado simulado = iniciar(porta, Configuracao.padrao().com(parametros));
+        System.out.println("Validador de CPF simulado em " + simulado.getUrl() + " com " + simulado.configuracao);
+        Thread.currentThread().join();
+    }
+
+    /**
+     * URL to use as cpf.validator.url
+     */
+    public String getUrl() {
+        return "http://localhost:" + servidor.getAddress().getPort() + CAMINHO;
+    }
+
+    /**
+     * Replace the behaviour; requests already being answered keep the previous one
+     */
+    public void configurar(Configuracao configuracao) {
+        this.configuracao = configuracao;
+    }
+
+    public Configuracao getConfiguracao() {
+        return configuracao;
+    }
+
+    /**
+     * Make new requests hang until destravar is called
+     */
+    public void travar() {
+        if (trava == null) {
+            trava = new CountDownLatch(1);
+        }
+    }
+
+    /**
+     * Release the hanging requests and answer new ones normally
+     */
+    public void destravar() {
+        CountDownLatch atual = trava;
+        trava = null;
+        if (atual != null) {
+            atual.countDown();
+        }
+    }
+
+    /**
+     * Start the slow-start period again, as if the validator had just been restarted
+     */
+    public void reiniciar() {
+        inicioNanos = System.nanoTime();
+    }
+
+    /**
+     * Requests received on GET {url}?cpf=
+     */
+    public long getChamadas() {
+        return chamadas.get();
+    }
+
+    /**
+     * Requests received on POST {url}/lote
+     */
+    public long getChamadasLote() {
+        return chamadasLote.get();
+    }
+
+    @Override
+    public void close() {
+        destravar();
+        servidor.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void validar(HttpExchange troca) throws IOException {
+        try {
+            boolean lote = troca.getRequestURI().getPath().endsWith("/lote");
+            (lote ? chamadasLote : chamadas).incrementAndGet();
+            Configuracao atual = configuracao;
+            simularDemora(atual);
+
+            if (ThreadLocalRandom.current().nextDouble() < atual.taxaErros()) {
+                responder(troca, 503, "{\"erro\":\"Validador indisponível\"}");
+            } else if (lote) {
+                responderLote(troca, atual);
+            } else {
+                responderIndividual(troca, atual);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            troca.close();
+        }
+    }
+
+    private void responderIndividual(HttpExchange troca, Configuracao atual) throws IOException {
+        String cpf = parametros(troca.getRequestURI().getRawQuery()).getOrDefault("cpf", "");
+        if (!isCpfValido(cpf)) {
+            responder(troca, 404, "{\"erro\":\"CPF inválido\"}");
+            return;
+        }
+        responder(troca, 200, "{\"status\":\"" + status(cpf, atual) + "\"}");
+    }
+
+    private void responderLote(HttpExchange troca, Configuracao atual) throws IOException {
+        String corpo;
+        try (InputStream entrada = troca.getRequestBody()) {
+            corpo = new String(entrada.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        List<String> resultados = new ArrayList<>();
+        Matcher cpfs = CPF_JSON.matcher(corpo);
+        while (cpfs.find()) {
+            String cpf = cpfs.group(1);
+            resultados.add(isCpfValido(cpf)
+                    ? "{\"cpf\":\"" + cpf + "\",\"valido\":true,\"status\":\"" + status(cpf, atual) + "\"}"
+                    : "{\"cpf\":\"" + cpf + "\",\"valido\":false}");
+        }
+        responder(troca, 200, "{\"resultados\":[" + String.join(",", resultados) + "]}");
+    }
+
+    private void administrar(HttpExchange troca) throws IOException {
+        try {
+            String caminho = troca.getRequestURI().getPath();
+            if (caminho.endsWith("/travar")) {
+                travar();
+            } else if (caminho.endsWith("/destravar")) {
+                destravar();
+            } else if (caminho.endsWith("/reiniciar")) {
+                reiniciar();
+            } else {
+                configurar(configuracao.com(parametros(troca.getRequestURI().getRawQuery())));
+            }
+            responder(troca, 200, "{\"configuracao\":\"" + configuracao + "\",\"travado\":" + (trava != null) + "}");
+        } catch (IllegalArgumentException e) {
+            responder(troca, 400, "{\"erro\":\"" + e.getMessage() + "\"}");
+        } finally {
+            troca.close();
+        }
+    }
+
+    private void simularDemora(Configuracao atual) throws InterruptedException {
+        CountDownLatch atualTrava = trava;
+        if (atualTrava != null) {
+            atualTrava.await(LIMITE_TRAVAMENTO_MS, TimeUnit.MILLISECONDS);
+        }
+
+        double fator = 1;
+        long decorridoMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicioNanos);
+        if (decorridoMs < atual.aquecimentoMs()) {
+            // Linear from fatorAquecimento right after the start down to 1 at the end of the period
+            fator += (atual.fatorAquecimento() - 1) * (1 - (double) decorridoMs / atual.aquecimentoMs());
+        }
+        long demoraMs = Math.round(atual.latencia().amostrarMs(ThreadLocalRandom.current()) * fator);
+        if (demoraMs > 0) {
+            Thread.sleep(demoraMs);
+        }
+    }
+
+    private static String status(String cpf, Configuracao atual) {
+        // The same CPF always gets the same answer, as from a real registry
+        double sorteio = new Random(Long.parseLong(cpf)).nextDouble();
+        return sorteio < atual.taxaInaptos() ? "UNABLE_TO_VOTE" : "ABLE_TO_VOTE";
+    }
+
+    private static void responder(HttpExchange troca, int status, String corpo) throws IOException {
+        byte[] bytes = corpo.getBytes(StandardCharsets.UTF_8);
+        troca.getResponseHeaders().add("Content-Type", "application/json");
+        troca.sendResponseHeaders(status, bytes.length);
+        troca.getResponseBody().write(bytes);
+    }
+
+    private static Map<String, String> parametros(String query) {
+        Map<String, String> parametros = new HashMap<>();
+        if (query == null || query.isEmpty()) {
+            return parametros;
+        }
+        for (String par : query.split("&")) {
+            String[] chaveValor = par.split("=", 2);
+            parametros.put(URLDecoder.decode(chaveValor[0], StandardCharsets.UTF_8),
+                    chaveValor.length > 1 ? URLDecoder.decode(chaveValor[1], StandardCharsets.UTF_8) : "");
+        }
+        return parametros;
+    }
+
+    /**
+     * Check digits of a CPF, same rules as the application's local validation
+     */
+    static boolean isCpfValido(String cpf) {
+        if (cpf == null || !cpf.matches("\\d{11}") || cpf.chars().distinct().count() == 1) {
+            return false;
+        }
+        for (int digito = 9; digito <= 10; digito++) {
+            int soma = 0;
+            for (int i = 0; i < digito; i++) {
+                soma += (cpf.charAt(i) - '0') * (digito + 1 - i);
+            }
+            int esperado = (soma * 10) % 11 % 10;
+            if (cpf.charAt(digito) - '0' != esperado) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Distribution of the time the validator takes to answer
+     */
+    public sealed interface Latencia {
+
+        long amostrarMs(Random random);
+
+        /**
+         * Always the same latency
+         */
+        record Fixa(long ms) implements Latencia {
+            @Override
+            public long amostrarMs(Random random) {
+                return ms;
+            }
+        }
+
+        /**
+         * Normally distributed latency, truncated at zero
+         */
+        record Normal(long mediaMs, long desvioMs) implements Latencia {
+            @Override
+            public long amostrarMs(Random random) {
+                return Math.max(0, Math.round(mediaMs + desvioMs * random.nextGaussian()));
+            }
+        }
+
+        /**
+         * Log-normal latency given its median and p99, for a long tail of slow answers
+         */
+        record CaudaLonga(long medianaMs, long p99Ms) implements Latencia {
+            // z-score of the 99th percentile of the standard normal distribution
+            private static final double Z_P99 = 2.326;
+
+            @Override
+            public long amostrarMs(Random random) {
+                double sigma = Math.log((double) p99Ms / medianaMs) / Z_P99;
+                return Math.round(medianaMs * Math.exp(sigma * random.nextGaussian()));
+            }
+        }
+    }
+
+    /**
+     * Behaviour of the stand-in validator
+     *
+     * @param latencia Latency of each answer
+     * @param taxaErros Fraction of the requests answered with 503
+     * @param taxaInaptos Fraction of the valid CPFs unable to vote
+     * @param aquecimentoMs Slow-start period after the start, 0 for none
+     * @param fatorAquecimento Latency multiplier right after the start, decreasing to 1 over the period
+     */
+    public record Configuracao(Latencia latencia, double taxaErros, double taxaInaptos,
+                               long aquecimentoMs, double fatorAquecimento) {
+
+        /**
+         * Fast and healthy: 10 ms, no errors, no slow start and 20% of associates unable to vote
+         */
+        public static Configuracao padrao() {
+            return new Configuracao(new Latencia.Fixa(10), 0, 0.2, 0, 1);
+        }
+
+        public Configuracao comLatencia(Latencia latencia) {
+            return new Configuracao(latencia, taxaErros, taxaInaptos, aquecimentoMs, fatorAquecimento);
+        }
+
+        public Configuracao comTaxaErros(double taxaErros) {
+            return new Configuracao(latencia, taxaErros, taxaInaptos, aquecimentoMs, fatorAquecimento);
+        }
+
+        public Configuracao comTaxaInaptos(double taxaInaptos) {
+            return new Configuracao(latencia, taxaErros, taxaInaptos, aquecimentoMs, fatorAquecimento);
+        }
+
+        public Configuracao comAquecimento(long aquecimentoMs, double fatorAquecimento) {
+            return new Configuracao(latencia, taxaErros, taxaInaptos, aquecimentoMs, fatorAquecimento);
+        }
+
+        /**
+         * Apply textual parameters, as given on the command line or to /admin
+         * Keys: latencia (fixa, normal, cauda-longa), latencia-ms, media-ms, desvio-ms, mediana-ms,
+         * p99-ms, taxa-erros, taxa-inaptos, aquecimento-ms, fator-aquecimento.
+         *
+         * @throws IllegalArgumentException if a value cannot be parsed
+         */
+        public Configuracao com(Map<String, String> parametros) {
+            try {
+                Configuracao resultado = this;
+                String tipo = parametros.get("latencia");
+                if (tipo != null) {
+                    resultado = resultado.comLatencia(switch (tipo) {
+                        case "fixa" -> new Latencia.Fixa(longo(parametros, "latencia-ms", 10));
+                        case "normal" -> new Latencia.Normal(
+                                longo(parametros, "media-ms", 50), longo(parametros, "desvio-ms", 10));
+                        case "cauda-longa" -> new Latencia.CaudaLonga(
+                                longo(parametros, "mediana-ms", 20), longo(parametros, "p99-ms", 500));
+                        default -> throw new IllegalArgumentException("Latência desconhecida: " + tipo);
+                    });
+                }
+                if (parametros.containsKey("taxa-erros")) {
+                    resultado = resultado.comTaxaErros(Double.parseDouble(parametros.get("taxa-erros")));
+                }
+                if (parametros.containsKey("taxa-inaptos")) {
+                    resultado = resultado.comTaxaInaptos(Double.parseDouble(parametros.get("taxa-inaptos")));
+                }
+                if (parametros.containsKey("aquecimento-ms")) {
+                    resultado = resultado.comAquecimento(longo(parametros, "aquecimento-ms", 0),
+                            Double.parseDouble(parametros.getOrDefault("fator-aquecimento", "10")));
+                }
+                return resultado;
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Valor inválido: " + e.getMessage(), e);
+            }
+        }
+
+        private static long longo(Map<String, String> parametros, String chave, long padrao) {
+            String valor = parametros.get(chave);
+            return valor == null ? padrao : Long.parseLong(valor);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.Context;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class RealinharSequenciasMigracaoTest {
+
+    private Connection connection;
+
+    private Context context;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:realinhar-sequencias");
+        try (Statement statement = connection.createStatement()) {
+            for (String tabela : new String[] {"pauta", "sessao_votacao", "voto", "resultado_votacao"}) {
+                statement.execute("CREATE TABLE " + tabela + " (id BIGINT PRIMARY KEY)");
+                statement.execute("CREATE SEQUENCE " + tabela + "_seq START WITH 1 INCREMENT BY 50");
+            }
+        }
+        context = mock(Context.class);
+        when(context.getConnection()).thenReturn(connection);
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    private long proximoValor(String sequencia) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultado = statement.executeQuery("SELECT NEXT VALUE FOR " + sequencia)) {
+            resultado.next();
+            return resultado.getLong(1);
+        }
+    }
+
+    @Test
+    @DisplayName("Deve reposicionar a sequência após o maior id da tabela")
+    void realinharSequenciaAtrasada() throws Exception {
+        // Arrange: rows left by the IDENTITY columns
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("INSERT INTO pauta (id) VALUES (1), (2), (120)");
+        }
+
+        // Act
+        new V5__realinhar_sequencias().migrate(context);
+
+        // Assert: the next pooled block starts after id 120
+        assertEquals(170, proximoValor("pauta_seq"));
+    }
+
+    @Test
+    @DisplayName("Não deve alterar sequências de tabelas vazias")
+    void manterSequenciaTabelaVazia() throws Exception {
+        // Act
+        new V5__realinhar_sequencias().migrate(context);
+
+        // Assert
+        assertEquals(1, proximoValor("voto_seq"));
+    }
+
+    @Test
+    @DisplayName("Não deve alterar sequências que já estão à frente dos dados")
+    void manterSequenciaAdiantada() throws Exception {
+        // Arrange: ids handed out by the sequence itself
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("ALTER SEQUENCE sessao_votacao_seq RESTART WITH 101");
+            statement.execute("INSERT INTO sessao_votacao (id) VALUES (10), (20)");
+        }
+
+        // Act
+        new V5__realinhar_sequencias().migrate(context);
+
+        // Assert: only the value taken to inspect the sequence is skipped
+        assertEquals(151, proximoValor("sessao_votacao_seq"));
+    }
+}